@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Time-to-first-successful-upload for each startup variant.
+#
+#   mvn -Paot package -DskipTests          # jar with AOT-generated initializers
+#   scripts/measure-startup.sh [runs] [variant...]
+#
+# Variants: jar, aot, cds, aot-cds, native (needs target/univc from mvn -Pnative native:compile).
+# The clock starts right before the process is launched and stops at the first
+# HTTP 200 from /api/v1/credentials/upload.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+shift || true
+VARIANTS=${*:-jar aot cds aot-cds native}
+PORT=${PORT:-18080}
+JAVA=${JAVA:-java}
+JAR=$(ls target/UniVC-*.jar | grep -v original | head -n 1)
+WORK=target/startup
+UPLOAD_URL="http://localhost:${PORT}/api/api/v1/credentials/upload"
+
+mkdir -p "$WORK"
+printf '%s' '{"@context":["https://www.w3.org/ns/credentials/v2"],"type":["VerifiableCredential"],"issuer":"did:example:issuer","credentialSubject":{"id":"did:example:subject"}}' > "$WORK/probe.json"
+
+if [ ! -d "$WORK/app" ]; then
+    "$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+fi
+APP_JAR=$(ls "$WORK"/app/*.jar | head -n 1)
+
+train_cds() {
+    local archive=$1; shift
+    if [ ! -f "$archive" ]; then
+        "$JAVA" -XX:ArchiveClassesAtExit="$archive" -Dspring.context.exit=onRefresh "$@" \
+            -jar "$APP_JAR" --server.port="$PORT" > "$WORK/train.log" 2>&1
+    fi
+}
+
+command_for() {
+    case $1 in
+        jar)     echo "$JAVA -jar $APP_JAR" ;;
+        aot)     echo "$JAVA -Dspring.aot.enabled=true -jar $APP_JAR" ;;
+        cds)     train_cds "$WORK/app.jsa"
+                 echo "$JAVA -XX:SharedArchiveFile=$WORK/app.jsa -jar $APP_JAR" ;;
+        aot-cds) train_cds "$WORK/app-aot.jsa" -Dspring.aot.enabled=true
+                 echo "$JAVA -XX:SharedArchiveFile=$WORK/app-aot.jsa -Dspring.aot.enabled=true -jar $APP_JAR" ;;
+        native)  [ -x target/univc ] && echo "target/univc" ;;
+    esac
+}
+
+now_ms() { date +%s%3N; }
+
+printf '%-8s %s\n' variant "time-to-first-upload (ms)"
+for variant in $VARIANTS; do
+    cmd=$(command_for "$variant" || true)
+    if [ -z "$cmd" ]; then
+        printf '%-8s skipped (not built)\n' "$variant"
+        continue
+    fi
+    results=()
+    for _ in $(seq "$RUNS"); do
+        start=$(now_ms)
+        $cmd --server.port="$PORT" --logging.level.root=WARN > "$WORK/$variant.log" 2>&1 &
+        pid=$!
+        until curl -sf -o /dev/null -F "file=@$WORK/probe.json" "$UPLOAD_URL"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$variant failed to start, see $WORK/$variant.log" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        results+=($(( $(now_ms) - start )))
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+    done
+    printf '%-8s %s\n' "$variant" "${results[*]}"
+done
@@ -0,0 +1,240 @@
+package com.example.UniVC.grpc;
+
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.grpc.v1.CredentialIngestionGrpc;
+import com.example.UniVC.grpc.v1.CredentialPayload;
+import com.example.UniVC.grpc.v1.DetectionReply;
+import com.example.UniVC.grpc.v1.FileStructure;
+import com.example.UniVC.grpc.v1.IssuerChain;
+import com.example.UniVC.grpc.v1.MsoDigestElement;
+import com.example.UniVC.grpc.v1.MsoDigests;
+import com.example.UniVC.grpc.v1.ProcessReply;
+import com.example.UniVC.service.FileProcessingService;
+import com.example.UniVC.service.FormatDetectionService;
+import com.example.UniVC.service.mdoc.MsoDigestReport;
+import com.example.UniVC.service.pki.ChainValidation;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Arrays;
+import java.util.function.Function;
+
+@Component
+public class CredentialIngestionGrpcService extends CredentialIngestionGrpc.CredentialIngestionImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialIngestionGrpcService.class);
+    private static final Context.Key<String> CLIENT = Context.key("univc-client");
+
+    /**
+     * Makes the peer address available to the handlers, which record it in the audit log.
+     */
+    static final ServerInterceptor CLIENT_ADDRESS = new ServerInterceptor() {
+        @Override
+        public <Q, A> ServerCall.Listener<Q> interceptCall(ServerCall<Q, A> call, Metadata headers,
+                                                           ServerCallHandler<Q, A> next) {
+            SocketAddress peer = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+            String client = peer instanceof InetSocketAddress address ? address.getHostString()
+                    : peer != null ? peer.toString() : null;
+            return Contexts.interceptCall(Context.current().withValue(CLIENT, client), call, headers, next);
+        }
+    };
+
+    private final FormatDetectionService formatDetectionService;
+    private final FileProcessingService fileProcessingService;
+
+    @Autowired
+    public CredentialIngestionGrpcService(FormatDetectionService formatDetectionService,
+                                          FileProcessingService fileProcessingService) {
+        this.formatDetectionService = formatDetectionService;
+        this.fileProcessingService = fileProcessingService;
+    }
+
+    @Override
+    public void detect(CredentialPayload request, StreamObserver<DetectionReply> responseObserver) {
+        if (request.getContent().isEmpty()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Content is empty").asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(detectOne(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void process(CredentialPayload request, StreamObserver<ProcessReply> responseObserver) {
+        if (request.getContent().isEmpty()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("Content is empty").asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(processOne(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<CredentialPayload> detectStream(StreamObserver<DetectionReply> responseObserver) {
+        return new OrderedReplyObserver<>(responseObserver, this::detectOne);
+    }
+
+    @Override
+    public StreamObserver<CredentialPayload> processStream(StreamObserver<ProcessReply> responseObserver) {
+        return new OrderedReplyObserver<>(responseObserver, this::processOne);
+    }
+
+    private DetectionReply detectOne(CredentialPayload payload) {
+        DetectionReply.Builder reply = DetectionReply.newBuilder().setRequestId(payload.getRequestId());
+        try {
+            DetectionResult result = formatDetectionService.detectFormat(payload.getContent().toStringUtf8());
+            reply.setFormat(result.getFormat())
+                    .setConfidence((float) result.getConfidence())
+                    .putAllFormatInfo(result.getFormatSpecificInfo());
+            if (result.getVersion() != null) {
+                reply.setVersion(result.getVersion());
+            }
+            if (payload.getIncludeMessages()) {
+                reply.addAllMessages(result.getMessages());
+            }
+        } catch (Exception e) {
+            logger.error("Detection failed for request {}: {}", payload.getRequestId(), e.getMessage());
+            reply.setError("Detection failed: " + e.getMessage());
+        }
+        return reply.build();
+    }
+
+    private ProcessReply processOne(CredentialPayload payload) {
+        ProcessReply.Builder reply = ProcessReply.newBuilder().setRequestId(payload.getRequestId());
+        try {
+            FileInfoResponse fileInfo = fileProcessingService.processContent(payload.getFileName(),
+                    payload.getContentType(), payload.getContent().toByteArray(), null, CLIENT.get());
+
+            reply.setFileId(fileInfo.getFileId())
+                    .setFileSize(fileInfo.getFileSize())
+                    .setDetectedFormat(fileInfo.getDetectedFormat())
+                    .setConfidence((float) fileInfo.getFormatConfidence())
+                    .setValid("VALID".equals(fileInfo.getStatus()))
+                    .setStructure(toProto(fileInfo.getStructure()));
+            if (payload.getIncludeMessages() && fileInfo.getValidationMessages() != null) {
+                reply.addAllValidationMessages(Arrays.asList(fileInfo.getValidationMessages()));
+            }
+            if (fileInfo.getMsoDigests() != null) {
+                fileInfo.getMsoDigests().forEach(report -> reply.addMsoDigests(toProto(report)));
+            }
+            if (fileInfo.getIssuerChains() != null) {
+                fileInfo.getIssuerChains().forEach(chain -> reply.addIssuerChains(toProto(chain)));
+            }
+        } catch (Exception e) {
+            logger.error("Processing failed for request {}: {}", payload.getRequestId(), e.getMessage());
+            reply.setError("Failed to process file: " + e.getMessage());
+        }
+        return reply.build();
+    }
+
+    private static MsoDigests toProto(MsoDigestReport report) {
+        MsoDigests.Builder builder = MsoDigests.newBuilder()
+                .setVerified(report.verified())
+                .setValid(report.valid())
+                .setTotal(report.total());
+        if (report.docType() != null) {
+            builder.setDocType(report.docType());
+        }
+        if (report.digestAlgorithm() != null) {
+            builder.setDigestAlgorithm(report.digestAlgorithm());
+        }
+        if (report.error() != null) {
+            builder.setError(report.error());
+        }
+        for (MsoDigestReport.Element element : report.elements()) {
+            MsoDigestElement.Builder item = MsoDigestElement.newBuilder().setStatus(element.status().name());
+            if (element.namespace() != null) {
+                item.setNamespace(element.namespace());
+            }
+            if (element.digestId() != null) {
+                item.setDigestId(element.digestId());
+            }
+            if (element.elementIdentifier() != null) {
+                item.setElementIdentifier(element.elementIdentifier());
+            }
+            builder.addElements(item);
+        }
+        return builder.build();
+    }
+
+    private static IssuerChain toProto(ChainValidation chain) {
+        IssuerChain.Builder builder = IssuerChain.newBuilder()
+                .setValid(chain.valid())
+                .setRevocationChecked(chain.revocationChecked())
+                .setSignatureVerified(chain.signatureVerified());
+        if (chain.subject() != null) {
+            builder.setSubject(chain.subject());
+        }
+        if (chain.trustAnchor() != null) {
+            builder.setTrustAnchor(chain.trustAnchor());
+        }
+        if (chain.error() != null) {
+            builder.setError(chain.error());
+        }
+        if (chain.signatureError() != null) {
+            builder.setSignatureError(chain.signatureError());
+        }
+        return builder.build();
+    }
+
+    private FileStructure toProto(FileInfoResponse.FileStructure structure) {
+        FileStructure.Builder builder = FileStructure.newBuilder()
+                .setTotalFields(structure.getTotalFields())
+                .setValid(structure.isValid());
+        if (structure.getRootType() != null) {
+            builder.setRootType(structure.getRootType());
+        }
+        if (structure.getEncoding() != null) {
+            builder.setEncoding(structure.getEncoding());
+        }
+        if (structure.getTopLevelKeys() != null) {
+            builder.addAllTopLevelKeys(Arrays.asList(structure.getTopLevelKeys()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Answers every inbound payload on the calling transport thread so replies keep
+     * the request order; a failing payload yields an error reply instead of tearing
+     * down the whole stream.
+     */
+    private static class OrderedReplyObserver<R> implements StreamObserver<CredentialPayload> {
+
+        private final StreamObserver<R> responseObserver;
+        private final Function<CredentialPayload, R> handler;
+
+        OrderedReplyObserver(StreamObserver<R> responseObserver, Function<CredentialPayload, R> handler) {
+            this.responseObserver = responseObserver;
+            this.handler = handler;
+        }
+
+        @Override
+        public void onNext(CredentialPayload payload) {
+            responseObserver.onNext(handler.apply(payload));
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.warn("Client cancelled ingestion stream: {}", t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            responseObserver.onCompleted();
+        }
+    }
+}
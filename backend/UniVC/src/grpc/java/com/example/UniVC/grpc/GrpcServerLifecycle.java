@@ -0,0 +1,88 @@
+package com.example.UniVC.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC server next to the embedded servlet container and shares the
+ * application's service beans with it.
+ */
+@Component
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final CredentialIngestionGrpcService ingestionService;
+
+    @Value("${app.grpc.port:9090}")
+    private int port;
+
+    @Value("${app.grpc.max-message-size:10MB}")
+    private DataSize maxMessageSize;
+
+    @Value("${app.grpc.shutdown-grace-seconds:10}")
+    private long shutdownGraceSeconds;
+
+    private volatile Server server;
+
+    public GrpcServerLifecycle(CredentialIngestionGrpcService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .maxInboundMessageSize((int) maxMessageSize.toBytes())
+                    .addService(ServerInterceptors.intercept(ingestionService,
+                            CredentialIngestionGrpcService.CLIENT_ADDRESS))
+                    .build()
+                    .start();
+            logger.info("gRPC ingestion server started on port {}", server.getPort());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + port, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Port the server is bound to; differs from the configured one when it was 0.
+     */
+    public int getPort() {
+        Server current = server;
+        return current != null ? current.getPort() : -1;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.UniVC.grpc;
+
+import com.example.UniVC.UniVcApplication;
+import com.example.UniVC.grpc.v1.CredentialIngestionGrpc;
+import com.example.UniVC.grpc.v1.CredentialPayload;
+import com.example.UniVC.grpc.v1.ProcessReply;
+import com.google.protobuf.ByteString;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local comparison of the gRPC ingestion API against {@code POST /api/v1/credentials/upload}
+ * for small SD-JWTs. Starts the application on random ports and reports throughput and
+ * latency percentiles for REST, unary gRPC and bidirectional-streaming gRPC.
+ *
+ * <pre>
+ * mvn -Pgrpc test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.UniVC.grpc.GrpcVsRestBenchmark -Dexec.args="8 20000"
+ * </pre>
+ *
+ * Arguments: concurrency (default 8) and requests per transport (default 20000).
+ */
+public class GrpcVsRestBenchmark {
+
+    /** Replies a single stream may have outstanding before the sender waits. */
+    private static final int STREAM_WINDOW = 32;
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        ConfigurableApplicationContext context = SpringApplication.run(UniVcApplication.class,
+                "--server.port=0", "--app.grpc.port=0", "--logging.level.root=WARN");
+        try {
+            int httpPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+            int grpcPort = context.getBean(GrpcServerLifecycle.class).getPort();
+            byte[] credential = sampleSdJwt();
+
+            ManagedChannel channel = NettyChannelBuilder.forAddress("localhost", grpcPort).usePlaintext().build();
+            try {
+                RestTransport rest = new RestTransport(httpPort, credential);
+                UnaryGrpcTransport unary = new UnaryGrpcTransport(channel, credential);
+
+                // Warm up both paths before measuring
+                run("warm-up", concurrency, requests / 4, rest, false);
+                run("warm-up", concurrency, requests / 4, unary, false);
+
+                run("REST multipart", concurrency, requests, rest, true);
+                run("gRPC unary", concurrency, requests, unary, true);
+                runStreaming(channel, credential, concurrency, requests);
+            } finally {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private interface Transport {
+        void call() throws Exception;
+    }
+
+    private static void run(String label, int concurrency, int requests, Transport transport, boolean report)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        int perWorker = requests / concurrency;
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[perWorker];
+                for (int i = 0; i < perWorker; i++) {
+                    long t0 = System.nanoTime();
+                    transport.call();
+                    latencies[i] = System.nanoTime() - t0;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[perWorker * concurrency];
+        int pos = 0;
+        for (Future<long[]> future : futures) {
+            long[] part = future.get();
+            System.arraycopy(part, 0, all, pos, part.length);
+            pos += part.length;
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        if (report) {
+            print(label, all, elapsed);
+        }
+    }
+
+    private static void runStreaming(ManagedChannel channel, byte[] credential, int concurrency, int requests)
+            throws Exception {
+        CredentialIngestionGrpc.CredentialIngestionStub stub = CredentialIngestionGrpc.newStub(channel);
+        int perStream = requests / concurrency;
+        long[] latencies = new long[perStream * concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService senders = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+
+        for (int s = 0; s < concurrency; s++) {
+            int offset = s * perStream;
+            long[] sentAt = new long[perStream];
+            Semaphore window = new Semaphore(STREAM_WINDOW);
+            StreamObserver<CredentialPayload> requestObserver = stub.processStream(new StreamObserver<>() {
+                private int received;
+
+                @Override
+                public void onNext(ProcessReply reply) {
+                    latencies[offset + received] = System.nanoTime() - sentAt[received];
+                    received++;
+                    window.release();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onCompleted() {
+                    done.countDown();
+                }
+            });
+            senders.submit(() -> {
+                for (int i = 0; i < perStream; i++) {
+                    window.acquire();
+                    sentAt[i] = System.nanoTime();
+                    requestObserver.onNext(payload(credential, offset + i));
+                }
+                requestObserver.onCompleted();
+                return null;
+            });
+        }
+        done.await();
+        senders.shutdown();
+        print("gRPC bidi stream", latencies, System.nanoTime() - start);
+    }
+
+    private static void print(String label, long[] latencies, long elapsedNanos) {
+        Arrays.sort(latencies);
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%-18s %8d req  %10.0f req/s  p50=%7.3fms  p99=%7.3fms  max=%7.3fms%n",
+                label, latencies.length, latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static CredentialPayload payload(byte[] credential, int id) {
+        return CredentialPayload.newBuilder()
+                .setRequestId(Integer.toString(id))
+                .setFileName("credential.sd-jwt")
+                .setContentType("application/jwt")
+                .setContent(ByteString.copyFrom(credential))
+                .build();
+    }
+
+    private static class UnaryGrpcTransport implements Transport {
+        private final CredentialIngestionGrpc.CredentialIngestionBlockingStub stub;
+        private final CredentialPayload payload;
+
+        UnaryGrpcTransport(ManagedChannel channel, byte[] credential) {
+            this.stub = CredentialIngestionGrpc.newBlockingStub(channel);
+            this.payload = payload(credential, 0);
+        }
+
+        @Override
+        public void call() {
+            stub.process(payload);
+        }
+    }
+
+    private static class RestTransport implements Transport {
+        private static final String BOUNDARY = "----univc-benchmark";
+
+        private final HttpClient client = HttpClient.newHttpClient();
+        private final HttpRequest request;
+
+        RestTransport(int port, byte[] credential) throws Exception {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            body.write(("--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"credential.sd-jwt\"\r\n"
+                    + "Content-Type: application/jwt\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.write(credential);
+            body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+            this.request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/api/v1/credentials/upload"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                    .build();
+        }
+
+        @Override
+        public void call() throws Exception {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Upload failed with HTTP " + response.statusCode());
+            }
+        }
+    }
+
+    private static byte[] sampleSdJwt() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"ES256\",\"typ\":\"vc+sd-jwt\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"iss\":\"https://issuer.example\",\"iat\":1700000000,"
+                + "\"exp\":1900000000,\"vct\":\"https://credentials.example/identity\",\"_sd_alg\":\"sha-256\","
+                + "\"_sd\":[\"09vKrJMOlyTWM0sjpu_pdOBVBQ2M1y3KhpH515nXkpY\",\"2rsjGbaC0ky8mT0pJrPioWTq0_daw1sX76poUlgCwbI\"],"
+                + "\"cnf\":{\"jwk\":{\"kty\":\"EC\",\"crv\":\"P-256\"}}}").getBytes(StandardCharsets.UTF_8));
+        String signature = encoder.encodeToString(new byte[64]);
+        String disclosure = encoder.encodeToString("[\"2GLC42sKQveCfGfryNRN9w\",\"given_name\",\"Erika\"]"
+                .getBytes(StandardCharsets.UTF_8));
+        return (header + "." + payload + "." + signature + "~" + disclosure + "~").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.UniVC.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileUpload;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.UploadContext;
+import org.apache.commons.fileupload.disk.DiskFileItemFactory;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.multipart.support.DefaultMultipartHttpServletRequest;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.util.WebUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The container parses multipart bodies from the raw connection, so it cannot see through
+ * {@link RequestDecompressionFilter}. Compressed multipart requests are parsed here
+ * instead, streaming from the decoded body with the same {@link MultipartConfigElement}
+ * limits and spill-to-disk threshold; everything else goes to the standard resolver.
+ */
+public class DecompressingMultipartResolver implements MultipartResolver {
+
+    // Same order of magnitude as the container's part count limit
+    private static final long MAX_PARTS = 50;
+
+    private final StandardServletMultipartResolver standard = new StandardServletMultipartResolver();
+    private final MultipartConfigElement config;
+
+    public DecompressingMultipartResolver(MultipartConfigElement config) {
+        this.config = config;
+    }
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        return standard.isMultipart(request);
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        RequestDecompressionFilter.DecompressedRequest decompressed =
+                WebUtils.getNativeRequest(request, RequestDecompressionFilter.DecompressedRequest.class);
+        if (decompressed == null) {
+            return standard.resolveMultipart(request);
+        }
+
+        DiskFileItemFactory factory = new DiskFileItemFactory();
+        factory.setSizeThreshold(config.getFileSizeThreshold());
+        if (StringUtils.hasText(config.getLocation())) {
+            factory.setRepository(new File(config.getLocation()));
+        }
+        FileUpload upload = new FileUpload(factory);
+        upload.setSizeMax(config.getMaxRequestSize());
+        upload.setFileSizeMax(config.getMaxFileSize());
+        upload.setFileCountMax(MAX_PARTS);
+        String charset = request.getCharacterEncoding() != null
+                ? request.getCharacterEncoding() : StandardCharsets.UTF_8.name();
+        upload.setHeaderEncoding(charset);
+
+        List<FileItem> items;
+        try {
+            items = upload.parseRequest(new DecodedUploadContext(request, charset));
+        } catch (FileUploadBase.SizeLimitExceededException e) {
+            throw new MaxUploadSizeExceededException(e.getPermittedSize(), e);
+        } catch (FileUploadBase.FileSizeLimitExceededException e) {
+            throw new MaxUploadSizeExceededException(e.getPermittedSize(), e);
+        } catch (FileUploadException e) {
+            throw new MultipartException("Failed to parse " + decompressed.encoding()
+                    + "-encoded multipart request", e);
+        }
+
+        MultiValueMap<String, MultipartFile> files = new LinkedMultiValueMap<>();
+        Map<String, String[]> parameters = new HashMap<>();
+        Map<String, String> contentTypes = new HashMap<>();
+        for (FileItem item : items) {
+            if (item.isFormField()) {
+                String value;
+                try {
+                    value = item.getString(charset);
+                } catch (UnsupportedEncodingException e) {
+                    value = item.getString();
+                }
+                parameters.merge(item.getFieldName(), new String[]{value}, DecompressingMultipartResolver::concat);
+                contentTypes.put(item.getFieldName(), item.getContentType());
+            } else {
+                files.add(item.getFieldName(), new FileItemMultipartFile(item));
+            }
+        }
+        return new DefaultMultipartHttpServletRequest(request, files, parameters, contentTypes);
+    }
+
+    @Override
+    public void cleanupMultipart(MultipartHttpServletRequest request) {
+        if (!(request instanceof DefaultMultipartHttpServletRequest)) {
+            standard.cleanupMultipart(request);
+            return;
+        }
+        for (List<MultipartFile> files : request.getMultiFileMap().values()) {
+            for (MultipartFile file : files) {
+                if (file instanceof FileItemMultipartFile item) {
+                    item.delete();
+                }
+            }
+        }
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] all = new String[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    private record DecodedUploadContext(HttpServletRequest request, String charset) implements UploadContext {
+        @Override
+        public String getCharacterEncoding() {
+            return charset;
+        }
+
+        @Override
+        public String getContentType() {
+            return request.getContentType();
+        }
+
+        @Override
+        @Deprecated
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return request.getInputStream();
+        }
+    }
+
+    private static final class FileItemMultipartFile implements MultipartFile {
+        private final FileItem item;
+
+        private FileItemMultipartFile(FileItem item) {
+            this.item = item;
+        }
+
+        @Override
+        public String getName() {
+            return item.getFieldName();
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return item.getName();
+        }
+
+        @Override
+        public String getContentType() {
+            return item.getContentType();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return item.getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return item.getSize();
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return item.get();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return item.getInputStream();
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            try {
+                item.write(dest);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Could not write " + item.getName() + " to " + dest, e);
+            }
+        }
+
+        private void delete() {
+            item.delete();
+        }
+    }
+}
@@ -2,10 +2,12 @@
 package com.example.UniVC.config;
 
 import jakarta.servlet.MultipartConfigElement;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.servlet.MultipartConfigFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -21,6 +23,13 @@ public class FileUploadConfig implements WebMvcConfigurer {
         return factory.createMultipartConfig();
     }
 
+    // Also applies the limits above to gzip- and zstd-encoded multipart bodies
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MultipartResolver multipartResolver(MultipartConfigElement multipartConfigElement) {
+        return new DecompressingMultipartResolver(multipartConfigElement);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -0,0 +1,17 @@
+package com.example.UniVC.config;
+
+import com.example.UniVC.jfr.InstrumentedJacksonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class JfrConfig {
+
+    // Replaces Boot's default Jackson converter; the auto-configuration backs off
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new InstrumentedJacksonConverter(objectMapper);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.UniVC.config;
+
+import com.example.UniVC.dto.ApiResponse;
+import com.example.UniVC.dto.ArchiveEntryResult;
+import com.example.UniVC.dto.ArchiveSummary;
+import com.example.UniVC.dto.CredentialFormat;
+import com.example.UniVC.dto.CredentialSearchRequest;
+import com.example.UniVC.dto.CredentialSearchResponse;
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.dto.FileUploadRequest;
+import com.example.UniVC.service.detector.CBORDetector;
+import com.example.UniVC.service.detector.GenericJSONDetector;
+import com.example.UniVC.service.detector.rules.DetectionRuleSet;
+import com.example.UniVC.service.mdoc.MsoDigestReport;
+import com.example.UniVC.service.pki.ChainValidation;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection metadata for AOT/native builds. Jackson binds the DTOs reflectively,
+ * and response payloads such as {@code ApiResponse<Map<..>>} are not visible to the
+ * AOT engine from controller signatures alone.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.UniVcRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class UniVcRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] DTO_TYPES = {
+                ApiResponse.class,
+                ArchiveEntryResult.class,
+                ArchiveSummary.class,
+                CredentialFormat.class,
+                CredentialSearchRequest.class,
+                CredentialSearchResponse.class,
+                CredentialSearchResponse.CredentialSummary.class,
+                DetectionResult.class,
+                DetectionResult.DetectionResultBuilder.class,
+                FileInfoResponse.class,
+                FileInfoResponse.FileStructure.class,
+                FileInfoResponse.SizedPath.class,
+                FileInfoResponse.EmbeddedCredential.class,
+                FileUploadRequest.class,
+                // Serialized in DetectionResult details
+                MsoDigestReport.class,
+                MsoDigestReport.Element.class,
+                ChainValidation.class
+        };
+
+        private static final Class<?>[] DETECTOR_TYPES = {
+                CBORDetector.class,
+                GenericJSONDetector.class
+        };
+
+        // Bound from detection-rules.json
+        private static final Class<?>[] RULE_TYPES = {
+                DetectionRuleSet.class,
+                DetectionRuleSet.FormatRules.class,
+                DetectionRuleSet.Rule.class,
+                DetectionRuleSet.Condition.class,
+                DetectionRuleSet.Detail.class,
+                DetectionRuleSet.Floor.class,
+                DetectionRuleSet.OnError.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> type : DTO_TYPES) {
+                hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+            for (Class<?> type : DETECTOR_TYPES) {
+                hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            for (Class<?> type : RULE_TYPES) {
+                hints.reflection().registerType(type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+            hints.resources().registerPattern("detection-rules.json");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.UniVC.config;
+
+import com.example.UniVC.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Accepts {@code Content-Encoding: gzip} and {@code zstd} request bodies. The body is
+ * decoded as it is read, never inflated up front, and downstream code sees a plain
+ * request of unknown length. Consumers bound their own reads on decompressed bytes;
+ * multipart requests go through {@link DecompressingMultipartResolver} so the
+ * {@link FileUploadConfig} limits apply after decompression.
+ *
+ * <p>Response compression is negotiated by the server itself ({@code server.compression.*}).
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    static final String SUPPORTED_ENCODINGS = "gzip, zstd";
+    // 16MB: enough for any standard zstd level, without letting a frame ask for gigabytes of window
+    private static final int ZSTD_WINDOW_LOG_MAX = 24;
+
+    private final ObjectMapper objectMapper;
+
+    public RequestDecompressionFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        String encoding = header == null ? "" : header.trim().toLowerCase(Locale.ROOT);
+        if (encoding.isEmpty() || encoding.equals("identity")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!encoding.equals("gzip") && !encoding.equals("x-gzip") && !encoding.equals("zstd")) {
+            response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+            // RFC 7694: tell the client which codings it may use instead
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, SUPPORTED_ENCODINGS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Unsupported Content-Encoding: " + header));
+            return;
+        }
+        chain.doFilter(new DecompressedRequest(request, encoding), response);
+    }
+
+    /**
+     * The original request with its body decoded and the encoding and length headers hidden.
+     */
+    static final class DecompressedRequest extends HttpServletRequestWrapper {
+        private final String encoding;
+        private ServletInputStream body;
+        private BufferedReader reader;
+
+        DecompressedRequest(HttpServletRequest request, String encoding) {
+            super(request);
+            this.encoding = encoding;
+        }
+
+        String encoding() {
+            return encoding;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (reader != null) {
+                throw new IllegalStateException("getReader() has already been called");
+            }
+            if (body == null) {
+                ServletInputStream raw = super.getInputStream();
+                InputStream decoded = encoding.equals("zstd")
+                        ? new ZstdInputStream(raw).setLongMax(ZSTD_WINDOW_LOG_MAX)
+                        : new GZIPInputStream(raw, 8192);
+                body = new DecodedInputStream(raw, decoded);
+            }
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String charset = getCharacterEncoding();
+                InputStream in = getInputStream();
+                reader = new BufferedReader(new InputStreamReader(in,
+                        charset != null ? Charset.forName(charset) : StandardCharsets.ISO_8859_1));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return hidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !hidden(name))
+                    .toList());
+        }
+
+        private static boolean hidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Blocking-only view of the decoder; readiness is delegated to the raw stream.
+     */
+    private static final class DecodedInputStream extends ServletInputStream {
+        private final ServletInputStream raw;
+        private final InputStream decoded;
+        private boolean finished;
+
+        private DecodedInputStream(ServletInputStream raw, InputStream decoded) {
+            this.raw = raw;
+            this.decoded = decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = decoded.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = decoded.read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return raw.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            throw new UnsupportedOperationException("Compressed request bodies are read blocking");
+        }
+
+        @Override
+        public void close() throws IOException {
+            decoded.close();
+        }
+    }
+}
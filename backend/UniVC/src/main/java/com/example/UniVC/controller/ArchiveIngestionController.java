@@ -0,0 +1,96 @@
+package com.example.UniVC.controller;
+
+import com.example.UniVC.dto.ApiResponse;
+import com.example.UniVC.dto.ArchiveEntryResult;
+import com.example.UniVC.dto.ArchiveSummary;
+import com.example.UniVC.service.archive.ArchiveIngestionService;
+import com.example.UniVC.service.archive.ArchiveReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bulk analysis of ZIP and TAR(.gz) archives. The response is newline-delimited JSON:
+ * one {@code "type":"entry"} line per file as soon as it is analyzed, then a single
+ * {@code "type":"summary"} line.
+ *
+ * <p>Archives can be sent as the {@code file} part of a multipart request (subject to the
+ * multipart size limit) or as the raw request body, which is read as it arrives.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/credentials/archives")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ArchiveIngestionController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ArchiveIngestionService archiveIngestionService;
+    private final ObjectMapper objectMapper;
+
+    public ArchiveIngestionController(ArchiveIngestionService archiveIngestionService, ObjectMapper objectMapper) {
+        this.archiveIngestionService = archiveIngestionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> ingestMultipart(@RequestParam("file") MultipartFile file,
+                                                                 HttpServletRequest request) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        return stream(archiveIngestionService.open(file.getInputStream()), request.getRemoteAddr());
+    }
+
+    @PostMapping(consumes = {"application/zip", "application/x-tar", "application/gzip",
+            "application/x-gzip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> ingestBody(HttpServletRequest request) throws IOException {
+        return stream(archiveIngestionService.open(request.getInputStream()), request.getRemoteAddr());
+    }
+
+    // The client is read here; the body is written on an async thread that has no request bound
+    private ResponseEntity<StreamingResponseBody> stream(ArchiveReader archive, String client) {
+        StreamingResponseBody body = out -> {
+            ArchiveSummary summary = archiveIngestionService.ingest(archive, client,
+                    result -> writeLine(out, result));
+            writeLine(out, summary);
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // Flushed per line so clients see results while the archive is still being read
+    private void writeLine(OutputStream out, Object line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error("Invalid archive: " + e.getMessage()));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+}
@@ -2,28 +2,69 @@
 package com.example.UniVC.controller;
 
 import com.example.UniVC.dto.ApiResponse;
+import com.example.UniVC.dto.CredentialSearchRequest;
+import com.example.UniVC.dto.CredentialSearchResponse;
 import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.exception.CredentialNotFoundException;
+import com.example.UniVC.service.CredentialAnalysisService;
 import com.example.UniVC.service.FileProcessingService;
+import com.example.UniVC.service.store.CredentialBlobStore;
+import com.example.UniVC.service.store.StoredCredential;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.connector.CoyoteOutputStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/credentials")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class FileUploadController {
 
+    // Request attributes Tomcat checks after the servlet returns to stream a file region with sendfile(2)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+
     private final FileProcessingService fileProcessingService;
+    private final CredentialBlobStore credentialBlobStore;
+    private final CredentialAnalysisService credentialAnalysisService;
 
     @Autowired
-    public FileUploadController(FileProcessingService fileProcessingService) {
+    public FileUploadController(FileProcessingService fileProcessingService, CredentialBlobStore credentialBlobStore,
+                                CredentialAnalysisService credentialAnalysisService) {
         this.fileProcessingService = fileProcessingService;
+        this.credentialBlobStore = credentialBlobStore;
+        this.credentialAnalysisService = credentialAnalysisService;
+    }
+
+    /**
+     * Searches past analyses, newest first. Follow {@code nextCursor} for further pages.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<CredentialSearchResponse>> searchCredentials(CredentialSearchRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(credentialAnalysisService.search(request)));
     }
 
     @PostMapping("/upload")
@@ -55,6 +96,9 @@ public class FileUploadController {
 
             return ResponseEntity.ok(ApiResponse.success("File processed successfully", fileInfo));
 
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to process file: " + e.getMessage()));
@@ -64,8 +108,88 @@ public class FileUploadController {
         }
     }
 
+    /**
+     * Returns the uploaded bytes as stored. The segment region is handed to Tomcat's
+     * sendfile support; without it the mapped buffer is written straight to the output
+     * stream.
+     */
+    @GetMapping("/{fileId}/raw")
+    public void getRawCredential(@PathVariable String fileId, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        StoredCredential stored = credentialBlobStore.get(fileId)
+                .orElseThrow(() -> new CredentialNotFoundException(fileId));
+
+        // Served as an opaque download whatever type it was uploaded with
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(stored.getLength());
+        response.setHeader(HttpHeaders.ETAG, "\"" + stored.getSha256() + "\"");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(stored.getFileName() != null ? stored.getFileName() : fileId, StandardCharsets.UTF_8)
+                .build().toString());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, stored.getSegmentFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, stored.getOffset());
+            request.setAttribute(SENDFILE_END, stored.getOffset() + stored.getLength());
+            return;
+        }
+
+        ServletOutputStream out = response.getOutputStream();
+        ByteBuffer content = stored.getContent();
+        if (out instanceof CoyoteOutputStream coyote) {
+            coyote.write(content);
+        } else {
+            byte[] chunk = new byte[8192];
+            while (content.hasRemaining()) {
+                int length = Math.min(chunk.length, content.remaining());
+                content.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Result of an earlier upload with the same bytes, if they are still stored, without
+     * that upload's file name or id. Also answers HEAD, so clients can check for a hit
+     * without transferring the result.
+     */
+    @GetMapping("/by-hash/{sha256}")
+    public ResponseEntity<ApiResponse<FileInfoResponse>> getBySha256(@PathVariable String sha256) {
+        return byHash(fileProcessingService, sha256);
+    }
+
+    /**
+     * Body of {@code GET /by-hash/{sha256}}, shared with the reactive upload controller.
+     */
+    public static ResponseEntity<ApiResponse<FileInfoResponse>> byHash(FileProcessingService fileProcessingService,
+                                                                       String sha256) {
+        if (!SHA256_HEX.matcher(sha256).matches()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("sha256 must be 64 hex characters"));
+        }
+        String key = sha256.toLowerCase(Locale.ROOT);
+        try {
+            return fileProcessingService.findBySha256(key)
+                    .map(result -> ResponseEntity.ok()
+                            .eTag("\"" + key + "\"")
+                            .body(ApiResponse.success("Analysis result found", result)))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(ApiResponse.error("No analysis result for sha256 " + key)));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/formats")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getSupportedFormats() {
+        return ResponseEntity.ok(ApiResponse.success("Supported formats", supportedFormats()));
+    }
+
+    /**
+     * Body of {@code GET /formats}, shared with the reactive upload controller.
+     */
+    public static Map<String, Object> supportedFormats() {
         Map<String, Object> formats = new HashMap<>();
 
         Map<String, String> supportedFormats = new HashMap<>();
@@ -86,7 +210,7 @@ public class FileUploadController {
                 "application/cbor"
         });
 
-        return ResponseEntity.ok(ApiResponse.success("Supported formats", formats));
+        return formats;
     }
 
     @GetMapping("/test")
@@ -95,6 +219,18 @@ public class FileUploadController {
     }
 
     // Exception handlers
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid request: " + e.getMessage()));
+    }
+
+    @ExceptionHandler(CredentialNotFoundException.class)
+    public ResponseEntity<ApiResponse<String>> handleNotFound(CredentialNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleException(Exception e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
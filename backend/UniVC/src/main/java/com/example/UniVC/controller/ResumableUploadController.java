@@ -0,0 +1,115 @@
+package com.example.UniVC.controller;
+
+import com.example.UniVC.dto.ApiResponse;
+import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.dto.UploadSessionResponse;
+import com.example.UniVC.exception.UploadSessionNotFoundException;
+import com.example.UniVC.service.upload.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Resumable upload protocol for files too large or links too flaky for a single
+ * multipart request:
+ * <ol>
+ *   <li>{@code POST /uploads?fileName=&size=} opens a session and returns its chunk size</li>
+ *   <li>{@code PUT /uploads/{uploadId}/chunks/{index}} with the raw chunk bytes as
+ *       {@code application/octet-stream} and an {@code X-Chunk-SHA256} header, in any order and in parallel; retries are idempotent</li>
+ *   <li>{@code GET /uploads/{uploadId}} lists missing chunks after a reconnect</li>
+ *   <li>{@code POST /uploads/{uploadId}/complete} analyzes the file, optionally verified
+ *       against {@code X-Upload-SHA256}</li>
+ * </ol>
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/credentials/uploads")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ResumableUploadController {
+
+    private final ResumableUploadService resumableUploadService;
+
+    public ResumableUploadController(ResumableUploadService resumableUploadService) {
+        this.resumableUploadService = resumableUploadService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> createSession(
+            @RequestParam("fileName") String fileName,
+            @RequestParam("size") long size,
+            @RequestParam(value = "contentType", required = false) String contentType,
+            @RequestParam(value = "chunkSize", required = false) Integer chunkSize) throws IOException {
+        UploadSessionResponse session = resumableUploadService.create(fileName, contentType, size, chunkSize);
+        return ResponseEntity.created(URI.create("/api/v1/credentials/uploads/" + session.getUploadId()))
+                .body(ApiResponse.success("Upload session created", session));
+    }
+
+    // Octet-stream only: a form content type would have the body consumed as parameters
+    @PutMapping(value = "/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> putChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            @RequestHeader(value = "X-Chunk-SHA256", required = false) String sha256,
+            HttpServletRequest request) throws IOException {
+        int limit = resumableUploadService.chunkSize(uploadId);
+        byte[] data;
+        try (InputStream body = request.getInputStream()) {
+            // One byte past the largest chunk is enough to reject an oversized body
+            data = body.readNBytes(limit + 1);
+        }
+        return ResponseEntity.ok(ApiResponse.success("Chunk received",
+                resumableUploadService.putChunk(uploadId, index, data, sha256)));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> getSession(@PathVariable String uploadId) {
+        return ResponseEntity.ok(ApiResponse.success(resumableUploadService.status(uploadId)));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<FileInfoResponse>> complete(
+            @PathVariable String uploadId,
+            @RequestHeader(value = "X-Upload-SHA256", required = false) String sha256) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success("File processed successfully",
+                resumableUploadService.complete(uploadId, sha256)));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<String>> abort(@PathVariable String uploadId) {
+        resumableUploadService.abort(uploadId);
+        return ResponseEntity.ok(ApiResponse.success("Upload session aborted", uploadId));
+    }
+
+    // Exception handlers
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    public ResponseEntity<ApiResponse<String>> handleNotFound(UploadSessionNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid request: " + e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<ApiResponse<String>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+}
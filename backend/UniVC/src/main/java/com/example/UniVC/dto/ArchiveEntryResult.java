@@ -0,0 +1,64 @@
+package com.example.UniVC.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of the archive ingestion stream, emitted as soon as the entry is analyzed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArchiveEntryResult {
+    public static final String ANALYZED = "ANALYZED";
+    public static final String SKIPPED = "SKIPPED";
+    public static final String FAILED = "FAILED";
+
+    private final String type = "entry";
+    // Position of the entry in the archive; lines arrive in completion order
+    private int index;
+    private String name;
+    private long size;
+    private String status;
+    private String format;
+    private String version;
+    private String issuer;
+    private String credentialType;
+    // Null when no issuer certificate chain was validated
+    private Boolean issuerTrusted;
+    private Double confidence;
+    private String message;
+
+    // Getters and Setters
+    public String getType() { return type; }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    public String getIssuer() { return issuer; }
+    public void setIssuer(String issuer) { this.issuer = issuer; }
+
+    public String getCredentialType() { return credentialType; }
+    public void setCredentialType(String credentialType) { this.credentialType = credentialType; }
+
+    public Boolean getIssuerTrusted() { return issuerTrusted; }
+    public void setIssuerTrusted(Boolean issuerTrusted) { this.issuerTrusted = issuerTrusted; }
+
+    public Double getConfidence() { return confidence; }
+    public void setConfidence(Double confidence) { this.confidence = confidence; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
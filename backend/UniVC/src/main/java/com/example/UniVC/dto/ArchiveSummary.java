@@ -0,0 +1,54 @@
+package com.example.UniVC.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Last line of the archive ingestion stream.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArchiveSummary {
+    private final String type = "summary";
+    private String archiveFormat;
+    private int entries;
+    private int analyzed;
+    private int skipped;
+    private int failed;
+    // Decompressed bytes read, including skipped entries
+    private long totalBytes;
+    private Map<String, Integer> formats;
+    private long durationMs;
+    // Set when the archive was not read to the end
+    private String error;
+
+    // Getters and Setters
+    public String getType() { return type; }
+
+    public String getArchiveFormat() { return archiveFormat; }
+    public void setArchiveFormat(String archiveFormat) { this.archiveFormat = archiveFormat; }
+
+    public int getEntries() { return entries; }
+    public void setEntries(int entries) { this.entries = entries; }
+
+    public int getAnalyzed() { return analyzed; }
+    public void setAnalyzed(int analyzed) { this.analyzed = analyzed; }
+
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public long getTotalBytes() { return totalBytes; }
+    public void setTotalBytes(long totalBytes) { this.totalBytes = totalBytes; }
+
+    public Map<String, Integer> getFormats() { return formats; }
+    public void setFormats(Map<String, Integer> formats) { this.formats = formats; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,60 @@
+package com.example.UniVC.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.Instant;
+
+/**
+ * Query parameters of {@code GET /api/v1/credentials}. All filters are optional and
+ * combined with AND; {@code from} is inclusive and {@code to} exclusive.
+ */
+public class CredentialSearchRequest {
+    private String format;
+    private String version;
+    private String issuer;
+    // vct, most specific W3C type or mDL type
+    private String type;
+    private Double minConfidence;
+    private Double maxConfidence;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant to;
+
+    // nextCursor of the previous page
+    private String cursor;
+    private Integer limit;
+
+    // Getters and Setters
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    public String getIssuer() { return issuer; }
+    public void setIssuer(String issuer) { this.issuer = issuer; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Double getMinConfidence() { return minConfidence; }
+    public void setMinConfidence(Double minConfidence) { this.minConfidence = minConfidence; }
+
+    public Double getMaxConfidence() { return maxConfidence; }
+    public void setMaxConfidence(Double maxConfidence) { this.maxConfidence = maxConfidence; }
+
+    public Instant getFrom() { return from; }
+    public void setFrom(Instant from) { this.from = from; }
+
+    public Instant getTo() { return to; }
+    public void setTo(Instant to) { this.to = to; }
+
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
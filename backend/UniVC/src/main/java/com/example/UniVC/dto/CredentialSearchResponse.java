@@ -0,0 +1,68 @@
+package com.example.UniVC.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+public class CredentialSearchResponse {
+    private List<CredentialSummary> items;
+
+    // Pass back as ?cursor= for the next page; absent on the last page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public CredentialSearchResponse() {}
+
+    public CredentialSearchResponse(List<CredentialSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<CredentialSummary> getItems() { return items; }
+    public void setItems(List<CredentialSummary> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public static class CredentialSummary {
+        private String fileId;
+        private String fileName;
+        private long fileSize;
+        private String format;
+        private String version;
+        private String issuer;
+        private String credentialType;
+        private double confidence;
+        private Instant analyzedAt;
+
+        // Getters and Setters
+        public String getFileId() { return fileId; }
+        public void setFileId(String fileId) { this.fileId = fileId; }
+
+        public String getFileName() { return fileName; }
+        public void setFileName(String fileName) { this.fileName = fileName; }
+
+        public long getFileSize() { return fileSize; }
+        public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+        public String getFormat() { return format; }
+        public void setFormat(String format) { this.format = format; }
+
+        public String getVersion() { return version; }
+        public void setVersion(String version) { this.version = version; }
+
+        public String getIssuer() { return issuer; }
+        public void setIssuer(String issuer) { this.issuer = issuer; }
+
+        public String getCredentialType() { return credentialType; }
+        public void setCredentialType(String credentialType) { this.credentialType = credentialType; }
+
+        public double getConfidence() { return confidence; }
+        public void setConfidence(double confidence) { this.confidence = confidence; }
+
+        public Instant getAnalyzedAt() { return analyzedAt; }
+        public void setAnalyzedAt(Instant analyzedAt) { this.analyzedAt = analyzedAt; }
+    }
+}
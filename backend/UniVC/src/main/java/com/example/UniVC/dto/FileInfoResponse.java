@@ -1,20 +1,46 @@
 // FileInfoResponse.java
 package com.example.UniVC.dto;
 
+import com.example.UniVC.service.mdoc.MsoDigestReport;
+import com.example.UniVC.service.pki.ChainValidation;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 public class FileInfoResponse {
+    // Of the upload; absent from GET /by-hash/{sha256} results, which answer anyone with the same bytes
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String fileName;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String fileId;
     private long fileSize;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String contentType;
+
+    // Lowercase hex SHA-256 of the uploaded bytes, the key of GET /by-hash/{sha256}
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String sha256;
+
     private String detectedFormat;
     private double formatConfidence;
     private FileStructure structure;
     private String status;
     private String[] validationMessages;
 
+    // Credentials unpacked from a presentation or multi-document container
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<EmbeddedCredential> embeddedCredentials;
+
+    // Per-element check of each mdoc's IssuerSignedItems against its MSO digests
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<MsoDigestReport> msoDigests;
+
+    // Issuer certificate chains validated against the trust store: the JWS x5c or each mdoc's x5chain
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ChainValidation> issuerChains;
+
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime processedAt;
 
@@ -23,6 +49,25 @@ public class FileInfoResponse {
         this.processedAt = LocalDateTime.now();
     }
 
+    /**
+     * This result without the fileName, fileId and content type of the upload it came from.
+     */
+    public FileInfoResponse withoutUpload() {
+        FileInfoResponse result = new FileInfoResponse();
+        result.fileSize = fileSize;
+        result.sha256 = sha256;
+        result.detectedFormat = detectedFormat;
+        result.formatConfidence = formatConfidence;
+        result.structure = structure;
+        result.status = status;
+        result.validationMessages = validationMessages;
+        result.embeddedCredentials = embeddedCredentials;
+        result.msoDigests = msoDigests;
+        result.issuerChains = issuerChains;
+        result.processedAt = processedAt;
+        return result;
+    }
+
     // Getters and Setters
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
@@ -36,6 +81,9 @@ public class FileInfoResponse {
     public String getContentType() { return contentType; }
     public void setContentType(String contentType) { this.contentType = contentType; }
 
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
     public String getDetectedFormat() { return detectedFormat; }
     public void setDetectedFormat(String detectedFormat) { this.detectedFormat = detectedFormat; }
 
@@ -51,6 +99,15 @@ public class FileInfoResponse {
     public String[] getValidationMessages() { return validationMessages; }
     public void setValidationMessages(String[] validationMessages) { this.validationMessages = validationMessages; }
 
+    public List<EmbeddedCredential> getEmbeddedCredentials() { return embeddedCredentials; }
+    public void setEmbeddedCredentials(List<EmbeddedCredential> embeddedCredentials) { this.embeddedCredentials = embeddedCredentials; }
+
+    public List<MsoDigestReport> getMsoDigests() { return msoDigests; }
+    public void setMsoDigests(List<MsoDigestReport> msoDigests) { this.msoDigests = msoDigests; }
+
+    public List<ChainValidation> getIssuerChains() { return issuerChains; }
+    public void setIssuerChains(List<ChainValidation> issuerChains) { this.issuerChains = issuerChains; }
+
     public LocalDateTime getProcessedAt() { return processedAt; }
     public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
 
@@ -62,6 +119,24 @@ public class FileInfoResponse {
         private boolean isValid;
         private String encoding;
 
+        // Deep profile from a single token pass (JSON and CBOR documents only)
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer maxDepth;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Long nodeCount;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private SizedPath[] largestArrays;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private SizedPath[] largestStrings;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Map<String, Integer> keyFrequencies;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer base64Values;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer jwsValues;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer binaryValues;
+
         // Constructors
         public FileStructure() {}
 
@@ -88,5 +163,103 @@ public class FileInfoResponse {
 
         public String getEncoding() { return encoding; }
         public void setEncoding(String encoding) { this.encoding = encoding; }
+
+        public Integer getMaxDepth() { return maxDepth; }
+        public void setMaxDepth(Integer maxDepth) { this.maxDepth = maxDepth; }
+
+        public Long getNodeCount() { return nodeCount; }
+        public void setNodeCount(Long nodeCount) { this.nodeCount = nodeCount; }
+
+        public SizedPath[] getLargestArrays() { return largestArrays; }
+        public void setLargestArrays(SizedPath[] largestArrays) { this.largestArrays = largestArrays; }
+
+        public SizedPath[] getLargestStrings() { return largestStrings; }
+        public void setLargestStrings(SizedPath[] largestStrings) { this.largestStrings = largestStrings; }
+
+        public Map<String, Integer> getKeyFrequencies() { return keyFrequencies; }
+        public void setKeyFrequencies(Map<String, Integer> keyFrequencies) { this.keyFrequencies = keyFrequencies; }
+
+        public Integer getBase64Values() { return base64Values; }
+        public void setBase64Values(Integer base64Values) { this.base64Values = base64Values; }
+
+        public Integer getJwsValues() { return jwsValues; }
+        public void setJwsValues(Integer jwsValues) { this.jwsValues = jwsValues; }
+
+        public Integer getBinaryValues() { return binaryValues; }
+        public void setBinaryValues(Integer binaryValues) { this.binaryValues = binaryValues; }
+    }
+
+    // JSON pointer of an array or string together with its element count / length
+    public static class SizedPath {
+        private String path;
+        private int size;
+
+        public SizedPath() {}
+
+        public SizedPath(String path, int size) {
+            this.path = path;
+            this.size = size;
+        }
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public int getSize() { return size; }
+        public void setSize(int size) { this.size = size; }
+    }
+
+    // Node of the embedded credential tree; children are the credentials nested inside it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class EmbeddedCredential {
+        private String path; // JSON pointer inside the parent, e.g. "/verifiableCredential/0"
+        private String containerType; // "VerifiablePresentation", "EnvelopedVerifiableCredential", "DeviceResponse"
+        private String mediaType;
+        private String status; // "ANALYZED", "SKIPPED", "ERROR"
+        private String format;
+        private String version;
+        private double confidence;
+        private String issuer;
+        private String credentialType;
+        private Map<String, Object> details;
+        private String message;
+        private List<EmbeddedCredential> children;
+
+        public EmbeddedCredential() {}
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public String getContainerType() { return containerType; }
+        public void setContainerType(String containerType) { this.containerType = containerType; }
+
+        public String getMediaType() { return mediaType; }
+        public void setMediaType(String mediaType) { this.mediaType = mediaType; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getFormat() { return format; }
+        public void setFormat(String format) { this.format = format; }
+
+        public String getVersion() { return version; }
+        public void setVersion(String version) { this.version = version; }
+
+        public double getConfidence() { return confidence; }
+        public void setConfidence(double confidence) { this.confidence = confidence; }
+
+        public String getIssuer() { return issuer; }
+        public void setIssuer(String issuer) { this.issuer = issuer; }
+
+        public String getCredentialType() { return credentialType; }
+        public void setCredentialType(String credentialType) { this.credentialType = credentialType; }
+
+        public Map<String, Object> getDetails() { return details; }
+        public void setDetails(Map<String, Object> details) { this.details = details; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+
+        public List<EmbeddedCredential> getChildren() { return children; }
+        public void setChildren(List<EmbeddedCredential> children) { this.children = children; }
     }
-}
\ No newline at end of file
+}
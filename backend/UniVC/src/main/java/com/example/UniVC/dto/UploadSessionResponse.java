@@ -0,0 +1,45 @@
+package com.example.UniVC.dto;
+
+import java.time.Instant;
+
+public class UploadSessionResponse {
+    private String uploadId;
+    private String fileName;
+    private long totalSize;
+    private int chunkSize;
+    private int totalChunks;
+    private int receivedChunks;
+    // First missing chunk indexes, capped so the response stays small
+    private int[] missingChunks;
+    // Bytes from the start already received and scanned
+    private long contiguousBytes;
+    private Instant expiresAt;
+
+    // Getters and Setters
+    public String getUploadId() { return uploadId; }
+    public void setUploadId(String uploadId) { this.uploadId = uploadId; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getTotalSize() { return totalSize; }
+    public void setTotalSize(long totalSize) { this.totalSize = totalSize; }
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getTotalChunks() { return totalChunks; }
+    public void setTotalChunks(int totalChunks) { this.totalChunks = totalChunks; }
+
+    public int getReceivedChunks() { return receivedChunks; }
+    public void setReceivedChunks(int receivedChunks) { this.receivedChunks = receivedChunks; }
+
+    public int[] getMissingChunks() { return missingChunks; }
+    public void setMissingChunks(int[] missingChunks) { this.missingChunks = missingChunks; }
+
+    public long getContiguousBytes() { return contiguousBytes; }
+    public void setContiguousBytes(long contiguousBytes) { this.contiguousBytes = contiguousBytes; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,93 @@
+package com.example.UniVC.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * One analyzed upload, as reported by the detectors. Every index is equality columns
+ * followed by {@code (analyzed_at, id)}, so each filter can be served newest-first straight
+ * from the index, which is what keyset pagination on {@code GET /api/v1/credentials} relies
+ * on. Confidence is a range, which would break that order if it led an index; it is
+ * checked on the rows the other filters' index returns.
+ */
+@Entity
+@Table(name = "credential_analysis", indexes = {
+        @Index(name = "idx_analysis_time", columnList = "analyzed_at, id"),
+        @Index(name = "idx_analysis_format_time", columnList = "format, analyzed_at, id"),
+        @Index(name = "idx_analysis_format_version_time", columnList = "format, version, analyzed_at, id"),
+        @Index(name = "idx_analysis_issuer_time", columnList = "issuer, analyzed_at, id"),
+        @Index(name = "idx_analysis_type_time", columnList = "credential_type, analyzed_at, id")
+})
+public class CredentialAnalysis {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credential_analysis_seq")
+    @SequenceGenerator(name = "credential_analysis_seq", sequenceName = "credential_analysis_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "file_id", nullable = false, unique = true, length = 36)
+    private String fileId;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_size")
+    private long fileSize;
+
+    @Column(name = "format", nullable = false, length = 32)
+    private String format;
+
+    @Column(name = "version", length = 64)
+    private String version;
+
+    @Column(name = "issuer", length = 512)
+    private String issuer;
+
+    @Column(name = "credential_type")
+    private String credentialType;
+
+    @Column(name = "confidence")
+    private double confidence;
+
+    @Column(name = "analyzed_at", nullable = false)
+    private Instant analyzedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getFileId() { return fileId; }
+    public void setFileId(String fileId) { this.fileId = fileId; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    public String getIssuer() { return issuer; }
+    public void setIssuer(String issuer) { this.issuer = issuer; }
+
+    public String getCredentialType() { return credentialType; }
+    public void setCredentialType(String credentialType) { this.credentialType = credentialType; }
+
+    public double getConfidence() { return confidence; }
+    public void setConfidence(double confidence) { this.confidence = confidence; }
+
+    public Instant getAnalyzedAt() { return analyzedAt; }
+    public void setAnalyzedAt(Instant analyzedAt) { this.analyzedAt = analyzedAt; }
+}
@@ -0,0 +1,11 @@
+package com.example.UniVC.exception;
+
+/**
+ * No stored credential exists for the requested fileId, or it was removed by retention.
+ */
+public class CredentialNotFoundException extends RuntimeException {
+
+    public CredentialNotFoundException(String fileId) {
+        super("No stored credential for fileId " + fileId);
+    }
+}
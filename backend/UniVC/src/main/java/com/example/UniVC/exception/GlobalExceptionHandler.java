@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -21,6 +22,20 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("File size exceeds maximum allowed size"));
     }
 
+    // Truncated or corrupt bodies, including compressed ones that fail to decode
+    @ExceptionHandler(MultipartException.class)
+    public ResponseEntity<ApiResponse<String>> handleMultipartException(MultipartException ex) {
+        logger.warn("Malformed multipart request: {}", ex.getMessage());
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Malformed multipart request"));
+    }
+
+    @ExceptionHandler(CredentialNotFoundException.class)
+    public ResponseEntity<ApiResponse<String>> handleCredentialNotFound(CredentialNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleGenericException(Exception ex) {
         logger.error("Unexpected error: {}", ex.getMessage(), ex);
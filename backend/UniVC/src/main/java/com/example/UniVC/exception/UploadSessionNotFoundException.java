@@ -0,0 +1,11 @@
+package com.example.UniVC.exception;
+
+/**
+ * The upload session does not exist, has been completed or aborted, or expired.
+ */
+public class UploadSessionNotFoundException extends RuntimeException {
+
+    public UploadSessionNotFoundException(String uploadId) {
+        super("No open upload session " + uploadId);
+    }
+}
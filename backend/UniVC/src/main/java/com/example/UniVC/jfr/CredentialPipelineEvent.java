@@ -0,0 +1,35 @@
+package com.example.UniVC.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Common fields of the per-request pipeline events. All of them are disabled by
+ * default; enable them with {@code jfr/univc.jfc} or
+ * {@code -XX:StartFlightRecording:settings=default,settings=jfr/univc.jfc}. Callers fill the
+ * fields only after {@link #shouldCommit()}, so a disabled event costs a timestamp check.
+ */
+@Category({"UniVC", "Pipeline"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class CredentialPipelineEvent extends Event {
+
+    @Label("File ID")
+    public String fileId;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadSize;
+
+    @Label("Detected Format")
+    @Description("Format known at the time the stage ran, if any")
+    public String format;
+
+    @Label("Confidence")
+    public double confidence;
+}
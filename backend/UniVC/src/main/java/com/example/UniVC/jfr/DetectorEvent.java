@@ -0,0 +1,17 @@
+package com.example.UniVC.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.univc.Detector")
+@Label("Detector Run")
+@Description("A single FormatDetector.detect call")
+public class DetectorEvent extends CredentialPipelineEvent {
+
+    @Label("Detector")
+    public String detector;
+
+    @Label("Failed")
+    public boolean failed;
+}
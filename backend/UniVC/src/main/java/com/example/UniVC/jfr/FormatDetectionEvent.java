@@ -0,0 +1,11 @@
+package com.example.UniVC.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.univc.FormatDetection")
+@Label("Format Detection")
+@Description("Format classification stage of FileProcessingService")
+public class FormatDetectionEvent extends CredentialPipelineEvent {
+}
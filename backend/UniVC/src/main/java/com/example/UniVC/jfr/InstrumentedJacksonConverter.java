@@ -0,0 +1,83 @@
+package com.example.UniVC.jfr;
+
+import com.example.UniVC.dto.ApiResponse;
+import com.example.UniVC.dto.FileInfoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that emits a {@link SerializationEvent} per response body.
+ * When the event is disabled it behaves exactly like the stock converter.
+ */
+public class InstrumentedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public InstrumentedJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        CountingOutputMessage counting = new CountingOutputMessage(outputMessage);
+        event.begin();
+        super.writeInternal(object, type, counting);
+        event.end();
+        if (event.shouldCommit()) {
+            Object payload = object instanceof ApiResponse<?> response ? response.getData() : object;
+            if (payload instanceof FileInfoResponse fileInfo) {
+                event.fileId = fileInfo.getFileId();
+                event.payloadSize = fileInfo.getFileSize();
+                event.format = fileInfo.getDetectedFormat();
+                event.confidence = fileInfo.getFormatConfidence();
+            }
+            event.responseType = payload != null ? payload.getClass().getSimpleName() : "null";
+            event.bytesWritten = counting.count;
+            event.commit();
+        }
+    }
+
+    private static class CountingOutputMessage implements HttpOutputMessage {
+        private final HttpOutputMessage delegate;
+        private long count;
+
+        CountingOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return new FilterOutputStream(delegate.getBody()) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    count++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    count += len;
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+}
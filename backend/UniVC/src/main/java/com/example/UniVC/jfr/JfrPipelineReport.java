@@ -0,0 +1,120 @@
+package com.example.UniVC.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes a JFR recording containing the UniVC pipeline events into latency tables
+ * per stage and format, and per detector.
+ *
+ * <pre>
+ * java -cp app.jar com.example.UniVC.jfr.JfrPipelineReport univc.jfr
+ * </pre>
+ *
+ * From the fat jar use
+ * {@code java -cp UniVC.jar -Dloader.main=com.example.UniVC.jfr.JfrPipelineReport
+ * org.springframework.boot.loader.launch.PropertiesLauncher univc.jfr}.
+ */
+public class JfrPipelineReport {
+
+    private static final String EVENT_PREFIX = "com.example.univc.";
+
+    private final Map<String, LatencyStats> byStageAndFormat = new TreeMap<>();
+    private final Map<String, LatencyStats> byDetector = new TreeMap<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrPipelineReport <recording.jfr>");
+            System.exit(2);
+        }
+        JfrPipelineReport report = new JfrPipelineReport();
+        report.read(Path.of(args[0]));
+        report.print(System.out);
+    }
+
+    void read(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (name.startsWith(EVENT_PREFIX)) {
+                    accept(name.substring(EVENT_PREFIX.length()), event);
+                }
+            }
+        }
+    }
+
+    private void accept(String stage, RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        String format = event.getString("format");
+        double confidence = event.getDouble("confidence");
+
+        if ("Detector".equals(stage)) {
+            String detector = event.getString("detector");
+            LatencyStats stats = byDetector.computeIfAbsent(detector, k -> new LatencyStats());
+            stats.add(nanos, confidence);
+            if (event.getBoolean("failed")) {
+                stats.failures++;
+            }
+            return;
+        }
+        String key = stage + "\t" + (format != null ? format : "-");
+        byStageAndFormat.computeIfAbsent(key, k -> new LatencyStats()).add(nanos, confidence);
+    }
+
+    void print(PrintStream out) {
+        out.println("Pipeline stages by format (latency in ms)");
+        out.printf("%-18s %-14s %8s %9s %9s %9s %9s %9s %7s%n",
+                "stage", "format", "count", "avg", "p50", "p95", "p99", "max", "conf");
+        byStageAndFormat.forEach((key, stats) -> {
+            String[] parts = key.split("\t");
+            out.printf("%-18s %-14s %s%n", parts[0], parts[1], stats.row());
+        });
+
+        out.println();
+        out.println("Detectors (latency in ms)");
+        out.printf("%-33s %8s %9s %9s %9s %9s %9s %7s %8s%n",
+                "detector", "count", "avg", "p50", "p95", "p99", "max", "conf", "failed");
+        byDetector.forEach((detector, stats) ->
+                out.printf("%-33s %s %8d%n", detector, stats.row(), stats.failures));
+    }
+
+    private static class LatencyStats {
+        private long[] nanos = new long[64];
+        private int count;
+        private double confidenceSum;
+        private long failures;
+
+        void add(long duration, double confidence) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = duration;
+            confidenceSum += confidence;
+        }
+
+        String row() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long n : sorted) {
+                total += n;
+            }
+            return String.format("%8d %9.3f %9.3f %9.3f %9.3f %9.3f %7.2f", count,
+                    total / (double) count / 1e6, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), sorted[count - 1] / 1e6, confidenceSum / count);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.UniVC.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.univc.Serialization")
+@Label("Response Serialization")
+@Description("Writing a JSON response body")
+public class SerializationEvent extends CredentialPipelineEvent {
+
+    @Label("Response Type")
+    public String responseType;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+}
@@ -0,0 +1,18 @@
+package com.example.UniVC.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.univc.StructureAnalysis")
+@Label("Structure Analysis")
+@Description("Structure analysis of a credential after its format was detected")
+public class StructureAnalysisEvent extends CredentialPipelineEvent {
+
+    @Label("Root Type")
+    public String rootType;
+
+    @Label("Prescanned")
+    @Description("Structure came from the incremental scan instead of a re-parse")
+    public boolean prescanned;
+}
@@ -0,0 +1,11 @@
+package com.example.UniVC.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.univc.UploadRead")
+@Label("Upload Read")
+@Description("Reading the uploaded credential bytes from the request")
+public class UploadReadEvent extends CredentialPipelineEvent {
+}
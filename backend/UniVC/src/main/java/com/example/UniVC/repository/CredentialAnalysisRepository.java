@@ -0,0 +1,11 @@
+package com.example.UniVC.repository;
+
+import com.example.UniVC.entity.CredentialAnalysis;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CredentialAnalysisRepository extends JpaRepository<CredentialAnalysis, Long>,
+        JpaSpecificationExecutor<CredentialAnalysis> {
+}
@@ -0,0 +1,41 @@
+package com.example.UniVC.service;
+
+import com.example.UniVC.dto.FileInfoResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Most recent analysis result per content hash, so clients can look a file up by its
+ * SHA-256 before uploading it. Bounded LRU in front of the blob store: on a miss
+ * {@link FileProcessingService#findBySha256} analyzes the stored payload again.
+ */
+@Service
+public class AnalysisResultCache {
+
+    private final Map<String, FileInfoResponse> results;
+
+    public AnalysisResultCache(@Value("${app.results.cache-size:10000}") int capacity) {
+        this.results = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FileInfoResponse> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public void put(String sha256, FileInfoResponse result) {
+        synchronized (results) {
+            results.put(sha256, result);
+        }
+    }
+
+    public Optional<FileInfoResponse> get(String sha256) {
+        synchronized (results) {
+            return Optional.ofNullable(results.get(sha256));
+        }
+    }
+}
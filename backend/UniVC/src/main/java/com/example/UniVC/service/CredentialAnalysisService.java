@@ -0,0 +1,228 @@
+package com.example.UniVC.service;
+
+import com.example.UniVC.dto.CredentialSearchRequest;
+import com.example.UniVC.dto.CredentialSearchResponse;
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.entity.CredentialAnalysis;
+import com.example.UniVC.repository.CredentialAnalysisRepository;
+import com.example.UniVC.service.detector.DetectionDetails;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records detector results for every upload and answers filtered, keyset-paginated
+ * queries over them.
+ *
+ * <p>Recording is off the request path: the result the upload was answered with is queued
+ * as a row, and a single writer thread inserts them in batches. Rows are small and bounded
+ * whatever the upload's size. When the queue is full the upload is not indexed rather
+ * than slowed down.
+ */
+@Service
+public class CredentialAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialAnalysisService.class);
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("analyzedAt"), Sort.Order.desc("id"));
+
+    private final CredentialAnalysisRepository repository;
+    private final BlockingQueue<CredentialAnalysis> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final boolean enabled;
+    private final int batchSize;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private Thread writer;
+    private volatile boolean running;
+
+    public CredentialAnalysisService(CredentialAnalysisRepository repository,
+                                     @Value("${app.analysis.index.enabled:true}") boolean enabled,
+                                     @Value("${app.analysis.index.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${app.analysis.index.batch-size:200}") int batchSize,
+                                     @Value("${app.analysis.search.default-limit:50}") int defaultLimit,
+                                     @Value("${app.analysis.search.max-limit:500}") int maxLimit) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "univc-analysis-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Queues an upload for indexing under the format and confidence it was answered with.
+     *
+     * @param details the detectors' result for the same content, source of the version,
+     *                issuer and credential type
+     */
+    public void record(String fileId, String fileName, long fileSize, String format, double confidence,
+                       DetectionResult details) {
+        if (!enabled) {
+            return;
+        }
+        CredentialAnalysis row = new CredentialAnalysis();
+        row.setFileId(fileId);
+        row.setFileName(truncate(fileName, 255));
+        row.setFileSize(fileSize);
+        row.setFormat(truncate(format, 32));
+        row.setVersion(truncate(details.getVersion(), 64));
+        row.setIssuer(truncate(DetectionDetails.issuer(details), 512));
+        row.setCredentialType(truncate(DetectionDetails.credentialType(details), 255));
+        row.setConfidence(confidence);
+        // Millisecond precision so cursors round-trip through every database's timestamp type
+        row.setAnalyzedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        if (!queue.offer(row)) {
+            long total = dropped.incrementAndGet();
+            if (Long.bitCount(total) == 1) {
+                logger.warn("Analysis index queue full, {} uploads not indexed so far", total);
+            }
+        }
+    }
+
+    public CredentialSearchResponse search(CredentialSearchRequest request) {
+        int limit = request.getLimit() != null ? request.getLimit() : defaultLimit;
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+
+        Specification<CredentialAnalysis> spec = Specification.allOf(
+                equal("format", request.getFormat()),
+                equal("version", request.getVersion()),
+                equal("issuer", request.getIssuer()),
+                equal("credentialType", request.getType()),
+                (root, query, cb) -> request.getMinConfidence() == null ? null
+                        : cb.greaterThanOrEqualTo(root.get("confidence"), request.getMinConfidence()),
+                (root, query, cb) -> request.getMaxConfidence() == null ? null
+                        : cb.lessThanOrEqualTo(root.get("confidence"), request.getMaxConfidence()),
+                (root, query, cb) -> request.getFrom() == null ? null
+                        : cb.greaterThanOrEqualTo(root.get("analyzedAt"), request.getFrom()),
+                (root, query, cb) -> request.getTo() == null ? null
+                        : cb.lessThan(root.get("analyzedAt"), request.getTo()),
+                after(request.getCursor()));
+
+        // One extra row tells whether there is a next page without a count query
+        List<CredentialAnalysis> rows = repository.findBy(spec, q -> q.sortBy(NEWEST_FIRST).limit(limit + 1).all());
+        boolean more = rows.size() > limit;
+        List<CredentialSearchResponse.CredentialSummary> items = new ArrayList<>(Math.min(rows.size(), limit));
+        for (CredentialAnalysis row : more ? rows.subList(0, limit) : rows) {
+            items.add(toSummary(row));
+        }
+        String nextCursor = more ? encodeCursor(rows.get(limit - 1)) : null;
+        return new CredentialSearchResponse(items, nextCursor);
+    }
+
+    private static Specification<CredentialAnalysis> equal(String attribute, String value) {
+        return (root, query, cb) -> value == null || value.isBlank() ? null : cb.equal(root.get(attribute), value);
+    }
+
+    /**
+     * Rows strictly after the cursor in (analyzedAt desc, id desc) order.
+     */
+    private static Specification<CredentialAnalysis> after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        Instant analyzedAt;
+        long id;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = decoded.indexOf(':');
+            analyzedAt = Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, separator)));
+            id = Long.parseLong(decoded.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("analyzedAt"), analyzedAt),
+                cb.and(cb.equal(root.get("analyzedAt"), analyzedAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static String encodeCursor(CredentialAnalysis row) {
+        String cursor = row.getAnalyzedAt().toEpochMilli() + ":" + row.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static CredentialSearchResponse.CredentialSummary toSummary(CredentialAnalysis row) {
+        CredentialSearchResponse.CredentialSummary summary = new CredentialSearchResponse.CredentialSummary();
+        summary.setFileId(row.getFileId());
+        summary.setFileName(row.getFileName());
+        summary.setFileSize(row.getFileSize());
+        summary.setFormat(row.getFormat());
+        summary.setVersion(row.getVersion());
+        summary.setIssuer(row.getIssuer());
+        summary.setCredentialType(row.getCredentialType());
+        summary.setConfidence(row.getConfidence());
+        summary.setAnalyzedAt(row.getAnalyzedAt());
+        return summary;
+    }
+
+    private void drain() {
+        List<CredentialAnalysis> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CredentialAnalysis first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                // Shutting down: flush whatever is still queued
+                queue.drainTo(batch);
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<CredentialAnalysis> batch) {
+        try {
+            repository.saveAll(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Could not index {} analyses: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        return value != null && value.length() > length ? value.substring(0, length) : value;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.UniVC.service;
+
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.service.container.ContainerUnpacker;
+import com.example.UniVC.service.container.EmbeddedItem;
+import com.example.UniVC.service.container.UnpackBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Unpacks presentations and multi-document containers and analyzes every embedded
+ * credential, recursively and in parallel. Siblings are forked as separate tasks on a
+ * dedicated {@link ForkJoinPool}; all tasks of one upload draw from a shared
+ * {@link UnpackBudget} so a presentation stuffed with credentials can't monopolize it.
+ * Embedded credentials are not counted in traffic analytics; the caller records the
+ * upload it answers.
+ */
+@Service
+public class CredentialContainerService {
+
+    private final FormatDetectionService formatDetectionService;
+    private final ForkJoinPool pool;
+    private final int maxCredentials;
+    private final int maxDepth;
+    private final Duration timeout;
+
+    public CredentialContainerService(FormatDetectionService formatDetectionService,
+                                      @Value("${app.containers.parallelism:0}") int parallelism,
+                                      @Value("${app.containers.max-credentials:256}") int maxCredentials,
+                                      @Value("${app.containers.max-depth:4}") int maxDepth,
+                                      @Value("${app.containers.timeout:2s}") Duration timeout) {
+        this.formatDetectionService = formatDetectionService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxCredentials = maxCredentials;
+        this.maxDepth = maxDepth;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return one node per credential embedded in the upload, or null if it is not a container
+     */
+    public List<FileInfoResponse.EmbeddedCredential> unpack(String content, byte[] fileBytes) {
+        return analyze(ContainerUnpacker.unpack(content, fileBytes));
+    }
+
+    /**
+     * {@link #unpack(String, byte[])} for an upload the caller has already decoded to CBOR.
+     */
+    public List<FileInfoResponse.EmbeddedCredential> unpackCbor(byte[] cbor, int length) {
+        return analyze(ContainerUnpacker.unpackDeviceResponse(cbor, length));
+    }
+
+    private List<FileInfoResponse.EmbeddedCredential> analyze(List<EmbeddedItem> items) {
+        if (items.isEmpty()) {
+            return null;
+        }
+        UnpackBudget budget = new UnpackBudget(maxCredentials, System.nanoTime() + timeout.toNanos());
+        return pool.invoke(new UnpackTask(items, 1, budget));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private FileInfoResponse.EmbeddedCredential analyze(EmbeddedItem item, int depth, UnpackBudget budget) {
+        FileInfoResponse.EmbeddedCredential node = new FileInfoResponse.EmbeddedCredential();
+        node.setPath(item.getPath());
+        node.setContainerType(item.getContainerType());
+        node.setMediaType(item.getMediaType());
+
+        String skipped = budget.tryAcquire();
+        if (skipped != null) {
+            node.setStatus("SKIPPED");
+            node.setMessage(skipped);
+            return node;
+        }
+
+        try {
+            if (item.getDocument() != null) {
+                describeMdoc(node, item.getDocument());
+            } else {
+                describe(node, formatDetectionService.analyze(item.getContent(), null));
+
+                List<EmbeddedItem> nested = ContainerUnpacker.unpack(item.getContent());
+                if (!nested.isEmpty() && depth < maxDepth) {
+                    node.setChildren(new UnpackTask(nested, depth + 1, budget).invoke());
+                } else if (!nested.isEmpty()) {
+                    node.setMessage(nested.size() + " nested credentials not analyzed: maximum depth "
+                            + maxDepth + " reached");
+                }
+            }
+            node.setStatus("ANALYZED");
+        } catch (RuntimeException e) {
+            node.setStatus("ERROR");
+            node.setMessage("Error analyzing embedded credential: " + e.getMessage());
+        }
+        return node;
+    }
+
+    private static void describe(FileInfoResponse.EmbeddedCredential node, DetectionResult result) {
+        node.setFormat(result.getFormat());
+        node.setVersion(result.getVersion());
+        node.setConfidence(result.getConfidence());
+        if (result.getDetails().get("issuer") instanceof String issuer) {
+            node.setIssuer(issuer);
+        }
+        if (result.getDetails().get("credentialType") instanceof String credentialType) {
+            node.setCredentialType(credentialType);
+        }
+    }
+
+    private static void describeMdoc(FileInfoResponse.EmbeddedCredential node, JsonNode document) {
+        JsonNode issuerSigned = document.path("issuerSigned");
+        node.setFormat("ISO-mDL");
+        node.setVersion("mdoc");
+        node.setCredentialType(document.path("docType").asText(null));
+        node.setConfidence(issuerSigned.has("issuerAuth") ? 0.9 : 0.7);
+
+        // Element count per namespace; each element is a tag 24 wrapped IssuerSignedItem
+        Map<String, Integer> namespaces = new LinkedHashMap<>();
+        issuerSigned.path("nameSpaces").properties()
+                .forEach(ns -> namespaces.put(ns.getKey(), ns.getValue().size()));
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("namespaces", namespaces);
+        details.put("hasIssuerAuth", issuerSigned.has("issuerAuth"));
+        details.put("hasDeviceSigned", document.has("deviceSigned"));
+        node.setDetails(details);
+    }
+
+    /**
+     * Analyzes a list of sibling items, one forked subtask per item.
+     */
+    private class UnpackTask extends RecursiveTask<List<FileInfoResponse.EmbeddedCredential>> {
+        private final List<EmbeddedItem> items;
+        private final int depth;
+        private final UnpackBudget budget;
+
+        UnpackTask(List<EmbeddedItem> items, int depth, UnpackBudget budget) {
+            this.items = items;
+            this.depth = depth;
+            this.budget = budget;
+        }
+
+        @Override
+        protected List<FileInfoResponse.EmbeddedCredential> compute() {
+            if (items.size() == 1) {
+                return List.of(analyze(items.get(0), depth, budget));
+            }
+            List<UnpackTask> subtasks = new ArrayList<>(items.size());
+            for (EmbeddedItem item : items) {
+                subtasks.add(new UnpackTask(List.of(item), depth, budget));
+            }
+            invokeAll(subtasks);
+
+            List<FileInfoResponse.EmbeddedCredential> nodes = new ArrayList<>(items.size());
+            for (UnpackTask subtask : subtasks) {
+                nodes.addAll(subtask.join());
+            }
+            return nodes;
+        }
+    }
+}
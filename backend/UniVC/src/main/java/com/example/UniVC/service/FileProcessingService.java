@@ -1,186 +1,292 @@
 // FileProcessingService.java
 package com.example.UniVC.service;
 
+import com.example.UniVC.dto.DetectionResult;
 import com.example.UniVC.dto.FileInfoResponse;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.example.UniVC.jfr.FormatDetectionEvent;
+import com.example.UniVC.jfr.StructureAnalysisEvent;
+import com.example.UniVC.jfr.UploadReadEvent;
+import com.example.UniVC.service.analytics.TrafficAnalytics;
+import com.example.UniVC.service.audit.AuditLog;
+import com.example.UniVC.service.audit.AuditRecord;
+import com.example.UniVC.service.buffer.PooledBuffer;
+import com.example.UniVC.service.container.ContainerUnpacker;
+import com.example.UniVC.service.detector.DetectionDetails;
+import com.example.UniVC.service.scheduler.ProcessingScheduler;
+import com.example.UniVC.service.store.CredentialBlobStore;
+import com.example.UniVC.service.stream.ContentPrescan;
+import com.example.UniVC.service.stream.StructureProfiler;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.regex.Pattern;
 
 @Service
 public class FileProcessingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileProcessingService.class);
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+
     private final ObjectMapper objectMapper;
-    private final Pattern jwtPattern = Pattern.compile("^[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+$");
 
     private final FormatDetectionService formatDetectionService;
+    private final CredentialContainerService credentialContainerService;
+    private final CredentialBlobStore credentialBlobStore;
+    private final CredentialAnalysisService credentialAnalysisService;
+    private final AnalysisResultCache analysisResultCache;
+    private final ProcessingScheduler processingScheduler;
+    private final TrafficAnalytics trafficAnalytics;
+    private final AuditLog auditLog;
 
     @Autowired
-    public FileProcessingService(FormatDetectionService formatDetectionService) {
+    public FileProcessingService(FormatDetectionService formatDetectionService,
+                                 CredentialContainerService credentialContainerService,
+                                 CredentialBlobStore credentialBlobStore,
+                                 CredentialAnalysisService credentialAnalysisService,
+                                 AnalysisResultCache analysisResultCache,
+                                 ProcessingScheduler processingScheduler,
+                                 TrafficAnalytics trafficAnalytics,
+                                 AuditLog auditLog) {
         this.formatDetectionService = formatDetectionService;
+        this.credentialContainerService = credentialContainerService;
+        this.credentialBlobStore = credentialBlobStore;
+        this.credentialAnalysisService = credentialAnalysisService;
+        this.analysisResultCache = analysisResultCache;
+        this.processingScheduler = processingScheduler;
+        this.trafficAnalytics = trafficAnalytics;
+        this.auditLog = auditLog;
         this.objectMapper = new ObjectMapper();
     }
 
     public FileInfoResponse processFile(MultipartFile file) throws IOException {
-        String fileName = file.getOriginalFilename();
-        String contentType = file.getContentType();
-        long fileSize = file.getSize();
-
         // Generate unique file ID
         String fileId = UUID.randomUUID().toString();
 
-        // Read file content
+        UploadReadEvent readEvent = new UploadReadEvent();
+        readEvent.begin();
         byte[] fileBytes = file.getBytes();
-        String fileContent = new String(fileBytes);
-
-        // Detect format and analyze structure
-        FormatDetectionResult detectionResult = detectFormat(fileContent);
-        FileInfoResponse.FileStructure structure = analyzeStructure(fileContent, detectionResult.format);
-
-        // Create response
-        FileInfoResponse response = new FileInfoResponse();
-        response.setFileName(fileName);
-        response.setFileId(fileId);
-        response.setFileSize(fileSize);
-        response.setContentType(contentType);
-        response.setDetectedFormat(detectionResult.format);
-        response.setFormatConfidence(detectionResult.confidence);
-        response.setStructure(structure);
-        response.setStatus(structure.isValid() ? "VALID" : "INVALID");
-        response.setValidationMessages(detectionResult.messages.toArray(new String[0]));
-
-        return response;
-    }
-
-    private FormatDetectionResult detectFormat(String content) {
-        List<String> messages = new ArrayList<>();
-
-        // Remove whitespace for analysis
-        String trimmedContent = content.trim();
-
-        // Check for JWT format (including SD-JWT)
-        if (isJWTFormat(trimmedContent)) {
-            if (isSDJWT(trimmedContent)) {
-                messages.add("Detected SD-JWT format with selective disclosure");
-                return new FormatDetectionResult("SD-JWT", 0.95, messages);
-            } else {
-                messages.add("Detected standard JWT format");
-                return new FormatDetectionResult("JWT", 0.85, messages);
-            }
+        readEvent.end();
+        if (readEvent.shouldCommit()) {
+            readEvent.fileId = fileId;
+            readEvent.payloadSize = fileBytes.length;
+            readEvent.commit();
         }
 
-        // Check for JSON format (W3C VC or other)
-        if (isJSONFormat(trimmedContent)) {
-            JsonNode jsonNode = parseJSON(trimmedContent);
-            if (jsonNode != null) {
-                if (isW3CVC(jsonNode)) {
-                    String version = detectW3CVCVersion(jsonNode);
-                    messages.add("Detected W3C Verifiable Credential " + version);
-                    return new FormatDetectionResult("W3C-VC-" + version, 0.90, messages);
-                } else if (isISOmDL(jsonNode)) {
-                    messages.add("Detected ISO mDL format");
-                    return new FormatDetectionResult("ISO-mDL", 0.80, messages);
-                } else {
-                    messages.add("Detected generic JSON format");
-                    return new FormatDetectionResult("JSON", 0.50, messages);
-                }
-            }
-        }
+        return process(fileId, file.getOriginalFilename(), file.getContentType(), fileBytes, null, null);
+    }
 
-        // Check for CBOR (binary format for mDL)
-        if (isCBORFormat(trimmedContent)) {
-            messages.add("Detected CBOR format (likely mDL)");
-            return new FormatDetectionResult("CBOR", 0.70, messages);
-        }
+    /**
+     * Process raw credential bytes that did not arrive as a multipart upload
+     * (e.g. over the gRPC ingestion API).
+     */
+    public FileInfoResponse processContent(String fileName, String contentType, byte[] fileBytes) {
+        return processContent(fileName, contentType, fileBytes, null);
+    }
 
-        messages.add("Unknown format detected");
-        return new FormatDetectionResult("UNKNOWN", 0.0, messages);
+    /**
+     * Process raw credential bytes whose structure was already tokenized while they
+     * were being received; a well-formed {@code prescan} replaces the re-parse done
+     * for structure analysis.
+     */
+    public FileInfoResponse processContent(String fileName, String contentType, byte[] fileBytes,
+                                           ContentPrescan prescan) {
+        return processContent(fileName, contentType, fileBytes, prescan, null);
     }
 
-    private boolean isJWTFormat(String content) {
-        return jwtPattern.matcher(content).matches();
+    /**
+     * @param client caller recorded in the audit log; null takes the remote address of the
+     *               current servlet request, if any
+     */
+    public FileInfoResponse processContent(String fileName, String contentType, byte[] fileBytes,
+                                           ContentPrescan prescan, String client) {
+        return process(UUID.randomUUID().toString(), fileName, contentType, fileBytes, prescan, client);
     }
 
-    private boolean isSDJWT(String content) {
-        // SD-JWT contains tildes (~) for selective disclosure
-        return content.contains("~") && content.split("\\.").length >= 3;
+    /**
+     * Runs the whole analysis on the calling thread without storing, recording or caching
+     * anything; used to warm up the JIT before the instance takes traffic.
+     */
+    public FileInfoResponse dryRun(String fileName, String contentType, byte[] fileBytes) {
+        return analyze(UUID.randomUUID().toString(), fileName, contentType, fileBytes, null, false, null);
     }
 
-    private boolean isJSONFormat(String content) {
-        try {
-            objectMapper.readTree(content);
-            return true;
-        } catch (Exception e) {
-            return false;
+    /**
+     * Result for content with this SHA-256, without the identifiers of any upload. A cache
+     * miss, after a restart or an eviction, analyzes the payload again from the blob store;
+     * nothing is recorded for that.
+     *
+     * @param sha256 lowercase hex
+     */
+    public Optional<FileInfoResponse> findBySha256(String sha256) {
+        Optional<FileInfoResponse> cached = analysisResultCache.get(sha256);
+        if (cached.isPresent() || !credentialBlobStore.isEnabled()) {
+            return cached;
         }
+        return credentialBlobStore.getContent(sha256).map(content -> {
+            byte[] fileBytes = new byte[content.remaining()];
+            content.get(fileBytes);
+            FileInfoResponse result = processingScheduler.run(fileBytes, () -> analyze(UUID.randomUUID().toString(),
+                    null, null, fileBytes, null, false, null)).withoutUpload();
+            analysisResultCache.put(sha256, result);
+            return result;
+        });
     }
 
-    private JsonNode parseJSON(String content) {
-        try {
-            return objectMapper.readTree(content);
-        } catch (JsonProcessingException e) {
-            return null;
-        }
+    // In the lane for the input's size and format; throws RejectedExecutionException when it is saturated
+    private FileInfoResponse process(String fileId, String fileName, String contentType, byte[] fileBytes,
+                                     ContentPrescan prescan, String client) {
+        // The request is bound to this thread only, not to the lane's
+        String auditClient = client != null ? client : requestClient();
+        return processingScheduler.run(fileBytes,
+                () -> analyze(fileId, fileName, contentType, fileBytes, prescan, true, auditClient));
     }
 
-    private boolean isW3CVC(JsonNode jsonNode) {
-        // Check for W3C VC indicators
-        return jsonNode.has("@context") &&
-                (jsonNode.has("credentialSubject") ||
-                        jsonNode.has("type") &&
-                                jsonNode.get("type").toString().contains("VerifiableCredential"));
+    private static String requestClient() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request
+                ? request.getRequest().getRemoteAddr() : null;
     }
 
-    private String detectW3CVCVersion(JsonNode jsonNode) {
-        JsonNode context = jsonNode.get("@context");
-        if (context != null) {
-            String contextStr = context.toString();
-            if (contextStr.contains("credentials/v2")) {
-                return "2.0";
-            } else if (contextStr.contains("credentials/v1")) {
-                return "1.1";
+    private FileInfoResponse analyze(String fileId, String fileName, String contentType, byte[] fileBytes,
+                                     ContentPrescan prescan, boolean persist, String client) {
+        long fileSize = fileBytes.length;
+        String sha256 = CredentialBlobStore.sha256Hex(fileBytes);
+
+        // Read file content
+        String fileContent = new String(fileBytes);
+
+        // Detect the format once; the response, the index row and analytics all answer from it
+        FormatDetectionEvent detectionEvent = new FormatDetectionEvent();
+        detectionEvent.begin();
+        DetectionResult detected = formatDetectionService.analyze(fileContent, fileId);
+        answer(detected, fileContent);
+        detectionEvent.end();
+        if (detectionEvent.shouldCommit()) {
+            detectionEvent.fileId = fileId;
+            detectionEvent.payloadSize = fileSize;
+            detectionEvent.format = detected.getFormat();
+            detectionEvent.confidence = detected.getConfidence();
+            detectionEvent.commit();
+        }
+        List<String> messages = new ArrayList<>(detected.getMessages());
+
+        FileInfoResponse.FileStructure structure;
+        List<FileInfoResponse.EmbeddedCredential> embedded;
+        // A base64 mdoc is decoded once, for its structure and for the documents it contains
+        try (PooledBuffer cbor = "CBOR".equals(detected.getFormat()) ? ContainerUnpacker.decodeBase64(fileBytes) : null) {
+            StructureAnalysisEvent structureEvent = new StructureAnalysisEvent();
+            structureEvent.begin();
+            structure = analyzeStructure(fileContent, fileBytes, cbor, detected.getFormat(), prescan);
+            structureEvent.end();
+            if (structureEvent.shouldCommit()) {
+                structureEvent.fileId = fileId;
+                structureEvent.payloadSize = fileSize;
+                structureEvent.format = detected.getFormat();
+                structureEvent.confidence = detected.getConfidence();
+                structureEvent.rootType = structure.getRootType();
+                structureEvent.prescanned = prescan != null && prescan.getStructure() == structure;
+                structureEvent.commit();
             }
+
+            // Analyze credentials nested in presentations and multi-document containers
+            embedded = cbor != null ? credentialContainerService.unpackCbor(cbor.array(), cbor.length())
+                    : credentialContainerService.unpack(fileContent, fileBytes);
+        }
+        if (embedded != null) {
+            messages.add("Contains " + embedded.size() + " embedded credential(s)");
+        }
+
+        // Create response
+        FileInfoResponse response = new FileInfoResponse();
+        response.setFileName(fileName);
+        response.setFileId(fileId);
+        response.setFileSize(fileSize);
+        response.setContentType(contentType);
+        response.setSha256(sha256);
+        response.setDetectedFormat(detected.getFormat());
+        response.setFormatConfidence(detected.getConfidence());
+        response.setStructure(structure);
+        response.setStatus(structure.isValid() ? "VALID" : "INVALID");
+        response.setValidationMessages(messages.toArray(new String[0]));
+        response.setEmbeddedCredentials(embedded);
+        response.setMsoDigests(DetectionDetails.msoDigests(detected));
+        response.setIssuerChains(DetectionDetails.issuerChains(detected));
+
+        if (persist) {
+            // Audited first: when the log rejects the record, nothing else of the upload is kept
+            auditLog.record(new AuditRecord(System.currentTimeMillis(), UUID.fromString(fileId), sha256,
+                    detected.getFormat(), detected.getConfidence(), client));
+            store(fileId, fileName, contentType, fileBytes, sha256);
+            trafficAnalytics.record(detected, fileContent.length());
+            credentialAnalysisService.record(fileId, fileName, fileSize, detected.getFormat(),
+                    detected.getConfidence(), detected);
+            analysisResultCache.put(sha256, response.withoutUpload());
         }
-        return "1.1"; // Default assumption
+
+        return response;
     }
 
-    private boolean isISOmDL(JsonNode jsonNode) {
-        // Check for mDL specific fields
-        return jsonNode.has("docType") ||
-                jsonNode.has("namespaces") ||
-                jsonNode.has("deviceSigned") ||
-                jsonNode.has("issuerSigned");
+    /**
+     * Restates the detectors' result in the format names of {@code GET /formats}: W3C VCs
+     * carry their version, a JWS without disclosures is a plain JWT, and confidence is
+     * capped at 1 since detector weights can add up past it.
+     */
+    private static void answer(DetectionResult detected, String content) {
+        String format = switch (detected.getFormat()) {
+            case "W3C-VC" -> "2.0".equals(detected.getVersion()) ? "W3C-VC-2.0" : "W3C-VC-1.1";
+            case "SD-JWT" -> content.indexOf('~') >= 0 ? "SD-JWT" : "JWT";
+            case "Generic-JSON" -> "JSON";
+            default -> detected.getFormat();
+        };
+        detected.setFormat(format);
+        detected.setConfidence(Math.min(1.0, detected.getConfidence()));
     }
 
-    private boolean isCBORFormat(String content) {
-        // Simple check for CBOR - in real implementation, you'd use a CBOR library
-        // CBOR typically starts with specific byte patterns
-        return content.length() > 0 && !content.startsWith("{") && !content.startsWith("[") &&
-                !jwtPattern.matcher(content).matches();
+    private void store(String fileId, String fileName, String contentType, byte[] fileBytes, String sha256) {
+        if (credentialBlobStore.isEnabled()) {
+            try {
+                credentialBlobStore.put(fileId, fileName, contentType, fileBytes, sha256);
+            } catch (IOException e) {
+                // Analysis doesn't depend on the stored copy, only GET .../raw does
+                logger.warn("Could not store raw credential {}: {}", fileId, e.getMessage());
+            }
+        }
     }
 
-    private FileInfoResponse.FileStructure analyzeStructure(String content, String detectedFormat) {
+    private FileInfoResponse.FileStructure analyzeStructure(String content, byte[] fileBytes, PooledBuffer cbor,
+                                                            String detectedFormat, ContentPrescan prescan) {
         FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
+        boolean prescannedJson = prescan != null && prescan.getKind() == ContentPrescan.Kind.JSON
+                && prescan.isWellFormed();
+        boolean prescannedJws = prescan != null && prescan.getKind() == ContentPrescan.Kind.JWS
+                && prescan.getStructure() != null;
 
         try {
             switch (detectedFormat) {
                 case "SD-JWT":
                 case "JWT":
-                    return analyzeJWTStructure(content);
+                    return prescannedJws ? prescan.getStructure() : analyzeJWTStructure(content);
                 case "W3C-VC-1.1":
                 case "W3C-VC-2.0":
                 case "JSON":
-                    return analyzeJSONStructure(content);
+                    return prescannedJson ? prescan.getStructure() : analyzeJSONStructure(content);
                 case "ISO-mDL":
+                    if (prescannedJson) {
+                        structure = prescan.getStructure();
+                        structure.setRootType("mdl");
+                        return structure;
+                    }
                     return analyzemDLStructure(content);
                 case "CBOR":
-                    return analyzeCBORStructure(content);
+                    return analyzeCBORStructure(cbor, fileBytes);
                 default:
                     structure.setRootType("unknown");
                     structure.setValid(false);
@@ -221,81 +327,50 @@ public class FileProcessingService {
     }
 
     private FileInfoResponse.FileStructure analyzeJSONStructure(String content) {
-        FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
-
-        try {
-            JsonNode jsonNode = objectMapper.readTree(content);
-
-            if (jsonNode.isObject()) {
-                structure.setRootType("object");
-                structure.setTotalFields(jsonNode.size());
-
-                // Get top-level keys
-                List<String> keys = new ArrayList<>();
-                jsonNode.fieldNames().forEachRemaining(keys::add);
-                structure.setTopLevelKeys(keys.toArray(new String[0]));
-
-            } else if (jsonNode.isArray()) {
-                structure.setRootType("array");
-                structure.setTotalFields(jsonNode.size());
-                structure.setTopLevelKeys(new String[]{"array[" + jsonNode.size() + "]"});
-            }
-
-            structure.setValid(true);
-            structure.setEncoding("utf-8");
-
+        try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+            return StructureProfiler.profile(parser).toStructure("utf-8");
         } catch (Exception e) {
+            FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
             structure.setValid(false);
             structure.setEncoding("unknown");
+            return structure;
         }
-
-        return structure;
     }
 
     private FileInfoResponse.FileStructure analyzemDLStructure(String content) {
-        FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
-
-        try {
-            JsonNode jsonNode = objectMapper.readTree(content);
+        FileInfoResponse.FileStructure structure = analyzeJSONStructure(content);
+        if (structure.isValid()) {
             structure.setRootType("mdl");
-            structure.setTotalFields(jsonNode.size());
-
-            List<String> keys = new ArrayList<>();
-            jsonNode.fieldNames().forEachRemaining(keys::add);
-            structure.setTopLevelKeys(keys.toArray(new String[0]));
-
-            structure.setValid(true);
-            structure.setEncoding("utf-8");
-
-        } catch (Exception e) {
-            structure.setValid(false);
         }
-
         return structure;
     }
 
-    private FileInfoResponse.FileStructure analyzeCBORStructure(String content) {
-        FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
-
-        structure.setRootType("cbor");
-        structure.setTotalFields(0); // Would need CBOR parsing
-        structure.setTopLevelKeys(new String[]{"binary_data"});
-        structure.setValid(true);
-        structure.setEncoding("binary");
+    private FileInfoResponse.FileStructure analyzeCBORStructure(PooledBuffer decoded, byte[] fileBytes) {
+        // mdoc payloads are usually shipped as base64 text; fall back to the raw upload
+        String encoding = decoded != null ? "base64" : "binary";
+        byte[] cbor = decoded != null ? decoded.array() : fileBytes;
+        int length = decoded != null ? decoded.length() : fileBytes.length;
 
-        return structure;
-    }
-
-    // Helper class for format detection results
-    private static class FormatDetectionResult {
-        String format;
-        double confidence;
-        List<String> messages;
-
-        FormatDetectionResult(String format, double confidence, List<String> messages) {
-            this.format = format;
-            this.confidence = confidence;
-            this.messages = messages;
+        try (JsonParser parser = CBOR_FACTORY.createParser(cbor, 0, length)) {
+            StructureProfiler profiler = StructureProfiler.profile(parser);
+            if (!profiler.isRootComplete()) {
+                throw new IOException("Truncated CBOR item");
+            }
+            FileInfoResponse.FileStructure structure = profiler.toStructure(encoding);
+            if (structure.getTopLevelKeys() == null) {
+                structure.setTotalFields(0);
+                structure.setTopLevelKeys(new String[]{"binary_data"});
+            }
+            structure.setRootType("cbor");
+            return structure;
+        } catch (Exception e) {
+            FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
+            structure.setRootType("cbor");
+            structure.setTotalFields(0);
+            structure.setTopLevelKeys(new String[]{"binary_data"});
+            structure.setValid(false);
+            structure.setEncoding(encoding);
+            return structure;
         }
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,15 @@
 package com.example.UniVC.service;
 
 import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.jfr.DetectorEvent;
+import com.example.UniVC.service.analytics.TrafficAnalytics;
 import com.example.UniVC.service.detector.*;
+import com.example.UniVC.service.detector.rules.DetectionRuleService;
+import com.example.UniVC.service.mdoc.MsoDigestVerifier;
+import com.example.UniVC.service.pki.ChainValidation;
+import com.example.UniVC.service.pki.IssuerCertificates;
+import com.example.UniVC.service.pki.IssuerSignature;
+import com.example.UniVC.service.pki.TrustStoreService;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -12,65 +20,146 @@ import java.util.Optional;
 @Service
 public class FormatDetectionService {
 
+    // Recorded as the detector of the JFR event covering all rule-based formats
+    private static final String RULES_DETECTOR = "rules";
+
     private final List<FormatDetector> detectors;
+    private final DetectionRuleService detectionRules;
+    private final TrafficAnalytics trafficAnalytics;
+    private final TrustStoreService trustStoreService;
 
-    public FormatDetectionService() {
+    public FormatDetectionService(DetectionRuleService detectionRules, TrafficAnalytics trafficAnalytics,
+                                  MsoDigestVerifier msoDigestVerifier, TrustStoreService trustStoreService) {
+        this.detectionRules = detectionRules;
+        this.trafficAnalytics = trafficAnalytics;
+        this.trustStoreService = trustStoreService;
         this.detectors = new ArrayList<>();
-        // Order matters - more specific detectors first
-        this.detectors.add(new SDJWTDetector());
-        this.detectors.add(new W3CVCDetector());
-        this.detectors.add(new ISOmDLDetector());
-        this.detectors.add(new CBORDetector());
+        // SD-JWT, W3C VC and ISO mDL come from detection-rules.json and run first;
+        // order matters for ties - more specific detectors first
+        this.detectors.add(new CBORDetector(msoDigestVerifier, trustStoreService));
         this.detectors.add(new GenericJSONDetector()); // Fallback for JSON
     }
 
     public DetectionResult detectFormat(String content) {
-        List<DetectionResult> results = new ArrayList<>();
+        return detectFormat(content, null);
+    }
 
-        // Run all detectors and collect results
-        for (FormatDetector detector : detectors) {
-            try {
-                DetectionResult result = detector.detect(content);
-                if (result.getConfidence() > 0.0) {
-                    results.add(result);
-                }
-            } catch (Exception e) {
-                // Log error but continue with other detectors
-                System.err.println("Error in detector " + detector.getFormatName() + ": " + e.getMessage());
-            }
-        }
+    /**
+     * @param fileId identifier recorded on the per-detector JFR events, may be null
+     */
+    public DetectionResult detectFormat(String content, String fileId) {
+        DetectionResult detected = analyze(content, fileId);
+        trafficAnalytics.record(detected, content.length());
+        return detected;
+    }
+
+    /**
+     * {@link #detectFormat(String, String)} without recording traffic analytics, for callers
+     * that answer with a result of their own and record that instead.
+     */
+    public DetectionResult analyze(String content, String fileId) {
+        List<DetectionResult> results = runAll(content, fileId);
 
         // Return the result with highest confidence
         Optional<DetectionResult> bestResult = results.stream()
-                .max((r1, r2) -> Double.compare(r1.getPriority(), r2.getPriority()));
-
-        if (bestResult.isPresent()) {
-            return bestResult.get();
-        }
+                .max((r1, r2) -> Double.compare(r1.getConfidence(), r2.getConfidence()));
 
         // Return unknown format if no detector matched
-        return DetectionResult.builder()
+        DetectionResult detected = bestResult.orElseGet(() -> DetectionResult.builder()
                 .format("UNKNOWN")
                 .confidence(0.0)
                 .addMessage("No matching format detected")
                 .addDetail("contentLength", String.valueOf(content.length()))
-                .build();
+                .build());
+        validateIssuerChain(detected, content);
+        return detected;
+    }
+
+    // Only for the result returned, so a JWS pays for its x5c once rather than per format
+    private void validateIssuerChain(DetectionResult detected, String content) {
+        if (!trustStoreService.isEnabled()) {
+            return;
+        }
+        List<byte[]> x5c = IssuerCertificates.fromJws(content);
+        if (x5c.isEmpty()) {
+            return;
+        }
+        ChainValidation chain = trustStoreService.validate(x5c);
+        if (chain == null) {
+            return;
+        }
+        chain = chain.withSignature(IssuerSignature.verifyJws(content, x5c.get(0)));
+        detected.getDetails().put("issuerChain", chain);
+        detected.getMessages().add(chain.describe());
     }
 
     public List<DetectionResult> detectAllFormats(String content) {
-        List<DetectionResult> results = new ArrayList<>();
+        return runAll(content, null);
+    }
+
+    private List<DetectionResult> runAll(String content, String fileId) {
+        List<DetectionResult> results = runRules(content, fileId);
 
+        // Run the remaining detectors and collect results
         for (FormatDetector detector : detectors) {
-            try {
-                DetectionResult result = detector.detect(content);
-                if (result.getConfidence() > 0.0) {
-                    results.add(result);
-                }
-            } catch (Exception e) {
-                System.err.println("Error in detector " + detector.getFormatName() + ": " + e.getMessage());
+            DetectionResult result = runDetector(detector, content, fileId);
+            if (result != null && result.getConfidence() > 0.0) {
+                results.add(result);
             }
         }
-
         return results;
     }
+
+    // One pass scores every rule-based format, so they share one event
+    private List<DetectionResult> runRules(String content, String fileId) {
+        DetectorEvent event = new DetectorEvent();
+        event.begin();
+        List<DetectionResult> results = null;
+        try {
+            results = new ArrayList<>(detectionRules.evaluate(content));
+        } catch (Exception e) {
+            System.err.println("Error in detector " + RULES_DETECTOR + ": " + e.getMessage());
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.fileId = fileId;
+            event.payloadSize = content.length();
+            event.detector = RULES_DETECTOR;
+            event.failed = results == null;
+            if (results != null && !results.isEmpty()) {
+                DetectionResult best = results.stream()
+                        .max((r1, r2) -> Double.compare(r1.getConfidence(), r2.getConfidence()))
+                        .get();
+                event.format = best.getFormat();
+                event.confidence = best.getConfidence();
+            }
+            event.commit();
+        }
+        return results != null ? results : new ArrayList<>();
+    }
+
+    private DetectionResult runDetector(FormatDetector detector, String content, String fileId) {
+        DetectorEvent event = new DetectorEvent();
+        event.begin();
+        DetectionResult result = null;
+        try {
+            result = detector.detect(content);
+        } catch (Exception e) {
+            // Log error but continue with other detectors
+            System.err.println("Error in detector " + detector.getFormatName() + ": " + e.getMessage());
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.fileId = fileId;
+            event.payloadSize = content.length();
+            event.detector = detector.getFormatName();
+            event.failed = result == null;
+            if (result != null) {
+                event.format = result.getFormat();
+                event.confidence = result.getConfidence();
+            }
+            event.commit();
+        }
+        return result;
+    }
 }
\ No newline at end of file
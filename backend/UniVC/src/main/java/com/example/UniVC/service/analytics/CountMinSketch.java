@@ -0,0 +1,63 @@
+package com.example.UniVC.service.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch over strings with lock-free increments. Estimates never undercount;
+ * they overcount by at most {@code e/width} of the total with probability
+ * {@code 1 - e^-depth}.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counts;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int width, int depth) {
+        int rowWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = rowWidth - 1;
+        this.counts = new AtomicLongArray(rowWidth * depth);
+    }
+
+    /**
+     * Counts one occurrence of {@code key}.
+     *
+     * @return the estimate for {@code key} including this occurrence
+     */
+    public long add(String key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (mask + 1) + ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counts.incrementAndGet(index));
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.get(row * (mask + 1) + ((h1 + row * h2) & mask)));
+        }
+        return estimate;
+    }
+
+    // Murmur3 finalizer spreads String.hashCode over 64 bits; rows use double hashing
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.UniVC.service.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Top-k values of an unbounded key space: a {@link CountMinSketch} counts everything and
+ * a small candidate map keeps the keys whose estimates are highest.
+ *
+ * <p>The common cases, a key already tracked or one below the current floor, take no
+ * lock. Admitting a new candidate takes a try-lock and is simply skipped under
+ * contention; a key that is really heavy comes back soon enough.
+ */
+public final class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<String, AtomicLong> candidates = new ConcurrentHashMap<>();
+    private final ReentrantLock admission = new ReentrantLock();
+    // Smallest candidate estimate once the map is full; 0 while it still has room
+    private volatile long floor;
+
+    public HeavyHitters(int capacity, int sketchWidth, int sketchDepth) {
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.capacity = capacity;
+    }
+
+    public void add(String key) {
+        long estimate = sketch.add(key);
+        AtomicLong tracked = candidates.get(key);
+        if (tracked != null) {
+            tracked.lazySet(estimate);
+            return;
+        }
+        if (estimate <= floor || !admission.tryLock()) {
+            return;
+        }
+        try {
+            candidates.putIfAbsent(key, new AtomicLong(estimate));
+            if (candidates.size() > capacity) {
+                String smallest = null;
+                long smallestEstimate = Long.MAX_VALUE;
+                for (Map.Entry<String, AtomicLong> candidate : candidates.entrySet()) {
+                    if (candidate.getValue().get() < smallestEstimate) {
+                        smallest = candidate.getKey();
+                        smallestEstimate = candidate.getValue().get();
+                    }
+                }
+                candidates.remove(smallest);
+                long newFloor = Long.MAX_VALUE;
+                for (AtomicLong value : candidates.values()) {
+                    newFloor = Math.min(newFloor, value.get());
+                }
+                floor = newFloor;
+            }
+        } finally {
+            admission.unlock();
+        }
+    }
+
+    public long estimate(String key) {
+        return sketch.estimate(key);
+    }
+
+    /**
+     * @return up to {@code capacity} keys, highest estimate first
+     */
+    public List<Map.Entry<String, Long>> top() {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(capacity);
+        for (String key : candidates.keySet()) {
+            top.add(Map.entry(key, sketch.estimate(key)));
+        }
+        top.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return top;
+    }
+}
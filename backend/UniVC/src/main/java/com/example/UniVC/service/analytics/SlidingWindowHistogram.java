@@ -0,0 +1,103 @@
+package com.example.UniVC.service.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-bucket histogram over the last {@code window} of time, kept as a ring of slots
+ * that are recycled as time moves on. Recording is a binary search plus one
+ * {@link LongAdder} increment; a slot is only cleared once per slot period.
+ */
+public final class SlidingWindowHistogram {
+
+    private final double[] upperBounds;
+    private final Slot[] slots;
+    private final long slotMillis;
+    private final LongSupplier clock;
+
+    private static final class Slot {
+        volatile long tick = -1;
+        final LongAdder[] counts;
+
+        Slot(int buckets) {
+            counts = new LongAdder[buckets];
+            for (int i = 0; i < buckets; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * @param upperBounds inclusive, ascending bucket bounds; larger values go to an overflow bucket
+     */
+    public SlidingWindowHistogram(double[] upperBounds, long windowMillis, int slotCount) {
+        this(upperBounds, windowMillis, slotCount, System::currentTimeMillis);
+    }
+
+    SlidingWindowHistogram(double[] upperBounds, long windowMillis, int slotCount, LongSupplier clock) {
+        this.upperBounds = upperBounds.clone();
+        this.slotMillis = Math.max(1, windowMillis / slotCount);
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot(upperBounds.length + 1);
+        }
+        this.clock = clock;
+    }
+
+    public void record(double value) {
+        record(value, clock.getAsLong());
+    }
+
+    /**
+     * Records with a timestamp the caller already has, saving a clock read.
+     */
+    public void record(double value, long nowMillis) {
+        int bucket = Arrays.binarySearch(upperBounds, value);
+        if (bucket < 0) {
+            bucket = -bucket - 1;
+        }
+        current(nowMillis).counts[bucket].increment();
+    }
+
+    private Slot current(long nowMillis) {
+        long tick = nowMillis / slotMillis;
+        Slot slot = slots[(int) (tick % slots.length)];
+        if (slot.tick != tick) {
+            synchronized (slot) {
+                if (slot.tick != tick) {
+                    for (LongAdder count : slot.counts) {
+                        count.reset();
+                    }
+                    slot.tick = tick;
+                }
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * @return counts per bucket within the window; the last entry is the overflow bucket
+     */
+    public long[] snapshot() {
+        long tick = clock.getAsLong() / slotMillis;
+        long[] counts = new long[upperBounds.length + 1];
+        for (Slot slot : slots) {
+            long slotTick = slot.tick;
+            if (slotTick > tick - slots.length && slotTick <= tick) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += slot.counts[i].sum();
+                }
+            }
+        }
+        return counts;
+    }
+
+    public double[] upperBounds() {
+        return upperBounds.clone();
+    }
+
+    public long windowMillis() {
+        return slotMillis * slots.length;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.UniVC.service.analytics;
+
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.service.detector.DetectionDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live traffic statistics over detection results, cheap enough to update on every
+ * detection: {@link LongAdder} counters for formats and versions, {@link HeavyHitters}
+ * for issuers and credential types, and {@link SlidingWindowHistogram}s for confidence
+ * and payload size. Counters and sketches cover the whole uptime, histograms the
+ * configured window.
+ */
+@Component
+public class TrafficAnalytics {
+
+    private static final double[] CONFIDENCE_BOUNDS = {
+            0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9, 1.0, 1.25, 1.5, 2.0
+    };
+    // Powers of two from 64 bytes to 16MB
+    private static final double[] SIZE_BOUNDS = new double[19];
+
+    static {
+        for (int i = 0; i < SIZE_BOUNDS.length; i++) {
+            SIZE_BOUNDS[i] = 64L << i;
+        }
+    }
+
+    private final boolean enabled;
+    private final Instant since = Instant.now();
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> formats = new ConcurrentHashMap<>();
+    // format -> version -> count, nested so the hot path never builds a key string
+    private final Map<String, Map<String, LongAdder>> versions = new ConcurrentHashMap<>();
+    private final HeavyHitters issuers;
+    private final HeavyHitters credentialTypes;
+    private final SlidingWindowHistogram confidence;
+    private final SlidingWindowHistogram payloadSize;
+
+    public TrafficAnalytics(@Value("${app.analytics.enabled:true}") boolean enabled,
+                            @Value("${app.analytics.top-k:20}") int topK,
+                            @Value("${app.analytics.sketch-width:2048}") int sketchWidth,
+                            @Value("${app.analytics.sketch-depth:4}") int sketchDepth,
+                            @Value("${app.analytics.window:5m}") Duration window,
+                            @Value("${app.analytics.window-slots:30}") int windowSlots) {
+        this.enabled = enabled;
+        this.issuers = new HeavyHitters(topK, sketchWidth, sketchDepth);
+        this.credentialTypes = new HeavyHitters(topK, sketchWidth, sketchDepth);
+        this.confidence = new SlidingWindowHistogram(CONFIDENCE_BOUNDS, window.toMillis(), windowSlots);
+        this.payloadSize = new SlidingWindowHistogram(SIZE_BOUNDS, window.toMillis(), windowSlots);
+    }
+
+    public void record(DetectionResult result, int payloadLength) {
+        if (!enabled) {
+            return;
+        }
+        total.increment();
+        String format = result.getFormat() != null ? result.getFormat() : "UNKNOWN";
+        counter(formats, format).increment();
+        if (result.getVersion() != null) {
+            Map<String, LongAdder> formatVersions = versions.get(format);
+            if (formatVersions == null) {
+                formatVersions = versions.computeIfAbsent(format, k -> new ConcurrentHashMap<>());
+            }
+            counter(formatVersions, result.getVersion()).increment();
+        }
+
+        String issuer = DetectionDetails.issuer(result);
+        if (issuer != null) {
+            issuers.add(issuer);
+        }
+        String credentialType = DetectionDetails.credentialType(result);
+        if (credentialType != null) {
+            credentialTypes.add(credentialType);
+        }
+
+        long now = System.currentTimeMillis();
+        confidence.record(result.getConfidence(), now);
+        payloadSize.record(payloadLength, now);
+    }
+
+    // get() first: computeIfAbsent locks the bin even when the key is present
+    private static LongAdder counter(Map<String, LongAdder> counters, String key) {
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("since", since.toString());
+        snapshot.put("total", total.sum());
+        snapshot.put("formats", sums(formats));
+        Map<String, Long> versionSums = new TreeMap<>();
+        versions.forEach((format, counters) ->
+                counters.forEach((version, counter) -> versionSums.put(format + " " + version, counter.sum())));
+        snapshot.put("versions", versionSums);
+        snapshot.put("topIssuers", top(issuers));
+        snapshot.put("topCredentialTypes", top(credentialTypes));
+        snapshot.put("confidence", histogram(confidence));
+        snapshot.put("payloadSize", histogram(payloadSize));
+        return snapshot;
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+
+    private static List<Map<String, Object>> top(HeavyHitters heavyHitters) {
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : heavyHitters.top()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("value", entry.getKey());
+            item.put("estimate", entry.getValue());
+            top.add(item);
+        }
+        return top;
+    }
+
+    private static Map<String, Object> histogram(SlidingWindowHistogram histogram) {
+        double[] bounds = histogram.upperBounds();
+        long[] counts = histogram.snapshot();
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("le", i < bounds.length ? bounds[i] : "+Inf");
+            bucket.put("count", counts[i]);
+            buckets.add(bucket);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", Duration.ofMillis(histogram.windowMillis()).toString());
+        result.put("count", count);
+        // Percentiles resolve to the upper bound of the bucket they fall in
+        result.put("p50", percentile(bounds, counts, count, 0.50));
+        result.put("p90", percentile(bounds, counts, count, 0.90));
+        result.put("p99", percentile(bounds, counts, count, 0.99));
+        result.put("buckets", buckets);
+        return result;
+    }
+
+    private static Object percentile(double[] bounds, long[] counts, long count, double quantile) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < bounds.length ? bounds[i] : "+Inf";
+            }
+        }
+        return "+Inf";
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.UniVC.service.analytics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/traffic}: format mix, top issuers and credential types, and
+ * confidence and payload size distributions from {@link TrafficAnalytics}.
+ */
+@Component
+@Endpoint(id = "traffic")
+public class TrafficEndpoint {
+
+    private final TrafficAnalytics trafficAnalytics;
+
+    public TrafficEndpoint(TrafficAnalytics trafficAnalytics) {
+        this.trafficAnalytics = trafficAnalytics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traffic() {
+        return trafficAnalytics.snapshot();
+    }
+}
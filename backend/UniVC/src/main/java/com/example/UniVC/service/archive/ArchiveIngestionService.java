@@ -0,0 +1,283 @@
+package com.example.UniVC.service.archive;
+
+import com.example.UniVC.dto.ArchiveEntryResult;
+import com.example.UniVC.dto.ArchiveSummary;
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.service.FormatDetectionService;
+import com.example.UniVC.service.analytics.TrafficAnalytics;
+import com.example.UniVC.service.audit.AuditLog;
+import com.example.UniVC.service.audit.AuditRecord;
+import com.example.UniVC.service.buffer.BufferPool;
+import com.example.UniVC.service.buffer.PooledBuffer;
+import com.example.UniVC.service.detector.DetectionDetails;
+import com.example.UniVC.service.store.CredentialBlobStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs every file in a ZIP or TAR(.gz) archive through format detection without
+ * extracting it. The archive is read on the calling thread while detection runs on a
+ * bounded pool; when the pool and its queue are full the reader analyzes the entry
+ * itself, which throttles reading to the pace of detection and bounds memory to a few
+ * entries per worker.
+ *
+ * <p>Entry count, entry size and total decompressed size are capped, and bytes are
+ * counted as they come out of the decompressor, so a zip bomb is cut off after
+ * {@code max-total-size} no matter what its headers claim.
+ */
+@Service
+public class ArchiveIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveIngestionService.class);
+
+    @Value("${app.archives.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.archives.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.archives.max-entry-size:10MB}")
+    private DataSize maxEntrySize;
+
+    @Value("${app.archives.max-total-size:1GB}")
+    private DataSize maxTotalSize;
+
+    private final FormatDetectionService formatDetectionService;
+    private final TrafficAnalytics trafficAnalytics;
+    private final AuditLog auditLog;
+    private ThreadPoolExecutor executor;
+
+    public ArchiveIngestionService(FormatDetectionService formatDetectionService, TrafficAnalytics trafficAnalytics,
+                                   AuditLog auditLog) {
+        this.formatDetectionService = formatDetectionService;
+        this.trafficAnalytics = trafficAnalytics;
+        this.auditLog = auditLog;
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), r -> {
+                    Thread thread = new Thread(r, "univc-archive-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, pool) -> {
+                    // Caller-runs, except that a task dropped during shutdown would leave ingest() waiting forever
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Archive ingestion is shutting down");
+                    }
+                    task.run();
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sniffs the archive format so a bad upload can be rejected before streaming starts.
+     *
+     * @throws IllegalArgumentException if the stream is not a supported archive
+     */
+    public ArchiveReader open(InputStream archive) throws IOException {
+        return ArchiveReader.open(archive);
+    }
+
+    /**
+     * Analyzes every regular file in the archive, passing each result to {@code sink} as
+     * soon as it is ready. Calls to {@code sink} are serialized but come from pool threads
+     * in completion order; if it throws, the rest of the archive is abandoned. Each analyzed
+     * entry is audited under a file id of its own.
+     *
+     * @param client caller recorded in the audit log, null if unknown
+     */
+    public ArchiveSummary ingest(ArchiveReader archive, String client, Consumer<ArchiveEntryResult> sink) {
+        long started = System.nanoTime();
+        Run run = new Run(sink, client);
+        ArchiveSummary summary = new ArchiveSummary();
+        summary.setArchiveFormat(archive.format());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        try (ArchiveReader reader = archive) {
+            byte[] buffer = new byte[8192];
+            ArchiveReader.Entry entry;
+            while (!run.abandoned && (entry = reader.next()) != null) {
+                if (run.entries == maxEntries) {
+                    summary.setError("Archive has more than " + maxEntries + " entries");
+                    break;
+                }
+                int index = run.entries++;
+                if (!entry.regularFile()) {
+                    continue;
+                }
+
+                // Handed to analyze, which closes it; closed here if it never gets there
+                PooledBuffer content = BufferPool.shared().acquire(buffer.length);
+                try {
+                    long size = 0;
+                    int read;
+                    while ((read = entry.content().read(buffer)) > 0) {
+                        size += read;
+                        run.totalBytes += read;
+                        if (run.totalBytes > maxTotalSize.toBytes()) {
+                            break;
+                        }
+                        // Oversized entries are still read through so the total stays honest
+                        if (size <= maxEntrySize.toBytes()) {
+                            content.append(buffer, 0, read);
+                        }
+                    }
+                    if (run.totalBytes > maxTotalSize.toBytes()) {
+                        summary.setError("Archive expands to more than " + maxTotalSize.toBytes() + " bytes");
+                        break;
+                    }
+
+                    String name = entry.name();
+                    if (size > maxEntrySize.toBytes()) {
+                        run.emit(skipped(index, name, size, "Entry exceeds " + maxEntrySize.toBytes() + " bytes"));
+                        continue;
+                    }
+                    PooledBuffer entryContent = content;
+                    pending.add(CompletableFuture.runAsync(() -> analyze(run, index, name, entryContent), executor));
+                    content = null;
+                } finally {
+                    if (content != null) {
+                        content.close();
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            // Report what was analyzed so far; the summary carries the failure
+            summary.setError("Could not read archive: " + e.getMessage());
+        } finally {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        }
+        if (run.abandoned && summary.getError() == null) {
+            summary.setError("Result stream closed before the archive was read");
+        }
+
+        summary.setEntries(run.entries);
+        summary.setAnalyzed(run.analyzed.get());
+        summary.setSkipped(run.skipped.get());
+        summary.setFailed(run.failed.get());
+        summary.setTotalBytes(run.totalBytes);
+        summary.setFormats(run.formats);
+        summary.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return summary;
+    }
+
+    private void analyze(Run run, int index, String name, PooledBuffer content) {
+        int size;
+        String text;
+        String sha256;
+        try (content) {
+            if (run.abandoned) {
+                return;
+            }
+            size = content.length();
+            text = new String(content.array(), 0, size);
+            sha256 = CredentialBlobStore.sha256Hex(content.array(), 0, size);
+        }
+        ArchiveEntryResult result = new ArchiveEntryResult();
+        result.setIndex(index);
+        result.setName(name);
+        result.setSize(size);
+        try {
+            DetectionResult detection = formatDetectionService.analyze(text, name);
+            // Audited before anything else records the entry; a rejected record fails it
+            auditLog.record(new AuditRecord(System.currentTimeMillis(), UUID.randomUUID(), sha256,
+                    detection.getFormat(), detection.getConfidence(), run.client));
+            trafficAnalytics.record(detection, text.length());
+            result.setStatus(ArchiveEntryResult.ANALYZED);
+            result.setFormat(detection.getFormat());
+            result.setVersion(detection.getVersion());
+            result.setIssuer(DetectionDetails.issuer(detection));
+            result.setCredentialType(DetectionDetails.credentialType(detection));
+            result.setIssuerTrusted(DetectionDetails.issuerTrusted(detection));
+            result.setConfidence(detection.getConfidence());
+        } catch (RuntimeException e) {
+            logger.debug("Could not analyze archive entry {}", name, e);
+            result.setStatus(ArchiveEntryResult.FAILED);
+            result.setMessage(e.getMessage());
+        }
+        run.emit(result);
+    }
+
+    private static ArchiveEntryResult skipped(int index, String name, long size, String message) {
+        ArchiveEntryResult result = new ArchiveEntryResult();
+        result.setIndex(index);
+        result.setName(name);
+        result.setSize(size);
+        result.setStatus(ArchiveEntryResult.SKIPPED);
+        result.setMessage(message);
+        return result;
+    }
+
+    /**
+     * State of one ingestion. {@code entries} and {@code totalBytes} belong to the reading
+     * thread; everything touched by {@link #emit} is guarded by the run's monitor.
+     */
+    private static final class Run {
+        private final Consumer<ArchiveEntryResult> sink;
+        private final String client;
+        private final AtomicInteger analyzed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Map<String, Integer> formats = new TreeMap<>();
+        private volatile boolean abandoned;
+        private int entries;
+        private long totalBytes;
+
+        private Run(Consumer<ArchiveEntryResult> sink, String client) {
+            this.sink = sink;
+            this.client = client;
+        }
+
+        private synchronized void emit(ArchiveEntryResult result) {
+            switch (result.getStatus()) {
+                case ArchiveEntryResult.ANALYZED -> {
+                    analyzed.incrementAndGet();
+                    formats.merge(result.getFormat() != null ? result.getFormat() : "UNKNOWN", 1, Integer::sum);
+                }
+                case ArchiveEntryResult.SKIPPED -> skipped.incrementAndGet();
+                default -> failed.incrementAndGet();
+            }
+            if (abandoned) {
+                return;
+            }
+            try {
+                sink.accept(result);
+            } catch (RuntimeException e) {
+                // Usually the client went away; nobody is left to read the rest
+                logger.debug("Archive result sink failed, abandoning archive", e);
+                abandoned = true;
+            }
+        }
+    }
+}
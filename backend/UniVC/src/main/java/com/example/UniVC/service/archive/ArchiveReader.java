@@ -0,0 +1,89 @@
+package com.example.UniVC.service.archive;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Forward-only iteration over the entries of a ZIP, TAR or gzip-compressed TAR stream.
+ * Nothing is extracted to disk; each entry's content is readable until the next call
+ * to {@link #next()}.
+ */
+public interface ArchiveReader extends Closeable {
+
+    /**
+     * @return the next entry, or null at the end of the archive
+     */
+    Entry next() throws IOException;
+
+    /**
+     * ZIP, TAR or TAR.GZ
+     */
+    String format();
+
+    record Entry(String name, boolean regularFile, InputStream content) {
+    }
+
+    /**
+     * Sniffs the format from the first bytes of {@code in}.
+     *
+     * @throws IllegalArgumentException if it is neither ZIP, TAR nor gzip-compressed TAR
+     */
+    static ArchiveReader open(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, TarArchiveReader.BLOCK_SIZE * 2);
+        buffered.mark(TarArchiveReader.BLOCK_SIZE);
+        byte[] head = buffered.readNBytes(TarArchiveReader.BLOCK_SIZE);
+        buffered.reset();
+
+        if (head.length >= 4 && head[0] == 'P' && head[1] == 'K' && head[2] == 3 && head[3] == 4) {
+            return new ZipArchiveReader(new ZipInputStream(buffered));
+        }
+        if (head.length >= 2 && (head[0] & 0xff) == 0x1f && (head[1] & 0xff) == 0x8b) {
+            BufferedInputStream inflated = new BufferedInputStream(new GZIPInputStream(buffered),
+                    TarArchiveReader.BLOCK_SIZE * 2);
+            inflated.mark(TarArchiveReader.BLOCK_SIZE);
+            byte[] tarHead = inflated.readNBytes(TarArchiveReader.BLOCK_SIZE);
+            inflated.reset();
+            if (TarArchiveReader.isTarHeader(tarHead)) {
+                return new TarArchiveReader(inflated, "TAR.GZ");
+            }
+            throw new IllegalArgumentException("gzip content is not a TAR archive");
+        }
+        if (TarArchiveReader.isTarHeader(head)) {
+            return new TarArchiveReader(buffered, "TAR");
+        }
+        throw new IllegalArgumentException("Unsupported archive format, expected ZIP, TAR or TAR.GZ");
+    }
+
+    final class ZipArchiveReader implements ArchiveReader {
+        private final ZipInputStream zip;
+
+        ZipArchiveReader(ZipInputStream zip) {
+            this.zip = zip;
+        }
+
+        @Override
+        public Entry next() throws IOException {
+            ZipEntry entry = zip.getNextEntry();
+            if (entry == null) {
+                return null;
+            }
+            // Reads stop at the end of the entry; the caller never closes it
+            return new Entry(entry.getName(), !entry.isDirectory(), zip);
+        }
+
+        @Override
+        public String format() {
+            return "ZIP";
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.UniVC.service.archive;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming reader for POSIX ustar and GNU tar, including GNU long names and pax
+ * {@code path} records. Only what entry iteration needs: links, sparse files and other
+ * special entries are reported as non-regular and skipped over.
+ */
+final class TarArchiveReader implements ArchiveReader {
+
+    static final int BLOCK_SIZE = 512;
+    // Long names are metadata; anything bigger is not a real tar header
+    private static final int MAX_NAME_RECORD = 64 * 1024;
+
+    private final InputStream in;
+    private final String format;
+    private final byte[] header = new byte[BLOCK_SIZE];
+    private long remaining;
+    private long padding;
+    private boolean finished;
+
+    TarArchiveReader(InputStream in, String format) {
+        this.in = in;
+        this.format = format;
+    }
+
+    /**
+     * True if {@code block} is a tar header with a valid checksum.
+     */
+    static boolean isTarHeader(byte[] block) {
+        if (block.length < BLOCK_SIZE) {
+            return false;
+        }
+        long stored;
+        try {
+            stored = parseNumber(block, 148, 8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return stored == checksum(block);
+    }
+
+    @Override
+    public Entry next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        skip(remaining + padding);
+        remaining = 0;
+        padding = 0;
+
+        String longName = null;
+        while (true) {
+            if (!readBlock()) {
+                finished = true;
+                return null;
+            }
+            if (isZeroBlock()) {
+                // End-of-archive marker
+                finished = true;
+                return null;
+            }
+            if (!isTarHeader(header)) {
+                throw new IOException("Corrupt TAR header");
+            }
+
+            byte type = header[156];
+            long size;
+            try {
+                size = parseNumber(header, 124, 12);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt TAR header");
+            }
+            if (type == 'L' || type == 'x') {
+                if (size > MAX_NAME_RECORD) {
+                    throw new IOException("TAR metadata record too large: " + size);
+                }
+                byte[] record = readFully((int) size);
+                skip(padding(size));
+                String name = type == 'L' ? cString(record, 0, record.length) : paxPath(record);
+                if (name != null) {
+                    longName = name;
+                }
+                continue;
+            }
+            if (type == 'g') {
+                skip(size + padding(size));
+                continue;
+            }
+
+            String name = longName != null ? longName : headerName();
+            boolean regular = type == '0' || type == 0 || type == '7';
+            // Only regular files carry content; other types may still declare a size
+            remaining = regular || type == 'S' ? size : 0;
+            padding = regular || type == 'S' ? padding(size) : 0;
+            return new Entry(name, regular, new EntryStream());
+        }
+    }
+
+    @Override
+    public String format() {
+        return format;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String headerName() {
+        String name = cString(header, 0, 100);
+        boolean ustar = header[257] == 'u' && header[258] == 's' && header[259] == 't'
+                && header[260] == 'a' && header[261] == 'r';
+        if (ustar) {
+            String prefix = cString(header, 345, 155);
+            if (!prefix.isEmpty()) {
+                return prefix + "/" + name;
+            }
+        }
+        return name;
+    }
+
+    // pax records are "<length> <key>=<value>\n"
+    private static String paxPath(byte[] record) {
+        int position = 0;
+        while (position < record.length) {
+            int space = indexOf(record, (byte) ' ', position);
+            if (space < 0) {
+                return null;
+            }
+            int length;
+            try {
+                length = Integer.parseInt(new String(record, position, space - position, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (length <= 0 || position + length > record.length) {
+                return null;
+            }
+            String entry = new String(record, space + 1, position + length - space - 2, StandardCharsets.UTF_8);
+            if (entry.startsWith("path=")) {
+                return entry.substring(5);
+            }
+            position += length;
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long padding(long size) {
+        long partial = size % BLOCK_SIZE;
+        return partial == 0 ? 0 : BLOCK_SIZE - partial;
+    }
+
+    private boolean isZeroBlock() {
+        for (byte b : header) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readBlock() throws IOException {
+        int read = in.readNBytes(header, 0, BLOCK_SIZE);
+        if (read == 0) {
+            return false;
+        }
+        if (read < BLOCK_SIZE) {
+            throw new EOFException("Truncated TAR header");
+        }
+        return true;
+    }
+
+    private byte[] readFully(int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated TAR entry");
+        }
+        return bytes;
+    }
+
+    private void skip(long count) throws IOException {
+        try {
+            in.skipNBytes(count);
+        } catch (EOFException e) {
+            throw new EOFException("Truncated TAR entry");
+        }
+    }
+
+    private static long checksum(byte[] block) {
+        long sum = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            // The checksum field itself counts as spaces
+            sum += i >= 148 && i < 156 ? ' ' : block[i] & 0xff;
+        }
+        return sum;
+    }
+
+    /**
+     * Octal, NUL or space terminated; or GNU base-256 when the high bit is set.
+     */
+    static long parseNumber(byte[] block, int offset, int length) {
+        if ((block[offset] & 0x80) != 0) {
+            long value = block[offset] & 0x7f;
+            for (int i = 1; i < length; i++) {
+                value = (value << 8) | (block[offset + i] & 0xff);
+            }
+            return value;
+        }
+        long value = 0;
+        int i = offset;
+        int end = offset + length;
+        while (i < end && (block[i] == ' ' || block[i] == 0)) {
+            i++;
+        }
+        for (; i < end && block[i] != 0 && block[i] != ' '; i++) {
+            if (block[i] < '0' || block[i] > '7') {
+                throw new IllegalArgumentException("Invalid octal number in TAR header");
+            }
+            value = (value << 3) | (block[i] - '0');
+        }
+        return value;
+    }
+
+    private static String cString(byte[] bytes, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && bytes[end] != 0) {
+            end++;
+        }
+        return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Content of the current entry; stops at its end.
+     */
+    private final class EntryStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated TAR entry");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read < 0) {
+                throw new EOFException("Truncated TAR entry");
+            }
+            remaining -= read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.UniVC.service.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only record of every analysis, for compliance. {@link #record} only puts the
+ * record on a lock-free queue; a single writer thread appends it to the current segment
+ * file and fsyncs once {@code app.audit.commit-batch} records are pending or the oldest
+ * has waited {@code app.audit.commit-interval}, so one fsync covers a whole group. A
+ * segment is closed and a new one started when it would exceed {@code app.audit.segment-size}.
+ *
+ * <pre>
+ * segment: magic "UVCA" | version | {@link AuditRecord}*
+ * </pre>
+ * A crash can leave a torn record at the end of the last segment; {@link AuditLogReader}
+ * stops there. Segments are never appended to after a restart.
+ *
+ * <p>When the writer falls {@code app.audit.queue-capacity} records behind, callers wait
+ * up to {@code app.audit.offer-timeout} and then get a {@link RejectedExecutionException},
+ * rather than analyses going unrecorded. A failed write is retried in a new segment with
+ * backoff, keeping every record; while writes keep failing, callers that would wait are
+ * rejected at once with the cause.
+ */
+@Service
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+    static final int MAGIC = 0x55564341;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.directory:${java.io.tmpdir}/univc-audit}")
+    private String directoryName;
+
+    @Value("${app.audit.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.audit.commit-interval:10ms}")
+    private Duration commitInterval;
+
+    @Value("${app.audit.commit-batch:1024}")
+    private int commitBatch;
+
+    @Value("${app.audit.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${app.audit.offer-timeout:1s}")
+    private Duration offerTimeout;
+
+    private final ConcurrentLinkedQueue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    // Slots taken on the queue; reserved before the offer so the bound holds
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final LongAdder fsyncs = new LongAdder();
+    private volatile long durable;
+    private volatile boolean running;
+    private volatile boolean writerIdle;
+    private volatile boolean flushRequested;
+    // Last write failure, until a write succeeds again
+    private volatile IOException failure;
+    private Thread writer;
+
+    // Writer thread only
+    private Path directory;
+    private long nextSegmentId;
+    private FileChannel channel;
+    // Of the current segment, or the next one while none is open
+    private long segmentBytes = HEADER_SIZE;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private int unsynced;
+    private long oldestUnsyncedNanos;
+    private int consecutiveFailures;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Path.of(directoryName);
+        Files.createDirectories(directory);
+        List<Path> segments = AuditLogReader.segments(directory);
+        nextSegmentId = segments.isEmpty() ? 0 : AuditLogReader.segmentId(segments.get(segments.size() - 1)) + 1;
+        running = true;
+        writer = new Thread(this::write, "univc-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Audit log at {}, starting with segment {}", directory, nextSegmentId);
+    }
+
+    /**
+     * Writes out and fsyncs what is queued, then stops the writer.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a record; it is on disk within about {@code app.audit.commit-interval}.
+     *
+     * @throws RejectedExecutionException if the log is closed, or the writer stays too far behind
+     */
+    public void record(AuditRecord record) {
+        if (!enabled) {
+            return;
+        }
+        long deadline = 0;
+        int pending;
+        while (true) {
+            if (!running) {
+                throw new RejectedExecutionException("Audit log is closed");
+            }
+            pending = queued.get();
+            if (pending < queueCapacity) {
+                if (queued.compareAndSet(pending, pending + 1)) {
+                    break;
+                }
+                continue;
+            }
+            IOException cause = failure;
+            if (cause != null) {
+                throw new RejectedExecutionException("Audit log cannot write: " + cause.getMessage(), cause);
+            }
+            long now = System.nanoTime();
+            if (deadline == 0) {
+                deadline = now + offerTimeout.toNanos();
+            } else if (now - deadline > 0) {
+                throw new RejectedExecutionException("Audit log is " + queueCapacity + " records behind");
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        queue.offer(record);
+        accepted.incrementAndGet();
+        // An idle writer starts the interval now; a full batch shouldn't wait for it
+        if (writerIdle || pending + 1 == commitBatch) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Blocks until every record queued before the call is fsynced.
+     *
+     * @throws IOException if writes are failing; the records stay queued for the retry
+     */
+    public void flush() throws InterruptedException, IOException {
+        if (writer == null) {
+            return;
+        }
+        long target = accepted.get();
+        synchronized (this) {
+            while (durable < target && writer.isAlive()) {
+                IOException cause = failure;
+                if (cause != null) {
+                    throw new IOException("Audit log cannot write: " + cause.getMessage(), cause);
+                }
+                flushRequested = true;
+                LockSupport.unpark(writer);
+                wait(100);
+            }
+        }
+    }
+
+    /** Records queued and not yet written. */
+    public int pending() {
+        return queued.get();
+    }
+
+    /** Records written and fsynced. */
+    public long durable() {
+        return durable;
+    }
+
+    /** Group commits so far. */
+    public long fsyncs() {
+        return fsyncs.sum();
+    }
+
+    private void write() {
+        while (true) {
+            AuditRecord record = queue.poll();
+            if (record != null) {
+                queued.decrementAndGet();
+                append(record);
+                if (unsynced >= commitBatch) {
+                    commit();
+                }
+                continue;
+            }
+            if (unsynced > 0 && (!running || flushRequested
+                    || System.nanoTime() - oldestUnsyncedNanos >= commitInterval.toNanos())) {
+                commit();
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+            if (unsynced == 0) {
+                flushRequested = false;
+                writerIdle = true;
+                // Recheck after publishing idle, so a record offered in between is not left waiting
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(commitInterval.toNanos());
+                }
+                writerIdle = false;
+            } else {
+                LockSupport.parkNanos(commitInterval.toNanos() - (System.nanoTime() - oldestUnsyncedNanos));
+            }
+        }
+        closeSegment();
+    }
+
+    private void append(AuditRecord record) {
+        // The buffer only empties once a write succeeds
+        while (buffer.remaining() < AuditRecord.MAX_SIZE) {
+            drain();
+        }
+        int start = buffer.position();
+        record.writeTo(buffer);
+        if (segmentBytes + buffer.position() > segmentSize.toBytes() && segmentBytes + start > HEADER_SIZE) {
+            // Roll over: the record goes first into the next segment
+            buffer.position(start);
+            commit();
+            closeSegment();
+            record.writeTo(buffer);
+        }
+        if (unsynced++ == 0) {
+            oldestUnsyncedNanos = System.nanoTime();
+        }
+    }
+
+    private void commit() {
+        try {
+            drainOrThrow();
+            channel.force(false);
+            fsyncs.increment();
+            synchronized (this) {
+                durable += unsynced;
+                unsynced = 0;
+                notifyAll();
+            }
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    private void drain() {
+        try {
+            drainOrThrow();
+        } catch (IOException e) {
+            failed(e);
+        }
+    }
+
+    // Logs the first of a run of failures, then backs off from commit-interval up to a second
+    private void failed(IOException e) {
+        if (failure == null) {
+            logger.error("Audit log write failed, retrying in a new segment", e);
+        } else {
+            logger.debug("Audit log write failed again: {}", e.getMessage());
+        }
+        failure = e;
+        closeSegment();
+        long backoff = commitInterval.toNanos() << Math.min(consecutiveFailures++, 16);
+        LockSupport.parkNanos(Math.min(backoff, TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    // On failure the whole buffer is kept for the next segment: a record may then appear
+    // twice, but is never split across segments or lost
+    private void drainOrThrow() throws IOException {
+        if (channel == null) {
+            openSegment();
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            segmentBytes += buffer.limit();
+            buffer.clear();
+            if (failure != null) {
+                logger.info("Audit log writes recovered after {} failures", consecutiveFailures);
+                failure = null;
+            }
+            consecutiveFailures = 0;
+        } catch (IOException e) {
+            buffer.position(buffer.limit()).limit(buffer.capacity());
+            throw e;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(AuditLogReader.fileName(nextSegmentId++));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Could not close audit segment: {}", e.getMessage());
+        }
+        channel = null;
+        segmentBytes = HEADER_SIZE;
+    }
+}
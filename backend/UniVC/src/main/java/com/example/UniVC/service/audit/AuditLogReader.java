@@ -0,0 +1,166 @@
+package com.example.UniVC.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Replays the segments of an {@link AuditLog} in order, and exports them.
+ *
+ * <pre>
+ * java -cp app.jar com.example.UniVC.service.audit.AuditLogReader /var/lib/univc-audit \
+ *     --format=csv --since=2026-01-01T00:00:00Z --until=2026-02-01T00:00:00Z
+ * </pre>
+ *
+ * From the fat jar use {@code -Dloader.main=...} with the PropertiesLauncher as for
+ * {@code JfrPipelineReport}. {@code --format} is {@code jsonl} (default) or {@code csv};
+ * the bounds are optional, {@code since} inclusive and {@code until} exclusive. A torn
+ * record ends its segment and is reported on stderr.
+ */
+public final class AuditLogReader {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Where reading a segment stopped early, e.g. at the record a crash left half written.
+     */
+    public record Damage(Path segment, long offset) {
+    }
+
+    private AuditLogReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: AuditLogReader <directory> [--format=jsonl|csv] [--since=<instant>] [--until=<instant>]");
+            System.exit(2);
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (!args[i].startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + args[i]);
+            }
+            options.put(args[i].substring(2, eq), args[i].substring(eq + 1));
+        }
+        boolean csv = "csv".equals(options.getOrDefault("format", "jsonl"));
+        long since = options.containsKey("since") ? Instant.parse(options.get("since")).toEpochMilli() : Long.MIN_VALUE;
+        long until = options.containsKey("until") ? Instant.parse(options.get("until")).toEpochMilli() : Long.MAX_VALUE;
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        if (csv) {
+            out.write("timestamp,fileId,sha256,format,confidence,client\n");
+        }
+        List<Damage> damage = read(Path.of(args[0]), record -> {
+            if (record.timestamp() < since || record.timestamp() >= until) {
+                return;
+            }
+            try {
+                out.write(csv ? csv(record) : json(record));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+        for (Damage d : damage) {
+            System.err.println("Stopped reading " + d.segment() + " at a damaged record at offset " + d.offset());
+        }
+    }
+
+    /**
+     * Passes every intact record to {@code consumer}, oldest segment first.
+     *
+     * @return the segments that ended in a torn or corrupt record
+     */
+    public static List<Damage> read(Path directory, Consumer<AuditRecord> consumer) throws IOException {
+        List<Damage> damage = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            Damage d = readSegment(segment, consumer);
+            if (d != null) {
+                damage.add(d);
+            }
+        }
+        return damage;
+    }
+
+    static Damage readSegment(Path segment, Consumer<AuditRecord> consumer) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < AuditLog.HEADER_SIZE || buffer.getInt(0) != AuditLog.MAGIC
+                || buffer.getInt(4) != AuditLog.VERSION) {
+            throw new IOException("Not an audit log segment: " + segment);
+        }
+        buffer.position(AuditLog.HEADER_SIZE);
+        while (buffer.hasRemaining()) {
+            AuditRecord record = AuditRecord.readFrom(buffer);
+            if (record == null) {
+                return new Damage(segment, buffer.position());
+            }
+            consumer.accept(record);
+        }
+        return null;
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(p -> p.getFileName().toString().matches("audit-\\d{16}\\.log"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static String fileName(long id) {
+        return String.format("audit-%016d.log", id);
+    }
+
+    static long segmentId(Path segment) {
+        return Long.parseLong(segment.getFileName().toString().substring(6, 22));
+    }
+
+    private static String json(AuditRecord record) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("timestamp", Instant.ofEpochMilli(record.timestamp()).toString())
+                .put("fileId", record.fileId().toString())
+                .put("sha256", record.sha256())
+                .put("format", record.format())
+                .put("confidence", record.confidence())
+                .put("client", record.client());
+        return objectMapper.writeValueAsString(node);
+    }
+
+    private static String csv(AuditRecord record) {
+        return Instant.ofEpochMilli(record.timestamp()) + "," + record.fileId() + "," + record.sha256() + ","
+                + csvField(record.format()) + "," + record.confidence() + "," + csvField(record.client());
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.UniVC.service.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * One analysis as recorded in the {@link AuditLog}.
+ *
+ * <pre>
+ * record: length | crc32c | timestamp | fileId[16] | sha256[32] | confidence | formatLen | format | clientLen | client
+ * </pre>
+ * {@code length} counts the bytes after the CRC, which covers them. Format and client are
+ * UTF-8, cut to 255 bytes.
+ *
+ * @param timestamp epoch milliseconds
+ * @param sha256    hex SHA-256 of the analyzed content
+ * @param client    remote address of the caller, null if unknown
+ */
+public record AuditRecord(long timestamp, UUID fileId, String sha256, String format, double confidence,
+                          String client) {
+
+    static final int FRAME_HEADER_SIZE = 4 + 4;
+    private static final int FIXED_SIZE = 8 + 16 + 32 + 8 + 1 + 1;
+    private static final int MAX_TEXT = 255;
+    static final int MAX_SIZE = FRAME_HEADER_SIZE + FIXED_SIZE + 2 * MAX_TEXT;
+
+    /**
+     * Appends the framed record to {@code buffer}, which must have {@link #MAX_SIZE} bytes left.
+     *
+     * @return the number of bytes written
+     */
+    int writeTo(ByteBuffer buffer) {
+        byte[] formatBytes = text(format);
+        byte[] clientBytes = text(client);
+        int start = buffer.position();
+        int length = FIXED_SIZE + formatBytes.length + clientBytes.length;
+        buffer.putInt(length).putInt(0)
+                .putLong(timestamp)
+                .putLong(fileId.getMostSignificantBits()).putLong(fileId.getLeastSignificantBits())
+                .put(HexFormat.of().parseHex(sha256))
+                .putDouble(confidence)
+                .put((byte) formatBytes.length).put(formatBytes)
+                .put((byte) clientBytes.length).put(clientBytes);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + FRAME_HEADER_SIZE, length));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        return FRAME_HEADER_SIZE + length;
+    }
+
+    /**
+     * Reads the record at the buffer's position and moves past it.
+     *
+     * @return null, leaving the position alone, at the end of the data or at a torn or corrupt record
+     */
+    static AuditRecord readFrom(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < FRAME_HEADER_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length < FIXED_SIZE || length > MAX_SIZE - FRAME_HEADER_SIZE
+                || length > buffer.remaining() - FRAME_HEADER_SIZE) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + FRAME_HEADER_SIZE, length));
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice(start + FRAME_HEADER_SIZE, length);
+        long timestamp = body.getLong();
+        UUID fileId = new UUID(body.getLong(), body.getLong());
+        byte[] sha256 = new byte[32];
+        body.get(sha256);
+        double confidence = body.getDouble();
+        String format = readText(body);
+        String client = readText(body);
+        buffer.position(start + FRAME_HEADER_SIZE + length);
+        return new AuditRecord(timestamp, fileId, HexFormat.of().formatHex(sha256), format, confidence,
+                client.isEmpty() ? null : client);
+    }
+
+    private static byte[] text(String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_TEXT) {
+            return bytes;
+        }
+        // Back off to a character boundary
+        int end = MAX_TEXT;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    private static String readText(ByteBuffer body) {
+        int length = body.get() & 0xFF;
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
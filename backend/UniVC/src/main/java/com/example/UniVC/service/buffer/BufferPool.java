@@ -0,0 +1,167 @@
+package com.example.UniVC.service.buffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-classed pool of heap byte arrays for per-request scratch space: base64-decoded
+ * payloads and entry contents that are parsed and then dropped. Classes are powers of two
+ * from 1 KB up to {@code univc.buffers.max-pooled-size}; each keeps at most
+ * {@code univc.buffers.per-class} arrays, and larger requests are allocated and left to
+ * the GC. Thread-safe; a {@link PooledBuffer} itself belongs to one thread at a time.
+ *
+ * <p>With {@code -Dunivc.buffers.leak-detection=true} (on in tests) every lease remembers
+ * where it was taken, and one that becomes unreachable without being closed is logged
+ * with that stack trace and counted in {@link #leaked()}.
+ */
+public final class BufferPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BufferPool.class);
+
+    static final int MIN_SIZE = 1024;
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+    // Largest array size the JVM reliably allocates
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static final BufferPool SHARED = new BufferPool(
+            Integer.getInteger("univc.buffers.max-pooled-size", 1 << 20),
+            Integer.getInteger("univc.buffers.per-class", 4 * Runtime.getRuntime().availableProcessors()),
+            Boolean.getBoolean("univc.buffers.leak-detection"));
+
+    private final ArrayBlockingQueue<byte[]>[] classes;
+    private final boolean leakDetection;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder unpooled = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder outstanding = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    BufferPool(int maxPooledSize, int perClass, boolean leakDetection) {
+        int largest = Integer.highestOneBit(Math.max(MIN_SIZE, maxPooledSize));
+        this.classes = new ArrayBlockingQueue[Integer.numberOfTrailingZeros(largest) - MIN_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ArrayBlockingQueue<>(Math.max(1, perClass));
+        }
+        this.leakDetection = leakDetection;
+    }
+
+    public static BufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * A buffer of at least {@code minCapacity} bytes with length 0. Close it when done;
+     * its array must not be used afterwards.
+     */
+    public PooledBuffer acquire(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Cannot allocate a buffer of " + minCapacity + " bytes");
+        }
+        int sizeClass = sizeClass(minCapacity);
+        byte[] array;
+        if (sizeClass >= classes.length) {
+            unpooled.increment();
+            array = allocate(minCapacity);
+        } else {
+            array = classes[sizeClass].poll();
+            if (array != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                array = allocate(MIN_SIZE << sizeClass);
+            }
+        }
+        outstanding.increment();
+        return new PooledBuffer(this, array, sizeClass < classes.length ? sizeClass : -1,
+                leakDetection ? new LeakTracker(leaked) : null);
+    }
+
+    void release(byte[] array, int sizeClass) {
+        outstanding.decrement();
+        // A full class drops the array for the GC
+        if (sizeClass >= 0) {
+            classes[sizeClass].offer(array);
+        }
+    }
+
+    Cleaner.Cleanable track(PooledBuffer buffer, LeakTracker tracker) {
+        return CLEANER.register(buffer, tracker);
+    }
+
+    private byte[] allocate(int size) {
+        allocatedBytes.add(size);
+        return new byte[size];
+    }
+
+    private static int sizeClass(int capacity) {
+        return capacity <= MIN_SIZE ? 0 : 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+    }
+
+    /** Acquisitions served from the pool. */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** Acquisitions in a pooled size class that had to allocate. */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Acquisitions above the largest size class. */
+    public long unpooled() {
+        return unpooled.sum();
+    }
+
+    /** Bytes allocated for misses and unpooled acquisitions. */
+    public long allocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /** Buffers acquired and not yet closed. */
+    public long outstanding() {
+        return outstanding.sum();
+    }
+
+    /** Buffers garbage collected without being closed; only counted with leak detection. */
+    public long leaked() {
+        return leaked.sum();
+    }
+
+    /** Bytes held by the pool for reuse. */
+    public long retainedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < classes.length; i++) {
+            bytes += (long) classes[i].size() * (MIN_SIZE << i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Allocation site of a lease; runs when the lease is closed or garbage collected, and
+     * must not reference the lease itself.
+     */
+    static final class LeakTracker implements Runnable {
+        private final LongAdder leaked;
+        private final Throwable acquiredAt = new Throwable("Buffer acquired here");
+        volatile boolean closed;
+
+        LeakTracker(LongAdder leaked) {
+            this.leaked = leaked;
+        }
+
+        @Override
+        public void run() {
+            if (!closed) {
+                leaked.increment();
+                logger.error("A pooled buffer was garbage collected without being closed", acquiredAt);
+            }
+        }
+    }
+}
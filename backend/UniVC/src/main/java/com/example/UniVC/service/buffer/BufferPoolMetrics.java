@@ -0,0 +1,35 @@
+package com.example.UniVC.service.buffer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the shared {@link BufferPool} under {@code univc.buffers.*}. Allocated bytes
+ * next to {@code univc.processing.allocated} and {@code jvm.gc.memory.allocated} show
+ * how much garbage the pool saves.
+ */
+@Component
+public class BufferPoolMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        BufferPool pool = BufferPool.shared();
+        FunctionCounter.builder("univc.buffers.acquired", pool, BufferPool::hits).tag("result", "hit")
+                .description("Buffers served from the pool").register(registry);
+        FunctionCounter.builder("univc.buffers.acquired", pool, BufferPool::misses).tag("result", "miss")
+                .description("Buffers allocated because their size class was empty").register(registry);
+        FunctionCounter.builder("univc.buffers.acquired", pool, BufferPool::unpooled).tag("result", "unpooled")
+                .description("Buffers allocated because they exceed the largest size class").register(registry);
+        FunctionCounter.builder("univc.buffers.allocated", pool, BufferPool::allocatedBytes).baseUnit("bytes")
+                .description("Bytes allocated by the pool").register(registry);
+        FunctionCounter.builder("univc.buffers.leaked", pool, BufferPool::leaked)
+                .description("Buffers garbage collected without being closed").register(registry);
+        Gauge.builder("univc.buffers.outstanding", pool, BufferPool::outstanding)
+                .description("Buffers in use").register(registry);
+        Gauge.builder("univc.buffers.retained", pool, BufferPool::retainedBytes).baseUnit("bytes")
+                .description("Bytes held by the pool for reuse").register(registry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.UniVC.service.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+
+/**
+ * A byte array borrowed from a {@link BufferPool}, with the length of the data in it.
+ * Appending past the end swaps in a larger pooled array. {@link #close()} returns the
+ * array, after which neither the buffer nor any array it handed out may be used.
+ */
+public final class PooledBuffer implements AutoCloseable {
+
+    private final BufferPool pool;
+    private byte[] array;
+    private int sizeClass;
+    private int length;
+    private boolean closed;
+    private final BufferPool.LeakTracker tracker;
+    private final Cleaner.Cleanable cleanable;
+
+    PooledBuffer(BufferPool pool, byte[] array, int sizeClass, BufferPool.LeakTracker tracker) {
+        this.pool = pool;
+        this.array = array;
+        this.sizeClass = sizeClass;
+        this.tracker = tracker;
+        this.cleanable = tracker != null ? pool.track(this, tracker) : null;
+    }
+
+    /**
+     * The backing array; valid data is {@code [0, length())}. Changes when the buffer grows.
+     */
+    public byte[] array() {
+        checkOpen();
+        return array;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        checkOpen();
+        if (length < 0 || length > array.length) {
+            throw new IndexOutOfBoundsException("Length " + length + " outside a " + array.length + " byte buffer");
+        }
+        this.length = length;
+    }
+
+    public void append(byte[] bytes, int offset, int count) {
+        ensureCapacity(length + count);
+        System.arraycopy(bytes, offset, array, length, count);
+        length += count;
+    }
+
+    /**
+     * Appends the rest of {@code in}, growing as needed.
+     */
+    public void readFrom(InputStream in) throws IOException {
+        while (true) {
+            if (length == array.length) {
+                ensureCapacity(length + 1);
+            }
+            int read = in.read(array, length, array.length - length);
+            if (read < 0) {
+                return;
+            }
+            length += read;
+        }
+    }
+
+    /**
+     * An exact-length copy that outlives the buffer.
+     */
+    public byte[] toByteArray() {
+        checkOpen();
+        return Arrays.copyOf(array, length);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (tracker != null) {
+            tracker.closed = true;
+            cleanable.clean();
+        }
+        pool.release(array, sizeClass);
+        array = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        checkOpen();
+        if (capacity < 0) {
+            throw new OutOfMemoryError("Buffer would exceed 2 GB");
+        }
+        if (capacity <= array.length) {
+            return;
+        }
+        // Double, so a stream of appends costs amortized constant copies
+        PooledBuffer grown = pool.acquire((int) Math.min(Math.max(capacity, 2L * array.length), Integer.MAX_VALUE - 8));
+        System.arraycopy(array, 0, grown.array, 0, length);
+        pool.release(array, sizeClass);
+        array = grown.array;
+        sizeClass = grown.sizeClass;
+        // The new array now belongs to this lease
+        grown.detach();
+    }
+
+    private void detach() {
+        closed = true;
+        if (tracker != null) {
+            tracker.closed = true;
+            cleanable.clean();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Pooled buffer used after close");
+        }
+    }
+}
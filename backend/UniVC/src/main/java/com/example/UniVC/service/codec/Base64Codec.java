@@ -0,0 +1,285 @@
+package com.example.UniVC.service.codec;
+
+import com.example.UniVC.service.buffer.BufferPool;
+import com.example.UniVC.service.buffer.PooledBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Strict base64 and base64url validation and decoding into caller-supplied or pooled buffers,
+ * accepting exactly what {@link Base64#getDecoder()} and
+ * {@link Base64#getUrlDecoder()} accept: padding is optional but must be
+ * correct when present, and whitespace is invalid.
+ *
+ * <p>Every entry point fails fast: the first characters are checked before anything is
+ * copied or decoded, so probing text that is not base64 costs a few comparisons.
+ * Decoding a whole array goes to the JDK decoder, which HotSpot replaces with a SIMD
+ * intrinsic. Validation and decoding at offsets run a vector at a time on the Vector API
+ * when the JVM has {@code --add-modules jdk.incubator.vector}, with a table-driven
+ * scalar loop for tails and as the fallback.
+ */
+public final class Base64Codec {
+
+    public enum Alphabet {
+        STANDARD('+', '/', Base64.getDecoder()),
+        URL_SAFE('-', '_', Base64.getUrlDecoder());
+
+        private final int[] values = new int[256];
+        private final Base64.Decoder decoder;
+
+        Alphabet(char c62, char c63, Base64.Decoder decoder) {
+            this.decoder = decoder;
+            Arrays.fill(values, -1);
+            String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789" + c62 + c63;
+            for (int i = 0; i < chars.length(); i++) {
+                values[chars.charAt(i)] = i;
+            }
+        }
+    }
+
+    private static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("univc.base64.scalar");
+    // Characters checked before any copying or decoding
+    private static final int PROBE_LENGTH = 64;
+
+    private Base64Codec() {
+    }
+
+    /**
+     * True when long inputs go through the Vector API.
+     */
+    public static boolean vectorized() {
+        return VECTOR;
+    }
+
+    /**
+     * Bytes that {@code length} characters of unpadded base64 can decode to; an upper
+     * bound when the input is padded.
+     */
+    public static int maxDecodedLength(int length) {
+        return length / 4 * 3 + Math.max(0, length % 4 - 1);
+    }
+
+    /**
+     * Decodes {@code src[off, off + len)} into {@code dst} starting at {@code dstOff}.
+     *
+     * @return the number of bytes written, or -1 if the input is not valid base64 in
+     * {@code alphabet}; {@code dst} may then hold partial output
+     * @throws IndexOutOfBoundsException if {@code dst} is too small for the decoded bytes
+     */
+    public static int decode(byte[] src, int off, int len, byte[] dst, int dstOff, Alphabet alphabet) {
+        int dataLength = dataLength(src, off, len);
+        if (dataLength < 0 || !probe(src, off, dataLength, alphabet)) {
+            return -1;
+        }
+        int decodedLength = maxDecodedLength(dataLength);
+        if (decodedLength > dst.length - dstOff) {
+            throw new IndexOutOfBoundsException("Decoded length " + decodedLength + " does not fit at offset "
+                    + dstOff + " of a " + dst.length + " byte buffer");
+        }
+        if (off == 0 && len == src.length && dstOff == 0) {
+            try {
+                return alphabet.decoder.decode(src, dst);
+            } catch (IllegalArgumentException e) {
+                return -1;
+            }
+        }
+
+        int consumed = 0;
+        if (VECTOR && dataLength >= VectorBase64.BLOCK) {
+            consumed = VectorBase64.decodeBlocks(src, off, dataLength, dst, dstOff, dstOff + decodedLength,
+                    alphabet == Alphabet.URL_SAFE);
+        }
+        return decodeScalar(src, off + consumed, dataLength - consumed, dst, dstOff + consumed / 4 * 3,
+                alphabet.values) < 0 ? -1 : decodedLength;
+    }
+
+    /**
+     * True if {@code src[off, off + len)} is valid base64 in {@code alphabet}.
+     */
+    public static boolean isValid(byte[] src, int off, int len, Alphabet alphabet) {
+        int dataLength = dataLength(src, off, len);
+        if (dataLength < 0) {
+            return false;
+        }
+        int checked = 0;
+        if (VECTOR && dataLength >= VectorBase64.BLOCK) {
+            checked = VectorBase64.validBlocks(src, off, dataLength, alphabet == Alphabet.URL_SAFE);
+        }
+        int[] values = alphabet.values;
+        for (int i = off + checked, end = off + dataLength; i < end; i++) {
+            if (values[src[i] & 0xff] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a whole string, or returns null if it is not valid base64 in {@code alphabet}.
+     */
+    public static byte[] decode(String text, Alphabet alphabet) {
+        byte[] src = latin1(text, alphabet);
+        int dataLength = src != null ? dataLength(src, 0, src.length) : -1;
+        if (dataLength < 0) {
+            return null;
+        }
+        byte[] dst = new byte[maxDecodedLength(dataLength)];
+        try {
+            alphabet.decoder.decode(src, dst);
+            return dst;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a whole string into a buffer from {@code pool}, or returns null if it is not
+     * valid base64 in {@code alphabet}. The caller closes the buffer.
+     */
+    public static PooledBuffer decode(String text, Alphabet alphabet, BufferPool pool) {
+        byte[] src = latin1(text, alphabet);
+        int dataLength = src != null ? dataLength(src, 0, src.length) : -1;
+        if (dataLength < 0) {
+            return null;
+        }
+        PooledBuffer dst = pool.acquire(maxDecodedLength(dataLength));
+        try {
+            dst.setLength(alphabet.decoder.decode(src, dst.array()));
+            return dst;
+        } catch (IllegalArgumentException e) {
+            dst.close();
+            return null;
+        }
+    }
+
+    /**
+     * Decodes {@code src[off, off + len)} into a buffer from {@code pool}, or returns null if
+     * it is not valid base64 in {@code alphabet}. The caller closes the buffer.
+     */
+    public static PooledBuffer decode(byte[] src, int off, int len, Alphabet alphabet, BufferPool pool) {
+        int dataLength = dataLength(src, off, len);
+        if (dataLength < 0 || !probe(src, off, dataLength, alphabet)) {
+            return null;
+        }
+        PooledBuffer dst = pool.acquire(maxDecodedLength(dataLength));
+        int decoded = decode(src, off, len, dst.array(), 0, alphabet);
+        if (decoded < 0) {
+            dst.close();
+            return null;
+        }
+        dst.setLength(decoded);
+        return dst;
+    }
+
+    /**
+     * Standard base64 first, then base64url; null if the text is neither.
+     */
+    public static byte[] decodeEither(String text) {
+        byte[] decoded = decode(text, Alphabet.STANDARD);
+        return decoded != null ? decoded : decode(text, Alphabet.URL_SAFE);
+    }
+
+    /**
+     * {@link #decodeEither(String)} into a buffer from {@code pool}, which the caller closes.
+     */
+    public static PooledBuffer decodeEither(String text, BufferPool pool) {
+        PooledBuffer decoded = decode(text, Alphabet.STANDARD, pool);
+        return decoded != null ? decoded : decode(text, Alphabet.URL_SAFE, pool);
+    }
+
+    /**
+     * {@link #decodeEither(String, BufferPool)} for {@code src[off, off + len)}, without
+     * copying the input.
+     */
+    public static PooledBuffer decodeEither(byte[] src, int off, int len, BufferPool pool) {
+        PooledBuffer decoded = decode(src, off, len, Alphabet.STANDARD, pool);
+        return decoded != null ? decoded : decode(src, off, len, Alphabet.URL_SAFE, pool);
+    }
+
+    /**
+     * Why {@code text} is not valid base64 in {@code alphabet}, in the JDK decoder's words
+     * (e.g. an illegal character or a last unit without enough bits); null if it is valid.
+     * Decodes the whole text, so keep it to error reporting after a failed decode.
+     */
+    public static String error(String text, Alphabet alphabet) {
+        try {
+            alphabet.decoder.decode(text);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    // Null if the first characters already rule the alphabet out
+    private static byte[] latin1(String text, Alphabet alphabet) {
+        int probe = Math.min(text.length(), PROBE_LENGTH);
+        for (int i = 0; i < probe; i++) {
+            char c = text.charAt(i);
+            // '=' can only end the input; leave those to the full decode
+            if (c != '=' && (c > 0xff || alphabet.values[c] < 0)) {
+                return null;
+            }
+        }
+        // Latin-1 is a plain copy for compact strings; wider characters become '?', which is invalid anyway
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean probe(byte[] src, int off, int dataLength, Alphabet alphabet) {
+        for (int i = off, end = off + Math.min(dataLength, PROBE_LENGTH); i < end; i++) {
+            if (alphabet.values[src[i] & 0xff] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Length without padding, or -1 if the padding or the length is impossible.
+     */
+    private static int dataLength(byte[] src, int off, int len) {
+        int padding = 0;
+        while (padding < 2 && padding < len && src[off + len - 1 - padding] == '=') {
+            padding++;
+        }
+        if (padding > 0 && len % 4 != 0) {
+            return -1;
+        }
+        int dataLength = len - padding;
+        return dataLength % 4 == 1 ? -1 : dataLength;
+    }
+
+    private static int decodeScalar(byte[] src, int off, int len, byte[] dst, int d, int[] values) {
+        int i = off;
+        for (int end = off + len - 3; i < end; i += 4) {
+            int quad = values[src[i] & 0xff] << 18 | values[src[i + 1] & 0xff] << 12
+                    | values[src[i + 2] & 0xff] << 6 | values[src[i + 3] & 0xff];
+            // Any -1 lookup makes the whole int negative
+            if (quad < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (quad >> 16);
+            dst[d++] = (byte) (quad >> 8);
+            dst[d++] = (byte) quad;
+        }
+
+        int remaining = off + len - i;
+        if (remaining == 2) {
+            int pair = values[src[i] & 0xff] << 6 | values[src[i + 1] & 0xff];
+            if (pair < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (pair >> 4);
+        } else if (remaining == 3) {
+            int triple = values[src[i] & 0xff] << 12 | values[src[i + 1] & 0xff] << 6 | values[src[i + 2] & 0xff];
+            if (triple < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (triple >> 10);
+            dst[d++] = (byte) (triple >> 2);
+        }
+        return d;
+    }
+}
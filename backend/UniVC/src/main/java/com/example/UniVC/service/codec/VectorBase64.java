@@ -0,0 +1,98 @@
+package com.example.UniVC.service.codec;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Whole-vector base64 blocks on the incubating Vector API: range compares classify each
+ * byte, a blended offset vector maps it to its 6-bit value, and shifts plus one byte
+ * shuffle pack every 4 sextets into 3 bytes. Only loaded when {@code jdk.incubator.vector}
+ * is in the boot layer; {@link Base64Codec} handles tails, padding and everything else.
+ */
+final class VectorBase64 {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    static final int BLOCK = SPECIES.length();
+
+    // Output byte j comes from byte (2 - j % 3) of int lane j / 3; the last quarter is ignored
+    private static final VectorShuffle<Byte> PACK;
+
+    static {
+        int[] indexes = new int[BLOCK];
+        for (int j = 0; j < BLOCK / 4 * 3; j++) {
+            indexes[j] = j / 3 * 4 + (2 - j % 3);
+        }
+        PACK = VectorShuffle.fromArray(SPECIES, indexes, 0);
+    }
+
+    private VectorBase64() {
+    }
+
+    /**
+     * Length of the leading run of whole blocks that are all in the alphabet.
+     */
+    static int validBlocks(byte[] src, int off, int len, boolean url) {
+        int i = off;
+        for (int end = off + len - BLOCK; i <= end; i += BLOCK) {
+            if (!valid(ByteVector.fromArray(SPECIES, src, i), url).allTrue()) {
+                break;
+            }
+        }
+        return i - off;
+    }
+
+    /**
+     * Decodes whole blocks while a full vector store stays below {@code dstEnd}; stops
+     * before the first block with a byte outside the alphabet.
+     *
+     * @param dstEnd end of the decoded output; nothing at or after it is written
+     * @return source bytes consumed, a multiple of {@link #BLOCK}
+     */
+    static int decodeBlocks(byte[] src, int off, int len, byte[] dst, int dstOff, int dstEnd, boolean url) {
+        int i = off;
+        int d = dstOff;
+        byte c62 = (byte) (url ? '-' : '+');
+        byte c63 = (byte) (url ? '_' : '/');
+        // Stores are full vectors, of which only the first three quarters are output; the
+        // rest is overwritten by the next block or the scalar tail
+        for (int end = off + len - BLOCK; i <= end && d + BLOCK <= dstEnd; i += BLOCK, d += BLOCK / 4 * 3) {
+            ByteVector v = ByteVector.fromArray(SPECIES, src, i);
+            VectorMask<Byte> upper = v.compare(VectorOperators.GE, (byte) 'A').and(v.compare(VectorOperators.LE, (byte) 'Z'));
+            VectorMask<Byte> lower = v.compare(VectorOperators.GE, (byte) 'a').and(v.compare(VectorOperators.LE, (byte) 'z'));
+            VectorMask<Byte> digit = v.compare(VectorOperators.GE, (byte) '0').and(v.compare(VectorOperators.LE, (byte) '9'));
+            VectorMask<Byte> is62 = v.compare(VectorOperators.EQ, c62);
+            VectorMask<Byte> is63 = v.compare(VectorOperators.EQ, c63);
+            if (!upper.or(lower).or(digit).or(is62).or(is63).allTrue()) {
+                break;
+            }
+
+            ByteVector offsets = ByteVector.zero(SPECIES)
+                    .blend((byte) -'A', upper)
+                    .blend((byte) (26 - 'a'), lower)
+                    .blend((byte) (52 - '0'), digit)
+                    .blend((byte) (62 - c62), is62)
+                    .blend((byte) (63 - c63), is63);
+            IntVector x = v.add(offsets).reinterpretAsInts();
+
+            // Little-endian lanes: the first character of each quad is the low byte
+            IntVector packed = x.and(0xff).lanewise(VectorOperators.LSHL, 18)
+                    .or(x.lanewise(VectorOperators.LSHR, 8).and(0xff).lanewise(VectorOperators.LSHL, 12))
+                    .or(x.lanewise(VectorOperators.LSHR, 16).and(0xff).lanewise(VectorOperators.LSHL, 6))
+                    .or(x.lanewise(VectorOperators.LSHR, 24));
+            packed.reinterpretAsBytes().rearrange(PACK).intoArray(dst, d);
+        }
+        return i - off;
+    }
+
+    private static VectorMask<Byte> valid(ByteVector v, boolean url) {
+        return v.compare(VectorOperators.GE, (byte) 'A').and(v.compare(VectorOperators.LE, (byte) 'Z'))
+                .or(v.compare(VectorOperators.GE, (byte) 'a').and(v.compare(VectorOperators.LE, (byte) 'z')))
+                .or(v.compare(VectorOperators.GE, (byte) '0').and(v.compare(VectorOperators.LE, (byte) '9')))
+                .or(v.compare(VectorOperators.EQ, (byte) (url ? '-' : '+')))
+                .or(v.compare(VectorOperators.EQ, (byte) (url ? '_' : '/')));
+    }
+}
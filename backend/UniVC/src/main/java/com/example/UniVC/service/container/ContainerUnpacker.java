@@ -0,0 +1,261 @@
+package com.example.UniVC.service.container;
+
+import com.example.UniVC.service.buffer.BufferPool;
+import com.example.UniVC.service.buffer.PooledBuffer;
+import com.example.UniVC.service.codec.Base64Codec;
+import com.example.UniVC.service.detector.JsonFieldExtractor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the credentials embedded in a container without analyzing them:
+ * <ul>
+ *   <li>W3C VerifiablePresentation: each entry of {@code verifiableCredential}, also inside
+ *       the {@code vp} claim of a JWT-secured presentation</li>
+ *   <li>VC 2.0 EnvelopedVerifiableCredential / EnvelopedVerifiablePresentation: the
+ *       {@code data:} URL in {@code id}</li>
+ *   <li>mdoc DeviceResponse: each entry of {@code documents}</li>
+ * </ul>
+ * Anything else yields an empty list. Only one level is unpacked per call.
+ */
+public final class ContainerUnpacker {
+
+    private static final CBORMapper cborMapper = new CBORMapper();
+
+    private static final JsonFieldExtractor JSON_FIELDS = JsonFieldExtractor.builder()
+            .tree("/type")
+            .scalar("/id")
+            .tree("/verifiableCredential")
+            .build();
+    private static final JsonFieldExtractor JWT_FIELDS = JsonFieldExtractor.builder()
+            .tree("/vp/verifiableCredential")
+            .tree("/verifiableCredential")
+            .build();
+
+    private ContainerUnpacker() {
+    }
+
+    /**
+     * Unpack an upload; {@code raw} is tried as binary CBOR when the text is not base64.
+     */
+    public static List<EmbeddedItem> unpack(String content, byte[] raw) {
+        String trimmed = content.trim();
+        if (trimmed.startsWith("{") || trimmed.startsWith("eyJ")) {
+            return unpack(trimmed);
+        }
+        try (PooledBuffer cbor = decodeBase64(raw)) {
+            return cbor != null ? unpackDeviceResponse(cbor.array(), cbor.length())
+                    : unpackDeviceResponse(raw, raw.length);
+        }
+    }
+
+    /**
+     * Unpack a textual credential: JSON, compact JWS / SD-JWT, or base64 CBOR.
+     */
+    public static List<EmbeddedItem> unpack(String content) {
+        String trimmed = content.trim();
+        if (trimmed.startsWith("{")) {
+            return unpackJson(trimmed);
+        }
+        if (trimmed.startsWith("eyJ")) {
+            return unpackJws(trimmed);
+        }
+        try (PooledBuffer cbor = decodeBase64(trimmed)) {
+            return cbor != null ? unpackDeviceResponse(cbor.array(), cbor.length()) : List.of();
+        }
+    }
+
+    private static List<EmbeddedItem> unpackJson(String json) {
+        JsonFieldExtractor.Fields fields;
+        try {
+            fields = JSON_FIELDS.scan(json);
+        } catch (IOException e) {
+            return List.of();
+        }
+
+        JsonNode type = fields.value("/type");
+        String envelope = envelopeType(type);
+        if (envelope != null) {
+            String id = fields.text("/id");
+            EmbeddedItem item = id != null ? fromDataUrl("/id", envelope, id) : null;
+            return item != null ? List.of(item) : List.of();
+        }
+
+        if (!fields.has("/verifiableCredential")) {
+            return List.of();
+        }
+        return credentials("/verifiableCredential", fields.value("/verifiableCredential"));
+    }
+
+    private static List<EmbeddedItem> unpackJws(String jws) {
+        // Only the issuer-signed JWT carries claims; disclosures follow the first '~'
+        int tilde = jws.indexOf('~');
+        String[] parts = (tilde >= 0 ? jws.substring(0, tilde) : jws).split("\\.");
+        if (parts.length < 2) {
+            return List.of();
+        }
+        JsonFieldExtractor.Fields fields;
+        try (PooledBuffer payload = Base64Codec.decode(parts[1], Base64Codec.Alphabet.URL_SAFE, BufferPool.shared())) {
+            if (payload == null) {
+                return List.of();
+            }
+            fields = JWT_FIELDS.scan(payload.array(), 0, payload.length());
+        } catch (IOException e) {
+            return List.of();
+        }
+        if (fields.has("/vp/verifiableCredential")) {
+            return credentials("/vp/verifiableCredential", fields.value("/vp/verifiableCredential"));
+        }
+        if (fields.has("/verifiableCredential")) {
+            return credentials("/verifiableCredential", fields.value("/verifiableCredential"));
+        }
+        return List.of();
+    }
+
+    private static List<EmbeddedItem> credentials(String path, JsonNode credentials) {
+        List<EmbeddedItem> items = new ArrayList<>();
+        if (credentials.isArray()) {
+            for (int i = 0; i < credentials.size(); i++) {
+                addCredential(items, path + "/" + i, credentials.get(i));
+            }
+        } else {
+            addCredential(items, path, credentials);
+        }
+        return items;
+    }
+
+    private static void addCredential(List<EmbeddedItem> items, String path, JsonNode credential) {
+        if (credential.isObject()) {
+            items.add(EmbeddedItem.text(path, "VerifiablePresentation", null, credential.toString()));
+        } else if (credential.isTextual()) {
+            // JWT-secured credentials are embedded as compact strings
+            EmbeddedItem item = fromDataUrl(path, "VerifiablePresentation", credential.asText());
+            items.add(item != null ? item
+                    : EmbeddedItem.text(path, "VerifiablePresentation", null, credential.asText()));
+        }
+    }
+
+    // The tree copies what it needs, so cbor may be a pooled buffer
+    /**
+     * Unpack the documents of an mdoc DeviceResponse the caller already has as CBOR.
+     */
+    public static List<EmbeddedItem> unpackDeviceResponse(byte[] cbor, int length) {
+        JsonNode root;
+        try {
+            root = cborMapper.readTree(cbor, 0, length);
+        } catch (IOException e) {
+            return List.of();
+        }
+        JsonNode documents = root != null ? root.get("documents") : null;
+        if (documents == null || !documents.isArray()) {
+            return List.of();
+        }
+        List<EmbeddedItem> items = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            items.add(EmbeddedItem.mdoc("/documents/" + i, documents.get(i)));
+        }
+        return items;
+    }
+
+    private static String envelopeType(JsonNode type) {
+        if (type == null) {
+            return null;
+        }
+        String types = type.toString();
+        if (types.contains("EnvelopedVerifiableCredential")) {
+            return "EnvelopedVerifiableCredential";
+        }
+        if (types.contains("EnvelopedVerifiablePresentation")) {
+            return "EnvelopedVerifiablePresentation";
+        }
+        return null;
+    }
+
+    /**
+     * Decodes a {@code data:[mediatype][;base64],payload} URL into an item, null if
+     * {@code url} is not a data URL.
+     */
+    static EmbeddedItem fromDataUrl(String path, String containerType, String url) {
+        int comma = url.indexOf(',');
+        if (!url.startsWith("data:") || comma < 0) {
+            return null;
+        }
+        String meta = url.substring("data:".length(), comma);
+        String payload = url.substring(comma + 1);
+        boolean base64 = meta.endsWith(";base64");
+        String mediaType = base64 ? meta.substring(0, meta.length() - ";base64".length()) : meta;
+        int parameters = mediaType.indexOf(';');
+        if (parameters >= 0) {
+            mediaType = mediaType.substring(0, parameters);
+        }
+
+        String content;
+        if (base64) {
+            try (PooledBuffer decoded = decodeBase64(payload)) {
+                if (decoded == null) {
+                    return null;
+                }
+                content = new String(decoded.array(), 0, decoded.length(), StandardCharsets.UTF_8);
+            }
+        } else {
+            content = percentDecode(payload);
+        }
+        return EmbeddedItem.text(path, containerType, mediaType.isEmpty() ? null : mediaType, content);
+    }
+
+    /**
+     * Standard base64 first, then base64url, into a pooled buffer the caller closes; null
+     * if the text is neither.
+     */
+    public static PooledBuffer decodeBase64(String content) {
+        return Base64Codec.decodeEither(content, BufferPool.shared());
+    }
+
+    /**
+     * {@link #decodeBase64(String)} for raw upload bytes, skipping surrounding whitespace
+     * without copying them into a string first.
+     */
+    public static PooledBuffer decodeBase64(byte[] raw) {
+        int start = 0;
+        int end = raw.length;
+        while (start < end && (raw[start] & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (raw[end - 1] & 0xff) <= ' ') {
+            end--;
+        }
+        return Base64Codec.decodeEither(raw, start, end - start, BufferPool.shared());
+    }
+
+    // URLDecoder would also turn '+' into a space, which data URLs don't do
+    private static String percentDecode(String payload) {
+        if (payload.indexOf('%') < 0) {
+            return payload;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length());
+        int i = 0;
+        while (i < payload.length()) {
+            if (payload.charAt(i) == '%' && i + 2 < payload.length()) {
+                int high = Character.digit(payload.charAt(i + 1), 16);
+                int low = Character.digit(payload.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    out.write(high << 4 | low);
+                    i += 3;
+                    continue;
+                }
+            }
+            // Copy the literal run up to the next escape in one go
+            int next = payload.indexOf('%', i + 1);
+            int end = next < 0 ? payload.length() : next;
+            out.writeBytes(payload.substring(i, end).getBytes(StandardCharsets.UTF_8));
+            i = end;
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.UniVC.service.container;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A credential found inside a container, not yet analyzed. Textual credentials (JSON,
+ * compact JWS) carry their serialized {@code content}; mdoc documents from a
+ * DeviceResponse carry the decoded CBOR {@code document} instead.
+ */
+public class EmbeddedItem {
+
+    private final String path;
+    private final String containerType;
+    private final String mediaType;
+    private final String content;
+    private final JsonNode document;
+
+    private EmbeddedItem(String path, String containerType, String mediaType, String content, JsonNode document) {
+        this.path = path;
+        this.containerType = containerType;
+        this.mediaType = mediaType;
+        this.content = content;
+        this.document = document;
+    }
+
+    public static EmbeddedItem text(String path, String containerType, String mediaType, String content) {
+        return new EmbeddedItem(path, containerType, mediaType, content, null);
+    }
+
+    public static EmbeddedItem mdoc(String path, JsonNode document) {
+        return new EmbeddedItem(path, "DeviceResponse", "application/mdoc", null, document);
+    }
+
+    /** JSON pointer of the item inside its parent */
+    public String getPath() { return path; }
+
+    public String getContainerType() { return containerType; }
+
+    /** Media type declared by a {@code data:} URL, if the item came from one */
+    public String getMediaType() { return mediaType; }
+
+    public String getContent() { return content; }
+
+    public JsonNode getDocument() { return document; }
+}
@@ -0,0 +1,34 @@
+package com.example.UniVC.service.container;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits shared by every task unpacking one upload: how many embedded credentials may be
+ * analyzed in total and by when. Once either runs out, remaining items are skipped
+ * instead of analyzed.
+ */
+public class UnpackBudget {
+
+    private final AtomicInteger remaining;
+    private final long deadlineNanos;
+    private final int maxCredentials;
+
+    public UnpackBudget(int maxCredentials, long deadlineNanos) {
+        this.remaining = new AtomicInteger(maxCredentials);
+        this.deadlineNanos = deadlineNanos;
+        this.maxCredentials = maxCredentials;
+    }
+
+    /**
+     * @return null if one more credential may be analyzed, otherwise why not
+     */
+    public String tryAcquire() {
+        if (System.nanoTime() - deadlineNanos > 0) {
+            return "Time budget for nested credentials exhausted";
+        }
+        if (remaining.getAndDecrement() <= 0) {
+            return "Limit of " + maxCredentials + " nested credentials reached";
+        }
+        return null;
+    }
+}
@@ -1,14 +1,34 @@
 package com.example.UniVC.service.detector;
 
 import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.service.buffer.BufferPool;
+import com.example.UniVC.service.buffer.PooledBuffer;
+import com.example.UniVC.service.codec.Base64Codec;
+import com.example.UniVC.service.mdoc.IssuerSignedDocuments;
+import com.example.UniVC.service.mdoc.MsoDigestReport;
+import com.example.UniVC.service.mdoc.MsoDigestVerifier;
+import com.example.UniVC.service.pki.ChainValidation;
+import com.example.UniVC.service.pki.IssuerCertificates;
+import com.example.UniVC.service.pki.IssuerSignature;
+import com.example.UniVC.service.pki.TrustStoreService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CBORDetector implements FormatDetector {
 
     private static final CBORMapper cborMapper = new CBORMapper();
 
+    private final MsoDigestVerifier msoDigestVerifier;
+    private final TrustStoreService trustStoreService;
+
+    public CBORDetector(MsoDigestVerifier msoDigestVerifier, TrustStoreService trustStoreService) {
+        this.msoDigestVerifier = msoDigestVerifier;
+        this.trustStoreService = trustStoreService;
+    }
+
     @Override
     public DetectionResult detect(String content) {
         DetectionResult.DetectionResultBuilder builder = DetectionResult.builder()
@@ -16,25 +36,50 @@ public class CBORDetector implements FormatDetector {
 
         double confidence = 0.0;
 
-        try {
-            byte[] decoded;
-
-            // Try base64 decode first
-            try {
-                decoded = Base64.getDecoder().decode(content.trim());
-                confidence += 0.2;
-                builder.addMessage("Input is valid Base64 - assumed CBOR encoding");
-            } catch (IllegalArgumentException e) {
+        // Try base64 decode first; non-base64 input is rejected within its first characters
+        try (PooledBuffer decoded = Base64Codec.decode(content.trim(), Base64Codec.Alphabet.STANDARD,
+                BufferPool.shared())) {
+            if (decoded == null) {
                 return builder.confidence(0.0).build(); // Not Base64
             }
+            confidence += 0.2;
+            builder.addMessage("Input is valid Base64 - assumed CBOR encoding");
 
             // Try parsing as CBOR
-            Object data = cborMapper.readTree(decoded);
+            JsonNode data = cborMapper.readTree(decoded.array(), 0, decoded.length());
             confidence += 0.6;
             builder.addMessage("Parsed CBOR successfully");
             builder.addFormatInfo("structure", "CBOR (binary)");
             builder.addFormatInfo("specification", "RFC 8949");
 
+            // mdoc issuer data: check the signed elements against the MSO digests
+            List<MsoDigestReport> reports = msoDigestVerifier.verify(data);
+            if (!reports.isEmpty()) {
+                builder.addDetail("msoDigests", reports);
+                for (MsoDigestReport report : reports) {
+                    builder.addMessage(report.error() != null
+                            ? "MSO digests not checked for " + report.docType() + ": " + report.error()
+                            : "MSO value digests match for " + report.valid() + " of " + report.total()
+                                    + " issuer-signed elements of " + report.docType());
+                }
+            }
+            if (trustStoreService.isEnabled()) {
+                List<ChainValidation> chains = new ArrayList<>();
+                for (IssuerSignedDocuments.IssuerSigned document : IssuerSignedDocuments.find(data)) {
+                    JsonNode issuerAuth = document.issuerSigned().get("issuerAuth");
+                    List<byte[]> x5chain = IssuerCertificates.fromCoseSign1(issuerAuth);
+                    ChainValidation chain = x5chain.isEmpty() ? null : trustStoreService.validate(x5chain);
+                    if (chain != null) {
+                        chain = chain.withSignature(IssuerSignature.verifyCoseSign1(issuerAuth, x5chain.get(0)));
+                        chains.add(chain);
+                        builder.addMessage(chain.describe());
+                    }
+                }
+                if (!chains.isEmpty()) {
+                    builder.addDetail("issuerChains", chains);
+                }
+            }
+
             return builder.confidence(confidence).build();
 
         } catch (Exception e) {
@@ -0,0 +1,107 @@
+package com.example.UniVC.service.detector;
+
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.service.mdoc.MsoDigestReport;
+import com.example.UniVC.service.pki.ChainValidation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+/**
+ * Reads the fields that detectors record under different detail keys in a uniform way.
+ */
+public final class DetectionDetails {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private DetectionDetails() {
+    }
+
+    public static String issuer(DetectionResult result) {
+        return text(result.getDetails().get("issuer"));
+    }
+
+    /**
+     * SD-JWT vct, the most specific W3C type, or the mDL type.
+     */
+    public static String credentialType(DetectionResult result) {
+        Object credentialType = result.getDetails().get("credentialType");
+        if (credentialType != null) {
+            return text(credentialType);
+        }
+        Object types = result.getDetails().get("types");
+        if (types == null && result.getDetails().get("type") instanceof String type) {
+            types = parse(type);
+        }
+        if (types instanceof JsonNode node && node.isArray()) {
+            String specific = null;
+            for (JsonNode element : node) {
+                if (element.isTextual() && !"VerifiableCredential".equals(element.asText())) {
+                    specific = element.asText();
+                }
+            }
+            return specific;
+        }
+        return text(types);
+    }
+
+    /**
+     * Whether the issuer certificate chains validated and their end-entity keys verified the
+     * signatures: the JWS {@code x5c}, or every mdoc document's {@code x5chain} and
+     * {@code issuerAuth}. Null when none was checked.
+     */
+    public static Boolean issuerTrusted(DetectionResult result) {
+        if (result.getDetails().get("issuerChain") instanceof ChainValidation chain) {
+            return chain.trusted();
+        }
+        if (result.getDetails().get("issuerChains") instanceof List<?> chains && !chains.isEmpty()) {
+            return chains.stream().allMatch(chain -> chain instanceof ChainValidation validation && validation.trusted());
+        }
+        return null;
+    }
+
+    /**
+     * The issuer certificate chains that were validated, the JWS {@code x5c} or one per mdoc
+     * document; null when none was checked.
+     */
+    public static List<ChainValidation> issuerChains(DetectionResult result) {
+        if (result.getDetails().get("issuerChain") instanceof ChainValidation chain) {
+            return List.of(chain);
+        }
+        return listOf(result.getDetails().get("issuerChains"), ChainValidation.class);
+    }
+
+    /**
+     * MSO digest reports, one per mdoc document; null when the content had none.
+     */
+    public static List<MsoDigestReport> msoDigests(DetectionResult result) {
+        return listOf(result.getDetails().get("msoDigests"), MsoDigestReport.class);
+    }
+
+    private static <T> List<T> listOf(Object value, Class<T> type) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            return null;
+        }
+        return list.stream().filter(type::isInstance).map(type::cast).toList();
+    }
+
+    private static String text(Object value) {
+        if (value instanceof JsonNode node) {
+            return node.isValueNode() ? node.asText() : null;
+        }
+        return value instanceof String s && !s.isEmpty() ? s : null;
+    }
+
+    // The ISO-mDL rules record the type as its JSON text
+    private static Object parse(String json) {
+        if (json.length() > 1 && json.charAt(0) == '"' && json.indexOf('\\') < 0) {
+            return json.substring(1, json.length() - 1);
+        }
+        try {
+            return MAPPER.readTree(json);
+        } catch (Exception e) {
+            return json;
+        }
+    }
+}
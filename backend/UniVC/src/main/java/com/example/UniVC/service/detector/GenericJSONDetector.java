@@ -18,8 +18,12 @@ public class GenericJSONDetector implements FormatDetector {
                         .build();
             }
 
-            // Try to parse as JSON
-            objectMapper.readTree(trimmed);
+            // Large documents only need checking, not building into a tree; the parser
+            // still decides anything the index cannot vouch for
+            if (trimmed.length() < StructuralIndex.MIN_LENGTH
+                    || !StructuralIndex.wellFormed(trimmed, objectMapper.getFactory().streamReadConstraints())) {
+                objectMapper.readTree(trimmed);
+            }
 
             return DetectionResult.builder()
                     .format("Generic-JSON")
@@ -0,0 +1,321 @@
+package com.example.UniVC.service.detector;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pulls a fixed set of JSON pointers out of a document in one streaming pass. Members
+ * nobody asked for are skipped with {@link JsonParser#skipChildren()}, so large values
+ * such as a {@code credentialSubject} or a base64 portrait are tokenized but never turned
+ * into {@link JsonNode}s or Strings.
+ *
+ * <p>Each pointer is declared with how much of its value is wanted:
+ * <ul>
+ *   <li>{@link #presence(String)}: only whether the member exists and its first token</li>
+ *   <li>{@link #scalar(String)}: the value if it is a string, number, boolean or null</li>
+ *   <li>{@link #tree(String)}: the whole value as a {@link JsonNode}; keep to small members</li>
+ * </ul>
+ * Pointers only descend through objects. A member that occurs twice is taken from its last
+ * occurrence, as {@code readTree} does. The extractor is immutable and thread-safe;
+ * malformed JSON still fails with the parser's exception, as {@code readTree} would.
+ *
+ * <p>Large documents are scanned through a {@link StructuralIndex} instead when the Vector
+ * API is available: unwanted members are stepped over by jumping between structural
+ * positions rather than tokenizing them, and only the captured values are handed to
+ * Jackson. Anything the index cannot vouch for is rescanned with the parser, so results
+ * and errors are the same either way.
+ */
+public final class JsonFieldExtractor {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private enum Mode { PRESENCE, SCALAR, TREE }
+
+    private final Node root;
+    private final Map<String, Integer> indexes;
+
+    private JsonFieldExtractor(Node root, Map<String, Integer> indexes) {
+        this.root = root;
+        this.indexes = indexes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Fields scan(String content) throws IOException {
+        if (content.length() >= StructuralIndex.MIN_LENGTH) {
+            Fields fields = scanIndexed(content);
+            if (fields != null) {
+                return fields;
+            }
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+            return scan(parser);
+        }
+    }
+
+    public Fields scan(byte[] content) throws IOException {
+        return scan(content, 0, content.length);
+    }
+
+    /**
+     * The returned fields copy what they capture, so {@code content} may be reused.
+     */
+    public Fields scan(byte[] content, int offset, int length) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(content, offset, length)) {
+            return scan(parser);
+        }
+    }
+
+    /**
+     * Scan through a {@link StructuralIndex}; null when the index is unavailable or cannot
+     * vouch for the document, which then has to be parsed.
+     */
+    Fields scanIndexed(String content) {
+        StructuralIndex index = StructuralIndex.build(content);
+        if (index == null) {
+            return null;
+        }
+        StructuralIndex.Cursor cursor = index.cursor(objectMapper.getFactory().streamReadConstraints());
+        try {
+            // Only object roots have members to find; the parser handles the rest
+            if (!cursor.enterRoot()) {
+                return null;
+            }
+            Fields fields = new Fields(this);
+            scanObject(cursor, root, fields);
+            return fields;
+        } catch (StructuralIndex.Malformed | IOException e) {
+            return null;
+        }
+    }
+
+    Fields scan(JsonParser parser) throws IOException {
+        Fields fields = new Fields(this);
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            scanObject(parser, root, fields);
+        } else if (token != null) {
+            parser.skipChildren();
+        }
+        return fields;
+    }
+
+    private void scanObject(JsonParser parser, Node node, Fields fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Node child = node.children.get(parser.currentName());
+            JsonToken value = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            fields.clear(child);
+            if (child.index >= 0) {
+                fields.presence |= 1L << child.index;
+                fields.tokens[child.index] = value;
+            }
+
+            if (child.mode == Mode.TREE) {
+                fields.values[child.index] = objectMapper.readTree(parser);
+            } else if (value == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+                scanObject(parser, child, fields);
+            } else if (child.mode == Mode.SCALAR && value.isScalarValue()) {
+                fields.values[child.index] = objectMapper.readTree(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // Same walk as above, over the index
+    private void scanObject(StructuralIndex.Cursor cursor, Node node, Fields fields) throws IOException {
+        while (cursor.nextField()) {
+            Node child = node.children.get(cursor.fieldName());
+            JsonToken value = cursor.token();
+            if (child == null) {
+                cursor.skipValue();
+                continue;
+            }
+            fields.clear(child);
+            if (child.index >= 0) {
+                fields.presence |= 1L << child.index;
+                fields.tokens[child.index] = value;
+            }
+
+            if (child.mode == Mode.TREE || child.mode == Mode.SCALAR && value.isScalarValue()) {
+                cursor.skipValue();
+                try (JsonParser parser = objectMapper.getFactory().createParser(cursor.valueText())) {
+                    fields.values[child.index] = objectMapper.readTree(parser);
+                }
+            } else if (value == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+                cursor.enterObject();
+                scanObject(cursor, child, fields);
+            } else {
+                cursor.skipValue();
+            }
+        }
+    }
+
+    /**
+     * Bitmask of the given pointers, for checking several with {@link Fields#hasAll(long)}.
+     */
+    public long mask(String... pointers) {
+        long mask = 0;
+        for (String pointer : pointers) {
+            mask |= 1L << index(pointer);
+        }
+        return mask;
+    }
+
+    private int index(String pointer) {
+        Integer index = indexes.get(pointer);
+        if (index == null) {
+            throw new IllegalArgumentException("Pointer was not declared: " + pointer);
+        }
+        return index;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private int index = -1;
+        private Mode mode = Mode.PRESENCE;
+        // Declared pointers at or below this node
+        private long subtree;
+
+        private long computeSubtree() {
+            subtree = index >= 0 ? 1L << index : 0;
+            for (Node child : children.values()) {
+                subtree |= child.computeSubtree();
+            }
+            return subtree;
+        }
+    }
+
+    /**
+     * Result of one scan. Lookups use the pointer strings the extractor was built with.
+     */
+    public static final class Fields {
+        private final JsonFieldExtractor extractor;
+        private final JsonToken[] tokens;
+        private final JsonNode[] values;
+        private long presence;
+
+        private Fields(JsonFieldExtractor extractor) {
+            this.extractor = extractor;
+            this.tokens = new JsonToken[extractor.indexes.size()];
+            this.values = new JsonNode[extractor.indexes.size()];
+        }
+
+        // Forgets an earlier occurrence of the member, so a duplicate replaces it
+        private void clear(Node node) {
+            long pending = presence & node.subtree;
+            presence &= ~node.subtree;
+            while (pending != 0) {
+                int index = Long.numberOfTrailingZeros(pending);
+                tokens[index] = null;
+                values[index] = null;
+                pending &= pending - 1;
+            }
+        }
+
+        public long presence() {
+            return presence;
+        }
+
+        public boolean has(String pointer) {
+            return (presence & (1L << extractor.index(pointer))) != 0;
+        }
+
+        public boolean hasAll(long mask) {
+            return (presence & mask) == mask;
+        }
+
+        /**
+         * First token of the member's value, e.g. {@code START_OBJECT} or {@code VALUE_STRING};
+         * null if absent.
+         */
+        public JsonToken token(String pointer) {
+            return tokens[extractor.index(pointer)];
+        }
+
+        /**
+         * Captured value of a {@code scalar} or {@code tree} pointer; null if absent or if a
+         * {@code scalar} pointer turned out to be an object or array.
+         */
+        public JsonNode value(String pointer) {
+            return values[extractor.index(pointer)];
+        }
+
+        /**
+         * Text of the value like {@link JsonNode#asText()}: empty for containers, null if absent.
+         */
+        public String text(String pointer) {
+            if (!has(pointer)) {
+                return null;
+            }
+            JsonNode value = value(pointer);
+            return value != null ? value.asText() : "";
+        }
+    }
+
+    public static final class Builder {
+        private final Node root = new Node();
+        private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder presence(String pointer) {
+            return add(pointer, Mode.PRESENCE);
+        }
+
+        public Builder scalar(String pointer) {
+            return add(pointer, Mode.SCALAR);
+        }
+
+        public Builder tree(String pointer) {
+            return add(pointer, Mode.TREE);
+        }
+
+        private Builder add(String pointer, Mode mode) {
+            if (indexes.containsKey(pointer)) {
+                throw new IllegalArgumentException("Pointer declared twice: " + pointer);
+            }
+            if (indexes.size() == Long.SIZE) {
+                throw new IllegalArgumentException("At most " + Long.SIZE + " pointers can be declared");
+            }
+            if (!pointer.startsWith("/") || pointer.length() == 1) {
+                throw new IllegalArgumentException("Expected a JSON pointer to a member: " + pointer);
+            }
+
+            Node node = root;
+            for (String segment : pointer.substring(1).split("/", -1)) {
+                if (node.mode == Mode.TREE) {
+                    throw new IllegalArgumentException(pointer + " is inside a tree pointer");
+                }
+                String name = segment.replace("~1", "/").replace("~0", "~");
+                node = node.children.computeIfAbsent(name, k -> new Node());
+            }
+            if (mode == Mode.TREE && !node.children.isEmpty()) {
+                throw new IllegalArgumentException(pointer + " has nested pointers and cannot be a tree");
+            }
+            node.index = indexes.size();
+            node.mode = mode;
+            indexes.put(pointer, node.index);
+            return this;
+        }
+
+        public JsonFieldExtractor build() {
+            root.computeSubtree();
+            return new JsonFieldExtractor(root, Map.copyOf(indexes));
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.UniVC.service.detector;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+
+import java.util.Arrays;
+
+/**
+ * Positions of the structural characters of a JSON document: braces, brackets, colons and
+ * commas outside strings, every unescaped quote, and the first character of every literal
+ * or number. Built in bulk a vector at a time by {@link VectorStructuralScanner}; a
+ * {@link Cursor} then moves from value to value by jumping between positions instead of
+ * tokenizing the characters in between, so a long string costs two entries however long
+ * it is.
+ *
+ * <p>The cursor checks the grammar as it goes and only accepts what Jackson's default
+ * parser accepts. It is conservative rather than complete: anything it cannot vouch for
+ * (bad syntax, escaped member names, documents close to Jackson's
+ * {@link StreamReadConstraints}) throws {@link Malformed}, and the caller falls back to
+ * Jackson for the exact result or error.
+ */
+final class StructuralIndex {
+
+    // Below this, building an index costs about as much as tokenizing everything
+    static final int MIN_LENGTH = 16 * 1024;
+
+    private static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("univc.json.scalar")
+            && VectorStructuralScanner.supported();
+
+    private final String json;
+    private final int[] positions;
+    private final int count;
+
+    StructuralIndex(String json, int[] positions, int count) {
+        this.json = json;
+        this.positions = positions;
+        this.count = count;
+    }
+
+    /**
+     * True when the JVM has {@code --add-modules jdk.incubator.vector}; there is no scalar
+     * stage 1, as Jackson's own tokenizer is the faster scalar option.
+     */
+    static boolean available() {
+        return VECTOR;
+    }
+
+    /**
+     * Null if the index is unavailable or the document has a string Jackson would reject.
+     */
+    static StructuralIndex build(String json) {
+        return VECTOR ? VectorStructuralScanner.index(json) : null;
+    }
+
+    /**
+     * True if the root value is an object or array that {@code readTree} would accept;
+     * false means the parser has to decide, not that the document is malformed.
+     */
+    static boolean wellFormed(String json, StreamReadConstraints constraints) {
+        StructuralIndex index = build(json);
+        if (index == null) {
+            return false;
+        }
+        try {
+            return index.cursor(constraints).skipRoot();
+        } catch (Malformed e) {
+            return false;
+        }
+    }
+
+    Cursor cursor(StreamReadConstraints constraints) {
+        return new Cursor(constraints);
+    }
+
+    /**
+     * The document is not one the index can vouch for. Stackless, as it is only a signal
+     * to reparse.
+     */
+    static final class Malformed extends RuntimeException {
+        private static final Malformed INSTANCE = new Malformed();
+
+        private Malformed() {
+            super("Not indexable", null, false, false);
+        }
+    }
+
+    /**
+     * Walks the members of objects. Not thread-safe; one per scan.
+     */
+    final class Cursor {
+        private final int maxDepth;
+        private final int maxNumberLength;
+        private final int maxNameLength;
+        private final int maxStringLength;
+        // Entry of the next unread token
+        private int next;
+        private int depth;
+        private boolean[] objects = new boolean[16];
+        private int nameStart;
+        private int nameEnd;
+        private int valueStart;
+        private int valueEnd;
+
+        private Cursor(StreamReadConstraints constraints) {
+            this.maxDepth = constraints.getMaxNestingDepth();
+            this.maxNumberLength = constraints.getMaxNumberLength();
+            this.maxNameLength = constraints.getMaxNameLength();
+            this.maxStringLength = constraints.getMaxStringLength();
+        }
+
+        /**
+         * Enters the root value if it is an object with nothing but whitespace before it.
+         */
+        boolean enterRoot() {
+            if (!atRoot('{')) {
+                return false;
+            }
+            enterObject();
+            return true;
+        }
+
+        /**
+         * Checks the whole root value if it is an object or array with nothing but
+         * whitespace before it.
+         */
+        boolean skipRoot() {
+            if (!atRoot('{') && !atRoot('[')) {
+                return false;
+            }
+            skipValue();
+            return true;
+        }
+
+        private boolean atRoot(char open) {
+            if (count == 0 || json.charAt(positions[0]) != open) {
+                return false;
+            }
+            for (int i = 0; i < positions[0]; i++) {
+                if (!isSpace(json.charAt(i))) {
+                    return false;
+                }
+            }
+            next = 0;
+            return true;
+        }
+
+        /**
+         * Moves to the next member of the current object, or past its closing brace if there
+         * are no more; the name is then available from {@link #fieldName()}.
+         */
+        boolean nextField() {
+            char c = charAt(next);
+            if (c == '}') {
+                next++;
+                depth--;
+                return false;
+            }
+            if (charAt(next - 1) != '{') {
+                if (c != ',') {
+                    throw Malformed.INSTANCE;
+                }
+                next++;
+            }
+            member();
+            return true;
+        }
+
+        /**
+         * Name of the current member; escaped names are left to Jackson.
+         */
+        String fieldName() {
+            for (int i = nameStart; i < nameEnd; i++) {
+                if (json.charAt(i) == '\\') {
+                    throw Malformed.INSTANCE;
+                }
+            }
+            return json.substring(nameStart, nameEnd);
+        }
+
+        /**
+         * First token of the value at the cursor, as Jackson's {@code nextToken()} would
+         * report it.
+         */
+        JsonToken token() {
+            int p = positionOf(next);
+            switch (json.charAt(p)) {
+                case '{':
+                    return JsonToken.START_OBJECT;
+                case '[':
+                    return JsonToken.START_ARRAY;
+                case '"':
+                    return JsonToken.VALUE_STRING;
+                case 't':
+                    return JsonToken.VALUE_TRUE;
+                case 'f':
+                    return JsonToken.VALUE_FALSE;
+                case 'n':
+                    return JsonToken.VALUE_NULL;
+                default:
+                    int end = scalarEnd(p);
+                    for (int i = p; i < end; i++) {
+                        char c = json.charAt(i);
+                        if (c == '.' || c == 'e' || c == 'E') {
+                            return JsonToken.VALUE_NUMBER_FLOAT;
+                        }
+                    }
+                    return JsonToken.VALUE_NUMBER_INT;
+            }
+        }
+
+        /**
+         * Enters the object value at the cursor; members follow from {@link #nextField()}.
+         */
+        void enterObject() {
+            if (charAt(next) != '{') {
+                throw Malformed.INSTANCE;
+            }
+            push(true);
+            next++;
+        }
+
+        /**
+         * Checks and steps over the value at the cursor, recording its extent for
+         * {@link #valueText()}.
+         */
+        void skipValue() {
+            int base = depth;
+            valueStart = positionOf(next);
+            while (true) {
+                char c = charAt(next);
+                if (c == '{' || c == '[') {
+                    push(c == '{');
+                    next++;
+                    if (charAt(next) != (c == '{' ? '}' : ']')) {
+                        if (c == '{') {
+                            member();
+                        }
+                        continue;
+                    }
+                    depth--;
+                    valueEnd = positionOf(next) + 1;
+                    next++;
+                } else if (c == '"') {
+                    valueEnd = stringEnd(next);
+                    // Raw length, an upper bound on what readTree would materialize
+                    if (valueEnd - positions[next] - 2 > maxStringLength) {
+                        throw Malformed.INSTANCE;
+                    }
+                    next += 2;
+                } else {
+                    valueEnd = scalarEnd(positionOf(next));
+                    next++;
+                }
+
+                // A value just ended: close containers until one continues with a comma
+                while (depth > base) {
+                    char d = charAt(next);
+                    if (d == ',') {
+                        next++;
+                        if (objects[depth]) {
+                            member();
+                        }
+                        break;
+                    }
+                    if (d != (objects[depth] ? '}' : ']')) {
+                        throw Malformed.INSTANCE;
+                    }
+                    depth--;
+                    valueEnd = positionOf(next) + 1;
+                    next++;
+                }
+                if (depth == base) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Source text of the value last stepped over by {@link #skipValue()}.
+         */
+        String valueText() {
+            return json.substring(valueStart, valueEnd);
+        }
+
+        // Name, closing quote and colon of a member
+        private void member() {
+            if (charAt(next) != '"') {
+                throw Malformed.INSTANCE;
+            }
+            nameStart = positionOf(next) + 1;
+            nameEnd = stringEnd(next) - 1;
+            if (nameEnd - nameStart > maxNameLength) {
+                throw Malformed.INSTANCE;
+            }
+            next += 2;
+            if (charAt(next) != ':') {
+                throw Malformed.INSTANCE;
+            }
+            next++;
+        }
+
+        private void push(boolean object) {
+            if (++depth >= maxDepth) {
+                throw Malformed.INSTANCE;
+            }
+            if (depth == objects.length) {
+                objects = Arrays.copyOf(objects, depth * 2);
+            }
+            objects[depth] = object;
+        }
+
+        // Nothing inside a string is indexed, so the closing quote is always the next entry
+        private int stringEnd(int entry) {
+            if (entry + 1 >= count) {
+                throw Malformed.INSTANCE;
+            }
+            return positions[entry + 1] + 1;
+        }
+
+        /**
+         * End of the literal or number starting at {@code p}, which must run up to
+         * whitespace or a structural character.
+         */
+        private int scalarEnd(int p) {
+            int end;
+            switch (json.charAt(p)) {
+                case 't' -> end = literalEnd(p, "true");
+                case 'f' -> end = literalEnd(p, "false");
+                case 'n' -> end = literalEnd(p, "null");
+                default -> end = numberEnd(p);
+            }
+            if (end < json.length() && isScalarChar(json.charAt(end))) {
+                throw Malformed.INSTANCE;
+            }
+            return end;
+        }
+
+        private int literalEnd(int p, String literal) {
+            if (!json.startsWith(literal, p)) {
+                throw Malformed.INSTANCE;
+            }
+            return p + literal.length();
+        }
+
+        // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)? with no leading zeros, as Jackson requires
+        private int numberEnd(int p) {
+            int i = p;
+            if (charOrNul(json, i) == '-') {
+                i++;
+            }
+            char c = charOrNul(json, i);
+            if (c == '0') {
+                i++;
+            } else if (c >= '1' && c <= '9') {
+                i = digitsEnd(i);
+            } else {
+                throw Malformed.INSTANCE;
+            }
+            if (charOrNul(json, i) == '.') {
+                i = requireDigits(i + 1);
+            }
+            c = charOrNul(json, i);
+            if (c == 'e' || c == 'E') {
+                i++;
+                c = charOrNul(json, i);
+                if (c == '+' || c == '-') {
+                    i++;
+                }
+                i = requireDigits(i);
+            }
+            if (i - p > maxNumberLength) {
+                throw Malformed.INSTANCE;
+            }
+            return i;
+        }
+
+        private int requireDigits(int i) {
+            char c = charOrNul(json, i);
+            if (c < '0' || c > '9') {
+                throw Malformed.INSTANCE;
+            }
+            return digitsEnd(i);
+        }
+
+        private int digitsEnd(int i) {
+            while (i < json.length() && json.charAt(i) >= '0' && json.charAt(i) <= '9') {
+                i++;
+            }
+            return i;
+        }
+
+        private int positionOf(int entry) {
+            if (entry >= count) {
+                throw Malformed.INSTANCE;
+            }
+            return positions[entry];
+        }
+
+        private char charAt(int entry) {
+            return json.charAt(positionOf(entry));
+        }
+    }
+
+    // NUL past the end stops number parsing without a bounds check at every step
+    private static char charOrNul(String json, int i) {
+        return i < json.length() ? json.charAt(i) : '\0';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    // What VectorStructuralScanner treats as part of a scalar outside strings
+    private static boolean isScalarChar(char c) {
+        return !isSpace(c) && c != '"' && c != '{' && c != '}' && c != '[' && c != ']' && c != ':' && c != ',';
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.UniVC.service.detector;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Stage 1 of {@link StructuralIndex} on the incubating Vector API, after simdjson: each
+ * 64-char block is classified with lane compares into one bitmask per character class,
+ * escapes and string interiors are resolved with carries across blocks, and the set bits
+ * become positions. Only loaded when {@code jdk.incubator.vector} is in the boot layer.
+ */
+final class VectorStructuralScanner {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    // Chars copied out of the String at a time; a multiple of the 64-char block
+    private static final int CHUNK = 16 * 1024;
+    private static final long ODD_BITS = 0xAAAAAAAAAAAAAAAAL;
+
+    private VectorStructuralScanner() {
+    }
+
+    static boolean supported() {
+        return LANES <= Long.SIZE && Long.SIZE % LANES == 0;
+    }
+
+    /**
+     * Null if a string holds an unescaped control character or an invalid escape, which
+     * Jackson would reject if the string is inside the root value.
+     */
+    static StructuralIndex index(String json) {
+        int length = json.length();
+        char[] buffer = new char[Math.min(CHUNK, roundUp(length))];
+        int[] positions = new int[length / 16 + Long.SIZE];
+        int count = 0;
+
+        // Carries from the previous block: escaped first char, inside a string, inside a scalar
+        long escapedCarry = 0;
+        long inStringCarry = 0;
+        long scalarCarry = 0;
+        for (int start = 0; start < length; start += CHUNK) {
+            int n = Math.min(CHUNK, length - start);
+            json.getChars(start, start + n, buffer, 0);
+            int padded = roundUp(n);
+            Arrays.fill(buffer, n, padded, ' ');
+
+            for (int block = 0; block < padded; block += Long.SIZE) {
+                long quote = 0;
+                long backslash = 0;
+                long control = 0;
+                long space = 0;
+                long op = 0;
+                for (int j = 0; j < Long.SIZE; j += LANES) {
+                    ShortVector v = ShortVector.fromCharArray(SPECIES, buffer, block + j);
+                    // '[' | 0x20 == '{' and ']' | 0x20 == '}'
+                    ShortVector folded = v.or((short) 0x20);
+                    quote |= v.eq((short) '"').toLong() << j;
+                    backslash |= v.eq((short) '\\').toLong() << j;
+                    control |= v.compare(VectorOperators.UNSIGNED_LT, (short) 0x20).toLong() << j;
+                    space |= v.eq((short) ' ').or(v.eq((short) '\n')).or(v.eq((short) '\r'))
+                            .or(v.eq((short) '\t')).toLong() << j;
+                    op |= folded.eq((short) '{').or(folded.eq((short) '}')).or(v.eq((short) ':'))
+                            .or(v.eq((short) ',')).toLong() << j;
+                }
+
+                // Chars preceded by an odd run of backslashes
+                long escaped;
+                if (backslash == 0) {
+                    escaped = escapedCarry;
+                    escapedCarry = 0;
+                } else {
+                    long potential = backslash & ~escapedCarry;
+                    long codes = (((potential << 1) | ODD_BITS) - potential) ^ ODD_BITS;
+                    escaped = codes ^ (backslash | escapedCarry);
+                    escapedCarry = (codes & backslash) >>> 63;
+                }
+
+                // Opening quote and contents, not the closing quote
+                long quotes = quote & ~escaped;
+                long inString = prefixXor(quotes) ^ inStringCarry;
+                inStringCarry = inString >> 63;
+
+                if ((control & inString) != 0) {
+                    return null;
+                }
+                int base = start + block;
+                for (long escapes = escaped & inString; escapes != 0; escapes &= escapes - 1) {
+                    if (!validEscape(json, base + Long.numberOfTrailingZeros(escapes))) {
+                        return null;
+                    }
+                }
+
+                // Everything else outside strings is part of a literal, a number or garbage
+                long scalar = ~(space | op | quotes | inString);
+                long scalarStarts = scalar & ~(scalar << 1 | scalarCarry);
+                scalarCarry = scalar >>> 63;
+
+                long structural = (op & ~inString) | quotes | scalarStarts;
+                if (count + Long.SIZE > positions.length) {
+                    positions = Arrays.copyOf(positions, positions.length * 2);
+                }
+                for (; structural != 0; structural &= structural - 1) {
+                    positions[count++] = base + Long.numberOfTrailingZeros(structural);
+                }
+            }
+        }
+        return new StructuralIndex(json, positions, count);
+    }
+
+    private static long prefixXor(long bits) {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+
+    private static boolean validEscape(String json, int p) {
+        if (p >= json.length()) {
+            return false;
+        }
+        switch (json.charAt(p)) {
+            case '"', '\\', '/', 'b', 'f', 'n', 'r', 't':
+                return true;
+            case 'u':
+                if (p + 4 >= json.length()) {
+                    return false;
+                }
+                for (int i = p + 1; i <= p + 4; i++) {
+                    char c = json.charAt(i);
+                    // ASCII only; Character.digit would also take fullwidth digits
+                    if (!(c >= '0' && c <= '9' || (c | 0x20) >= 'a' && (c | 0x20) <= 'f')) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int roundUp(int length) {
+        return (length + Long.SIZE - 1) & -Long.SIZE;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.UniVC.service.detector.rules;
+
+import com.example.UniVC.dto.DetectionResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the {@link RulePlan} compiled from {@code app.detection.rules}. The file is
+ * polled for changes every {@code app.detection.rules-reload-interval} and recompiled in
+ * the background; a file that fails to load or compile is logged and the previous plan
+ * stays in effect, so a bad edit never leaves detection without rules. At startup there is
+ * no previous plan and the failure is fatal.
+ */
+@Service
+public class DetectionRuleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetectionRuleService.class);
+
+    @Value("${app.detection.rules:classpath:detection-rules.json}")
+    private String location;
+
+    @Value("${app.detection.rules-reload-interval:10s}")
+    private Duration reloadInterval;
+
+    @Value("${app.detection.issuer-jwt-cache-size:4096}")
+    private int issuerJwtCacheSize;
+
+    private final ResourceLoader resourceLoader;
+    private volatile RulePlan plan;
+    private long lastModified;
+    private ScheduledExecutorService reloader;
+
+    public DetectionRuleService(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        reload();
+        if (reloadInterval.isZero() || reloadInterval.isNegative()) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "univc-rules-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reloadIfModified, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    public RulePlan plan() {
+        return plan;
+    }
+
+    public List<DetectionResult> evaluate(String content) {
+        return plan.evaluate(content);
+    }
+
+    /**
+     * Reads and compiles the rules, replacing the current plan only if both succeed.
+     *
+     * @throws IllegalArgumentException if the rules do not compile
+     */
+    public synchronized void reload() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        long modified = lastModified(resource);
+        RulePlan compiled;
+        try (InputStream in = resource.getInputStream()) {
+            compiled = RulePlan.compile(DetectionRuleSet.read(in), issuerJwtCacheSize);
+        }
+        plan = compiled;
+        lastModified = modified;
+        logger.info("Loaded detection rules for {} from {}", compiled.formats(), location);
+    }
+
+    // A broken file is reported once, then retried when it changes again
+    private synchronized void reloadIfModified() {
+        long modified = lastModified(resourceLoader.getResource(location));
+        if (modified == lastModified) {
+            return;
+        }
+        lastModified = modified;
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Keeping the current detection rules, {} failed to load: {}", location, e.getMessage());
+        }
+    }
+
+    // Resources inside a jar may not report a modification time; those are never reloaded
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.UniVC.service.detector.rules;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detection rules as declared in {@code detection-rules.json}, before compilation into a
+ * {@link RulePlan}. Each format names the document its rules read ({@code json}: the
+ * content itself, {@code jwt}: the decoded payload of a compact JWT or SD-JWT) and a list
+ * of weighted rules whose confidences add up in declaration order.
+ *
+ * <p>Messages, format info values and the error message are templates: {@code {/ptr}}
+ * inserts the text of a pointer, {@code {$error}} the parse error and {@code {$alg}} the
+ * JWT header algorithm.
+ */
+public record DetectionRuleSet(List<FormatRules> formats) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES);
+
+    public static DetectionRuleSet read(InputStream in) throws IOException {
+        return MAPPER.readValue(in, DetectionRuleSet.class);
+    }
+
+    /**
+     * @param onError applied instead of the document rules when the document cannot be
+     *                decoded or parsed; only rules and floors without pointer conditions
+     *                still count
+     */
+    public record FormatRules(String format, String source, List<Rule> rules, List<Floor> floors,
+                              OnError onError, Map<String, String> formatInfo,
+                              List<String> requiredFields, List<String> optionalFields) {
+    }
+
+    /**
+     * Adds {@code weight} when every condition holds, along with its message, version,
+     * details and format info. Of the rules sharing a {@code group}, only the first match
+     * applies.
+     */
+    public record Rule(List<Condition> when, double weight, String message, String version,
+                       List<Detail> details, Map<String, String> formatInfo, String group) {
+    }
+
+    /**
+     * Exactly one of {@code present}, {@code absent}, {@code contains}, {@code token} or
+     * {@code disclosures}. {@code contains} matches if the value includes any of the
+     * strings, compared against its text or, with {@code match: "json"}, its JSON.
+     */
+    public record Condition(String present, String absent, String pointer, List<String> contains,
+                            String match, String token, Boolean disclosures) {
+    }
+
+    /**
+     * A literal {@code value}, or the value at {@code pointer} read {@code as} one of
+     * {@code text} (the default), {@code long}, {@code json}, {@code node} or {@code size}.
+     * Skipped if the pointer is absent.
+     */
+    public record Detail(String name, String pointer, String as, Object value) {
+    }
+
+    /**
+     * Raises the confidence to at least {@code confidence} when every condition holds.
+     */
+    public record Floor(List<Condition> when, double confidence) {
+    }
+
+    public record OnError(String message, double penalty) {
+    }
+}
@@ -0,0 +1,621 @@
+package com.example.UniVC.service.detector.rules;
+
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.service.buffer.BufferPool;
+import com.example.UniVC.service.buffer.PooledBuffer;
+import com.example.UniVC.service.codec.Base64Codec;
+import com.example.UniVC.service.detector.JsonFieldExtractor;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled {@link DetectionRuleSet}. Every pointer mentioned by the formats reading the
+ * same source goes into one {@link JsonFieldExtractor}, whose trie of member names finds
+ * them all in a single scan; each rule then becomes a pair of bitmasks tested against the
+ * scan's presence bits, plus value checks for the few rules that look at content. So one
+ * pass over the content scores every format.
+ *
+ * <p>Holders present the same issuer-signed JWT many times with different disclosures, so
+ * the decoded and scanned JWT is kept in a bounded LRU keyed by the SHA-256 of the part
+ * before the first {@code ~}; a repeat presentation only looks at what follows it.
+ *
+ * <p>Thread-safe, and immutable apart from that cache. {@link #compile} rejects rule sets it cannot evaluate
+ * with an {@link IllegalArgumentException} naming the offending rule.
+ */
+public final class RulePlan {
+
+    private static final Pattern JWT_PATTERN = Pattern.compile("^[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+");
+    private static final JsonFieldExtractor HEADER_FIELDS = JsonFieldExtractor.builder()
+            .scalar("/alg")
+            .build();
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([^{}]+)}");
+    private static final Document NONE = new Document(null, null, false, null);
+
+    private enum Source { JSON, JWT }
+
+    // In increasing order of how much of the value is captured
+    private enum Mode { PRESENCE, SCALAR, TREE }
+
+    private enum As { TEXT, LONG, JSON, NODE, SIZE }
+
+    private final List<CompiledFormat> formats;
+    private final Map<Source, JsonFieldExtractor> extractors;
+    // Null when disabled; scanned fields belong to this plan's extractor, so a reload starts empty
+    private final Map<ByteBuffer, Document> issuerJwts;
+
+    private RulePlan(List<CompiledFormat> formats, Map<Source, JsonFieldExtractor> extractors,
+                     int issuerJwtCacheSize) {
+        this.formats = formats;
+        this.extractors = extractors;
+        this.issuerJwts = issuerJwtCacheSize <= 0 ? null
+                : new LinkedHashMap<>(Math.min(issuerJwtCacheSize, 1024), 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Document> eldest) {
+                        return size() > issuerJwtCacheSize;
+                    }
+                };
+    }
+
+    public static RulePlan compile(DetectionRuleSet ruleSet) {
+        return compile(ruleSet, 0);
+    }
+
+    /**
+     * @param issuerJwtCacheSize decoded issuer JWTs to keep; 0 decodes every presentation
+     */
+    public static RulePlan compile(DetectionRuleSet ruleSet, int issuerJwtCacheSize) {
+        if (ruleSet == null || ruleSet.formats() == null || ruleSet.formats().isEmpty()) {
+            throw new IllegalArgumentException("No formats declared");
+        }
+
+        // First every pointer with the most any rule needs of it, then the rules against the extractors
+        Map<Source, Map<String, Mode>> pointers = new EnumMap<>(Source.class);
+        for (DetectionRuleSet.FormatRules format : ruleSet.formats()) {
+            if (format.format() == null || format.format().isBlank()) {
+                throw new IllegalArgumentException("Format without a name");
+            }
+            collectPointers(format, pointers.computeIfAbsent(source(format), s -> new LinkedHashMap<>()));
+        }
+        Map<Source, JsonFieldExtractor> extractors = new EnumMap<>(Source.class);
+        pointers.forEach((source, modes) -> {
+            JsonFieldExtractor.Builder builder = JsonFieldExtractor.builder();
+            try {
+                modes.forEach((pointer, mode) -> {
+                    switch (mode) {
+                        case PRESENCE -> builder.presence(pointer);
+                        case SCALAR -> builder.scalar(pointer);
+                        case TREE -> builder.tree(pointer);
+                    }
+                });
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Rules reading " + source.name().toLowerCase(Locale.ROOT)
+                        + ": " + e.getMessage(), e);
+            }
+            extractors.put(source, builder.build());
+        });
+
+        List<CompiledFormat> formats = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (DetectionRuleSet.FormatRules format : ruleSet.formats()) {
+            if (!names.add(format.format())) {
+                throw new IllegalArgumentException("Format declared twice: " + format.format());
+            }
+            Source source = source(format);
+            formats.add(CompiledFormat.compile(format, source, extractors.get(source)));
+        }
+        return new RulePlan(List.copyOf(formats), extractors, issuerJwtCacheSize);
+    }
+
+    public List<String> formats() {
+        return formats.stream().map(CompiledFormat::name).toList();
+    }
+
+    /**
+     * Results with a positive confidence, in the order the formats are declared. Each
+     * source is decoded and scanned at most once, and only if some format reads it.
+     */
+    public List<DetectionResult> evaluate(String content) {
+        String trimmed = content.trim();
+        Document[] documents = new Document[Source.values().length];
+        List<DetectionResult> results = new ArrayList<>();
+        for (CompiledFormat format : formats) {
+            int source = format.source().ordinal();
+            if (documents[source] == null) {
+                documents[source] = read(format.source(), trimmed);
+            }
+            if (documents[source] == NONE) {
+                continue;
+            }
+            DetectionResult result = format.evaluate(documents[source]);
+            if (result.getConfidence() > 0.0) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    // NONE if the content cannot be of this source at all
+    private Document read(Source source, String trimmed) {
+        JsonFieldExtractor extractor = extractors.get(source);
+        if (source == Source.JSON) {
+            if (!trimmed.startsWith("{") && !trimmed.startsWith("[")) {
+                return NONE;
+            }
+            try {
+                return new Document(extractor.scan(trimmed), null, false, null);
+            } catch (Exception e) {
+                return new Document(null, e, false, null);
+            }
+        }
+
+        if (!JWT_PATTERN.matcher(trimmed).find()) {
+            return NONE;
+        }
+        int tilde = trimmed.indexOf('~');
+        boolean disclosures = tilde >= 0;
+        if (issuerJwts == null) {
+            return readJwt(extractor, trimmed, disclosures);
+        }
+
+        String issuerJwt = disclosures ? trimmed.substring(0, tilde) : trimmed;
+        ByteBuffer key = ByteBuffer.wrap(sha256(issuerJwt));
+        Document cached;
+        synchronized (issuerJwts) {
+            cached = issuerJwts.get(key);
+        }
+        if (cached == null) {
+            cached = readJwt(extractor, issuerJwt, false);
+            synchronized (issuerJwts) {
+                issuerJwts.put(key, cached);
+            }
+        }
+        return disclosures ? cached.withDisclosures() : cached;
+    }
+
+    private static Document readJwt(JsonFieldExtractor extractor, String jwt, boolean disclosures) {
+        String[] parts = jwt.split("\\.", 3);
+        try (PooledBuffer payload = Base64Codec.decode(parts[1], Base64Codec.Alphabet.URL_SAFE, BufferPool.shared())) {
+            if (payload == null) {
+                throw new IllegalArgumentException(Base64Codec.error(parts[1], Base64Codec.Alphabet.URL_SAFE));
+            }
+            return new Document(extractor.scan(payload.array(), 0, payload.length()), null, disclosures,
+                    algorithm(parts[0]));
+        } catch (Exception e) {
+            return new Document(null, e, disclosures, null);
+        }
+    }
+
+    private static byte[] sha256(String jwt) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    int cachedIssuerJwts() {
+        if (issuerJwts == null) {
+            return 0;
+        }
+        synchronized (issuerJwts) {
+            return issuerJwts.size();
+        }
+    }
+
+    private static String algorithm(String header) {
+        try (PooledBuffer decoded = Base64Codec.decode(header, Base64Codec.Alphabet.URL_SAFE, BufferPool.shared())) {
+            if (decoded == null) {
+                return "unknown";
+            }
+            String alg = HEADER_FIELDS.scan(decoded.array(), 0, decoded.length()).text("/alg");
+            return alg != null ? alg : "unknown";
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    private static Source source(DetectionRuleSet.FormatRules format) {
+        try {
+            return Source.valueOf(String.valueOf(format.source()).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(format.format() + ": source must be json or jwt, not "
+                    + format.source());
+        }
+    }
+
+    private static void collectPointers(DetectionRuleSet.FormatRules format, Map<String, Mode> modes) {
+        for (DetectionRuleSet.Rule rule : orEmpty(format.rules())) {
+            collectPointers(rule.when(), modes);
+            for (DetectionRuleSet.Detail detail : orEmpty(rule.details())) {
+                if (detail.pointer() != null) {
+                    String as = detail.as() == null ? "text" : detail.as();
+                    use(modes, detail.pointer(), as.equals("text") || as.equals("long") ? Mode.SCALAR : Mode.TREE);
+                }
+            }
+            collectTemplatePointers(rule.message(), modes);
+            orEmpty(rule.formatInfo()).values().forEach(value -> collectTemplatePointers(value, modes));
+        }
+        for (DetectionRuleSet.Floor floor : orEmpty(format.floors())) {
+            collectPointers(floor.when(), modes);
+        }
+        orEmpty(format.formatInfo()).values().forEach(value -> collectTemplatePointers(value, modes));
+    }
+
+    private static void collectPointers(List<DetectionRuleSet.Condition> conditions, Map<String, Mode> modes) {
+        for (DetectionRuleSet.Condition condition : orEmpty(conditions)) {
+            if (condition.present() != null) {
+                use(modes, condition.present(), Mode.PRESENCE);
+            }
+            if (condition.absent() != null) {
+                use(modes, condition.absent(), Mode.PRESENCE);
+            }
+            if (condition.pointer() != null) {
+                use(modes, condition.pointer(), condition.contains() == null ? Mode.PRESENCE
+                        : "json".equals(condition.match()) ? Mode.TREE : Mode.SCALAR);
+            }
+        }
+    }
+
+    private static void collectTemplatePointers(String template, Map<String, Mode> modes) {
+        if (template != null) {
+            Matcher matcher = PLACEHOLDER.matcher(template);
+            while (matcher.find()) {
+                if (matcher.group(1).startsWith("/")) {
+                    use(modes, matcher.group(1), Mode.SCALAR);
+                }
+            }
+        }
+    }
+
+    private static void use(Map<String, Mode> modes, String pointer, Mode mode) {
+        modes.merge(pointer, mode, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static <K, V> Map<K, V> orEmpty(Map<K, V> map) {
+        return map != null ? map : Map.of();
+    }
+
+    /**
+     * A decoded source: the scanned fields, or the error that prevented scanning.
+     */
+    private record Document(JsonFieldExtractor.Fields fields, Exception error, boolean disclosures,
+                            String algorithm) {
+
+        Document withDisclosures() {
+            return new Document(fields, error, true, algorithm);
+        }
+    }
+
+    private record CompiledFormat(String name, Source source, List<CompiledRule> rules, List<CompiledFloor> floors,
+                                  Template errorMessage, double errorPenalty, Map<String, Template> formatInfo,
+                                  List<String> requiredFields, List<String> optionalFields) {
+
+        static CompiledFormat compile(DetectionRuleSet.FormatRules format, Source source,
+                                      JsonFieldExtractor extractor) {
+            String name = format.format();
+            List<CompiledRule> rules = new ArrayList<>();
+            Map<String, Integer> groups = new HashMap<>();
+            List<DetectionRuleSet.Rule> declared = orEmpty(format.rules());
+            for (int i = 0; i < declared.size(); i++) {
+                DetectionRuleSet.Rule rule = declared.get(i);
+                String context = name + " rule " + (i + 1);
+                int group = -1;
+                if (rule.group() != null) {
+                    group = groups.computeIfAbsent(rule.group(), g -> groups.size());
+                    if (group >= Long.SIZE) {
+                        throw new IllegalArgumentException(context + ": at most " + Long.SIZE + " groups per format");
+                    }
+                }
+                List<CompiledDetail> details = new ArrayList<>();
+                for (DetectionRuleSet.Detail detail : orEmpty(rule.details())) {
+                    details.add(CompiledDetail.compile(detail, context));
+                }
+                rules.add(new CompiledRule(Conditions.compile(rule.when(), source, extractor, context),
+                        rule.weight(), Template.compile(rule.message(), source, false, context), rule.version(),
+                        List.copyOf(details), templates(rule.formatInfo(), source, context), group));
+            }
+
+            List<CompiledFloor> floors = new ArrayList<>();
+            List<DetectionRuleSet.Floor> declaredFloors = orEmpty(format.floors());
+            for (int i = 0; i < declaredFloors.size(); i++) {
+                DetectionRuleSet.Floor floor = declaredFloors.get(i);
+                floors.add(new CompiledFloor(Conditions.compile(floor.when(), source, extractor,
+                        name + " floor " + (i + 1)), floor.confidence()));
+            }
+
+            DetectionRuleSet.OnError onError = format.onError();
+            return new CompiledFormat(name, source, List.copyOf(rules), List.copyOf(floors),
+                    onError != null ? Template.compile(onError.message(), source, true, name + " onError") : null,
+                    onError != null ? onError.penalty() : 0.0,
+                    templates(format.formatInfo(), source, name + " formatInfo"),
+                    List.copyOf(orEmpty(format.requiredFields())), List.copyOf(orEmpty(format.optionalFields())));
+        }
+
+        private static Map<String, Template> templates(Map<String, String> values, Source source, String context) {
+            Map<String, Template> templates = new LinkedHashMap<>();
+            orEmpty(values).forEach((key, value) -> templates.put(key, Template.compile(value, source, false, context)));
+            return templates;
+        }
+
+        /**
+         * Rules add up in declaration order, so the sum is the same double a hand-written
+         * chain of {@code +=} would produce. When the source failed to parse only rules and
+         * floors without pointer conditions count, then the error penalty applies.
+         */
+        DetectionResult evaluate(Document document) {
+            DetectionResult.DetectionResultBuilder builder = DetectionResult.builder().format(name);
+            boolean parsed = document.error() == null;
+            if (!parsed && errorMessage == null) {
+                return builder.confidence(0.0).build();
+            }
+
+            double confidence = 0.0;
+            long matchedGroups = 0;
+            for (CompiledRule rule : rules) {
+                if (!parsed && !rule.when().withoutPointers()
+                        || rule.group() >= 0 && (matchedGroups & 1L << rule.group()) != 0
+                        || !rule.when().test(document)) {
+                    continue;
+                }
+                if (rule.group() >= 0) {
+                    matchedGroups |= 1L << rule.group();
+                }
+                confidence += rule.weight();
+                if (rule.message() != null) {
+                    builder.addMessage(rule.message().render(document));
+                }
+                if (rule.version() != null) {
+                    builder.version(rule.version());
+                }
+                for (CompiledDetail detail : rule.details()) {
+                    detail.apply(document.fields(), builder);
+                }
+                rule.formatInfo().forEach((key, value) -> builder.addFormatInfo(key, value.render(document)));
+            }
+
+            if (parsed) {
+                formatInfo.forEach((key, value) -> builder.addFormatInfo(key, value.render(document)));
+                requiredFields.forEach(builder::addRequiredField);
+                optionalFields.forEach(builder::addOptionalField);
+            } else {
+                builder.addMessage(errorMessage.render(document));
+                confidence = Math.max(0.0, confidence - errorPenalty);
+            }
+
+            for (CompiledFloor floor : floors) {
+                if ((parsed || floor.when().withoutPointers()) && floor.when().test(document)) {
+                    confidence = Math.max(confidence, floor.confidence());
+                }
+            }
+            return builder.confidence(confidence).build();
+        }
+    }
+
+    private record CompiledRule(Conditions when, double weight, Template message, String version,
+                                List<CompiledDetail> details, Map<String, Template> formatInfo, int group) {
+    }
+
+    private record CompiledFloor(Conditions when, double confidence) {
+    }
+
+    /**
+     * A conjunction of conditions: presence and absence as bitmasks over the extractor's
+     * pointers, the disclosure marker, and value checks.
+     */
+    private record Conditions(long present, long absent, Boolean disclosures, List<Check> checks) {
+
+        static Conditions compile(List<DetectionRuleSet.Condition> conditions, Source source,
+                                  JsonFieldExtractor extractor, String context) {
+            long present = 0;
+            long absent = 0;
+            Boolean disclosures = null;
+            List<Check> checks = new ArrayList<>();
+            for (DetectionRuleSet.Condition condition : orEmpty(conditions)) {
+                int kinds = (condition.present() != null ? 1 : 0) + (condition.absent() != null ? 1 : 0)
+                        + (condition.contains() != null ? 1 : 0) + (condition.token() != null ? 1 : 0)
+                        + (condition.disclosures() != null ? 1 : 0);
+                if (kinds != 1) {
+                    throw new IllegalArgumentException(context
+                            + ": each condition needs exactly one of present, absent, contains, token, disclosures");
+                }
+
+                if (condition.present() != null) {
+                    present |= extractor.mask(condition.present());
+                } else if (condition.absent() != null) {
+                    absent |= extractor.mask(condition.absent());
+                } else if (condition.disclosures() != null) {
+                    if (source != Source.JWT) {
+                        throw new IllegalArgumentException(context + ": disclosures only applies to jwt sources");
+                    }
+                    disclosures = condition.disclosures();
+                } else {
+                    if (condition.pointer() == null) {
+                        throw new IllegalArgumentException(context + ": contains and token need a pointer");
+                    }
+                    // Checks only look at values that are there
+                    present |= extractor.mask(condition.pointer());
+                    checks.add(condition.contains() != null
+                            ? Check.contains(condition.pointer(), condition.contains(), condition.match(), context)
+                            : Check.token(condition.pointer(), condition.token(), context));
+                }
+            }
+            if ((present & absent) != 0) {
+                throw new IllegalArgumentException(context + ": a pointer is both present and absent");
+            }
+            return new Conditions(present, absent, disclosures, List.copyOf(checks));
+        }
+
+        boolean withoutPointers() {
+            return present == 0 && absent == 0;
+        }
+
+        boolean test(Document document) {
+            if (disclosures != null && disclosures != document.disclosures()) {
+                return false;
+            }
+            if (withoutPointers()) {
+                return true;
+            }
+            long presence = document.fields().presence();
+            if ((presence & present) != present || (presence & absent) != 0) {
+                return false;
+            }
+            for (Check check : checks) {
+                if (!check.test(document.fields())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record Check(String pointer, List<String> strings, boolean json, Set<JsonToken> tokens) {
+
+        static Check contains(String pointer, List<String> strings, String match, String context) {
+            if (strings.isEmpty()) {
+                throw new IllegalArgumentException(context + ": contains needs at least one string");
+            }
+            if (match != null && !match.equals("text") && !match.equals("json")) {
+                throw new IllegalArgumentException(context + ": match must be text or json, not " + match);
+            }
+            return new Check(pointer, List.copyOf(strings), "json".equals(match), null);
+        }
+
+        static Check token(String pointer, String token, String context) {
+            Set<JsonToken> tokens = switch (token) {
+                case "string" -> EnumSet.of(JsonToken.VALUE_STRING);
+                case "number" -> EnumSet.of(JsonToken.VALUE_NUMBER_INT, JsonToken.VALUE_NUMBER_FLOAT);
+                case "boolean" -> EnumSet.of(JsonToken.VALUE_TRUE, JsonToken.VALUE_FALSE);
+                case "null" -> EnumSet.of(JsonToken.VALUE_NULL);
+                case "object" -> EnumSet.of(JsonToken.START_OBJECT);
+                case "array" -> EnumSet.of(JsonToken.START_ARRAY);
+                default -> throw new IllegalArgumentException(context + ": unknown token type " + token);
+            };
+            return new Check(pointer, null, false, tokens);
+        }
+
+        boolean test(JsonFieldExtractor.Fields fields) {
+            if (tokens != null) {
+                return tokens.contains(fields.token(pointer));
+            }
+            String value = json ? fields.value(pointer).toString() : fields.text(pointer);
+            for (String string : strings) {
+                if (value.contains(string)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record CompiledDetail(String name, String pointer, As as, Object value) {
+
+        static CompiledDetail compile(DetectionRuleSet.Detail detail, String context) {
+            if (detail.name() == null) {
+                throw new IllegalArgumentException(context + ": detail without a name");
+            }
+            if ((detail.pointer() == null) == (detail.value() == null)) {
+                throw new IllegalArgumentException(context + ": detail " + detail.name()
+                        + " needs exactly one of pointer or value");
+            }
+            As as = As.TEXT;
+            if (detail.as() != null) {
+                try {
+                    as = As.valueOf(detail.as().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(context + ": unknown detail type " + detail.as());
+                }
+            }
+            return new CompiledDetail(detail.name(), detail.pointer(), as, detail.value());
+        }
+
+        void apply(JsonFieldExtractor.Fields fields, DetectionResult.DetectionResultBuilder builder) {
+            if (pointer == null) {
+                builder.addDetail(name, value);
+                return;
+            }
+            if (fields == null || !fields.has(pointer)) {
+                return;
+            }
+            JsonNode node = fields.value(pointer);
+            builder.addDetail(name, switch (as) {
+                case TEXT -> fields.text(pointer);
+                case LONG -> node != null ? node.asLong() : 0L;
+                case JSON -> node.toString();
+                case NODE -> node;
+                case SIZE -> node.size();
+            });
+        }
+    }
+
+    /**
+     * Text with {@code {/pointer}}, {@code {$error}} and {@code {$alg}} placeholders.
+     * Placeholders render like string concatenation would, so a missing value is "null".
+     */
+    private record Template(List<String> literals, List<String> placeholders) {
+
+        static Template compile(String text, Source source, boolean onError, String context) {
+            if (text == null) {
+                return null;
+            }
+            List<String> literals = new ArrayList<>();
+            List<String> placeholders = new ArrayList<>();
+            Matcher matcher = PLACEHOLDER.matcher(text);
+            int last = 0;
+            while (matcher.find()) {
+                String placeholder = matcher.group(1);
+                boolean valid = switch (placeholder) {
+                    case "$error" -> onError;
+                    case "$alg" -> source == Source.JWT && !onError;
+                    default -> placeholder.startsWith("/") && !onError;
+                };
+                if (!valid) {
+                    throw new IllegalArgumentException(context + ": {" + placeholder + "} is not available here");
+                }
+                literals.add(text.substring(last, matcher.start()));
+                placeholders.add(placeholder);
+                last = matcher.end();
+            }
+            literals.add(text.substring(last));
+            return new Template(List.copyOf(literals), List.copyOf(placeholders));
+        }
+
+        String render(Document document) {
+            if (placeholders.isEmpty()) {
+                return literals.get(0);
+            }
+            StringBuilder text = new StringBuilder(literals.get(0));
+            for (int i = 0; i < placeholders.size(); i++) {
+                String placeholder = placeholders.get(i);
+                String value = switch (placeholder) {
+                    case "$error" -> document.error().getMessage();
+                    case "$alg" -> document.algorithm();
+                    default -> document.fields() != null ? document.fields().text(placeholder) : null;
+                };
+                text.append(value).append(literals.get(i + 1));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.UniVC.service.mdoc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the issuer-signed data in a parsed mdoc: the documents of a DeviceResponse, a
+ * single Document, or a bare IssuerSigned.
+ */
+public final class IssuerSignedDocuments {
+
+    /**
+     * @param docType      null for a bare IssuerSigned, whose docType is only in its MSO
+     * @param issuerSigned the IssuerSigned map, with {@code nameSpaces} and {@code issuerAuth}
+     */
+    public record IssuerSigned(String docType, JsonNode issuerSigned) {
+    }
+
+    private IssuerSignedDocuments() {
+    }
+
+    public static List<IssuerSigned> find(JsonNode root) {
+        if (root == null || !root.isObject()) {
+            return List.of();
+        }
+        JsonNode documents = root.get("documents");
+        if (documents != null && documents.isArray()) {
+            List<IssuerSigned> found = new ArrayList<>();
+            for (JsonNode document : documents) {
+                if (document.has("issuerSigned")) {
+                    found.add(new IssuerSigned(document.path("docType").asText(null), document.get("issuerSigned")));
+                }
+            }
+            return found;
+        }
+        if (root.has("issuerSigned")) {
+            return List.of(new IssuerSigned(root.path("docType").asText(null), root.get("issuerSigned")));
+        }
+        if (root.has("issuerAuth")) {
+            return List.of(new IssuerSigned(null, root));
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.UniVC.service.mdoc;
+
+import java.util.List;
+
+/**
+ * Outcome of checking one mdoc's IssuerSignedItems against the {@code valueDigests} of
+ * its Mobile Security Object. {@code verified} means every item was found in the MSO with
+ * a matching digest; it says nothing about the issuer signature over the MSO.
+ *
+ * @param error why no element could be checked, e.g. a missing or undecodable MSO
+ */
+public record MsoDigestReport(String docType, String digestAlgorithm, boolean verified, int valid, int total,
+                              List<Element> elements, String error) {
+
+    public enum Status {
+        /** The digest matches the MSO. */
+        VALID,
+        /** The MSO has a different digest for this digestID: the element was altered. */
+        INVALID,
+        /** The MSO has no digest for this namespace and digestID. */
+        MISSING,
+        /** Not a decodable IssuerSignedItem. */
+        MALFORMED
+    }
+
+    public record Element(String namespace, Integer digestId, String elementIdentifier, Status status) {
+    }
+
+    static MsoDigestReport of(String docType, String digestAlgorithm, List<Element> elements) {
+        int valid = (int) elements.stream().filter(e -> e.status() == Status.VALID).count();
+        return new MsoDigestReport(docType, digestAlgorithm, !elements.isEmpty() && valid == elements.size(), valid,
+                elements.size(), elements, null);
+    }
+
+    static MsoDigestReport failed(String docType, String digestAlgorithm, String error) {
+        return new MsoDigestReport(docType, digestAlgorithm, false, 0, 0, List.of(), error);
+    }
+}
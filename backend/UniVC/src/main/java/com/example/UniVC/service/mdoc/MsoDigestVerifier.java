@@ -0,0 +1,219 @@
+package com.example.UniVC.service.mdoc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks ISO 18013-5 mdoc IssuerSignedItems against the {@code valueDigests} of the
+ * Mobile Security Object in {@code issuerAuth}: the MSO is decoded from the COSE_Sign1
+ * payload, and each IssuerSignedItemBytes ({@code #6.24(bstr .cbor IssuerSignedItem)}) is
+ * hashed with the MSO's {@code digestAlgorithm} and compared with the digest under its
+ * namespace and digestID. The issuer signature is not verified here but with the
+ * certificate chain, by {@link com.example.UniVC.service.pki.IssuerSignature}.
+ *
+ * <p>Works on the tree of a parsed DeviceResponse, Document or IssuerSigned. That tree no
+ * longer has the tag 24 wrapper, so it is re-encoded with the shortest bstr length, as
+ * deterministic CBOR requires. Documents with at least
+ * {@code app.mdoc.parallel-min-elements} items are hashed in chunks on a bounded pool,
+ * with the caller hashing a chunk itself when the pool is saturated.
+ */
+@Service
+public class MsoDigestVerifier {
+
+    private static final CBORMapper cborMapper = new CBORMapper();
+    // Fewer items per task cost more in handoff than they save in hashing
+    private static final int MIN_CHUNK = 16;
+    // ISO 18013-5 names coincide with the JCA ones
+    private static final Set<String> ALGORITHMS = Set.of("SHA-256", "SHA-384", "SHA-512");
+
+    @Value("${app.mdoc.digest-threads:0}")
+    private int threads;
+
+    @Value("${app.mdoc.parallel-min-elements:64}")
+    private int parallelMinElements;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(size * 4), r -> {
+                    Thread thread = new Thread(r, "univc-mdoc-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("mdoc digest verification is shutting down");
+                    }
+                    task.run();
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * One report per document that has issuer-signed data; empty if {@code root} is not
+     * an mdoc structure.
+     */
+    public List<MsoDigestReport> verify(JsonNode root) {
+        List<MsoDigestReport> reports = new ArrayList<>();
+        for (IssuerSignedDocuments.IssuerSigned document : IssuerSignedDocuments.find(root)) {
+            reports.add(verifyIssuerSigned(document.docType(), document.issuerSigned()));
+        }
+        return reports;
+    }
+
+    private MsoDigestReport verifyIssuerSigned(String docType, JsonNode issuerSigned) {
+        JsonNode mso = mso(issuerSigned.get("issuerAuth"));
+        if (mso == null) {
+            return MsoDigestReport.failed(docType, null, "issuerAuth does not carry a Mobile Security Object");
+        }
+        if (docType == null) {
+            docType = mso.path("docType").asText(null);
+        }
+        String algorithm = mso.path("digestAlgorithm").asText(null);
+        if (algorithm == null || !ALGORITHMS.contains(algorithm)) {
+            return MsoDigestReport.failed(docType, algorithm, "Unsupported digest algorithm " + algorithm);
+        }
+        JsonNode valueDigests = mso.path("valueDigests");
+
+        List<String> namespaces = new ArrayList<>();
+        List<JsonNode> items = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> namespace : issuerSigned.path("nameSpaces").properties()) {
+            for (JsonNode item : namespace.getValue()) {
+                namespaces.add(namespace.getKey());
+                items.add(item);
+            }
+        }
+
+        MsoDigestReport.Element[] elements = new MsoDigestReport.Element[items.size()];
+        int chunks = executor != null && items.size() >= parallelMinElements
+                ? Math.min(executor.getMaximumPoolSize() + 1, (items.size() + MIN_CHUNK - 1) / MIN_CHUNK) : 1;
+        if (chunks <= 1) {
+            check(algorithm, valueDigests, namespaces, items, elements, 0, items.size());
+        } else {
+            int chunkSize = (items.size() + chunks - 1) / chunks;
+            List<CompletableFuture<Void>> pending = new ArrayList<>(chunks);
+            // The first chunk runs here instead of idling in join()
+            for (int from = chunkSize; from < items.size(); from += chunkSize) {
+                int start = from;
+                int end = Math.min(items.size(), from + chunkSize);
+                pending.add(CompletableFuture.runAsync(
+                        () -> check(algorithm, valueDigests, namespaces, items, elements, start, end), executor));
+            }
+            check(algorithm, valueDigests, namespaces, items, elements, 0, Math.min(chunkSize, items.size()));
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        }
+        return MsoDigestReport.of(docType, algorithm, Arrays.asList(elements));
+    }
+
+    private static void check(String algorithm, JsonNode valueDigests, List<String> namespaces, List<JsonNode> items,
+                              MsoDigestReport.Element[] elements, int from, int to) {
+        MessageDigest digest = messageDigest(algorithm);
+        for (int i = from; i < to; i++) {
+            elements[i] = check(digest, valueDigests, namespaces.get(i), items.get(i));
+        }
+    }
+
+    private static MsoDigestReport.Element check(MessageDigest digest, JsonNode valueDigests, String namespace,
+                                                 JsonNode itemBytes) {
+        JsonNode item;
+        byte[] encoded;
+        try {
+            encoded = itemBytes.isBinary() ? itemBytes.binaryValue() : null;
+            item = encoded != null ? cborMapper.readTree(encoded) : null;
+        } catch (IOException e) {
+            item = null;
+            encoded = null;
+        }
+        JsonNode digestId = item != null ? item.get("digestID") : null;
+        if (digestId == null || !digestId.canConvertToInt()) {
+            return new MsoDigestReport.Element(namespace, null, null, MsoDigestReport.Status.MALFORMED);
+        }
+        int id = digestId.asInt();
+        String identifier = item.path("elementIdentifier").asText(null);
+
+        JsonNode expected = valueDigests.path(namespace).get(String.valueOf(id));
+        if (expected == null || !expected.isBinary()) {
+            return new MsoDigestReport.Element(namespace, id, identifier, MsoDigestReport.Status.MISSING);
+        }
+        digest.update(tag24Header(encoded.length));
+        boolean valid;
+        try {
+            valid = MessageDigest.isEqual(digest.digest(encoded), expected.binaryValue());
+        } catch (IOException e) {
+            valid = false;
+        }
+        return new MsoDigestReport.Element(namespace, id, identifier,
+                valid ? MsoDigestReport.Status.VALID : MsoDigestReport.Status.INVALID);
+    }
+
+    // COSE_Sign1 is [protected, unprotected, payload, signature]; the payload is #6.24(bstr .cbor MSO)
+    private static JsonNode mso(JsonNode issuerAuth) {
+        if (issuerAuth == null || !issuerAuth.isArray() || issuerAuth.size() != 4 || !issuerAuth.get(2).isBinary()) {
+            return null;
+        }
+        try {
+            JsonNode payload = cborMapper.readTree(issuerAuth.get(2).binaryValue());
+            // Without the tag 24 wrapper the payload is the MSO itself
+            if (payload != null && payload.isBinary()) {
+                payload = cborMapper.readTree(payload.binaryValue());
+            }
+            return payload != null && payload.isObject() && payload.has("valueDigests") ? payload : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tag 24 followed by the shortest header of a byte string of {@code length} bytes.
+     */
+    static byte[] tag24Header(int length) {
+        if (length < 24) {
+            return new byte[]{(byte) 0xd8, 0x18, (byte) (0x40 | length)};
+        }
+        if (length < 0x100) {
+            return new byte[]{(byte) 0xd8, 0x18, 0x58, (byte) length};
+        }
+        if (length < 0x10000) {
+            return new byte[]{(byte) 0xd8, 0x18, 0x59, (byte) (length >> 8), (byte) length};
+        }
+        return new byte[]{(byte) 0xd8, 0x18, 0x5a,
+                (byte) (length >>> 24), (byte) (length >> 16), (byte) (length >> 8), (byte) length};
+    }
+
+    private static MessageDigest messageDigest(String jcaName) {
+        try {
+            return MessageDigest.getInstance(jcaName);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(jcaName + " not available", e);
+        }
+    }
+}
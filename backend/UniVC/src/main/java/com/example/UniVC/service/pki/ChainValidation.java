@@ -0,0 +1,58 @@
+package com.example.UniVC.service.pki;
+
+/**
+ * Outcome of validating an issuer certificate chain against the local trust anchors, and
+ * of checking the credential's signature with the end-entity key.
+ *
+ * @param valid             whether the chain builds to a trust anchor; says nothing about the signature
+ * @param subject           subject of the end-entity certificate, null if it could not be parsed
+ * @param trustAnchor       subject of the anchor the path was built to, null if none was found
+ * @param revocationChecked whether a current CRL covered every certificate on the path
+ * @param error             why the chain is not valid, null if it is
+ * @param signatureVerified whether the credential's signature verifies with the end-entity key
+ * @param signatureError    why it does not, null if it does or was not checked
+ */
+public record ChainValidation(boolean valid, String subject, String trustAnchor, boolean revocationChecked,
+                              String error, boolean signatureVerified, String signatureError) {
+
+    /**
+     * A valid chain whose key verified the signature: the issuer is who the certificates say.
+     */
+    public boolean trusted() {
+        return valid && signatureVerified;
+    }
+
+    /**
+     * This chain with the outcome of the signature check.
+     *
+     * @param signatureError null if the signature verified, otherwise why not
+     */
+    public ChainValidation withSignature(String signatureError) {
+        return new ChainValidation(valid, subject, trustAnchor, revocationChecked, error, signatureError == null,
+                signatureError);
+    }
+
+    /**
+     * One line for {@code DetectionResult} messages.
+     */
+    public String describe() {
+        if (!valid) {
+            return "Issuer certificate chain of " + subject + " is not trusted: " + error;
+        }
+        if (!signatureVerified) {
+            return "Issuer certificate chain of " + subject + " is trusted by " + trustAnchor
+                    + ", but the credential's signature is not: "
+                    + (signatureError != null ? signatureError : "not checked");
+        }
+        return "Issuer certificate chain of " + subject + " is trusted by " + trustAnchor
+                + " and its key signed the credential" + (revocationChecked ? "" : " (revocation status unknown)");
+    }
+
+    static ChainValidation valid(String subject, String trustAnchor, boolean revocationChecked) {
+        return new ChainValidation(true, subject, trustAnchor, revocationChecked, null, false, null);
+    }
+
+    static ChainValidation invalid(String subject, String trustAnchor, String error) {
+        return new ChainValidation(false, subject, trustAnchor, false, error, false, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.UniVC.service.pki;
+
+import com.example.UniVC.service.buffer.BufferPool;
+import com.example.UniVC.service.buffer.PooledBuffer;
+import com.example.UniVC.service.codec.Base64Codec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Extracts the certificate chain an issuer attached to a credential, end entity first.
+ * Every method returns an empty list when there is none or it cannot be read.
+ */
+public final class IssuerCertificates {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final CBORMapper cborMapper = new CBORMapper();
+    // COSE header label of x5chain (RFC 9360); the CBOR tree has integer keys as text
+    private static final String X5CHAIN = "33";
+
+    private IssuerCertificates() {
+    }
+
+    /**
+     * The {@code x5c} header of a compact JWS, including the issuer JWT of an SD-JWT.
+     */
+    public static List<byte[]> fromJws(String content) {
+        String trimmed = content.trim();
+        int dot = trimmed.indexOf('.');
+        if (dot <= 0) {
+            return List.of();
+        }
+        try (PooledBuffer header = Base64Codec.decode(trimmed.substring(0, dot), Base64Codec.Alphabet.URL_SAFE,
+                BufferPool.shared())) {
+            if (header == null) {
+                return List.of();
+            }
+            JsonNode x5c = objectMapper.readTree(header.array(), 0, header.length()).path("x5c");
+            List<byte[]> chain = new ArrayList<>(x5c.size());
+            for (JsonNode certificate : x5c) {
+                // Standard base64, not base64url (RFC 7515 section 4.1.6)
+                chain.add(Base64.getDecoder().decode(certificate.asText()));
+            }
+            return chain;
+        } catch (IOException | IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * The {@code x5chain} of a COSE_Sign1 such as an mdoc's {@code issuerAuth}, from the
+     * unprotected header or else the protected one.
+     */
+    public static List<byte[]> fromCoseSign1(JsonNode coseSign1) {
+        if (coseSign1 == null || !coseSign1.isArray() || coseSign1.size() != 4) {
+            return List.of();
+        }
+        JsonNode x5chain = coseSign1.get(1).get(X5CHAIN);
+        if (x5chain == null && coseSign1.get(0).isBinary()) {
+            try {
+                JsonNode protectedHeader = cborMapper.readTree(coseSign1.get(0).binaryValue());
+                x5chain = protectedHeader != null ? protectedHeader.get(X5CHAIN) : null;
+            } catch (IOException e) {
+                return List.of();
+            }
+        }
+        if (x5chain == null) {
+            return List.of();
+        }
+        try {
+            // A single certificate is a bstr, several are an array of them
+            if (x5chain.isBinary()) {
+                return List.of(x5chain.binaryValue());
+            }
+            List<byte[]> chain = new ArrayList<>(x5chain.size());
+            for (JsonNode certificate : x5chain) {
+                if (!certificate.isBinary()) {
+                    return List.of();
+                }
+                chain.add(certificate.binaryValue());
+            }
+            return chain;
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.UniVC.service.pki;
+
+import com.example.UniVC.service.codec.Base64Codec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+
+/**
+ * Verifies the issuer's signature on a credential with the end-entity key of its
+ * certificate chain: the issuer JWT of a JWS or SD-JWT, or an mdoc's COSE_Sign1
+ * {@code issuerAuth}. A chain that validates only shows who the certificates belong to;
+ * without this check anyone could copy them onto a credential of their own.
+ *
+ * <p>Every method returns null when the signature verifies and otherwise says why not.
+ */
+public final class IssuerSignature {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final CBORMapper cborMapper = new CBORMapper();
+    private static final CBORFactory cborFactory = new CBORFactory();
+    // COSE header label of alg (RFC 9052)
+    private static final String ALG = "1";
+
+    private IssuerSignature() {
+    }
+
+    /**
+     * @param certificate DER end-entity certificate
+     */
+    public static String verifyJws(String content, byte[] certificate) {
+        PublicKey key = publicKey(certificate);
+        return key != null ? verifyJws(content, key) : "Unparseable end-entity certificate";
+    }
+
+    public static String verifyJws(String content, PublicKey key) {
+        String jws = content.trim();
+        // An SD-JWT is signed only up to its first disclosure
+        int tilde = jws.indexOf('~');
+        if (tilde >= 0) {
+            jws = jws.substring(0, tilde);
+        }
+        int first = jws.indexOf('.');
+        int second = first > 0 ? jws.indexOf('.', first + 1) : -1;
+        if (second < 0 || jws.indexOf('.', second + 1) >= 0) {
+            return "Not a compact JWS";
+        }
+        byte[] header = Base64Codec.decode(jws.substring(0, first), Base64Codec.Alphabet.URL_SAFE);
+        byte[] signature = Base64Codec.decode(jws.substring(second + 1), Base64Codec.Alphabet.URL_SAFE);
+        if (header == null || signature == null) {
+            return "JWS header or signature is not base64url";
+        }
+        String alg;
+        try {
+            alg = objectMapper.readTree(header).path("alg").asText("");
+        } catch (IOException e) {
+            return "Unparseable JWS header";
+        }
+        Signature verifier = switch (alg) {
+            case "ES256" -> signature("SHA256withECDSAinP1363Format");
+            case "ES384" -> signature("SHA384withECDSAinP1363Format");
+            case "ES512" -> signature("SHA512withECDSAinP1363Format");
+            case "RS256" -> signature("SHA256withRSA");
+            case "RS384" -> signature("SHA384withRSA");
+            case "RS512" -> signature("SHA512withRSA");
+            case "PS256" -> pss("SHA-256", 32);
+            case "PS384" -> pss("SHA-384", 48);
+            case "PS512" -> pss("SHA-512", 64);
+            case "EdDSA", "Ed25519" -> signature("EdDSA");
+            default -> null;
+        };
+        if (verifier == null) {
+            return "Unsupported JWS algorithm " + (alg.isEmpty() ? "(none)" : alg);
+        }
+        return verify(verifier, key, jws.substring(0, second).getBytes(StandardCharsets.US_ASCII), signature);
+    }
+
+    /**
+     * @param certificate DER end-entity certificate
+     */
+    public static String verifyCoseSign1(JsonNode coseSign1, byte[] certificate) {
+        PublicKey key = publicKey(certificate);
+        return key != null ? verifyCoseSign1(coseSign1, key) : "Unparseable end-entity certificate";
+    }
+
+    public static String verifyCoseSign1(JsonNode coseSign1, PublicKey key) {
+        if (coseSign1 == null || !coseSign1.isArray() || coseSign1.size() != 4) {
+            return "Not a COSE_Sign1";
+        }
+        try {
+            byte[] protectedHeader = coseSign1.get(0).isBinary() ? coseSign1.get(0).binaryValue() : null;
+            byte[] payload = coseSign1.get(2).isBinary() ? coseSign1.get(2).binaryValue() : null;
+            byte[] signature = coseSign1.get(3).isBinary() ? coseSign1.get(3).binaryValue() : null;
+            if (protectedHeader == null || signature == null) {
+                return "Not a COSE_Sign1";
+            }
+            if (payload == null) {
+                return "COSE_Sign1 payload is detached";
+            }
+            JsonNode alg = protectedHeader.length > 0 ? cborMapper.readTree(protectedHeader).get(ALG) : null;
+            if (alg == null) {
+                alg = coseSign1.get(1).get(ALG);
+            }
+            int algorithm = alg != null && alg.canConvertToInt() ? alg.asInt() : 0;
+            Signature verifier = switch (algorithm) {
+                case -7 -> signature("SHA256withECDSAinP1363Format");
+                case -35 -> signature("SHA384withECDSAinP1363Format");
+                case -36 -> signature("SHA512withECDSAinP1363Format");
+                case -257 -> signature("SHA256withRSA");
+                case -258 -> signature("SHA384withRSA");
+                case -259 -> signature("SHA512withRSA");
+                case -37 -> pss("SHA-256", 32);
+                case -38 -> pss("SHA-384", 48);
+                case -39 -> pss("SHA-512", 64);
+                case -8 -> signature("EdDSA");
+                default -> null;
+            };
+            if (verifier == null) {
+                return "Unsupported COSE algorithm " + (alg != null ? alg.asText() : "(none)");
+            }
+            return verify(verifier, key, sigStructure(protectedHeader, payload), signature);
+        } catch (IOException e) {
+            return "Unparseable COSE_Sign1: " + e.getMessage();
+        }
+    }
+
+    // Sig_structure = ["Signature1", body_protected, external_aad, payload] (RFC 9052 section 4.4)
+    private static byte[] sigStructure(byte[] protectedHeader, byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + protectedHeader.length + 32);
+        try (CBORGenerator generator = cborFactory.createGenerator(out)) {
+            generator.writeStartArray(null, 4);
+            generator.writeString("Signature1");
+            generator.writeBinary(protectedHeader);
+            generator.writeBinary(new byte[0]);
+            generator.writeBinary(payload);
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    private static String verify(Signature verifier, PublicKey key, byte[] signed, byte[] signature) {
+        try {
+            verifier.initVerify(key);
+            verifier.update(signed);
+            return verifier.verify(signature) ? null : "Issuer signature does not verify with the end-entity key";
+        } catch (GeneralSecurityException e) {
+            return "Issuer signature could not be checked with the end-entity key: " + e.getMessage();
+        }
+    }
+
+    private static Signature signature(String algorithm) {
+        try {
+            return Signature.getInstance(algorithm);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    private static Signature pss(String digest, int saltLength) {
+        try {
+            Signature signature = Signature.getInstance("RSASSA-PSS");
+            signature.setParameter(new PSSParameterSpec(digest, "MGF1", new MGF1ParameterSpec(digest), saltLength, 1));
+            return signature;
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    private static PublicKey publicKey(byte[] certificate) {
+        try {
+            return CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(certificate)).getPublicKey();
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.UniVC.service.pki;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.cert.CertPathBuilder;
+import java.security.cert.CertPathBuilderException;
+import java.security.cert.CertStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.CollectionCertStoreParameters;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.PKIXCertPathBuilderResult;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CertSelector;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * A set of trust anchors and CRLs, with a cache of the chains validated against them.
+ * Validation builds a PKIX path from the first certificate of a chain to an anchor, the
+ * other certificates serving as candidate intermediates, then checks every certificate on
+ * the path against a current CRL from its issuer, if one was supplied. Nothing is fetched
+ * from the network.
+ *
+ * <p>Results are cached by the SHA-256 fingerprints of the chain, so the certificates are
+ * not even parsed again, until the earliest of: a certificate on the path or its anchor
+ * expiring, a certificate becoming valid, a CRL used reaching its nextUpdate, or the
+ * maximum cache age. A chain that cannot become valid by itself (unparseable, expired, no
+ * path to an anchor) stays cached for the maximum cache age. Concurrent requests for an
+ * uncached chain wait for one path build.
+ */
+final class TrustStore {
+
+    private final Set<TrustAnchor> anchors;
+    private final Map<X500Principal, List<X509CRL>> crls = new HashMap<>();
+    private final Duration maxCacheAge;
+    private final Clock clock;
+    // Null when caching is off
+    private final Map<ByteBuffer, CompletableFuture<Cached>> cache;
+    private final LongAdder pathBuilds = new LongAdder();
+
+    private record Cached(ChainValidation validation, long expiresAt) {
+    }
+
+    TrustStore(Set<TrustAnchor> anchors, List<X509CRL> crls, int cacheSize, Duration maxCacheAge, Clock clock) {
+        if (anchors.isEmpty()) {
+            throw new IllegalArgumentException("A trust store needs at least one anchor");
+        }
+        this.anchors = Set.copyOf(anchors);
+        for (X509CRL crl : crls) {
+            this.crls.computeIfAbsent(crl.getIssuerX500Principal(), issuer -> new ArrayList<>()).add(crl);
+        }
+        this.maxCacheAge = maxCacheAge;
+        this.clock = clock;
+        this.cache = cacheSize <= 0 ? null
+                : new LinkedHashMap<>(Math.min(cacheSize, 1024), 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<ByteBuffer, CompletableFuture<Cached>> eldest) {
+                        return size() > cacheSize;
+                    }
+                };
+    }
+
+    int anchorCount() {
+        return anchors.size();
+    }
+
+    /**
+     * @param chain DER certificates, end entity first, as in {@code x5c} or {@code x5chain}
+     */
+    ChainValidation validate(List<byte[]> chain) {
+        if (chain.isEmpty()) {
+            return ChainValidation.invalid(null, null, "No certificates");
+        }
+        if (cache == null) {
+            return build(chain).validation();
+        }
+        ByteBuffer key = fingerprint(chain);
+        CompletableFuture<Cached> result;
+        boolean owner = false;
+        synchronized (cache) {
+            result = cache.get(key);
+            if (result == null || result.isDone() && result.join().expiresAt() <= clock.millis()) {
+                result = new CompletableFuture<>();
+                cache.put(key, result);
+                owner = true;
+            }
+        }
+        if (owner) {
+            try {
+                result.complete(build(chain));
+            } catch (RuntimeException | Error e) {
+                // Fail the waiters, and let the next request build again rather than join a dead future
+                synchronized (cache) {
+                    cache.remove(key, result);
+                }
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return result.join().validation();
+    }
+
+    int cachedChains() {
+        if (cache == null) {
+            return 0;
+        }
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    long pathBuilds() {
+        return pathBuilds.sum();
+    }
+
+    // Problems with the chain itself are cacheable invalid results
+    private Cached build(List<byte[]> chain) {
+        pathBuilds.increment();
+        long now = clock.millis();
+        long expiresAt = now + maxCacheAge.toMillis();
+
+        List<X509Certificate> certificates = new ArrayList<>(chain.size());
+        try {
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            for (byte[] der : chain) {
+                certificates.add((X509Certificate) factory.generateCertificate(new ByteArrayInputStream(der)));
+            }
+        } catch (CertificateException | ClassCastException e) {
+            return new Cached(ChainValidation.invalid(null, null, "Unparseable certificate: " + e.getMessage()),
+                    expiresAt);
+        }
+        X509Certificate leaf = certificates.get(0);
+        String subject = leaf.getSubjectX500Principal().getName();
+        for (X509Certificate certificate : certificates) {
+            long notBefore = certificate.getNotBefore().getTime();
+            if (notBefore > now) {
+                expiresAt = Math.min(expiresAt, notBefore);
+            }
+        }
+
+        PKIXCertPathBuilderResult path;
+        try {
+            X509CertSelector target = new X509CertSelector();
+            target.setCertificate(leaf);
+            PKIXBuilderParameters parameters = new PKIXBuilderParameters(anchors, target);
+            parameters.addCertStore(CertStore.getInstance("Collection",
+                    new CollectionCertStoreParameters(certificates)));
+            // Checked below against local CRLs only
+            parameters.setRevocationEnabled(false);
+            parameters.setDate(new Date(now));
+            path = (PKIXCertPathBuilderResult) CertPathBuilder.getInstance("PKIX").build(parameters);
+        } catch (CertPathBuilderException e) {
+            return new Cached(ChainValidation.invalid(subject, null, "No valid path to a trust anchor: "
+                    + e.getMessage()), expiresAt);
+        } catch (GeneralSecurityException e) {
+            return new Cached(ChainValidation.invalid(subject, null, e.getMessage()), expiresAt);
+        }
+
+        TrustAnchor anchor = path.getTrustAnchor();
+        String anchorName = anchor.getTrustedCert() != null
+                ? anchor.getTrustedCert().getSubjectX500Principal().getName() : anchor.getCAName();
+        if (anchor.getTrustedCert() != null) {
+            expiresAt = Math.min(expiresAt, anchor.getTrustedCert().getNotAfter().getTime());
+        }
+        List<? extends Certificate> certificatesOnPath = path.getCertPath().getCertificates();
+        boolean revocationChecked = true;
+        for (int i = 0; i < certificatesOnPath.size(); i++) {
+            X509Certificate certificate = (X509Certificate) certificatesOnPath.get(i);
+            // Valid now, since the path was built; the result lasts until it expires
+            expiresAt = Math.min(expiresAt, certificate.getNotAfter().getTime());
+            PublicKey issuerKey = i + 1 < certificatesOnPath.size()
+                    ? certificatesOnPath.get(i + 1).getPublicKey()
+                    : anchor.getTrustedCert() != null ? anchor.getTrustedCert().getPublicKey() : anchor.getCAPublicKey();
+            X509CRL crl = currentCrl(certificate.getIssuerX500Principal(), issuerKey, now);
+            if (crl == null) {
+                revocationChecked = false;
+                continue;
+            }
+            if (crl.getNextUpdate() != null) {
+                expiresAt = Math.min(expiresAt, crl.getNextUpdate().getTime());
+            }
+            if (crl.isRevoked(certificate)) {
+                return new Cached(ChainValidation.invalid(subject, anchorName, "Certificate "
+                        + certificate.getSubjectX500Principal().getName() + " is revoked"), expiresAt);
+            }
+        }
+        return new Cached(ChainValidation.valid(subject, anchorName, revocationChecked), expiresAt);
+    }
+
+    // The most recent CRL from the issuer that is in effect and signed with its key
+    private X509CRL currentCrl(X500Principal issuer, PublicKey issuerKey, long now) {
+        X509CRL current = null;
+        for (X509CRL crl : crls.getOrDefault(issuer, List.of())) {
+            if (crl.getThisUpdate().getTime() > now
+                    || crl.getNextUpdate() != null && crl.getNextUpdate().getTime() <= now
+                    || current != null && !crl.getThisUpdate().after(current.getThisUpdate())) {
+                continue;
+            }
+            try {
+                crl.verify(issuerKey);
+                current = crl;
+            } catch (GeneralSecurityException e) {
+                // Another key with the same issuer name
+            }
+        }
+        return current;
+    }
+
+    private static ByteBuffer fingerprint(List<byte[]> chain) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            ByteBuffer key = ByteBuffer.allocate(chain.size() * sha256.getDigestLength());
+            for (byte[] der : chain) {
+                key.put(sha256.digest(der));
+            }
+            return key.flip();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.UniVC.service.pki;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.CRL;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Validates issuer certificate chains ({@code x5c}, {@code x5chain}) against trust anchors,
+ * such as IACA roots, read from the PEM or DER files in {@code app.trust.anchors}, with
+ * revocation checked against the CRLs in {@code app.trust.crls}. Both are comma-separated
+ * files or directories, polled every {@code app.trust.reload-interval}; a change replaces
+ * the {@link TrustStore} and so its cache. As with the detection rules, a failed reload
+ * keeps the current store and a failure at startup is fatal.
+ *
+ * <p>Without anchors, chains are not validated and {@link #validate} returns null.
+ */
+@Service
+public class TrustStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrustStoreService.class);
+
+    @Value("${app.trust.anchors:}")
+    private String anchors;
+
+    @Value("${app.trust.crls:}")
+    private String crls;
+
+    @Value("${app.trust.cache-size:1024}")
+    private int cacheSize;
+
+    @Value("${app.trust.max-cache-age:1h}")
+    private Duration maxCacheAge;
+
+    @Value("${app.trust.reload-interval:60s}")
+    private Duration reloadInterval;
+
+    private volatile TrustStore store;
+    private long lastModified;
+    private ScheduledExecutorService reloader;
+
+    @PostConstruct
+    public void open() throws IOException, GeneralSecurityException {
+        reload();
+        if (store == null || reloadInterval.isZero() || reloadInterval.isNegative()) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "univc-trust-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reloadIfModified, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * @param chain DER certificates, end entity first
+     * @return the outcome, or null when no trust anchors are configured
+     */
+    public ChainValidation validate(List<byte[]> chain) {
+        TrustStore current = store;
+        return current != null ? current.validate(chain) : null;
+    }
+
+    TrustStore store() {
+        return store;
+    }
+
+    /**
+     * Reads anchors and CRLs, replacing the current store only if both load.
+     */
+    public synchronized void reload() throws IOException, GeneralSecurityException {
+        List<Path> anchorFiles = files(anchors);
+        List<Path> crlFiles = files(crls);
+        long modified = lastModified(anchorFiles, crlFiles);
+        if (anchorFiles.isEmpty()) {
+            store = null;
+            lastModified = modified;
+            return;
+        }
+        CertificateFactory factory = CertificateFactory.getInstance("X.509");
+        Set<TrustAnchor> trustAnchors = new HashSet<>();
+        for (Path file : anchorFiles) {
+            try (InputStream in = Files.newInputStream(file)) {
+                for (Certificate certificate : factory.generateCertificates(in)) {
+                    trustAnchors.add(new TrustAnchor((X509Certificate) certificate, null));
+                }
+            }
+        }
+        List<X509CRL> revocationLists = new ArrayList<>();
+        for (Path file : crlFiles) {
+            try (InputStream in = Files.newInputStream(file)) {
+                for (CRL crl : factory.generateCRLs(in)) {
+                    revocationLists.add((X509CRL) crl);
+                }
+            }
+        }
+        if (trustAnchors.isEmpty()) {
+            throw new GeneralSecurityException("No certificates in " + anchors);
+        }
+        store = new TrustStore(trustAnchors, revocationLists, cacheSize, maxCacheAge, Clock.systemUTC());
+        lastModified = modified;
+        logger.info("Loaded {} trust anchors and {} CRLs", trustAnchors.size(), revocationLists.size());
+    }
+
+    // A broken file is reported once, then retried when it changes again
+    private synchronized void reloadIfModified() {
+        long modified;
+        try {
+            modified = lastModified(files(anchors), files(crls));
+        } catch (IOException e) {
+            logger.warn("Cannot list trust store files: {}", e.getMessage());
+            return;
+        }
+        if (modified == lastModified) {
+            return;
+        }
+        lastModified = modified;
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Keeping the current trust store, reload failed: {}", e.getMessage());
+        }
+    }
+
+    // Regular files named in the list, and those directly inside directories named in it
+    private static List<Path> files(String locations) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String location : locations.split(",")) {
+            if (location.isBlank()) {
+                continue;
+            }
+            Path path = Path.of(location.trim());
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> entries = Files.list(path)) {
+                    entries.filter(Files::isRegularFile).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    // Changes when a file is added, removed or modified
+    private static long lastModified(List<Path> anchorFiles, List<Path> crlFiles) throws IOException {
+        long hash = 1;
+        for (Path file : Stream.concat(anchorFiles.stream(), crlFiles.stream()).toList()) {
+            hash = 31 * hash + Objects.hash(file, Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.UniVC.service.scheduler;
+
+import java.util.Locale;
+
+/**
+ * Bulkheads for credential processing, each with its own threads and queue.
+ */
+public enum ProcessingLane {
+    /** Small inputs of any format; should never wait behind large ones. */
+    FAST,
+    /** JSON and JWT inputs of moderate size. */
+    STANDARD,
+    /** Large inputs and CBOR, binary or base64, whose analysis is the most expensive. */
+    HEAVY;
+
+    /**
+     * Lowercase name used in configuration keys, thread names and metric tags.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.UniVC.service.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs credential processing in {@link ProcessingLane}s, so a burst of large or CBOR
+ * inputs queues behind its own threads instead of taking every request thread and
+ * stalling small credentials. The lane is picked from the size and the first bytes of
+ * the input, before any parsing.
+ *
+ * <p>Each lane has a bounded pool and queue. When both are full the lane either runs the
+ * work on the calling thread ({@code caller-runs}, for the fast lane whose work is cheap)
+ * or rejects it with a {@link RejectedExecutionException}, which controllers answer with
+ * 503. Per-lane queue depth, active threads, rejections, wait and run times and the bytes
+ * each input allocates are published to Micrometer under {@code univc.processing.*} with a
+ * {@code lane} tag.
+ *
+ * <p>A queued input holds the request thread that submitted it, so the lanes' queues
+ * together must stay below {@code server.tomcat.threads.max}; otherwise the request pool
+ * runs dry before any lane rejects or runs work on the caller, and startup fails.
+ */
+@Service
+public class ProcessingScheduler {
+
+    private static final ThreadLocal<Boolean> IN_LANE = new ThreadLocal<>();
+    // Leading bytes checked for base64 when telling wrapped CBOR from other text
+    private static final int SNIFF_LENGTH = 64;
+    // Null where the JVM does not count per-thread allocation
+    private static final com.sun.management.ThreadMXBean ALLOCATION = allocationCounter();
+
+    @Value("${app.scheduler.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scheduler.fast-lane-max-size:64KB}")
+    private DataSize fastLaneMaxSize;
+
+    @Value("${app.scheduler.heavy-lane-min-size:1MB}")
+    private DataSize heavyLaneMinSize;
+
+    @Value("${app.scheduler.fast.threads:0}")
+    private int fastThreads;
+
+    @Value("${app.scheduler.fast.queue-capacity:64}")
+    private int fastQueueCapacity;
+
+    @Value("${app.scheduler.fast.rejection:caller-runs}")
+    private String fastRejection;
+
+    @Value("${app.scheduler.standard.threads:0}")
+    private int standardThreads;
+
+    @Value("${app.scheduler.standard.queue-capacity:32}")
+    private int standardQueueCapacity;
+
+    @Value("${app.scheduler.standard.rejection:reject}")
+    private String standardRejection;
+
+    @Value("${app.scheduler.heavy.threads:0}")
+    private int heavyThreads;
+
+    @Value("${app.scheduler.heavy.queue-capacity:16}")
+    private int heavyQueueCapacity;
+
+    @Value("${app.scheduler.heavy.rejection:reject}")
+    private String heavyRejection;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int requestThreads;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ProcessingLane, Lane> lanes = new EnumMap<>(ProcessingLane.class);
+
+    public ProcessingScheduler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        int queued = fastQueueCapacity + standardQueueCapacity + heavyQueueCapacity;
+        if (queued >= requestThreads) {
+            throw new IllegalArgumentException("app.scheduler.*.queue-capacity add up to " + queued
+                    + ", which must be less than server.tomcat.threads.max (" + requestThreads + ")");
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        lanes.put(ProcessingLane.FAST, new Lane(ProcessingLane.FAST,
+                fastThreads > 0 ? fastThreads : cores, fastQueueCapacity, fastRejection));
+        lanes.put(ProcessingLane.STANDARD, new Lane(ProcessingLane.STANDARD,
+                standardThreads > 0 ? standardThreads : Math.max(1, cores / 2), standardQueueCapacity, standardRejection));
+        lanes.put(ProcessingLane.HEAVY, new Lane(ProcessingLane.HEAVY,
+                heavyThreads > 0 ? heavyThreads : Math.max(1, cores / 4), heavyQueueCapacity, heavyRejection));
+    }
+
+    @PreDestroy
+    public void close() {
+        lanes.values().forEach(lane -> lane.executor.shutdownNow());
+    }
+
+    public ProcessingLane laneFor(byte[] content) {
+        return classify(content, fastLaneMaxSize.toBytes(), heavyLaneMinSize.toBytes());
+    }
+
+    /**
+     * Runs {@code work} in the lane for {@code content} and waits for its result. Work
+     * that is already running in a lane, or every call when scheduling is disabled, runs
+     * directly.
+     *
+     * @throws RejectedExecutionException if the lane is saturated and rejects work
+     */
+    public <T> T run(byte[] content, Supplier<T> work) {
+        if (lanes.isEmpty() || IN_LANE.get() != null) {
+            return work.get();
+        }
+        Lane lane = lanes.get(laneFor(content));
+        long queuedAt = System.nanoTime();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            long startedAt = System.nanoTime();
+            lane.waitTime.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+            long allocatedBefore = ALLOCATION != null ? ALLOCATION.getCurrentThreadAllocatedBytes() : 0;
+            try {
+                return work.get();
+            } finally {
+                lane.runTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                if (ALLOCATION != null) {
+                    lane.allocated.record(ALLOCATION.getCurrentThreadAllocatedBytes() - allocatedBefore);
+                }
+            }
+        });
+
+        try {
+            lane.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (!lane.callerRuns || lane.executor.isShutdown()) {
+                lane.rejected.increment();
+                throw new RejectedExecutionException("The " + lane.name.key()
+                        + " processing lane is at capacity, retry later");
+            }
+            lane.callerRan.increment();
+            task.run();
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the " + lane.name.key() + " processing lane", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    static ProcessingLane classify(byte[] content, long fastLaneMaxSize, long heavyLaneMinSize) {
+        if (content.length <= fastLaneMaxSize) {
+            return ProcessingLane.FAST;
+        }
+        if (content.length >= heavyLaneMinSize || isCbor(content)) {
+            return ProcessingLane.HEAVY;
+        }
+        return ProcessingLane.STANDARD;
+    }
+
+    // Binary, or base64 text that is neither JSON nor a JWT
+    private static boolean isCbor(byte[] content) {
+        int i = 0;
+        while (i < content.length && isWhitespace(content[i])) {
+            i++;
+        }
+        if (i == content.length) {
+            return false;
+        }
+        int first = content[i] & 0xff;
+        if (first == '{' || first == '[') {
+            return false;
+        }
+        // CBOR maps, arrays and tags start at 0x80; control bytes are not text either
+        if (first >= 0x80 || first < 0x20) {
+            return true;
+        }
+        // "ey" is base64url for '{"', the start of every JWT header
+        if (first == 'e' && i + 1 < content.length && content[i + 1] == 'y') {
+            return false;
+        }
+        for (int end = Math.min(content.length, i + SNIFF_LENGTH); i < end; i++) {
+            if (!isBase64(content[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static boolean isBase64(byte b) {
+        return b >= 'A' && b <= 'Z' || b >= 'a' && b <= 'z' || b >= '0' && b <= '9'
+                || b == '+' || b == '/' || b == '-' || b == '_' || b == '=';
+    }
+
+    private final class Lane {
+        private final ProcessingLane name;
+        private final ThreadPoolExecutor executor;
+        private final boolean callerRuns;
+        private final Timer waitTime;
+        private final Timer runTime;
+        private final DistributionSummary allocated;
+        private final Counter rejected;
+        private final Counter callerRan;
+
+        private Lane(ProcessingLane name, int threads, int queueCapacity, String rejection) {
+            this.name = name;
+            this.callerRuns = switch (rejection) {
+                case "caller-runs" -> true;
+                case "reject" -> false;
+                default -> throw new IllegalArgumentException("app.scheduler." + name.key()
+                        + ".rejection must be reject or caller-runs, not " + rejection);
+            };
+            AtomicInteger count = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), r -> {
+                        Thread thread = new Thread(() -> {
+                            IN_LANE.set(Boolean.TRUE);
+                            r.run();
+                        }, "univc-lane-" + name.key() + "-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            // Idle lanes give their threads back
+            executor.allowCoreThreadTimeOut(true);
+
+            Tags tags = Tags.of("lane", name.key());
+            Gauge.builder("univc.processing.queued", executor, e -> e.getQueue().size())
+                    .tags(tags).description("Inputs waiting for a lane thread").register(meterRegistry);
+            Gauge.builder("univc.processing.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .tags(tags).description("Lane threads processing an input").register(meterRegistry);
+            this.waitTime = Timer.builder("univc.processing.wait").tags(tags)
+                    .description("Time from submission until a lane thread starts the input")
+                    .register(meterRegistry);
+            this.runTime = Timer.builder("univc.processing.duration").tags(tags)
+                    .description("Time spent processing an input")
+                    .register(meterRegistry);
+            this.allocated = DistributionSummary.builder("univc.processing.allocated").tags(tags).baseUnit("bytes")
+                    .description("Heap allocated by the lane thread while processing an input")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("univc.processing.rejected").tags(tags)
+                    .description("Inputs refused because the lane was at capacity").register(meterRegistry);
+            this.callerRan = Counter.builder("univc.processing.caller.runs").tags(tags)
+                    .description("Inputs processed on the request thread because the lane was at capacity")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.UniVC.service.store;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for raw uploads. Payloads are kept once per SHA-256 in
+ * append-only, memory-mapped {@link Segment}s; each upload adds a small reference record
+ * mapping its fileId to the hash. The offset index lives in memory and is rebuilt by
+ * scanning the segments on startup.
+ *
+ * <p>A background task applies age and size retention and rewrites sealed segments whose
+ * live data dropped below {@code app.store.compaction-threshold}. Replaced segments are
+ * deleted only after a grace period so in-flight sendfile reads of them can finish.
+ */
+@Service
+public class CredentialBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CredentialBlobStore.class);
+    private static final long RETIRED_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int MAX_NAME_LENGTH = 255;
+
+    @Value("${app.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.store.directory:${java.io.tmpdir}/univc-store}")
+    private String directoryName;
+
+    @Value("${app.store.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${app.store.max-size:1GB}")
+    private DataSize maxSize;
+
+    @Value("${app.store.retention:7d}")
+    private Duration retention;
+
+    @Value("${app.store.compaction-interval:5m}")
+    private Duration compactionInterval;
+
+    @Value("${app.store.compaction-threshold:0.5}")
+    private double compactionThreshold;
+
+    // Appends, segment rolls and compaction; lookups don't take it
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<Segment, Long> retired = new LinkedHashMap<>();
+    private final Map<String, BlobLocation> blobs = new ConcurrentHashMap<>();
+    private final Map<String, FileRef> refs = new ConcurrentHashMap<>();
+    private Path directory;
+    private ScheduledExecutorService compactor;
+    private long nextSegmentId;
+
+    private record BlobLocation(Segment segment, int payloadOffset, int length, long createdAt) {
+        int recordSize() {
+            return Segment.blobRecordSize(length);
+        }
+    }
+
+    private record FileRef(String fileId, String sha256, String fileName, String contentType,
+                           long createdAt, Segment segment, int recordOffset, int recordSize) {
+    }
+
+    // Upload order; createdAt alone ties for uploads within the same millisecond
+    private static final Comparator<FileRef> OLDEST_FIRST = Comparator.comparingLong(FileRef::createdAt)
+            .thenComparingLong(ref -> ref.segment().id())
+            .thenComparingInt(FileRef::recordOffset);
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Path.of(directoryName);
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().matches("segment-\\d{16}\\.seg"))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            long id = Long.parseLong(file.getFileName().toString().substring(8, 24));
+            Segment segment = Segment.open(file, id);
+            segment.scan(new Segment.RecordVisitor() {
+                @Override
+                public void blob(String sha256, long createdAt, int payloadOffset, int length) {
+                    blobs.put(sha256, new BlobLocation(segment, payloadOffset, length, createdAt));
+                }
+
+                @Override
+                public void ref(String fileId, String sha256, String fileName, String contentType,
+                                long createdAt, int recordOffset, int recordSize) {
+                    refs.put(fileId, new FileRef(fileId, sha256, fileName, contentType, createdAt, segment,
+                            recordOffset, recordSize));
+                }
+            });
+            segments.add(segment);
+            nextSegmentId = id + 1;
+        }
+        refs.values().removeIf(ref -> !blobs.containsKey(ref.sha256()));
+        logger.info("Credential store opened at {}: {} segments, {} blobs, {} references",
+                directory, segments.size(), blobs.size(), refs.size());
+
+        compact();
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "univc-store-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = compactionInterval.toMillis();
+        compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            segments.forEach(Segment::force);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stores {@code content} under {@code fileId}; identical payloads are kept only once.
+     */
+    public StoredCredential put(String fileId, String fileName, String contentType, byte[] content) throws IOException {
+        return put(fileId, fileName, contentType, content, sha256Hex(content));
+    }
+
+    /**
+     * Stores {@code content}, whose hex SHA-256 the caller has already computed.
+     */
+    public StoredCredential put(String fileId, String fileName, String contentType, byte[] content, String hash)
+            throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("Credential store is disabled");
+        }
+        byte[] sha256 = HexFormat.of().parseHex(hash);
+        UUID id = UUID.fromString(fileId);
+        byte[] name = truncatedUtf8(fileName);
+        byte[] type = truncatedUtf8(contentType);
+        long now = System.currentTimeMillis();
+
+        appendLock.lock();
+        try {
+            BlobLocation blob = blobs.get(hash);
+            if (blob == null) {
+                Segment segment = segmentFor(Segment.blobRecordSize(content.length));
+                int offset = segment.appendBlob(sha256, now, ByteBuffer.wrap(content));
+                blob = new BlobLocation(segment, offset, content.length, now);
+                blobs.put(hash, blob);
+            }
+            Segment segment = segmentFor(Segment.refRecordSize(name, type));
+            int recordOffset = segment.writePosition();
+            int recordSize = segment.appendRef(sha256, now, id, name, type);
+            // Keep what was persisted, so lookups look the same before and after a restart
+            FileRef ref = new FileRef(fileId, hash, utf8OrNull(name), utf8OrNull(type), now, segment,
+                    recordOffset, recordSize);
+            refs.put(fileId, ref);
+            return toStored(ref, blob);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public Optional<StoredCredential> get(String fileId) {
+        FileRef ref = refs.get(fileId);
+        BlobLocation blob = ref != null ? blobs.get(ref.sha256()) : null;
+        return blob != null ? Optional.of(toStored(ref, blob)) : Optional.empty();
+    }
+
+    /**
+     * Payload stored under this SHA-256, whichever uploads reference it; empty once
+     * retention dropped every one of them.
+     */
+    public Optional<ByteBuffer> getContent(String sha256) {
+        BlobLocation blob = blobs.get(sha256);
+        return blob != null ? Optional.of(blob.segment().slice(blob.payloadOffset(), blob.length()))
+                : Optional.empty();
+    }
+
+    private StoredCredential toStored(FileRef ref, BlobLocation blob) {
+        return new StoredCredential(ref.fileId(), ref.sha256(), ref.fileName(), ref.contentType(), ref.createdAt(),
+                blob.segment().path(), blob.payloadOffset(), blob.length(),
+                blob.segment().slice(blob.payloadOffset(), blob.length()));
+    }
+
+    private Segment segmentFor(int recordSize) throws IOException {
+        int capacity = (int) Math.min(Integer.MAX_VALUE, segmentSize.toBytes());
+        if (recordSize > capacity - Segment.HEADER_SIZE) {
+            throw new IOException("Record of " + recordSize + " bytes exceeds the segment size of " + capacity);
+        }
+        Segment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || active.remaining() < recordSize) {
+            if (active != null) {
+                active.force();
+            }
+            active = Segment.create(directory, nextSegmentId++, capacity);
+            segments.add(active);
+        }
+        return active;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            logger.warn("Credential store compaction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies retention, drops unreferenced payloads and rewrites sparse sealed segments.
+     */
+    public void compact() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            int expired = expireReferences(now);
+
+            Map<String, Integer> referenced = new HashMap<>();
+            refs.values().forEach(ref -> referenced.merge(ref.sha256(), 1, Integer::sum));
+            blobs.keySet().retainAll(referenced.keySet());
+
+            Map<Segment, Long> liveBytes = new HashMap<>();
+            blobs.values().forEach(blob -> liveBytes.merge(blob.segment(), (long) blob.recordSize(), Long::sum));
+            refs.values().forEach(ref -> liveBytes.merge(ref.segment(), (long) ref.recordSize(), Long::sum));
+
+            int rewritten = 0;
+            List<Segment> sealed = new ArrayList<>(segments.subList(0, Math.max(0, segments.size() - 1)));
+            for (Segment segment : sealed) {
+                long used = segment.writePosition() - Segment.HEADER_SIZE;
+                if (liveBytes.getOrDefault(segment, 0L) < used * compactionThreshold) {
+                    relocate(segment);
+                    segments.remove(segment);
+                    retired.put(segment, now);
+                    rewritten++;
+                }
+            }
+            deleteRetired(now);
+
+            if (expired > 0 || rewritten > 0) {
+                logger.info("Credential store compaction: {} references expired, {} segments rewritten",
+                        expired, rewritten);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private int expireReferences(long now) {
+        int before = refs.size();
+        long maxAge = retention.toMillis();
+        refs.values().removeIf(ref -> now - ref.createdAt() > maxAge);
+
+        // Size retention counts each payload once, however many uploads share it
+        Map<String, Integer> referenced = new HashMap<>();
+        refs.values().forEach(ref -> referenced.merge(ref.sha256(), 1, Integer::sum));
+        long total = 0;
+        for (String hash : referenced.keySet()) {
+            BlobLocation blob = blobs.get(hash);
+            total += blob != null ? blob.length() : 0;
+        }
+        if (total > maxSize.toBytes()) {
+            Iterator<FileRef> oldest = refs.values().stream()
+                    .sorted(OLDEST_FIRST)
+                    .toList()
+                    .iterator();
+            while (total > maxSize.toBytes() && oldest.hasNext()) {
+                FileRef ref = oldest.next();
+                refs.remove(ref.fileId());
+                if (referenced.merge(ref.sha256(), -1, Integer::sum) == 0) {
+                    BlobLocation blob = blobs.get(ref.sha256());
+                    total -= blob != null ? blob.length() : 0;
+                }
+            }
+        }
+        return before - refs.size();
+    }
+
+    private void relocate(Segment from) throws IOException {
+        // Copies go mapping to mapping and keep their original timestamps for retention
+        for (Map.Entry<String, BlobLocation> entry : List.copyOf(blobs.entrySet())) {
+            BlobLocation blob = entry.getValue();
+            if (blob.segment() != from) {
+                continue;
+            }
+            Segment target = segmentFor(blob.recordSize());
+            byte[] sha256 = HexFormat.of().parseHex(entry.getKey());
+            int offset = target.appendBlob(sha256, blob.createdAt(), from.slice(blob.payloadOffset(), blob.length()));
+            blobs.put(entry.getKey(), new BlobLocation(target, offset, blob.length(), blob.createdAt()));
+        }
+        for (FileRef ref : refs.values().stream().sorted(OLDEST_FIRST).toList()) {
+            if (ref.segment() != from) {
+                continue;
+            }
+            byte[] name = truncatedUtf8(ref.fileName());
+            byte[] type = truncatedUtf8(ref.contentType());
+            Segment target = segmentFor(Segment.refRecordSize(name, type));
+            int recordOffset = target.writePosition();
+            int recordSize = target.appendRef(HexFormat.of().parseHex(ref.sha256()), ref.createdAt(),
+                    UUID.fromString(ref.fileId()), name, type);
+            refs.put(ref.fileId(), new FileRef(ref.fileId(), ref.sha256(), ref.fileName(), ref.contentType(),
+                    ref.createdAt(), target, recordOffset, recordSize));
+        }
+        segments.get(segments.size() - 1).force();
+    }
+
+    private void deleteRetired(long now) {
+        Iterator<Map.Entry<Segment, Long>> it = retired.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Segment, Long> entry = it.next();
+            if (now - entry.getValue() < RETIRED_GRACE_MILLIS) {
+                continue;
+            }
+            try {
+                // The mapping stays valid until collected, so late readers are unaffected
+                Files.deleteIfExists(entry.getKey().path());
+                it.remove();
+            } catch (IOException e) {
+                logger.warn("Could not delete retired segment {}: {}", entry.getKey().path(), e.getMessage());
+            }
+        }
+    }
+
+    private static byte[] truncatedUtf8(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        String truncated = value.length() > MAX_NAME_LENGTH ? value.substring(0, MAX_NAME_LENGTH) : value;
+        return truncated.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String utf8OrNull(byte[] value) {
+        return value.length == 0 ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lowercase hex SHA-256, the same key the store uses.
+     */
+    public static String sha256Hex(byte[] content) {
+        return sha256Hex(content, 0, content.length);
+    }
+
+    public static String sha256Hex(byte[] content, int offset, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content, offset, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.UniVC.service.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * One append-only segment file, memory-mapped in full. Records are written with absolute
+ * puts into the mapping; readers get read-only slices of it, so payloads are never copied
+ * onto the heap. Appends must be serialized by the caller.
+ *
+ * <pre>
+ * segment: magic "UVCS" | version | record*
+ * BLOB:    type=1 | crc32c | createdAt | sha256[32] | length | payload
+ * REF:     type=2 | crc32c | createdAt | sha256[32] | fileId[16] | nameLen | name | typeLen | contentType
+ * </pre>
+ * The CRC covers everything after itself and the type byte is written last, so a torn
+ * append is detected on the next scan and the segment is truncated at that record.
+ */
+final class Segment {
+
+    static final int HEADER_SIZE = 8;
+    static final byte TYPE_BLOB = 1;
+    static final byte TYPE_REF = 2;
+    static final int BLOB_HEADER_SIZE = 1 + 4 + 8 + 32 + 4;
+    private static final int REF_FIXED_SIZE = 1 + 4 + 8 + 32 + 16 + 2 + 2;
+    private static final int MAGIC = 0x55564353;
+    private static final int VERSION = 1;
+
+    private final long id;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private Segment(long id, Path path, MappedByteBuffer buffer, int writePosition) {
+        this.id = id;
+        this.path = path;
+        this.buffer = buffer;
+        this.writePosition = writePosition;
+    }
+
+    static Segment create(Path directory, long id, int size) throws IOException {
+        Path path = directory.resolve(fileName(id));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC).putInt(4, VERSION);
+            return new Segment(id, path, buffer, HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Maps an existing segment; call {@link #scan(RecordVisitor)} to find its end.
+     */
+    static Segment open(Path path, long id) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a credential store segment: " + path);
+            }
+            return new Segment(id, path, buffer, HEADER_SIZE);
+        }
+    }
+
+    static String fileName(long id) {
+        return String.format("segment-%016d.seg", id);
+    }
+
+    static int blobRecordSize(int payloadLength) {
+        return BLOB_HEADER_SIZE + payloadLength;
+    }
+
+    static int refRecordSize(byte[] fileName, byte[] contentType) {
+        return REF_FIXED_SIZE + fileName.length + contentType.length;
+    }
+
+    long id() {
+        return id;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    int remaining() {
+        return buffer.capacity() - writePosition;
+    }
+
+    /**
+     * @return offset of the payload inside this segment
+     */
+    int appendBlob(byte[] sha256, long createdAt, ByteBuffer payload) {
+        int start = writePosition;
+        int length = payload.remaining();
+        buffer.putLong(start + 5, createdAt)
+                .put(start + 13, sha256)
+                .putInt(start + 45, length)
+                .put(start + BLOB_HEADER_SIZE, payload, payload.position(), length);
+        seal(start, BLOB_HEADER_SIZE + length, TYPE_BLOB);
+        return start + BLOB_HEADER_SIZE;
+    }
+
+    /**
+     * @return size of the record written
+     */
+    int appendRef(byte[] sha256, long createdAt, UUID fileId, byte[] fileName, byte[] contentType) {
+        int start = writePosition;
+        int size = refRecordSize(fileName, contentType);
+        int namePosition = start + 1 + 4 + 8 + 32 + 16;
+        buffer.putLong(start + 5, createdAt)
+                .put(start + 13, sha256)
+                .putLong(start + 45, fileId.getMostSignificantBits())
+                .putLong(start + 53, fileId.getLeastSignificantBits())
+                .putShort(namePosition, (short) fileName.length)
+                .put(namePosition + 2, fileName)
+                .putShort(namePosition + 2 + fileName.length, (short) contentType.length)
+                .put(namePosition + 4 + fileName.length, contentType);
+        seal(start, size, TYPE_REF);
+        return size;
+    }
+
+    private void seal(int start, int size, byte type) {
+        buffer.putInt(start + 1, crc(start, size));
+        buffer.put(start, type);
+        writePosition = start + size;
+    }
+
+    private int crc(int start, int size) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + 5, size - 5));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Read-only view of a payload, backed by the mapping.
+     */
+    ByteBuffer slice(int offset, int length) {
+        return buffer.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Visits every intact record and leaves the write position after the last one.
+     */
+    void scan(RecordVisitor visitor) {
+        int position = HEADER_SIZE;
+        int limit = buffer.capacity();
+        while (position < limit) {
+            byte type = buffer.get(position);
+            int size = recordSize(type, position, limit);
+            if (size < 0 || buffer.getInt(position + 1) != crc(position, size)) {
+                break;
+            }
+
+            long createdAt = buffer.getLong(position + 5);
+            byte[] sha256 = new byte[32];
+            buffer.get(position + 13, sha256);
+            String hash = HexFormat.of().formatHex(sha256);
+            if (type == TYPE_BLOB) {
+                visitor.blob(hash, createdAt, position + BLOB_HEADER_SIZE, size - BLOB_HEADER_SIZE);
+            } else {
+                UUID fileId = new UUID(buffer.getLong(position + 45), buffer.getLong(position + 53));
+                int namePosition = position + 61;
+                String fileName = string(namePosition);
+                String contentType = string(namePosition + 2 + Short.toUnsignedInt(buffer.getShort(namePosition)));
+                visitor.ref(fileId.toString(), hash, fileName, contentType, createdAt, position, size);
+            }
+            position += size;
+        }
+        writePosition = position;
+    }
+
+    private int recordSize(byte type, int position, int limit) {
+        if (type == TYPE_BLOB && position + BLOB_HEADER_SIZE <= limit) {
+            int length = buffer.getInt(position + 45);
+            return length >= 0 && length <= limit - position - BLOB_HEADER_SIZE ? BLOB_HEADER_SIZE + length : -1;
+        }
+        if (type == TYPE_REF && position + REF_FIXED_SIZE <= limit) {
+            int nameLength = Short.toUnsignedInt(buffer.getShort(position + 61));
+            int typePosition = position + 63 + nameLength;
+            if (typePosition + 2 > limit) {
+                return -1;
+            }
+            int size = REF_FIXED_SIZE + nameLength + Short.toUnsignedInt(buffer.getShort(typePosition));
+            return size <= limit - position ? size : -1;
+        }
+        return -1;
+    }
+
+    private String string(int position) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(position))];
+        buffer.get(position + 2, bytes);
+        return bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    interface RecordVisitor {
+        void blob(String sha256, long createdAt, int payloadOffset, int length);
+
+        void ref(String fileId, String sha256, String fileName, String contentType, long createdAt,
+                 int recordOffset, int recordSize);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.UniVC.service.store;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Location of a stored upload. {@link #getContent()} is a read-only view of the mapped
+ * segment; {@link #getSegmentFile()}, {@link #getOffset()} and {@link #getLength()} let
+ * the web layer hand the region to sendfile instead.
+ */
+public class StoredCredential {
+
+    private final String fileId;
+    private final String sha256;
+    private final String fileName;
+    private final String contentType;
+    private final long createdAt;
+    private final Path segmentFile;
+    private final long offset;
+    private final int length;
+    private final ByteBuffer content;
+
+    StoredCredential(String fileId, String sha256, String fileName, String contentType, long createdAt,
+                     Path segmentFile, long offset, int length, ByteBuffer content) {
+        this.fileId = fileId;
+        this.sha256 = sha256;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.createdAt = createdAt;
+        this.segmentFile = segmentFile;
+        this.offset = offset;
+        this.length = length;
+        this.content = content;
+    }
+
+    public String getFileId() { return fileId; }
+
+    /** Lowercase hex SHA-256 of the content */
+    public String getSha256() { return sha256; }
+
+    public String getFileName() { return fileName; }
+
+    public String getContentType() { return contentType; }
+
+    /** Epoch millis of the upload */
+    public long getCreatedAt() { return createdAt; }
+
+    public Path getSegmentFile() { return segmentFile; }
+
+    public long getOffset() { return offset; }
+
+    public int getLength() { return length; }
+
+    /** Fresh read-only view on every call, positioned at the start of the content */
+    public ByteBuffer getContent() { return content.duplicate(); }
+}
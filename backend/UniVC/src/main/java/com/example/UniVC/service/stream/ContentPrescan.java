@@ -0,0 +1,49 @@
+package com.example.UniVC.service.stream;
+
+import com.example.UniVC.dto.FileInfoResponse;
+
+/**
+ * Structural facts gathered while an upload was still arriving, so the processing
+ * pipeline does not have to tokenize the content a second time.
+ */
+public class ContentPrescan {
+
+    public enum Kind {
+        JSON,
+        JWS,
+        OTHER,
+        EMPTY
+    }
+
+    private final Kind kind;
+    private final boolean wellFormed;
+    private final String error;
+    private final long byteCount;
+    private final FileInfoResponse.FileStructure structure;
+    private final int disclosureCount;
+
+    ContentPrescan(Kind kind, boolean wellFormed, String error, long byteCount,
+                   FileInfoResponse.FileStructure structure, int disclosureCount) {
+        this.kind = kind;
+        this.wellFormed = wellFormed;
+        this.error = error;
+        this.byteCount = byteCount;
+        this.structure = structure;
+        this.disclosureCount = disclosureCount;
+    }
+
+    public Kind getKind() { return kind; }
+
+    public boolean isWellFormed() { return wellFormed; }
+
+    public String getError() { return error; }
+
+    public long getByteCount() { return byteCount; }
+
+    /**
+     * Structure of a well-formed JSON document or compact JWS, {@code null} otherwise.
+     */
+    public FileInfoResponse.FileStructure getStructure() { return structure; }
+
+    public int getDisclosureCount() { return disclosureCount; }
+}
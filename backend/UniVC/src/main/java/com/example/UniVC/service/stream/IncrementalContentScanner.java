@@ -0,0 +1,207 @@
+package com.example.UniVC.service.stream;
+
+import com.example.UniVC.dto.FileInfoResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+
+/**
+ * Tokenizes credential content chunk by chunk as it arrives. JSON is fed into
+ * Jackson's non-blocking parser, anything that starts like a compact JWS goes
+ * through a small SD-JWT aware tokenizer. JSON tokens are forwarded to a
+ * {@link StructureProfiler}, so the structure comes out of the same single pass.
+ * Not thread-safe; use one per upload.
+ */
+public class IncrementalContentScanner {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private ContentPrescan.Kind kind;
+    private long byteCount;
+    private String error;
+
+    // JSON state
+    private JsonParser parser;
+    private ByteArrayFeeder feeder;
+    private final StructureProfiler profiler = new StructureProfiler();
+
+    // JWS state
+    private int dotCount;
+    private int trailingDots;
+    private int tildeCount;
+    private boolean sawTrailingWhitespace;
+
+    /**
+     * Feed the next chunk. The scanner does not keep a reference to {@code buffer}
+     * once this method returns.
+     */
+    public void feed(byte[] buffer, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        byteCount += length;
+        if (error != null) {
+            return;
+        }
+
+        int start = offset;
+        int end = offset + length;
+        if (kind == null) {
+            while (start < end && isWhitespace(buffer[start])) {
+                start++;
+            }
+            if (start == end) {
+                return;
+            }
+            kind = classify(buffer[start]);
+            if (kind == ContentPrescan.Kind.JSON) {
+                try {
+                    parser = jsonFactory.createNonBlockingByteArrayParser();
+                    feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+                } catch (IOException e) {
+                    error = e.getMessage();
+                    return;
+                }
+            }
+        }
+
+        switch (kind) {
+            case JSON -> feedJson(buffer, start, end);
+            case JWS -> feedJws(buffer, start, end);
+            default -> { }
+        }
+    }
+
+    /**
+     * @return true once the content is known to be malformed; callers may stop early
+     */
+    public boolean isRejected() {
+        return error != null;
+    }
+
+    public ContentPrescan finish() {
+        if (kind == null) {
+            return new ContentPrescan(ContentPrescan.Kind.EMPTY, false, "Content is empty", byteCount, null, 0);
+        }
+        return switch (kind) {
+            case JSON -> finishJson();
+            case JWS -> finishJws();
+            default -> new ContentPrescan(kind, false, error, byteCount, null, 0);
+        };
+    }
+
+    private void feedJson(byte[] buffer, int start, int end) {
+        if (profiler.isRootComplete()) {
+            // Trailing content after the root value is ignored, like ObjectMapper.readTree
+            return;
+        }
+        try {
+            feeder.feedInput(buffer, start, end);
+            drainTokens();
+        } catch (IOException e) {
+            error = e.getMessage();
+        }
+    }
+
+    private void drainTokens() throws IOException {
+        JsonToken token;
+        while (!profiler.isRootComplete() && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+            if (token == null) {
+                break;
+            }
+            profiler.onToken(token, parser);
+        }
+    }
+
+    private ContentPrescan finishJson() {
+        if (error == null && !profiler.isRootComplete()) {
+            try {
+                feeder.endOfInput();
+                drainTokens();
+            } catch (IOException e) {
+                error = e.getMessage();
+            }
+            if (error == null && !profiler.isRootComplete()) {
+                error = "Unexpected end of JSON input";
+            }
+        }
+        closeParser();
+        if (error != null) {
+            return new ContentPrescan(ContentPrescan.Kind.JSON, false, error, byteCount, null, 0);
+        }
+
+        FileInfoResponse.FileStructure structure = profiler.toStructure("utf-8");
+        return new ContentPrescan(ContentPrescan.Kind.JSON, true, null, byteCount, structure, 0);
+    }
+
+    private void closeParser() {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // nothing left to release for a byte array feeder
+        }
+    }
+
+    private void feedJws(byte[] buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (isWhitespace(b)) {
+                sawTrailingWhitespace = true;
+                continue;
+            }
+            if (sawTrailingWhitespace) {
+                error = "Unexpected content after whitespace in compact serialization";
+                return;
+            }
+            if (b == '.') {
+                dotCount++;
+                trailingDots++;
+                continue;
+            }
+            trailingDots = 0;
+            if (b == '~') {
+                tildeCount++;
+            } else if (!isBase64Url(b)) {
+                error = "Invalid character in compact serialization at byte " + (byteCount - (end - i));
+                return;
+            }
+        }
+    }
+
+    private ContentPrescan finishJws() {
+        if (error != null) {
+            return new ContentPrescan(ContentPrescan.Kind.JWS, false, error, byteCount, null, tildeCount);
+        }
+        // Same part count String.split("\\.") yields: trailing empty parts are dropped
+        int parts = dotCount + 1 - trailingDots;
+
+        FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
+        structure.setRootType("jwt");
+        structure.setTotalFields(parts);
+        structure.setTopLevelKeys(new String[]{"header", "payload", "signature"});
+        structure.setValid(parts >= 2);
+        structure.setEncoding("base64url");
+        return new ContentPrescan(ContentPrescan.Kind.JWS, parts >= 3, null, byteCount, structure, tildeCount);
+    }
+
+    private static ContentPrescan.Kind classify(byte first) {
+        if (first == '{' || first == '[') {
+            return ContentPrescan.Kind.JSON;
+        }
+        if (isBase64Url(first)) {
+            return ContentPrescan.Kind.JWS;
+        }
+        return ContentPrescan.Kind.OTHER;
+    }
+
+    private static boolean isBase64Url(byte b) {
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '-' || b == '_';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
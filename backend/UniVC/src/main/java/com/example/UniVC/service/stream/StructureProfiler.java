@@ -0,0 +1,290 @@
+package com.example.UniVC.service.stream;
+
+import com.example.UniVC.dto.FileInfoResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a structural profile of a JSON or CBOR document from its token stream in a
+ * single pass, without materializing a tree. Works with blocking parsers via
+ * {@link #profile(JsonParser)} and with non-blocking ones by forwarding every token
+ * to {@link #onToken(JsonToken, JsonParser)}. Not thread-safe.
+ */
+public class StructureProfiler {
+
+    private static final int TOP_KEYS = 20;
+    private static final int TOP_SIZES = 3;
+    private static final int MAX_DISTINCT_KEYS = 1024;
+    private static final int MIN_BASE64_LENGTH = 24;
+    private static final char[] DATA_URI = "data:".toCharArray();
+    private static final char[] BASE64_MARKER = ";base64,".toCharArray();
+
+    private int depth;
+    private int maxDepth;
+    private long nodeCount;
+    private boolean rootComplete;
+    private String rootType;
+    private final Set<String> topLevelKeys = new LinkedHashSet<>();
+
+    // Element count of every open container, indexed by depth
+    private int[] containerSize = new int[16];
+
+    private final Map<String, int[]> keyCounts = new HashMap<>();
+    private final List<FileInfoResponse.SizedPath> largestArrays = new ArrayList<>(TOP_SIZES + 1);
+    private final List<FileInfoResponse.SizedPath> largestStrings = new ArrayList<>(TOP_SIZES + 1);
+    private int base64Values;
+    private int jwsValues;
+    private int binaryValues;
+
+    /**
+     * Profile the next root value of {@code parser}; stops after the value is closed.
+     */
+    public static StructureProfiler profile(JsonParser parser) throws IOException {
+        StructureProfiler profiler = new StructureProfiler();
+        JsonToken token;
+        while (!profiler.isRootComplete() && (token = parser.nextToken()) != null) {
+            profiler.onToken(token, parser);
+        }
+        return profiler;
+    }
+
+    public void onToken(JsonToken token, JsonParser parser) throws IOException {
+        if (rootComplete) {
+            return;
+        }
+        if (token == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            if (depth == 1) {
+                topLevelKeys.add(name);
+            }
+            countKey(name);
+            return;
+        }
+        if (token.isStructEnd()) {
+            depth--;
+            if (token == JsonToken.END_ARRAY) {
+                offer(largestArrays, containerSize[depth], parser);
+            }
+            if (depth == 0) {
+                rootComplete = true;
+            }
+            return;
+        }
+
+        // Any remaining token starts a value
+        nodeCount++;
+        if (depth == 0) {
+            rootType = token == JsonToken.START_OBJECT ? "object"
+                    : token == JsonToken.START_ARRAY ? "array" : "scalar";
+        } else {
+            containerSize[depth - 1]++;
+        }
+
+        if (token.isStructStart()) {
+            push();
+            return;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            inspectString(parser);
+        } else if (token == JsonToken.VALUE_EMBEDDED_OBJECT) {
+            binaryValues++;
+            Object embedded = parser.getEmbeddedObject();
+            if (embedded instanceof byte[] bytes) {
+                offer(largestStrings, bytes.length, parser);
+            }
+        }
+        if (depth == 0) {
+            rootComplete = true;
+        }
+    }
+
+    public boolean isRootComplete() {
+        return rootComplete;
+    }
+
+    /**
+     * Copies the profile into a {@link FileInfoResponse.FileStructure}: root type, top-level
+     * keys and field count plus the deep statistics.
+     */
+    public FileInfoResponse.FileStructure toStructure(String encoding) {
+        FileInfoResponse.FileStructure structure = new FileInfoResponse.FileStructure();
+        if ("object".equals(rootType)) {
+            structure.setRootType("object");
+            structure.setTotalFields(topLevelKeys.size());
+            structure.setTopLevelKeys(topLevelKeys.toArray(new String[0]));
+        } else if ("array".equals(rootType)) {
+            int size = rootArraySize();
+            structure.setRootType("array");
+            structure.setTotalFields(size);
+            structure.setTopLevelKeys(new String[]{"array[" + size + "]"});
+        }
+        structure.setValid(true);
+        structure.setEncoding(encoding);
+
+        structure.setMaxDepth(maxDepth);
+        structure.setNodeCount(nodeCount);
+        structure.setLargestArrays(largestArrays.toArray(new FileInfoResponse.SizedPath[0]));
+        structure.setLargestStrings(largestStrings.toArray(new FileInfoResponse.SizedPath[0]));
+        structure.setKeyFrequencies(topKeys());
+        structure.setBase64Values(base64Values);
+        structure.setJwsValues(jwsValues);
+        structure.setBinaryValues(binaryValues);
+        return structure;
+    }
+
+    private int rootArraySize() {
+        // The root array's counter sits at index 0 and is kept after the array closes
+        return containerSize[0];
+    }
+
+    private void push() {
+        if (depth == containerSize.length) {
+            containerSize = Arrays.copyOf(containerSize, depth * 2);
+        }
+        containerSize[depth] = 0;
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    private void countKey(String name) {
+        int[] count = keyCounts.get(name);
+        if (count != null) {
+            count[0]++;
+        } else if (keyCounts.size() < MAX_DISTINCT_KEYS) {
+            keyCounts.put(name, new int[]{1});
+        }
+    }
+
+    private Map<String, Integer> topKeys() {
+        Map<String, Integer> top = new LinkedHashMap<>();
+        keyCounts.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(TOP_KEYS)
+                .forEach(e -> top.put(e.getKey(), e.getValue()[0]));
+        return top;
+    }
+
+    private void inspectString(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        offer(largestStrings, length, parser);
+
+        if (isCompactJws(chars, offset, length)) {
+            jwsValues++;
+        } else if (isBase64(chars, offset, length)) {
+            base64Values++;
+        }
+    }
+
+    private void offer(List<FileInfoResponse.SizedPath> top, int size, JsonParser parser) {
+        if (top.size() == TOP_SIZES && top.get(TOP_SIZES - 1).getSize() >= size) {
+            return;
+        }
+        // Only build the pointer for values that make it into the top list. After
+        // END_ARRAY the context is the parent, which still points at the array.
+        String path = parser.getParsingContext().pathAsPointer().toString();
+        FileInfoResponse.SizedPath entry = new FileInfoResponse.SizedPath(path.isEmpty() ? "/" : path, size);
+        int i = top.size();
+        while (i > 0 && top.get(i - 1).getSize() < size) {
+            i--;
+        }
+        top.add(i, entry);
+        if (top.size() > TOP_SIZES) {
+            top.remove(TOP_SIZES);
+        }
+    }
+
+    /**
+     * {@code eyJ...} header followed by at least two more base64url segments; also matches
+     * SD-JWTs whose disclosures follow a {@code ~}.
+     */
+    static boolean isCompactJws(char[] chars, int offset, int length) {
+        if (length < 10 || chars[offset] != 'e' || chars[offset + 1] != 'y' || chars[offset + 2] != 'J') {
+            return false;
+        }
+        int dots = 0;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c == '.') {
+                dots++;
+            } else if (c == '~') {
+                break;
+            } else if (!isBase64UrlChar(c)) {
+                return false;
+            }
+        }
+        return dots == 2;
+    }
+
+    /**
+     * A {@code data:...;base64,} URI, or a long run of base64/base64url characters that
+     * mixes cases and digits (so ordinary identifiers like "VerifiableCredential" don't count).
+     */
+    static boolean isBase64(char[] chars, int offset, int length) {
+        if (startsWith(chars, offset, length, DATA_URI)) {
+            return indexOf(chars, offset, Math.min(length, 256), BASE64_MARKER) >= 0;
+        }
+        if (length < MIN_BASE64_LENGTH) {
+            return false;
+        }
+        boolean upper = false;
+        boolean lower = false;
+        boolean digit = false;
+        int end = offset + length;
+        int padding = 0;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c == '=') {
+                padding++;
+                continue;
+            }
+            if (padding > 0) {
+                return false;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c != '+' && c != '/' && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return padding <= 2 && upper && lower && digit;
+    }
+
+    private static boolean startsWith(char[] chars, int offset, int length, char[] prefix) {
+        return indexOf(chars, offset, Math.min(length, prefix.length), prefix) == offset;
+    }
+
+    private static int indexOf(char[] chars, int offset, int length, char[] needle) {
+        int last = offset + length - needle.length;
+        outer:
+        for (int i = offset; i <= last; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (chars[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static boolean isBase64UrlChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
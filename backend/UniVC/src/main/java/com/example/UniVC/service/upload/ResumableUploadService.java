@@ -0,0 +1,239 @@
+package com.example.UniVC.service.upload;
+
+import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.dto.UploadSessionResponse;
+import com.example.UniVC.exception.UploadSessionNotFoundException;
+import com.example.UniVC.service.FileProcessingService;
+import com.example.UniVC.service.store.CredentialBlobStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Resumable uploads: a client opens a session for a known size, PUTs fixed-size chunks
+ * in any order (each with its SHA-256), then completes it. Chunks go to a spool file and
+ * are tokenized as soon as they extend the contiguous prefix, so completing only has to
+ * run detection on an already profiled document.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumableUploadService.class);
+    private static final int MISSING_CHUNKS_LIMIT = 100;
+
+    @Value("${app.uploads.directory:${java.io.tmpdir}/univc-uploads}")
+    private String directoryName;
+
+    // Completed uploads are read into the heap and analyzed from there
+    @Value("${app.uploads.max-size:10MB}")
+    private DataSize maxSize;
+
+    @Value("${app.uploads.chunk-size:1MB}")
+    private DataSize defaultChunkSize;
+
+    @Value("${app.uploads.min-chunk-size:64KB}")
+    private DataSize minChunkSize;
+
+    @Value("${app.uploads.max-chunk-size:8MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${app.uploads.max-sessions:100}")
+    private int maxSessions;
+
+    @Value("${app.uploads.session-timeout:1h}")
+    private Duration sessionTimeout;
+
+    private final FileProcessingService fileProcessingService;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private Path directory;
+    private ScheduledExecutorService reaper;
+
+    public ResumableUploadService(FileProcessingService fileProcessingService) {
+        this.fileProcessingService = fileProcessingService;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = Path.of(directoryName);
+        Files.createDirectories(directory);
+        // Sessions don't survive a restart, so neither do their spool files
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            for (Path file : leftovers.filter(p -> p.getFileName().toString().endsWith(".part")).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "univc-upload-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleWithFixedDelay(this::expireSessions, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+        sessions.values().forEach(UploadSession::close);
+        sessions.clear();
+    }
+
+    public UploadSessionResponse create(String fileName, String contentType, long size, Integer chunkSize)
+            throws IOException {
+        if (size <= 0 || size > maxSize.toBytes()) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxSize.toBytes() + " bytes");
+        }
+        int chunk = chunkSize != null ? chunkSize : (int) defaultChunkSize.toBytes();
+        if (chunk < minChunkSize.toBytes() || chunk > maxChunkSize.toBytes()) {
+            throw new IllegalArgumentException("chunkSize must be between " + minChunkSize.toBytes()
+                    + " and " + maxChunkSize.toBytes() + " bytes");
+        }
+        if (sessions.size() >= maxSessions) {
+            throw new RejectedExecutionException("Too many open upload sessions");
+        }
+
+        String id = UUID.randomUUID().toString();
+        UploadSession session = new UploadSession(id, fileName, contentType, size, chunk,
+                directory.resolve(id + ".part"));
+        sessions.put(id, session);
+        return describe(session);
+    }
+
+    /**
+     * @param sha256 lowercase or uppercase hex SHA-256 of {@code data}
+     */
+    public UploadSessionResponse putChunk(String uploadId, int index, byte[] data, String sha256) throws IOException {
+        UploadSession session = session(uploadId);
+        if (index < 0 || index >= session.totalChunks()) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.totalChunks() - 1));
+        }
+        if (data.length != session.chunkLength(index)) {
+            throw new IllegalArgumentException("Chunk " + index + " must be " + session.chunkLength(index)
+                    + " bytes, got " + data.length);
+        }
+        byte[] expected = parseSha256(sha256);
+        byte[] actual = sha256(data);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new IllegalArgumentException("Checksum mismatch for chunk " + index);
+        }
+        session.write(index, data, actual);
+        return describe(session);
+    }
+
+    public int chunkSize(String uploadId) {
+        return session(uploadId).chunkSize();
+    }
+
+    public UploadSessionResponse status(String uploadId) {
+        return describe(session(uploadId));
+    }
+
+    /**
+     * Closes the session, verifies the whole file if {@code sha256} is given, and analyzes
+     * it. A session with missing chunks stays open.
+     */
+    public FileInfoResponse complete(String uploadId, String sha256) throws IOException {
+        UploadSession session = session(uploadId);
+        UploadSession.Completed completed;
+        try {
+            completed = session.complete();
+        } catch (IOException e) {
+            sessions.remove(uploadId);
+            session.close();
+            throw e;
+        }
+        sessions.remove(uploadId);
+
+        if (sha256 != null && !sha256.isBlank()
+                && !CredentialBlobStore.sha256Hex(completed.content()).equalsIgnoreCase(sha256)) {
+            throw new IllegalArgumentException("Checksum mismatch for the assembled file");
+        }
+        return fileProcessingService.processContent(session.fileName(), session.contentType(),
+                completed.content(), completed.prescan());
+    }
+
+    public void abort(String uploadId) {
+        UploadSession session = sessions.remove(uploadId);
+        if (session == null) {
+            throw new UploadSessionNotFoundException(uploadId);
+        }
+        session.close();
+    }
+
+    private UploadSession session(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new UploadSessionNotFoundException(uploadId);
+        }
+        return session;
+    }
+
+    private void expireSessions() {
+        long cutoff = System.currentTimeMillis() - sessionTimeout.toMillis();
+        sessions.values().removeIf(session -> {
+            if (session.lastTouched() >= cutoff) {
+                return false;
+            }
+            logger.info("Upload session {} expired with {}/{} chunks",
+                    session.id(), session.receivedChunks(), session.totalChunks());
+            session.close();
+            return true;
+        });
+    }
+
+    private UploadSessionResponse describe(UploadSession session) {
+        UploadSessionResponse response = new UploadSessionResponse();
+        response.setUploadId(session.id());
+        response.setFileName(session.fileName());
+        response.setTotalSize(session.totalSize());
+        response.setChunkSize(session.chunkSize());
+        response.setTotalChunks(session.totalChunks());
+        response.setReceivedChunks(session.receivedChunks());
+        response.setMissingChunks(session.missingChunks(MISSING_CHUNKS_LIMIT));
+        response.setContiguousBytes(session.contiguousBytes());
+        response.setExpiresAt(Instant.ofEpochMilli(session.lastTouched()).plus(sessionTimeout));
+        return response;
+    }
+
+    private static byte[] parseSha256(String sha256) {
+        if (sha256 == null || sha256.length() != 64) {
+            throw new IllegalArgumentException("X-Chunk-SHA256 must be the 64 hex character SHA-256 of the chunk");
+        }
+        try {
+            return HexFormat.of().parseHex(sha256);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("X-Chunk-SHA256 must be the 64 hex character SHA-256 of the chunk");
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.UniVC.service.upload;
+
+import com.example.UniVC.exception.UploadSessionNotFoundException;
+import com.example.UniVC.service.stream.ContentPrescan;
+import com.example.UniVC.service.stream.IncrementalContentScanner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.BitSet;
+
+/**
+ * State of one resumable upload. Chunks are written to their offset in the spool file
+ * as they arrive, in any order and from any number of threads; the scanner is fed in
+ * order, from the start of the file up to the first missing chunk.
+ */
+final class UploadSession {
+
+    private final String id;
+    private final String fileName;
+    private final String contentType;
+    private final long totalSize;
+    private final int chunkSize;
+    private final int totalChunks;
+    private final Path spool;
+    private final FileChannel channel;
+    // Guarded by this
+    private final BitSet received;
+    private final BitSet inFlight;
+    private final byte[][] checksums;
+    private final IncrementalContentScanner scanner = new IncrementalContentScanner();
+    private int scannedChunks;
+    private boolean closed;
+    private volatile long lastTouched = System.currentTimeMillis();
+
+    UploadSession(String id, String fileName, String contentType, long totalSize, int chunkSize, Path spool)
+            throws IOException {
+        this.id = id;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        this.spool = spool;
+        this.channel = FileChannel.open(spool, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.received = new BitSet(totalChunks);
+        this.inFlight = new BitSet(totalChunks);
+        this.checksums = new byte[totalChunks][];
+    }
+
+    String id() { return id; }
+
+    String fileName() { return fileName; }
+
+    String contentType() { return contentType; }
+
+    long totalSize() { return totalSize; }
+
+    int chunkSize() { return chunkSize; }
+
+    int totalChunks() { return totalChunks; }
+
+    long lastTouched() { return lastTouched; }
+
+    int chunkLength(int index) {
+        return (int) Math.min(chunkSize, totalSize - (long) index * chunkSize);
+    }
+
+    /**
+     * Writes a verified chunk and scans any chunks that just became contiguous.
+     *
+     * @return false if the chunk had been received before (with the same checksum)
+     */
+    boolean write(int index, byte[] data, byte[] sha256) throws IOException {
+        lastTouched = System.currentTimeMillis();
+        synchronized (this) {
+            ensureOpen();
+            if (received.get(index)) {
+                if (!MessageDigest.isEqual(checksums[index], sha256)) {
+                    throw new IllegalStateException("Chunk " + index + " was already received with different content");
+                }
+                return false;
+            }
+            if (inFlight.get(index)) {
+                throw new IllegalStateException("Chunk " + index + " is already being written");
+            }
+            inFlight.set(index);
+        }
+
+        try {
+            // Positional writes are safe to run concurrently with other chunks
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long position = (long) index * chunkSize;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                inFlight.clear(index);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            inFlight.clear(index);
+            ensureOpen();
+            received.set(index);
+            checksums[index] = sha256;
+            while (scannedChunks < totalChunks && received.get(scannedChunks) && !scanner.isRejected()) {
+                byte[] chunk = scannedChunks == index ? data : read(scannedChunks);
+                scanner.feed(chunk, 0, chunk.length);
+                scannedChunks++;
+            }
+        }
+        return true;
+    }
+
+    private byte[] read(int index) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(chunkLength(index));
+        long position = (long) index * chunkSize;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Spool file of upload " + id + " is truncated");
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    synchronized int receivedChunks() {
+        return received.cardinality();
+    }
+
+    synchronized int[] missingChunks(int limit) {
+        int[] missing = new int[Math.min(limit, totalChunks - received.cardinality())];
+        int next = 0;
+        for (int i = received.nextClearBit(0); i < totalChunks && next < missing.length; i = received.nextClearBit(i + 1)) {
+            missing[next++] = i;
+        }
+        return missing;
+    }
+
+    /**
+     * Bytes from the start of the file that have been received and scanned.
+     */
+    synchronized long contiguousBytes() {
+        return Math.min(totalSize, (long) scannedChunks * chunkSize);
+    }
+
+    synchronized boolean isComplete() {
+        return received.cardinality() == totalChunks;
+    }
+
+    /**
+     * Hands over the scan result and the content, read into a single array of
+     * {@code totalSize} bytes; the session can't be written to after this.
+     */
+    synchronized Completed complete() throws IOException {
+        ensureOpen();
+        if (!isComplete()) {
+            throw new IllegalStateException("Upload " + id + " is missing " + (totalChunks - received.cardinality())
+                    + " of " + totalChunks + " chunks");
+        }
+        byte[] content = new byte[(int) totalSize];
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Spool file of upload " + id + " is truncated");
+            }
+        }
+        Completed completed = new Completed(content, scanner.finish());
+        close();
+        return completed;
+    }
+
+    record Completed(byte[] content, ContentPrescan prescan) {
+    }
+
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+            Files.deleteIfExists(spool);
+        } catch (IOException ignored) {
+            // Reaper or restart cleans up whatever is left in the spool directory
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new UploadSessionNotFoundException(id);
+        }
+    }
+}
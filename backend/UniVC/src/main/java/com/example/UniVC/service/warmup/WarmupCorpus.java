@@ -0,0 +1,168 @@
+package com.example.UniVC.service.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Synthetic inputs covering every detector and structure analyzer: small and large W3C
+ * credentials (the large one crosses the structural index threshold), SD-JWT with
+ * disclosures, a plain JWT, ISO mDL JSON, an mdoc device response as raw and base64
+ * CBOR, and non-credential JSON and text. A presentation embedding a JSON, a JWT and an
+ * enveloped SD-JWT credential and a two-document mdoc keep the container unpacking warm.
+ */
+final class WarmupCorpus {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    record Payload(String fileName, String contentType, byte[] content) {
+    }
+
+    private WarmupCorpus() {
+    }
+
+    static List<Payload> generate() {
+        try {
+            byte[] mdoc = CBOR.writeValueAsBytes(mdoc("org.iso.18013.5.1.mDL"));
+            byte[] mdocs = CBOR.writeValueAsBytes(mdoc("org.iso.18013.5.1.mDL", "org.iso.23220.photoid.1"));
+            return List.of(
+                    json("vc-1.1.json", credential("https://www.w3.org/2018/credentials/v1", 1)),
+                    json("vc-2.0.json", credential("https://www.w3.org/ns/credentials/v2", 1)),
+                    json("vc-2.0-large.json", credential("https://www.w3.org/ns/credentials/v2", 600)),
+                    text("sd-jwt.txt", "application/vc+sd-jwt", sdJwt()),
+                    text("jwt.txt", "application/jwt", jwt(JSON.createObjectNode()
+                            .put("iss", "https://issuer.example").put("sub", "user-42").put("iat", 1700000000))),
+                    json("mdl.json", mdl()),
+                    new Payload("mdoc.cbor", "application/cbor", mdoc),
+                    text("mdoc.cbor.b64", "text/plain", Base64.getEncoder().encodeToString(mdoc)),
+                    text("mdoc-multi.cbor.b64", "text/plain", Base64.getEncoder().encodeToString(mdocs)),
+                    json("vp-2.0.json", presentation()),
+                    json("generic.json", JSON.createObjectNode().put("name", "not a credential")
+                            .set("values", JSON.createArrayNode().add(1).add(2.5).add(true))),
+                    text("notes.txt", "text/plain", "Plain text that is no credential format at all."));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ObjectNode credential(String context, int achievements) {
+        ObjectNode vc = JSON.createObjectNode();
+        vc.putArray("@context").add(context).add("https://www.w3.org/2018/credentials/examples/v1");
+        vc.put("id", "urn:uuid:3978344f-8596-4c3a-a978-8fcaba3903c5");
+        vc.putArray("type").add("VerifiableCredential").add("UniversityDegreeCredential");
+        vc.putObject("issuer").put("id", "did:example:76e12ec712ebc6f1c221ebfeb1f").put("name", "Example University");
+        vc.put("issuanceDate", "2024-01-01T00:00:00Z");
+        vc.put("expirationDate", "2030-01-01T00:00:00Z");
+        ObjectNode subject = vc.putObject("credentialSubject").put("id", "did:example:ebfeb1f712ebc6f1c276e12ec21");
+        subject.putObject("degree").put("type", "BachelorDegree").put("name", "Bachelor of Science and Arts");
+        ArrayNode list = subject.putArray("achievements");
+        for (int i = 0; i < achievements; i++) {
+            list.addObject().put("id", "urn:achievement:" + i).put("name", "Course " + i).put("score", 50 + i % 50);
+        }
+        vc.putObject("credentialStatus").put("id", "https://example.edu/status/24").put("type", "StatusList2021Entry");
+        vc.putObject("proof").put("type", "Ed25519Signature2020").put("created", "2024-01-01T00:00:00Z")
+                .put("proofPurpose", "assertionMethod").put("proofValue", "z58DAdFfa9SkqZMVPxAQpic7ndSayn1PzZs6ZjWp1CktyGesjuTSwRdoWhAfGFCF5bppETSTojQCrfFPP2oumHKtz");
+        return vc;
+    }
+
+    private static ObjectNode presentation() throws IOException {
+        ObjectNode vp = JSON.createObjectNode();
+        vp.putArray("@context").add("https://www.w3.org/ns/credentials/v2");
+        vp.putArray("type").add("VerifiablePresentation");
+        vp.put("holder", "did:example:ebfeb1f712ebc6f1c276e12ec21");
+        ArrayNode credentials = vp.putArray("verifiableCredential");
+        credentials.add(credential("https://www.w3.org/ns/credentials/v2", 1));
+        credentials.add(jwt(JSON.createObjectNode().put("iss", "https://issuer.example").put("iat", 1700000000)
+                .set("vc", credential("https://www.w3.org/2018/credentials/v1", 1))));
+        ObjectNode enveloped = credentials.addObject();
+        enveloped.putArray("@context").add("https://www.w3.org/ns/credentials/v2");
+        enveloped.put("type", "EnvelopedVerifiableCredential");
+        enveloped.put("id", "data:application/vc+sd-jwt," + sdJwt());
+        return vp;
+    }
+
+    private static String sdJwt() throws IOException {
+        ObjectNode payload = JSON.createObjectNode();
+        payload.putArray("_sd").add("CrQe7S5kqBAHt-nMYXgc6bdt2SH5aTY1sU_M-PgkjPI").add("JzYjH4svliH0R3PyEMfeZu6Jt69u5qehZo7F7EPYlSE");
+        payload.put("_sd_alg", "sha-256").put("iss", "https://issuer.example").put("iat", 1700000000)
+                .put("exp", 1900000000).put("vct", "https://credentials.example/identity_credential");
+        payload.putObject("cnf").putObject("jwk").put("kty", "EC").put("crv", "P-256");
+        String disclosure = BASE64URL.encodeToString("[\"2GLC42sKQveCfGfryNRN9w\", \"given_name\", \"John\"]"
+                .getBytes(StandardCharsets.UTF_8));
+        return jwt(payload) + "~" + disclosure + "~";
+    }
+
+    private static String jwt(ObjectNode payload) throws IOException {
+        String header = BASE64URL.encodeToString("{\"alg\":\"ES256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        return header + "." + BASE64URL.encodeToString(JSON.writeValueAsBytes(payload))
+                + "." + BASE64URL.encodeToString(new byte[64]);
+    }
+
+    private static ObjectNode mdl() {
+        ObjectNode mdl = JSON.createObjectNode();
+        mdl.putArray("@context").add("https://iso.org/18013/5/v1");
+        mdl.putArray("type").add("mDL");
+        mdl.put("document_number", "D1234567").put("birth_date", "1990-01-01").put("issuing_authority", "DMV")
+                .put("issuing_country", "US").put("expiry_date", "2030-01-01");
+        mdl.putArray("driving_privileges").addObject().put("vehicle_category_code", "B");
+        mdl.put("portrait", Base64.getEncoder().encodeToString(new byte[4096]));
+        return mdl;
+    }
+
+    // IssuerSignedItemBytes go in untagged, which parses to the same tree as tag 24
+    private static ObjectNode mdoc(String... docTypes) throws IOException {
+        ObjectNode response = JSON.createObjectNode().put("version", "1.0");
+        ArrayNode documents = response.putArray("documents");
+        for (String docType : docTypes) {
+            ObjectNode document = documents.addObject().put("docType", docType);
+            ObjectNode issuerSigned = document.putObject("issuerSigned");
+            ArrayNode items = issuerSigned.putObject("nameSpaces").putArray("org.iso.18013.5.1");
+            ObjectNode mso = JSON.createObjectNode().put("version", "1.0").put("digestAlgorithm", "SHA-256")
+                    .put("docType", docType);
+            ObjectNode digests = mso.putObject("valueDigests").putObject("org.iso.18013.5.1");
+            String[][] elements = {{"family_name", "Doe"}, {"given_name", "John"}, {"birth_date", "1990-01-01"},
+                    {"issuing_country", "US"}, {"document_number", "D1234567"}, {"expiry_date", "2030-01-01"}};
+            MessageDigest sha256 = sha256();
+            for (int i = 0; i < elements.length; i++) {
+                byte[] item = CBOR.writeValueAsBytes(JSON.createObjectNode().put("digestID", i)
+                        .put("random", new byte[16]).put("elementIdentifier", elements[i][0])
+                        .put("elementValue", elements[i][1]));
+                items.add(item);
+                sha256.update(new byte[]{(byte) 0xd8, 0x18, 0x58, (byte) item.length});
+                digests.put(String.valueOf(i), sha256.digest(item));
+            }
+            ArrayNode issuerAuth = issuerSigned.putArray("issuerAuth")
+                    .add(CBOR.writeValueAsBytes(JSON.createObjectNode().put("1", -7)));
+            issuerAuth.addObject();
+            issuerAuth.add(CBOR.writeValueAsBytes(mso)).add(new byte[64]);
+        }
+        return response.put("status", 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Payload json(String fileName, ObjectNode node) throws IOException {
+        return new Payload(fileName, "application/json", JSON.writerWithDefaultPrettyPrinter().writeValueAsBytes(node));
+    }
+
+    private static Payload text(String fileName, String contentType, String text) {
+        return new Payload(fileName, contentType, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
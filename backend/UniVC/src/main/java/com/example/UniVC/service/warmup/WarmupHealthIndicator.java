@@ -0,0 +1,40 @@
+package com.example.UniVC.service.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} while {@link WarmupService} is running. Included in the
+ * readiness group, so load balancers hold traffic back until the JIT has warmed up.
+ */
+@Component("warmup")
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupService warmupService;
+
+    public WarmupHealthIndicator(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        if (!warmupService.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        WarmupService.Report report = warmupService.report();
+        if (report == null) {
+            return Health.outOfService().withDetail("status", "warming up").build();
+        }
+        Health.Builder health = Health.up()
+                .withDetail("rounds", report.rounds())
+                .withDetail("durationMillis", report.durationMillis())
+                .withDetail("stable", report.stable())
+                .withDetail("firstRoundMicros", Math.round(report.firstRoundMicros()))
+                .withDetail("finalMicros", Math.round(report.finalMicros()));
+        if (report.error() != null) {
+            health.withDetail("error", report.error());
+        }
+        return health.build();
+    }
+}
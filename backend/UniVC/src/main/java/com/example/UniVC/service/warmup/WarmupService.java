@@ -0,0 +1,138 @@
+package com.example.UniVC.service.warmup;
+
+import com.example.UniVC.service.FileProcessingService;
+import com.example.UniVC.service.FormatDetectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optional JIT warm-up before an instance takes traffic. Once the application is ready,
+ * a background thread runs {@link WarmupCorpus} through {@link FormatDetectionService}
+ * and {@link FileProcessingService#dryRun} in rounds until the mean round latency of the
+ * last {@code app.warmup.window} rounds is within {@code app.warmup.tolerance} of the
+ * window before, or {@code app.warmup.max-duration} runs out. Nothing is stored, recorded
+ * or counted in traffic analytics.
+ *
+ * <p>{@link WarmupHealthIndicator} keeps the readiness probe down until then; the outcome
+ * is logged and shown in the health details.
+ */
+@Service
+public class WarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    @Value("${app.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.warmup.max-duration:60s}")
+    private Duration maxDuration;
+
+    @Value("${app.warmup.min-rounds:200}")
+    private int minRounds;
+
+    @Value("${app.warmup.window:10}")
+    private int window;
+
+    @Value("${app.warmup.tolerance:0.05}")
+    private double tolerance;
+
+    private final FormatDetectionService formatDetectionService;
+    private final FileProcessingService fileProcessingService;
+    private volatile Report report;
+
+    /**
+     * @param stable           false if the time budget ran out first
+     * @param firstRoundMicros mean latency per input in the first round
+     * @param finalMicros      mean latency per input over the last window
+     */
+    public record Report(int rounds, long durationMillis, boolean stable, double firstRoundMicros,
+                         double finalMicros, String error) {
+    }
+
+    public WarmupService(FormatDetectionService formatDetectionService, FileProcessingService fileProcessingService) {
+        this.formatDetectionService = formatDetectionService;
+        this.fileProcessingService = fileProcessingService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "univc-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Null until warm-up finishes.
+     */
+    public Report report() {
+        return report;
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        try {
+            report = warmUp(WarmupCorpus.generate(), start);
+            logger.info("JIT warm-up {} after {} rounds in {} ms: {} us per input at first, {} us now",
+                    report.stable() ? "stabilized" : "ran out of time", report.rounds(), report.durationMillis(),
+                    Math.round(report.firstRoundMicros()), Math.round(report.finalMicros()));
+        } catch (RuntimeException e) {
+            // Never keep the instance out of service over a failed warm-up
+            logger.warn("JIT warm-up failed, accepting traffic anyway: {}", e.getMessage(), e);
+            report = new Report(0, (System.nanoTime() - start) / 1_000_000, false, 0, 0, e.getMessage());
+        }
+    }
+
+    Report warmUp(List<WarmupCorpus.Payload> corpus, long start) {
+        long deadline = start + maxDuration.toNanos();
+        List<String> texts = corpus.stream().map(p -> new String(p.content(), StandardCharsets.UTF_8)).toList();
+        List<Long> rounds = new ArrayList<>();
+        boolean stable = false;
+        while (!stable && System.nanoTime() < deadline) {
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < corpus.size(); i++) {
+                WarmupCorpus.Payload payload = corpus.get(i);
+                formatDetectionService.detectAllFormats(texts.get(i));
+                fileProcessingService.dryRun(payload.fileName(), payload.contentType(), payload.content());
+            }
+            rounds.add(System.nanoTime() - roundStart);
+            stable = rounds.size() >= Math.max(minRounds, 2 * window) && isStable(rounds);
+        }
+
+        int n = rounds.size();
+        double perInput = 1000.0 * corpus.size();
+        return new Report(n, (System.nanoTime() - start) / 1_000_000, stable,
+                n > 0 ? rounds.get(0) / perInput : 0,
+                n > 0 ? mean(rounds, Math.max(0, n - window), n) / perInput : 0, null);
+    }
+
+    private boolean isStable(List<Long> rounds) {
+        int n = rounds.size();
+        double previous = mean(rounds, n - 2 * window, n - window);
+        double last = mean(rounds, n - window, n);
+        return Math.abs(last - previous) <= tolerance * previous;
+    }
+
+    private static double mean(List<Long> values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values.get(i);
+        }
+        return sum / (to - from);
+    }
+}
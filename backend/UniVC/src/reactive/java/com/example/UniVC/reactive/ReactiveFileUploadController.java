@@ -0,0 +1,200 @@
+package com.example.UniVC.reactive;
+
+import com.example.UniVC.controller.FileUploadController;
+import com.example.UniVC.dto.ApiResponse;
+import com.example.UniVC.dto.CredentialSearchRequest;
+import com.example.UniVC.dto.CredentialSearchResponse;
+import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.exception.CredentialNotFoundException;
+import com.example.UniVC.service.CredentialAnalysisService;
+import com.example.UniVC.service.FileProcessingService;
+import com.example.UniVC.service.store.CredentialBlobStore;
+import com.example.UniVC.service.store.StoredCredential;
+import com.example.UniVC.service.stream.ContentPrescan;
+import com.example.UniVC.service.stream.IncrementalContentScanner;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.FormPartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * WebFlux counterpart of {@link FileUploadController} with the same paths, parameters
+ * and response bodies. The file part is consumed as it arrives: each buffer is fed to
+ * an {@link IncrementalContentScanner} and copied once into the upload buffer, so no
+ * thread is parked on a slow client.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/credentials")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ReactiveFileUploadController {
+
+    private static final int MAX_FILE_SIZE = 10 * 1024 * 1024;
+
+    private final FileProcessingService fileProcessingService;
+    private final CredentialBlobStore credentialBlobStore;
+    private final CredentialAnalysisService credentialAnalysisService;
+    private final Scheduler detectionScheduler;
+
+    public ReactiveFileUploadController(FileProcessingService fileProcessingService,
+                                        CredentialBlobStore credentialBlobStore,
+                                        CredentialAnalysisService credentialAnalysisService,
+                                        @Qualifier("detectionScheduler") Scheduler detectionScheduler) {
+        this.fileProcessingService = fileProcessingService;
+        this.credentialBlobStore = credentialBlobStore;
+        this.credentialAnalysisService = credentialAnalysisService;
+        this.detectionScheduler = detectionScheduler;
+    }
+
+    // JPA blocks, so the query runs on boundedElastic rather than the event loop
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<CredentialSearchResponse>>> searchCredentials(CredentialSearchRequest request) {
+        return Mono.fromCallable(() -> credentialAnalysisService.search(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(result -> ResponseEntity.ok(ApiResponse.success(result)));
+    }
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<ApiResponse<FileInfoResponse>>> uploadCredential(@RequestBody Flux<PartEvent> parts,
+                                                                              ServerHttpRequest request) {
+        UploadState upload = new UploadState();
+        upload.client = request.getRemoteAddress() != null ? request.getRemoteAddress().getHostString() : null;
+
+        return parts
+                .windowUntil(PartEvent::isLast)
+                .concatMap(partEvents -> partEvents.switchOnFirst((signal, events) -> {
+                    PartEvent first = signal.get();
+                    if (first instanceof FilePartEvent filePart && "file".equals(first.name())) {
+                        upload.begin(filePart.filename(), filePart.headers().getContentType());
+                        return events.doOnNext(upload::accept).then();
+                    }
+                    if (first instanceof FormPartEvent) {
+                        // description and expectedFormat are accepted but not used yet
+                        return events.then();
+                    }
+                    return events.doOnNext(event -> DataBufferUtils.release(event.content())).then();
+                }))
+                .then(Mono.defer(() -> process(upload)))
+                .onErrorResume(UploadTooLargeException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(ApiResponse.error("File size exceeds 10MB limit"))))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .body(ApiResponse.error("Server busy, retry later"))))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.error("Unexpected error: " + e.getMessage()))));
+    }
+
+    private Mono<ResponseEntity<ApiResponse<FileInfoResponse>>> process(UploadState upload) {
+        if (upload.size == 0) {
+            return Mono.just(ResponseEntity.badRequest().body(ApiResponse.error("File is empty")));
+        }
+        ContentPrescan prescan = upload.scanner.finish();
+        byte[] content = Arrays.copyOf(upload.buffer, upload.size);
+
+        return Mono.fromCallable(() -> fileProcessingService.processContent(
+                        upload.fileName, upload.contentType, content, prescan, upload.client))
+                .subscribeOn(detectionScheduler)
+                .map(fileInfo -> ResponseEntity.ok(ApiResponse.success("File processed successfully", fileInfo)));
+    }
+
+    /**
+     * Netty transfers the segment region with sendfile when the connection allows it
+     * (no TLS); otherwise the mapped buffer is wrapped, not copied.
+     */
+    @GetMapping("/{fileId}/raw")
+    public Mono<Void> getRawCredential(@PathVariable String fileId, ServerHttpResponse response) {
+        StoredCredential stored = credentialBlobStore.get(fileId)
+                .orElseThrow(() -> new CredentialNotFoundException(fileId));
+
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentLength(stored.getLength());
+        headers.setETag("\"" + stored.getSha256() + "\"");
+        headers.set("X-Content-Type-Options", "nosniff");
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(stored.getFileName() != null ? stored.getFileName() : fileId, StandardCharsets.UTF_8)
+                .build());
+
+        if (response instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+            return zeroCopy.writeWith(stored.getSegmentFile(), stored.getOffset(), stored.getLength());
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(stored.getContent())));
+    }
+
+    // A cache miss analyzes the stored payload again, which must not run on the event loop
+    @GetMapping("/by-hash/{sha256}")
+    public Mono<ResponseEntity<ApiResponse<FileInfoResponse>>> getBySha256(@PathVariable String sha256) {
+        return Mono.fromCallable(() -> FileUploadController.byHash(fileProcessingService, sha256))
+                .subscribeOn(detectionScheduler);
+    }
+
+    @GetMapping("/formats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSupportedFormats() {
+        return ResponseEntity.ok(ApiResponse.success("Supported formats", FileUploadController.supportedFormats()));
+    }
+
+    @GetMapping("/test")
+    public ResponseEntity<ApiResponse<String>> testEndpoint() {
+        return ResponseEntity.ok(ApiResponse.success("File upload endpoint is working"));
+    }
+
+    // Per-request accumulator; only touched from the serialized part event stream
+    private static class UploadState {
+        private final IncrementalContentScanner scanner = new IncrementalContentScanner();
+        private byte[] buffer = new byte[8192];
+        private int size;
+        private String fileName;
+        private String contentType;
+        private String client;
+
+        void begin(String fileName, MediaType contentType) {
+            this.fileName = fileName;
+            this.contentType = contentType != null ? contentType.toString() : null;
+        }
+
+        void accept(PartEvent event) {
+            DataBuffer data = event.content();
+            try {
+                int readable = data.readableByteCount();
+                if (size + readable > MAX_FILE_SIZE) {
+                    throw new UploadTooLargeException();
+                }
+                if (size + readable > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.min(MAX_FILE_SIZE, Math.max(buffer.length * 2, size + readable)));
+                }
+                data.read(buffer, size, readable);
+                scanner.feed(buffer, size, readable);
+                size += readable;
+            } finally {
+                DataBufferUtils.release(data);
+            }
+        }
+    }
+
+    private static class UploadTooLargeException extends RuntimeException {
+        UploadTooLargeException() {
+            super("File size exceeds 10MB limit", null, false, false);
+        }
+    }
+}
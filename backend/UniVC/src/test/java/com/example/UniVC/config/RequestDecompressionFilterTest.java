@@ -0,0 +1,98 @@
+package com.example.UniVC.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.MultipartConfigElement;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestDecompressionFilterTest {
+
+    private static final String BOUNDARY = "----test";
+
+    private final RequestDecompressionFilter filter = new RequestDecompressionFilter(new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void parsesGzipEncodedMultipartBody() throws Exception {
+        byte[] content = "{\"type\":[\"VerifiableCredential\"]}".getBytes(StandardCharsets.UTF_8);
+        ServletRequest decoded = filter(gzip(multipart("vc.json", content)));
+        DecompressingMultipartResolver resolver =
+                new DecompressingMultipartResolver(new MultipartConfigElement("", 1024, 2048, 0));
+
+        MultipartHttpServletRequest multipart =
+                resolver.resolveMultipart((HttpServletRequest) decoded);
+        MultipartFile file = multipart.getFile("file");
+        assertEquals("vc.json", file.getOriginalFilename());
+        assertArrayEquals(content, file.getBytes());
+        assertNull(multipart.getHeader("Content-Encoding"));
+        resolver.cleanupMultipart(multipart);
+    }
+
+    @Test
+    void appliesMultipartLimitsToDecompressedSize() throws Exception {
+        // Compresses to a few hundred bytes but inflates past the 2KB file limit
+        ServletRequest decoded = filter(gzip(multipart("big.json", new byte[64 * 1024])));
+        DecompressingMultipartResolver resolver =
+                new DecompressingMultipartResolver(new MultipartConfigElement("", 2048, 4096, 0));
+
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> resolver.resolveMultipart((HttpServletRequest) decoded));
+    }
+
+    @Test
+    void rejectsUnsupportedEncoding() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+        request.addHeader("Content-Encoding", "br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+        assertEquals(415, response.getStatus());
+        assertEquals(RequestDecompressionFilter.SUPPORTED_ENCODINGS, response.getHeader("Accept-Encoding"));
+    }
+
+    private ServletRequest filter(byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/upload");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContent(body);
+
+        AtomicReference<ServletRequest> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(req));
+        return seen.get();
+    }
+
+    private static byte[] multipart(String fileName, byte[] content) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/json\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.UniVC.loadtest;
+
+import com.example.UniVC.service.audit.AuditLog;
+import com.example.UniVC.service.audit.AuditRecord;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sustained throughput of the {@link AuditLog}: producer threads record as fast as they can
+ * for a while, then the log is flushed, and records/s (counted once durable), fsyncs/s and
+ * the mean {@code record()} latency are printed.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.UniVC.loadtest.AuditLogBenchmark \
+ *     -Dexec.args="--threads=16 --seconds=10 --commit-interval=10ms --commit-batch=1024"
+ * </pre>
+ *
+ * {@code --dir} defaults to a new temporary directory; point it at the disk the service
+ * will log to, since the fsync latency of that disk is what bounds the group size.
+ */
+public class AuditLogBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "10"));
+        Path dir = options.containsKey("dir") ? Path.of(options.get("dir")) : Files.createTempDirectory("univc-audit-bench");
+
+        AuditLog log = new AuditLog();
+        ReflectionTestUtils.setField(log, "enabled", true);
+        ReflectionTestUtils.setField(log, "directoryName", dir.toString());
+        ReflectionTestUtils.setField(log, "segmentSize", DataSize.parse(options.getOrDefault("segment-size", "64MB")));
+        ReflectionTestUtils.setField(log, "commitInterval",
+                DurationStyle.detectAndParse(options.getOrDefault("commit-interval", "10ms")));
+        ReflectionTestUtils.setField(log, "commitBatch", Integer.parseInt(options.getOrDefault("commit-batch", "1024")));
+        ReflectionTestUtils.setField(log, "queueCapacity", 65536);
+        ReflectionTestUtils.setField(log, "offerTimeout", Duration.ofSeconds(30));
+        log.open();
+
+        String sha256 = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+        LongAdder recordNanos = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            String client = "10.0.0." + t;
+            Thread producer = new Thread(() -> {
+                UUID fileId = UUID.randomUUID();
+                long nanos = 0;
+                for (long now = System.nanoTime(); now < end; ) {
+                    log.record(new AuditRecord(System.currentTimeMillis(), fileId, sha256, "SD_JWT", 0.95, client));
+                    long after = System.nanoTime();
+                    nanos += after - now;
+                    now = after;
+                }
+                recordNanos.add(nanos);
+                done.countDown();
+            }, "audit-producer-" + t);
+            producer.start();
+        }
+        done.await();
+        log.flush();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long records = log.durable();
+        long fsyncs = log.fsyncs();
+        log.close();
+
+        System.out.printf("%d threads, %.1f s, commit-interval %s, commit-batch %s, %s%n", threads, elapsed,
+                options.getOrDefault("commit-interval", "10ms"), options.getOrDefault("commit-batch", "1024"), dir);
+        System.out.printf("records/s        %,12.0f%n", records / elapsed);
+        System.out.printf("fsyncs/s         %,12.0f%n", fsyncs / elapsed);
+        System.out.printf("records/fsync    %,12.1f%n", (double) records / Math.max(1, fsyncs));
+        System.out.printf("record() mean us %12.2f%n", recordNanos.sum() / 1000.0 / Math.max(1, records));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.UniVC.loadtest;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost against bytes saved for compressed upload bodies. Times compression (client
+ * side) and streaming decompression (what {@code RequestDecompressionFilter} does) per
+ * codec for the multipart body of every corpus file, and prints the link speed below
+ * which compressing pays off.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.UniVC.loadtest.CompressionBenchmark \
+ *     -Dexec.args="--millis=500 --sizes=256KB,1MB"
+ * </pre>
+ *
+ * {@code --sizes} adds batch payloads built by concatenating the corpus; since the corpus
+ * is small they repeat, so their ratios are optimistic. {@code --corpus} as for
+ * {@link LoadTestRunner}.
+ *
+ * <p>Break-even is {@code bytes saved / (compress + decompress time)}: on a slower link the
+ * transfer time saved exceeds the CPU spent, on a faster one it doesn't.
+ */
+public class CompressionBenchmark {
+
+    private record Codec(String name, Compressor compressor, Decompressor decompressor) {
+    }
+
+    private interface Compressor {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private interface Decompressor {
+        InputStream wrap(InputStream in) throws IOException;
+    }
+
+    private static final List<Codec> CODECS = List.of(
+            new Codec("gzip-1", out -> gzip(out, Deflater.BEST_SPEED), GZIPInputStream::new),
+            new Codec("gzip-6", out -> gzip(out, Deflater.DEFAULT_COMPRESSION), GZIPInputStream::new),
+            new Codec("zstd-1", out -> new ZstdOutputStream(out, 1), ZstdInputStream::new),
+            new Codec("zstd-3", out -> new ZstdOutputStream(out, 3), ZstdInputStream::new),
+            new Codec("zstd-9", out -> new ZstdOutputStream(out, 9), ZstdInputStream::new));
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path corpusDir = options.containsKey("corpus") ? Path.of(options.get("corpus")) : null;
+        long millis = Long.parseLong(options.getOrDefault("millis", "500"));
+        CredentialCorpus corpus = CredentialCorpus.load(corpusDir);
+        Map<String, byte[]> payloads = new LinkedHashMap<>();
+        for (int i = 0; i < corpus.size(); i++) {
+            payloads.put(corpus.pick(i).name(), corpus.pick(i).multipartBody());
+        }
+        if (options.containsKey("sizes")) {
+            for (String size : options.get("sizes").split(",")) {
+                payloads.put("batch " + size.trim(), payload(corpus, parseSize(size.trim())));
+            }
+        }
+
+        System.out.printf("%-30s %9s %-7s %7s %11s %11s %10s %14s%n",
+                "payload", "bytes", "codec", "ratio", "comp MB/s", "decomp MB/s", "cpu us", "break-even");
+        for (Map.Entry<String, byte[]> entry : payloads.entrySet()) {
+            byte[] payload = entry.getValue();
+            for (Codec codec : CODECS) {
+                byte[] compressed = compress(codec, payload);
+                // Round-trip check so a broken codec can't produce a fast, wrong number
+                if (!Arrays.equals(payload, decompress(codec, compressed))) {
+                    throw new IllegalStateException(codec.name() + " did not round-trip");
+                }
+                double compressNanos = time(millis, () -> compress(codec, payload));
+                double decompressNanos = time(millis, () -> decompress(codec, compressed));
+
+                double cpuNanos = compressNanos + decompressNanos;
+                long saved = payload.length - compressed.length;
+                // bits / ns = Gbit/s; * 1000 for Mbit/s
+                double breakEvenMbps = saved * 8 * 1000.0 / cpuNanos;
+                System.out.printf("%-30s %9d %-7s %6.2fx %11.1f %11.1f %10.1f %9.0f Mbit/s%n",
+                        entry.getKey(), payload.length, codec.name(),
+                        (double) payload.length / compressed.length,
+                        payload.length / compressNanos * 1000,
+                        payload.length / decompressNanos * 1000,
+                        cpuNanos / 1000,
+                        breakEvenMbps);
+            }
+        }
+    }
+
+    /**
+     * Multipart upload bodies from the corpus, concatenated round-robin up to {@code size}.
+     */
+    private static byte[] payload(CredentialCorpus corpus, int size) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        for (int i = 0; out.size() < size; i++) {
+            byte[] body = corpus.pick(i).multipartBody();
+            out.write(body, 0, Math.min(body.length, size - out.size()));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] compress(Codec codec, byte[] payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length / 2 + 64);
+        try (OutputStream out = codec.compressor().wrap(bytes)) {
+            out.write(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompress(Codec codec, byte[] compressed) throws IOException {
+        try (InputStream in = codec.decompressor().wrap(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private interface Operation {
+        Object run() throws IOException;
+    }
+
+    /**
+     * Mean nanoseconds per call, after a warm-up of the same length.
+     */
+    private static double time(long millis, Operation operation) throws IOException {
+        long sink = 0;
+        for (long end = System.nanoTime() + millis * 1_000_000; System.nanoTime() < end; ) {
+            sink += operation.run().hashCode();
+        }
+        long iterations = 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000;
+        long now;
+        do {
+            sink += operation.run().hashCode();
+            iterations++;
+            now = System.nanoTime();
+        } while (now < end);
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) (now - start) / iterations;
+    }
+
+    private static OutputStream gzip(OutputStream out, int level) throws IOException {
+        return new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    private static int parseSize(String size) {
+        String upper = size.toUpperCase();
+        if (upper.endsWith("MB")) {
+            return Integer.parseInt(upper.substring(0, upper.length() - 2)) << 20;
+        }
+        if (upper.endsWith("KB")) {
+            return Integer.parseInt(upper.substring(0, upper.length() - 2)) << 10;
+        }
+        return Integer.parseInt(upper);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.UniVC.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Credential files replayed by {@link LoadTestRunner}, with their multipart upload
+ * bodies built once up front so request construction stays off the measured path.
+ */
+class CredentialCorpus {
+
+    static final String BOUNDARY = "----univc-loadtest";
+
+    private final List<Entry> entries;
+
+    private CredentialCorpus(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Credential corpus is empty");
+        }
+        this.entries = entries;
+    }
+
+    /**
+     * Load every regular file in {@code directory}, or the bundled corpus when it is null.
+     */
+    static CredentialCorpus load(Path directory) throws IOException {
+        Path root = directory != null ? directory : bundledCorpus();
+        try (Stream<Path> files = Files.list(root)) {
+            return new CredentialCorpus(files.filter(Files::isRegularFile)
+                    .sorted()
+                    .map(CredentialCorpus::toEntry)
+                    .toList());
+        }
+    }
+
+    Entry pick(int index) {
+        return entries.get(Math.floorMod(index, entries.size()));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static Path bundledCorpus() throws IOException {
+        URL url = CredentialCorpus.class.getClassLoader().getResource("loadtest/corpus");
+        if (url == null) {
+            throw new IOException("Bundled corpus loadtest/corpus not found on the test classpath");
+        }
+        try {
+            return Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Entry toEntry(Path file) {
+        try {
+            byte[] content = Files.readAllBytes(file);
+            String name = file.getFileName().toString();
+            return new Entry(name, multipartBody(name, content));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] multipartBody(String fileName, byte[] content) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 256);
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    record Entry(String name, byte[] multipartBody) {
+    }
+}
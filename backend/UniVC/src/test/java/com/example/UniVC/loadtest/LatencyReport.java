@@ -0,0 +1,115 @@
+package com.example.UniVC.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counters for one load test run.
+ * Latencies are recorded in microseconds from the request's intended start time.
+ */
+class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Series> series = new LinkedHashMap<>();
+    private final Series total = new Series("total");
+
+    LatencyReport(Iterable<String> endpoints) {
+        for (String endpoint : endpoints) {
+            series.put(endpoint, new Series(endpoint));
+        }
+    }
+
+    void recordSuccess(String endpoint, long latencyNanos) {
+        long micros = Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        series.get(endpoint).histogram.recordValue(micros);
+        total.histogram.recordValue(micros);
+    }
+
+    void recordError(String endpoint) {
+        series.get(endpoint).errors.increment();
+        total.errors.increment();
+    }
+
+    void recordDropped(String endpoint) {
+        series.get(endpoint).dropped.increment();
+        total.dropped.increment();
+    }
+
+    Series total() {
+        return total;
+    }
+
+    void print(PrintStream out, double elapsedSeconds) {
+        out.printf("%-10s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "req/s", "errors", "dropped", "p50(ms)", "p95(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Series s : series.values()) {
+            s.print(out, elapsedSeconds);
+        }
+        total.print(out, elapsedSeconds);
+    }
+
+    /**
+     * Writes the full HdrHistogram percentile distribution (.hgrm, plottable with the
+     * HdrHistogram plotter) and a histogram log (.hlog) per endpoint.
+     */
+    void write(Path directory) throws FileNotFoundException {
+        directory.toFile().mkdirs();
+        for (Series s : series.values()) {
+            s.write(directory);
+        }
+        total.write(directory);
+    }
+
+    static class Series {
+        private final String name;
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        Series(String name) {
+            this.name = name;
+        }
+
+        long successes() {
+            return histogram.getTotalCount();
+        }
+
+        double errorRate() {
+            long attempts = successes() + errors.sum() + dropped.sum();
+            return attempts == 0 ? 0.0 : (double) (errors.sum() + dropped.sum()) / attempts;
+        }
+
+        double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        private void print(PrintStream out, double elapsedSeconds) {
+            out.printf("%-10s %9d %9.0f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, successes(), successes() / elapsedSeconds, errors.sum(), dropped.sum(),
+                    percentileMillis(50), percentileMillis(95), percentileMillis(99), percentileMillis(99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+
+        private void write(Path directory) throws FileNotFoundException {
+            try (PrintStream hgrm = new PrintStream(directory.resolve(name + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+            try (PrintStream hlog = new PrintStream(directory.resolve(name + ".hlog").toFile())) {
+                HistogramLogWriter writer = new HistogramLogWriter(hlog);
+                writer.outputLogFormatVersion();
+                writer.outputLegend();
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+    }
+}
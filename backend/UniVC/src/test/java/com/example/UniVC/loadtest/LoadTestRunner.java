@@ -0,0 +1,199 @@
+package com.example.UniVC.loadtest;
+
+import com.example.UniVC.UniVcApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the credential REST endpoints. Starts the application on
+ * a random port and replays a mixed credential corpus at a fixed arrival rate. Latency
+ * is measured from each request's scheduled send time, so a stalled server shows up in
+ * the percentiles instead of silently lowering the offered load.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.UniVC.loadtest.LoadTestRunner \
+ *     -Dexec.args="--rate=500 --duration=60 --max-p99-ms=50"
+ * </pre>
+ *
+ * Options:
+ * <ul>
+ *   <li>{@code --rate} requests per second (default 200)</li>
+ *   <li>{@code --duration} / {@code --warmup} seconds (default 30 / 10)</li>
+ *   <li>{@code --mix} endpoint weights, e.g. {@code upload:90,formats:5,test:5}</li>
+ *   <li>{@code --corpus} directory of credential files (default: bundled corpus)</li>
+ *   <li>{@code --max-in-flight} requests outstanding before new ones count as dropped (default 2000)</li>
+ *   <li>{@code --output} directory for .hgrm/.hlog files (default target/loadtest)</li>
+ *   <li>{@code --max-p99-ms}, {@code --max-error-rate} regression gates; exit code 1 when exceeded</li>
+ * </ul>
+ */
+public class LoadTestRunner {
+
+    private static final String UPLOAD = "upload";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        Map<String, Integer> mix = parseMix(options.getOrDefault("mix", "upload:90,formats:5,test:5"));
+        Path corpusDir = options.containsKey("corpus") ? Path.of(options.get("corpus")) : null;
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest"));
+
+        CredentialCorpus corpus = CredentialCorpus.load(corpusDir);
+        ConfigurableApplicationContext context = SpringApplication.run(UniVcApplication.class,
+                "--server.port=0", "--logging.level.root=WARN");
+        boolean passed;
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestRunner runner = new LoadTestRunner("http://localhost:" + port + "/api/api/v1/credentials",
+                    corpus, mix, maxInFlight);
+
+            System.out.printf("Corpus: %d files, rate %d req/s, warm-up %ds, measured %ds%n",
+                    corpus.size(), rate, warmup, duration);
+            runner.run(rate, warmup);
+            LatencyReport report = runner.run(rate, duration);
+
+            report.print(System.out, duration);
+            report.write(output);
+            System.out.println("Histograms written to " + output.toAbsolutePath());
+            passed = checkGates(report, options);
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private final String baseUrl;
+    private final CredentialCorpus corpus;
+    private final String[] schedule;
+    private final int maxInFlight;
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadTestRunner(String baseUrl, CredentialCorpus corpus, Map<String, Integer> mix, int maxInFlight) {
+        this.baseUrl = baseUrl;
+        this.corpus = corpus;
+        this.maxInFlight = maxInFlight;
+
+        // Expand the weights into a lookup table so picking an endpoint is one array read
+        List<String> slots = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(endpoint);
+            }
+        });
+        this.schedule = slots.toArray(new String[0]);
+    }
+
+    LatencyReport run(int ratePerSecond, int seconds) throws InterruptedException {
+        LatencyReport report = new LatencyReport(List.of(schedule).stream().distinct().toList());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long total = (long) ratePerSecond * seconds;
+        long start = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (long i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            String endpoint = schedule[random.nextInt(schedule.length)];
+            if (!inFlight.tryAcquire()) {
+                report.recordDropped(endpoint);
+                continue;
+            }
+            client.sendAsync(request(endpoint, random.nextInt(corpus.size())), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - intendedStart;
+                        inFlight.release();
+                        if (error == null && response.statusCode() / 100 == 2) {
+                            report.recordSuccess(endpoint, latency);
+                        } else {
+                            report.recordError(endpoint);
+                        }
+                    });
+        }
+        // Let outstanding requests finish so they are counted
+        inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS);
+        return report;
+    }
+
+    private HttpRequest request(String endpoint, int corpusIndex) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + "/" + endpoint))
+                .timeout(Duration.ofSeconds(30));
+        if (UPLOAD.equals(endpoint)) {
+            return builder.header("Content-Type", "multipart/form-data; boundary=" + CredentialCorpus.BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(corpus.pick(corpusIndex).multipartBody()))
+                    .build();
+        }
+        return builder.GET().build();
+    }
+
+    private static boolean checkGates(LatencyReport report, Map<String, String> options) {
+        boolean passed = true;
+        if (options.containsKey("max-p99-ms")) {
+            double limit = Double.parseDouble(options.get("max-p99-ms"));
+            double p99 = report.total().percentileMillis(99);
+            if (p99 > limit) {
+                System.out.printf("FAIL: p99 %.2fms exceeds %.2fms%n", p99, limit);
+                passed = false;
+            }
+        }
+        if (options.containsKey("max-error-rate")) {
+            double limit = Double.parseDouble(options.get("max-error-rate"));
+            double errorRate = report.total().errorRate();
+            if (errorRate > limit) {
+                System.out.printf("FAIL: error rate %.4f exceeds %.4f%n", errorRate, limit);
+                passed = false;
+            }
+        }
+        return passed;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split(":");
+            weights.put(kv[0].trim(), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+}
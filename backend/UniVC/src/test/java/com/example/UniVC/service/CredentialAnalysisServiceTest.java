@@ -0,0 +1,167 @@
+package com.example.UniVC.service;
+
+import com.example.UniVC.dto.CredentialSearchRequest;
+import com.example.UniVC.dto.CredentialSearchResponse;
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.entity.CredentialAnalysis;
+import com.example.UniVC.repository.CredentialAnalysisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Not transactional: the index writer commits from its own thread
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CredentialAnalysisServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private CredentialAnalysisRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void pagesNewestFirstWithoutGapsOrRepeats() {
+        // The three newest rows share a timestamp, so the id orders them and the first page ends among them
+        for (int i = 0; i < 7; i++) {
+            save("file-" + i, "SD-JWT", 0.95, null, T0.plusSeconds(i < 3 ? 10 : i));
+        }
+
+        CredentialAnalysisService service = service(false);
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CredentialSearchRequest request = new CredentialSearchRequest();
+            request.setLimit(2);
+            request.setCursor(cursor);
+            CredentialSearchResponse page = service.search(request);
+            page.getItems().forEach(item -> seen.add(item.getFileId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("file-2", "file-1", "file-0", "file-6", "file-5", "file-4", "file-3"), seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void appliesEveryFilter() {
+        save("a", "SD-JWT", 0.95, "https://issuer.example", T0);
+        save("b", "W3C-VC-2.0", 0.9, "did:example:university", T0.plusSeconds(1));
+        save("c", "W3C-VC-2.0", 0.5, "did:example:university", T0.plusSeconds(2));
+        save("d", "W3C-VC-2.0", 0.9, "did:example:other", T0.plusSeconds(3));
+        CredentialAnalysisService service = service(false);
+
+        CredentialSearchRequest request = new CredentialSearchRequest();
+        request.setFormat("W3C-VC-2.0");
+        request.setIssuer("did:example:university");
+        assertEquals(List.of("c", "b"), fileIds(service.search(request)));
+
+        request.setMinConfidence(0.8);
+        assertEquals(List.of("b"), fileIds(service.search(request)));
+
+        request = new CredentialSearchRequest();
+        request.setFrom(T0.plusSeconds(1));
+        request.setTo(T0.plusSeconds(3));
+        assertEquals(List.of("c", "b"), fileIds(service.search(request)));
+
+        request = new CredentialSearchRequest();
+        request.setMaxConfidence(0.6);
+        CredentialSearchResponse response = service.search(request);
+        assertEquals(List.of("c"), fileIds(response));
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void pagesEachFilterThroughAnIndexEndingInTheKeysetOrder() {
+        assertEquals("IDX_ANALYSIS_TIME", plannedIndex("TRUE"));
+        assertEquals("IDX_ANALYSIS_FORMAT_TIME", plannedIndex("format = 'SD-JWT'"));
+        assertEquals("IDX_ANALYSIS_FORMAT_TIME", plannedIndex("format = 'SD-JWT' AND confidence >= 0.8"));
+        assertEquals("IDX_ANALYSIS_FORMAT_VERSION_TIME", plannedIndex("format = 'SD-JWT' AND version = 'SD-JWT-VC'"));
+        assertEquals("IDX_ANALYSIS_ISSUER_TIME", plannedIndex("issuer = 'did:example:university'"));
+    }
+
+    @Test
+    void rejectsBadCursorsAndLimits() {
+        CredentialAnalysisService service = service(false);
+        CredentialSearchRequest request = new CredentialSearchRequest();
+        request.setCursor("not a cursor");
+        assertThrows(IllegalArgumentException.class, () -> service.search(request));
+
+        CredentialSearchRequest tooMany = new CredentialSearchRequest();
+        tooMany.setLimit(501);
+        assertThrows(IllegalArgumentException.class, () -> service.search(tooMany));
+    }
+
+    @Test
+    void indexesTheResultTheUploadWasAnsweredWith() throws InterruptedException {
+        CredentialAnalysisService service = service(true);
+        service.start();
+        DetectionResult details = DetectionResult.builder()
+                .format("SD-JWT")
+                .confidence(1.2)
+                .version("SD-JWT-VC")
+                .addDetail("issuer", "https://issuer.example")
+                .addDetail("credentialType", "IdentityCredential")
+                .build();
+        service.record("file-1", "pid.txt", 512, "JWT", 0.85, details);
+        service.stop();
+
+        CredentialAnalysis row = repository.findAll().get(0);
+        assertEquals("JWT", row.getFormat());
+        assertEquals(0.85, row.getConfidence());
+        assertEquals("SD-JWT-VC", row.getVersion());
+        assertEquals("https://issuer.example", row.getIssuer());
+        assertEquals("IdentityCredential", row.getCredentialType());
+    }
+
+    private CredentialAnalysisService service(boolean enabled) {
+        return new CredentialAnalysisService(repository, enabled, 100, 10, 50, 500);
+    }
+
+    // The index H2 picks for a search page, as CredentialAnalysisService queries it
+    private String plannedIndex(String filter) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM credential_analysis WHERE " + filter
+                + " AND (analyzed_at < TIMESTAMP '2026-01-01 00:00:00' OR analyzed_at = TIMESTAMP '2026-01-01 00:00:00'"
+                + " AND id < 100) ORDER BY analyzed_at DESC, id DESC LIMIT 51", String.class);
+        Matcher index = Pattern.compile("/\\* PUBLIC\\.(\\w+)").matcher(plan);
+        return index.find() ? index.group(1) : plan;
+    }
+
+    private void save(String fileId, String format, double confidence, String issuer, Instant analyzedAt) {
+        CredentialAnalysis row = new CredentialAnalysis();
+        row.setFileId(fileId);
+        row.setFileName(fileId + ".json");
+        row.setFormat(format);
+        row.setConfidence(confidence);
+        row.setIssuer(issuer);
+        row.setAnalyzedAt(analyzedAt);
+        repository.save(row);
+    }
+
+    private static List<String> fileIds(CredentialSearchResponse response) {
+        return response.getItems().stream().map(CredentialSearchResponse.CredentialSummary::getFileId).toList();
+    }
+}
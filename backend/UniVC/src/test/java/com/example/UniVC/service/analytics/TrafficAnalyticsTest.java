@@ -0,0 +1,80 @@
+package com.example.UniVC.service.analytics;
+
+import com.example.UniVC.dto.DetectionResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrafficAnalyticsTest {
+
+    @Test
+    void sketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key-" + (i % 100));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= 10);
+        }
+    }
+
+    @Test
+    void heavyHittersFindsFrequentKeysAmongNoise() {
+        HeavyHitters heavyHitters = new HeavyHitters(3, 1024, 4);
+        for (int i = 0; i < 5000; i++) {
+            heavyHitters.add("noise-" + i);
+            if (i % 5 == 0) {
+                heavyHitters.add("https://issuer.a");
+            }
+            if (i % 10 == 0) {
+                heavyHitters.add("https://issuer.b");
+            }
+        }
+
+        List<Map.Entry<String, Long>> top = heavyHitters.top();
+        assertEquals("https://issuer.a", top.get(0).getKey());
+        assertEquals("https://issuer.b", top.get(1).getKey());
+        assertTrue(top.get(0).getValue() >= 1000);
+    }
+
+    @Test
+    void histogramForgetsSlotsOutsideTheWindow() {
+        AtomicLong now = new AtomicLong(10_000);
+        SlidingWindowHistogram histogram = new SlidingWindowHistogram(new double[]{0.5, 1.0}, 1000, 10, now::get);
+
+        histogram.record(0.2);
+        histogram.record(0.5);
+        now.addAndGet(500);
+        histogram.record(0.9);
+        histogram.record(7);
+        assertArrayEquals(new long[]{2, 1, 1}, histogram.snapshot());
+
+        now.addAndGet(600);
+        assertArrayEquals(new long[]{0, 1, 1}, histogram.snapshot());
+        now.addAndGet(1000);
+        assertArrayEquals(new long[]{0, 0, 0}, histogram.snapshot());
+    }
+
+    @Test
+    void snapshotGroupsByFormatAndVersion() {
+        TrafficAnalytics analytics = new TrafficAnalytics(true, 5, 256, 4, Duration.ofMinutes(1), 6);
+        analytics.record(DetectionResult.builder().format("SD-JWT").version("SD-JWT-VC").confidence(0.9)
+                .addDetail("issuer", "https://issuer.example").addDetail("credentialType", "urn:vct:pid").build(), 900);
+        analytics.record(DetectionResult.builder().format("ISO-mDL").confidence(0.5)
+                .addDetail("type", "\"mDL\"").build(), 3000);
+
+        Map<String, Object> snapshot = analytics.snapshot();
+        assertEquals(2L, snapshot.get("total"));
+        assertEquals(Map.of("ISO-mDL", 1L, "SD-JWT", 1L), snapshot.get("formats"));
+        assertEquals(Map.of("SD-JWT SD-JWT-VC", 1L), snapshot.get("versions"));
+        assertEquals(2, ((List<?>) snapshot.get("topCredentialTypes")).size());
+        assertEquals(2L, ((Map<?, ?>) snapshot.get("payloadSize")).get("count"));
+    }
+}
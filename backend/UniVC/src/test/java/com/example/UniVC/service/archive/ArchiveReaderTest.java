@@ -0,0 +1,108 @@
+package com.example.UniVC.service.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArchiveReaderTest {
+
+    @Test
+    void readsZipEntries() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("creds/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("creds/a.json"));
+            zip.write("{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("b.jwt"));
+            zip.write("x.y.z".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        ArchiveReader reader = ArchiveReader.open(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals("ZIP", reader.format());
+        assertEquals(List.of("creds/ dir", "creds/a.json {\"a\":1}", "b.jwt x.y.z"), read(reader));
+    }
+
+    @Test
+    void readsGzippedTarWithLongNames() throws IOException {
+        String longName = "partner/" + "x".repeat(120) + ".json";
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        tar.write(header("dir/", 0, '5'));
+        tar.write(header("dir/one.txt", 5, '0'));
+        tar.write(padded("hello".getBytes(StandardCharsets.UTF_8)));
+        byte[] nameRecord = (longName + "\0").getBytes(StandardCharsets.UTF_8);
+        tar.write(header("././@LongLink", nameRecord.length, 'L'));
+        tar.write(padded(nameRecord));
+        tar.write(header(longName.substring(0, 99), 2, '0'));
+        tar.write(padded("{}".getBytes(StandardCharsets.UTF_8)));
+        tar.write(new byte[1024]);
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(tar.toByteArray());
+        }
+
+        ArchiveReader reader = ArchiveReader.open(new ByteArrayInputStream(gzipped.toByteArray()));
+        assertEquals("TAR.GZ", reader.format());
+        assertEquals(List.of("dir/ dir", "dir/one.txt hello", longName + " {}"), read(reader));
+    }
+
+    @Test
+    void rejectsOtherContent() {
+        byte[] json = "{\"not\":\"an archive\"}".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> ArchiveReader.open(new ByteArrayInputStream(json)));
+    }
+
+    private static List<String> read(ArchiveReader reader) throws IOException {
+        List<String> entries = new ArrayList<>();
+        ArchiveReader.Entry entry;
+        while ((entry = reader.next()) != null) {
+            entries.add(entry.name() + " " + (entry.regularFile()
+                    ? new String(entry.content().readAllBytes(), StandardCharsets.UTF_8) : "dir"));
+        }
+        return entries;
+    }
+
+    private static byte[] header(String name, long size, char type) {
+        byte[] header = new byte[512];
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        ascii(header, 100, "0000644");
+        ascii(header, 124, String.format("%011o", size));
+        ascii(header, 136, "00000000000");
+        header[156] = (byte) type;
+        ascii(header, 257, "ustar");
+        ascii(header, 263, "00");
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long sum = 0;
+        for (byte b : header) {
+            sum += b & 0xff;
+        }
+        ascii(header, 148, String.format("%06o", sum));
+        header[154] = 0;
+        return header;
+    }
+
+    private static void ascii(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    private static byte[] padded(byte[] content) {
+        return Arrays.copyOf(content, (content.length + 511) / 512 * 512);
+    }
+}
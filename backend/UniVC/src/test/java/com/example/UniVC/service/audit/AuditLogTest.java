@@ -0,0 +1,195 @@
+package com.example.UniVC.service.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogTest {
+
+    private static final String SHA256 = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @TempDir
+    Path directory;
+
+    private AuditLog log;
+
+    @AfterEach
+    void close() throws Exception {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    @Test
+    void recordsFromManyThreadsAreDurableAfterFlush() throws Exception {
+        log = open(DataSize.ofMegabytes(64));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                producers.add(pool.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        log.record(record(thread * 1000 + i, "client-" + thread));
+                    }
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        log.flush();
+        assertEquals(8000, log.durable());
+        assertTrue(log.fsyncs() < 8000, "fsyncs should be grouped");
+
+        List<AuditRecord> read = new ArrayList<>();
+        assertTrue(AuditLogReader.read(directory, read::add).isEmpty());
+        assertEquals(8000, read.size());
+        Set<Long> timestamps = new HashSet<>();
+        for (AuditRecord record : read) {
+            timestamps.add(record.timestamp());
+            assertEquals(SHA256, record.sha256());
+            assertEquals("SD_JWT", record.format());
+            assertEquals(0.95, record.confidence());
+            assertEquals("client-" + record.timestamp() / 1000, record.client());
+        }
+        assertEquals(8000, timestamps.size());
+    }
+
+    @Test
+    void rollsOverToNewSegmentsInOrder() throws Exception {
+        log = open(DataSize.ofKilobytes(4));
+        for (int i = 0; i < 500; i++) {
+            log.record(record(i, null));
+        }
+        log.flush();
+
+        List<Path> segments = AuditLogReader.segments(directory);
+        assertTrue(segments.size() > 1, "expected several segments");
+        for (Path segment : segments) {
+            assertTrue(Files.size(segment) <= 4096, segment + " exceeds the segment size");
+        }
+        List<AuditRecord> read = new ArrayList<>();
+        AuditLogReader.read(directory, read::add);
+        assertEquals(500, read.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, read.get(i).timestamp());
+            assertNull(read.get(i).client());
+        }
+
+        // A restart continues with a new segment rather than appending to the last one
+        log.close();
+        log = open(DataSize.ofKilobytes(4));
+        log.record(record(500, null));
+        log.flush();
+        List<Path> afterRestart = AuditLogReader.segments(directory);
+        assertEquals(segments.size() + 1, afterRestart.size());
+        assertEquals(AuditLogReader.segmentId(segments.get(segments.size() - 1)) + 1,
+                AuditLogReader.segmentId(afterRestart.get(afterRestart.size() - 1)));
+    }
+
+    @Test
+    void stopsAtATornRecord() throws Exception {
+        log = open(DataSize.ofMegabytes(64));
+        for (int i = 0; i < 10; i++) {
+            log.record(record(i, "127.0.0.1"));
+        }
+        log.close();
+        Path segment = AuditLogReader.segments(directory).get(0);
+        long intact = Files.size(segment);
+        // What a crash mid-write leaves: a length prefix with only part of its record
+        Files.write(segment, new byte[]{0, 0, 0, 90, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        List<AuditRecord> read = new ArrayList<>();
+        List<AuditLogReader.Damage> damage = AuditLogReader.read(directory, read::add);
+
+        assertEquals(10, read.size());
+        assertEquals(List.of(new AuditLogReader.Damage(segment, intact)), damage);
+    }
+
+    @Test
+    void keepsEveryRecordThroughAFailedWriteWithAFullBuffer() throws Exception {
+        log = open(DataSize.ofMegabytes(64), 100_000);
+        // Segments are created on the first write, which now fails
+        Files.delete(directory);
+        int accepted = 0;
+        while (accepted < 5000) {
+            log.record(record(accepted++, null));
+        }
+        // Far more than the write buffer holds, so the writer is stuck retrying its drain
+        Thread.sleep(200);
+        assertTrue(log.pending() > 0);
+
+        RejectedExecutionException rejected = null;
+        while (rejected == null) {
+            try {
+                log.record(record(accepted, null));
+                accepted++;
+            } catch (RejectedExecutionException e) {
+                rejected = e;
+            }
+        }
+        assertTrue(rejected.getMessage().startsWith("Audit log cannot write: "), rejected.getMessage());
+        assertThrows(IOException.class, log::flush);
+
+        Files.createDirectories(directory);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (log.durable() < accepted && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        log.flush();
+        assertEquals(accepted, log.durable());
+        List<AuditRecord> read = new ArrayList<>();
+        assertTrue(AuditLogReader.read(directory, read::add).isEmpty());
+        assertEquals(accepted, read.size());
+        for (int i = 0; i < accepted; i++) {
+            assertEquals(i, read.get(i).timestamp());
+        }
+    }
+
+    private AuditLog open(DataSize segmentSize) throws Exception {
+        return open(segmentSize, 1024);
+    }
+
+    private AuditLog open(DataSize segmentSize, int queueCapacity) throws Exception {
+        AuditLog auditLog = new AuditLog();
+        ReflectionTestUtils.setField(auditLog, "enabled", true);
+        ReflectionTestUtils.setField(auditLog, "directoryName", directory.toString());
+        ReflectionTestUtils.setField(auditLog, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(auditLog, "commitInterval", Duration.ofMillis(5));
+        ReflectionTestUtils.setField(auditLog, "commitBatch", 256);
+        ReflectionTestUtils.setField(auditLog, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(auditLog, "offerTimeout", Duration.ofSeconds(5));
+        auditLog.open();
+        return auditLog;
+    }
+
+    private static AuditRecord record(long timestamp, String client) {
+        return new AuditRecord(timestamp, UUID.randomUUID(), SHA256, "SD_JWT", 0.95, client);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.UniVC.service.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BufferPoolTest {
+
+    @Test
+    void reusesArraysWithinASizeClass() {
+        BufferPool pool = new BufferPool(64 * 1024, 2, false);
+        byte[] first;
+        try (PooledBuffer buffer = pool.acquire(3000)) {
+            first = buffer.array();
+            assertEquals(4096, first.length);
+        }
+        try (PooledBuffer buffer = pool.acquire(2049)) {
+            assertSame(first, buffer.array());
+        }
+        try (PooledBuffer buffer = pool.acquire(100_000)) {
+            assertEquals(100_000, buffer.array().length);
+        }
+
+        assertEquals(1, pool.hits());
+        assertEquals(1, pool.misses());
+        assertEquals(1, pool.unpooled());
+        assertEquals(4096 + 100_000, pool.allocatedBytes());
+        assertEquals(4096, pool.retainedBytes());
+        assertEquals(0, pool.outstanding());
+    }
+
+    @Test
+    void growsByTradingUpToLargerClasses() throws IOException {
+        BufferPool pool = new BufferPool(64 * 1024, 2, false);
+        byte[] data = new byte[10_000];
+        Arrays.fill(data, (byte) 7);
+        try (PooledBuffer buffer = pool.acquire(0)) {
+            buffer.append(data, 0, 500);
+            buffer.readFrom(new ByteArrayInputStream(data, 500, data.length - 500));
+            assertEquals(data.length, buffer.length());
+            assertArrayEquals(data, buffer.toByteArray());
+            assertEquals(1, pool.outstanding());
+        }
+        assertEquals(0, pool.outstanding());
+        // 1, 2, 4, 8 and 16 KB are all back in the pool
+        assertEquals(31 * 1024, pool.retainedBytes());
+    }
+
+    @Test
+    void rejectsUseAfterClose() {
+        BufferPool pool = new BufferPool(64 * 1024, 2, false);
+        PooledBuffer buffer = pool.acquire(10);
+        buffer.close();
+        buffer.close();
+        assertThrows(IllegalStateException.class, buffer::array);
+        assertEquals(0, pool.outstanding());
+    }
+
+    @Test
+    void reportsBuffersThatAreNeverClosed() throws InterruptedException {
+        BufferPool pool = new BufferPool(64 * 1024, 2, true);
+        pool.acquire(10).close();
+        pool.acquire(10);
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (pool.leaked() == 0 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(1, pool.leaked());
+        assertEquals(1, pool.outstanding());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.UniVC.service.codec;
+
+import com.example.UniVC.service.buffer.BufferPool;
+import com.example.UniVC.service.buffer.PooledBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Base64CodecTest {
+
+    private static final String NOISE = "=+/-_ .{\"\né";
+
+    @Test
+    void matchesJdkDecodersOnValidAndCorruptedInput() {
+        Random random = new Random(42);
+        // Long enough to cover several vector blocks plus every tail length
+        for (int length = 0; length < 700; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            for (Base64Codec.Alphabet alphabet : Base64Codec.Alphabet.values()) {
+                Base64.Encoder encoder = alphabet == Base64Codec.Alphabet.STANDARD
+                        ? Base64.getEncoder() : Base64.getUrlEncoder();
+                String padded = encoder.encodeToString(data);
+                String unpadded = encoder.withoutPadding().encodeToString(data);
+                assertDecodes(data, padded, alphabet);
+                assertDecodes(data, unpadded, alphabet);
+
+                if (!padded.isEmpty()) {
+                    char[] corrupted = padded.toCharArray();
+                    corrupted[random.nextInt(corrupted.length)] = NOISE.charAt(random.nextInt(NOISE.length()));
+                    assertSameAsJdk(new String(corrupted), alphabet);
+                    assertSameAsJdk(padded.substring(0, padded.length() - 1), alphabet);
+                    assertSameAsJdk(unpadded + "=", alphabet);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodesIntoCallerBufferAtOffset() {
+        byte[] src = "xxQUJDREVG".getBytes(StandardCharsets.US_ASCII);
+        byte[] dst = new byte[10];
+        int written = Base64Codec.decode(src, 2, 8, dst, 4, Base64Codec.Alphabet.STANDARD);
+        assertEquals(6, written);
+        assertEquals("ABCDEF", new String(dst, 4, 6, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void leavesBytesAfterTheOutputAlone() {
+        Random random = new Random(7);
+        for (int length = 1; length < 300; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            byte[] src = (" " + Base64.getEncoder().withoutPadding().encodeToString(data)).getBytes(StandardCharsets.US_ASCII);
+            byte[] dst = new byte[2 + length + 64];
+            Arrays.fill(dst, (byte) 0x5a);
+            assertEquals(length, Base64Codec.decode(src, 1, src.length - 1, dst, 2, Base64Codec.Alphabet.STANDARD));
+            assertArrayEquals(data, Arrays.copyOfRange(dst, 2, 2 + length));
+            for (int i = 2 + length; i < dst.length; i++) {
+                assertEquals((byte) 0x5a, dst[i], "byte " + i + " after decoding " + length + " bytes");
+            }
+            assertEquals((byte) 0x5a, dst[0]);
+            assertEquals((byte) 0x5a, dst[1]);
+        }
+    }
+
+    @Test
+    void decodesARangeIntoAPooledBuffer() {
+        byte[] src = "  QUJDREVG\n".getBytes(StandardCharsets.US_ASCII);
+        try (PooledBuffer decoded = Base64Codec.decodeEither(src, 2, 8, BufferPool.shared())) {
+            assertEquals("ABCDEF", new String(decoded.array(), 0, decoded.length(), StandardCharsets.US_ASCII));
+        }
+        assertNull(Base64Codec.decodeEither(src, 0, src.length, BufferPool.shared()));
+    }
+
+    @Test
+    void rejectsTextWithoutCopyingIt() {
+        assertNull(Base64Codec.decode("{\"type\":\"VerifiableCredential\"}", Base64Codec.Alphabet.STANDARD));
+        assertNull(Base64Codec.decodeEither("eyJhbGciOi.J9"));
+        assertArrayEquals(new byte[]{(byte) 0xfb, (byte) 0xff}, Base64Codec.decodeEither("-_8"));
+    }
+
+    @Test
+    void reportsWhyTextIsNotBase64() {
+        assertEquals("Last unit does not have enough valid bits", Base64Codec.error("abcde", Base64Codec.Alphabet.URL_SAFE));
+        assertEquals("Illegal base64 character 2e", Base64Codec.error("ab.d", Base64Codec.Alphabet.URL_SAFE));
+        assertNull(Base64Codec.error("abcd", Base64Codec.Alphabet.URL_SAFE));
+    }
+
+    private static void assertDecodes(byte[] expected, String encoded, Base64Codec.Alphabet alphabet) {
+        assertArrayEquals(expected, Base64Codec.decode(encoded, alphabet), encoded);
+        byte[] src = encoded.getBytes(StandardCharsets.US_ASCII);
+        assertTrue(Base64Codec.isValid(src, 0, src.length, alphabet), encoded);
+
+        // At an offset the array is decoded in place rather than handed to the JDK
+        byte[] shifted = new byte[src.length + 1];
+        System.arraycopy(src, 0, shifted, 1, src.length);
+        byte[] dst = new byte[expected.length + 1];
+        assertEquals(expected.length, Base64Codec.decode(shifted, 1, src.length, dst, 1, alphabet), encoded);
+        assertArrayEquals(expected, Arrays.copyOfRange(dst, 1, dst.length), encoded);
+    }
+
+    private static void assertSameAsJdk(String encoded, Base64Codec.Alphabet alphabet) {
+        Base64.Decoder decoder = alphabet == Base64Codec.Alphabet.STANDARD ? Base64.getDecoder() : Base64.getUrlDecoder();
+        byte[] expected;
+        String error = null;
+        try {
+            expected = decoder.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            expected = null;
+            error = e.getMessage();
+        }
+        assertArrayEquals(expected, Base64Codec.decode(encoded, alphabet), encoded);
+        assertEquals(error, Base64Codec.error(encoded, alphabet), encoded);
+        if (expected == null) {
+            byte[] src = encoded.getBytes(StandardCharsets.ISO_8859_1);
+            assertFalse(Base64Codec.isValid(src, 0, src.length, alphabet), encoded);
+            byte[] shifted = new byte[src.length + 1];
+            System.arraycopy(src, 0, shifted, 1, src.length);
+            assertEquals(-1, Base64Codec.decode(shifted, 1, src.length, new byte[src.length], 0, alphabet), encoded);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.UniVC.service.container;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContainerUnpackerTest {
+
+    private static final String JWT = "eyJhbGciOiJFUzI1NiJ9.eyJpc3MiOiJodHRwczovL2lzc3Vlci5leGFtcGxlIn0.c2ln";
+
+    @Test
+    void unpacksPresentationEntries() {
+        String vp = """
+                {"@context": ["https://www.w3.org/ns/credentials/v2"],
+                 "type": "VerifiablePresentation",
+                 "verifiableCredential": [
+                   {"type": ["VerifiableCredential"], "credentialSubject": {"id": "did:example:1"}},
+                   "%s",
+                   {"type": "EnvelopedVerifiableCredential", "id": "data:application/vc+jwt,%s"},
+                   42
+                 ]}
+                """.formatted(JWT, JWT);
+
+        List<EmbeddedItem> items = ContainerUnpacker.unpack(vp);
+
+        assertEquals(3, items.size());
+        assertEquals("/verifiableCredential/0", items.get(0).getPath());
+        assertTrue(items.get(0).getContent().contains("did:example:1"));
+        assertEquals(JWT, items.get(1).getContent());
+
+        // The envelope is its own item; unpacking it yields the enveloped JWT
+        List<EmbeddedItem> enveloped = ContainerUnpacker.unpack(items.get(2).getContent());
+        assertEquals(1, enveloped.size());
+        assertEquals("/id", enveloped.get(0).getPath());
+        assertEquals("EnvelopedVerifiableCredential", enveloped.get(0).getContainerType());
+        assertEquals("application/vc+jwt", enveloped.get(0).getMediaType());
+        assertEquals(JWT, enveloped.get(0).getContent());
+    }
+
+    @Test
+    void unpacksJwtPresentation() {
+        String payload = "{\"iss\":\"did:example:holder\",\"vp\":{\"verifiableCredential\":[\"" + JWT + "\"]}}";
+        String vpJwt = "eyJhbGciOiJFUzI1NiJ9."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + ".c2ln";
+
+        List<EmbeddedItem> items = ContainerUnpacker.unpack(vpJwt);
+
+        assertEquals(1, items.size());
+        assertEquals("/vp/verifiableCredential/0", items.get(0).getPath());
+        assertEquals(JWT, items.get(0).getContent());
+    }
+
+    @Test
+    void unpacksDeviceResponseDocuments() throws Exception {
+        byte[] cbor = new CBORMapper().writeValueAsBytes(Map.of(
+                "version", "1.0",
+                "documents", List.of(
+                        Map.of("docType", "org.iso.18013.5.1.mDL"),
+                        Map.of("docType", "eu.europa.ec.eudi.pid.1")),
+                "status", 0));
+
+        List<EmbeddedItem> items = ContainerUnpacker.unpack(Base64.getEncoder().encodeToString(cbor), cbor);
+
+        assertEquals(2, items.size());
+        assertEquals("/documents/1", items.get(1).getPath());
+        assertEquals("eu.europa.ec.eudi.pid.1", items.get(1).getDocument().get("docType").asText());
+    }
+
+    @Test
+    void decodesDataUrls() {
+        EmbeddedItem percent = ContainerUnpacker.fromDataUrl("/id", "EnvelopedVerifiableCredential",
+                "data:application/vc+ld+json,%7B%22name%22%3A%22a+b%20%C3%A9%22%7D");
+        assertEquals("{\"name\":\"a+b é\"}", percent.getContent());
+
+        EmbeddedItem base64 = ContainerUnpacker.fromDataUrl("/id", "EnvelopedVerifiableCredential",
+                "data:application/vc+ld+json;charset=utf-8;base64,e30=");
+        assertEquals("application/vc+ld+json", base64.getMediaType());
+        assertEquals("{}", base64.getContent());
+
+        assertNull(ContainerUnpacker.fromDataUrl("/id", "EnvelopedVerifiableCredential", "urn:uuid:1234"));
+    }
+}
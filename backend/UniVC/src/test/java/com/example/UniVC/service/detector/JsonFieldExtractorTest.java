@@ -0,0 +1,114 @@
+package com.example.UniVC.service.detector;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonFieldExtractorTest {
+
+    private static final JsonFieldExtractor EXTRACTOR = JsonFieldExtractor.builder()
+            .tree("/@context")
+            .presence("/credentialSubject")
+            .scalar("/credentialSubject/id")
+            .scalar("/issuer")
+            .scalar("/issuer/id")
+            .presence("/proof")
+            .scalar("/a~1b")
+            .build();
+
+    @Test
+    void extractsDeclaredPointersOnly() throws IOException {
+        JsonFieldExtractor.Fields fields = EXTRACTOR.scan("""
+                {"@context": ["https://www.w3.org/ns/credentials/v2", {"ex": "https://example.org"}],
+                 "credentialSubject": {"portrait": "data:image/png;base64,AAAA", "id": "did:example:holder",
+                                       "nested": {"id": "not this one"}},
+                 "issuer": {"id": "did:example:issuer", "name": "Example University"},
+                 "a/b": 42}
+                """);
+
+        assertEquals("[\"https://www.w3.org/ns/credentials/v2\",{\"ex\":\"https://example.org\"}]",
+                fields.value("/@context").toString());
+        assertEquals("did:example:holder", fields.text("/credentialSubject/id"));
+        assertEquals(JsonToken.START_OBJECT, fields.token("/issuer"));
+        assertEquals("", fields.text("/issuer"));
+        assertNull(fields.value("/issuer"));
+        assertEquals("did:example:issuer", fields.text("/issuer/id"));
+        assertEquals(42, fields.value("/a~1b").asInt());
+
+        assertFalse(fields.has("/proof"));
+        assertNull(fields.text("/proof"));
+        assertTrue(fields.hasAll(EXTRACTOR.mask("/@context", "/credentialSubject", "/issuer/id")));
+        assertFalse(fields.hasAll(EXTRACTOR.mask("/@context", "/proof")));
+    }
+
+    @Test
+    void doesNotDescendIntoArraysOrScalars() throws IOException {
+        JsonFieldExtractor.Fields fields = EXTRACTOR.scan(
+                "{\"credentialSubject\": [{\"id\": \"x\"}], \"issuer\": \"did:example:issuer\"}");
+
+        assertTrue(fields.has("/credentialSubject"));
+        assertFalse(fields.has("/credentialSubject/id"));
+        assertEquals("did:example:issuer", fields.text("/issuer"));
+        assertFalse(fields.has("/issuer/id"));
+
+        assertEquals(0, EXTRACTOR.scan("[{\"@context\": 1}]").presence());
+        assertEquals(0, EXTRACTOR.scan("").presence());
+    }
+
+    @Test
+    void takesTheLastOccurrenceOfADuplicateMember() throws IOException {
+        String json = """
+                {"issuer": "did:example:first", "issuer": {"name": "Example University"},
+                 "credentialSubject": {"id": "did:example:holder"}, "credentialSubject": "replaced",
+                 "@context": ["first"], "@context": ["second"], "a/b": {"x": 1}, "a/b": 2}
+                """;
+        JsonNode tree = new ObjectMapper().readTree(json);
+        List<JsonFieldExtractor.Fields> scans = new ArrayList<>(List.of(EXTRACTOR.scan(json)));
+        if (StructuralIndex.available()) {
+            scans.add(EXTRACTOR.scanIndexed(json));
+        }
+
+        for (JsonFieldExtractor.Fields fields : scans) {
+            assertEquals(JsonToken.START_OBJECT, fields.token("/issuer"));
+            assertNull(fields.value("/issuer"));
+            assertFalse(fields.has("/issuer/id"));
+            assertEquals(JsonToken.VALUE_STRING, fields.token("/credentialSubject"));
+            assertFalse(fields.has("/credentialSubject/id"));
+            assertNull(fields.token("/credentialSubject/id"));
+            assertEquals(tree.get("@context"), fields.value("/@context"));
+            assertEquals(tree.get("a/b"), fields.value("/a~1b"));
+        }
+
+        JsonFieldExtractor.Fields reversed = EXTRACTOR.scan(
+                "{\"issuer\": {\"id\": \"did:example:nested\"}, \"issuer\": \"did:example:last\"}");
+        assertEquals("did:example:last", reversed.text("/issuer"));
+        assertFalse(reversed.has("/issuer/id"));
+        assertNull(reversed.value("/issuer/id"));
+    }
+
+    @Test
+    void rejectsMalformedJsonInSkippedValues() {
+        assertThrows(JsonParseException.class,
+                () -> EXTRACTOR.scan("{\"@context\": [], \"ignored\": {\"a\": [1, 2}}"));
+    }
+
+    @Test
+    void rejectsUndeclaredPointers() throws IOException {
+        JsonFieldExtractor.Fields fields = EXTRACTOR.scan("{}");
+        assertThrows(IllegalArgumentException.class, () -> fields.has("/type"));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonFieldExtractor.builder().tree("/proof").scalar("/proof/type"));
+    }
+}
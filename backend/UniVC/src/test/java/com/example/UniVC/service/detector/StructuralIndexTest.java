@@ -0,0 +1,208 @@
+package com.example.UniVC.service.detector;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Conformance of the index with Jackson: whenever {@link JsonFieldExtractor#scanIndexed}
+ * accepts a document the streaming parser must accept it too and extract the same fields,
+ * and whenever {@link StructuralIndex#wellFormed} vouches for one {@code readTree} must
+ * succeed.
+ */
+class StructuralIndexTest {
+
+    private static final List<String> POINTERS = List.of("/@context", "/type", "/credentialSubject",
+            "/credentialSubject/id", "/issuer", "/issuer/id", "/docType", "/driving_privileges", "/n", "/a~1b");
+    private static final JsonFieldExtractor EXTRACTOR = JsonFieldExtractor.builder()
+            .tree("/@context")
+            .tree("/type")
+            .presence("/credentialSubject")
+            .scalar("/credentialSubject/id")
+            .scalar("/issuer")
+            .scalar("/issuer/id")
+            .presence("/docType")
+            .presence("/driving_privileges")
+            .scalar("/n")
+            .scalar("/a~1b")
+            .build();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = MAPPER.getFactory();
+
+    private static final String[] KEYS = {"@context", "type", "credentialSubject", "id", "issuer", "docType",
+            "driving_privileges", "n", "a/b", "portrait", "ключ", "\uD83D\uDD11"};
+    private static final String[] NUMBERS = {"0", "-0", "7", "-12", "3.25", "-0.5", "1e9", "2.5E-3", "6E+2",
+            "123456789012345678901234567890", "1.7976931348623157e309"};
+    private static final String[] STRING_PARTS = {"a", "xyz", "é", "\uD83D\uDE00", "\\\"", "\\\\", "\\/", "\\n",
+            "\\t", "\\u00e9", "\\uD83D\\uDE00", " ", "{", "}", "[", "]", ":", ",", "did:example:123"};
+    // Single characters that break JSON in interesting ways when inserted or substituted
+    private static final String NOISE = "{}[]:,\"\\ \t\n\r0-.eE+tfnu\u0001é";
+
+    @BeforeAll
+    static void requireVectorApi() {
+        assumeTrue(StructuralIndex.available(), "needs --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void acceptsCorpusCredentialsWithSameFields() throws IOException, URISyntaxException {
+        Path corpus = Path.of(getClass().getClassLoader().getResource("loadtest/corpus").toURI());
+        try (Stream<Path> files = Files.list(corpus)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".json")).toList()) {
+                assertTrue(conforms(Files.readString(file)), file + " should be indexable");
+            }
+        }
+    }
+
+    @Test
+    void matchesJacksonOnGeneratedAndCorruptedDocuments() {
+        Random random = new Random(7);
+        int acceptedCorrupted = 0;
+        for (int doc = 0; doc < 400; doc++) {
+            String json = object(random, 0);
+            assertTrue(conforms(json), json);
+            assertTrue(wellFormed(json), json);
+            assertTrue(wellFormed("[" + json + ", " + value(random, 1) + "]"), json);
+
+            for (int mutation = 0; mutation < 20; mutation++) {
+                StringBuilder corrupted = new StringBuilder(json);
+                int at = random.nextInt(json.length());
+                char noise = NOISE.charAt(random.nextInt(NOISE.length()));
+                switch (random.nextInt(3)) {
+                    case 0 -> corrupted.deleteCharAt(at);
+                    case 1 -> corrupted.insert(at, noise);
+                    default -> corrupted.setCharAt(at, noise);
+                }
+                if (conforms(corrupted.toString())) {
+                    acceptedCorrupted++;
+                }
+                wellFormed(corrupted.toString());
+            }
+        }
+        // Many corruptions stay valid JSON (inside strings, whitespace); those must be indexed too
+        assertTrue(acceptedCorrupted > 1000, "only " + acceptedCorrupted + " corrupted documents indexed");
+    }
+
+    @Test
+    void resolvesEscapesAcrossBlockBoundaries() {
+        for (int pad = 0; pad < 140; pad++) {
+            for (int backslashes = 0; backslashes < 6; backslashes++) {
+                String json = "{\"" + "p".repeat(pad) + "\": \"" + "\\\\".repeat(backslashes) + "\\\"}\", "
+                        + "\"type\": [\"VerifiableCredential\"], \"n\": " + pad + "}";
+                assertTrue(conforms(json), json);
+            }
+        }
+    }
+
+    @Test
+    void leavesEdgeCasesToJackson() throws IOException {
+        // Escaped names, non-object roots and excessive nesting are not indexed...
+        assertNull(EXTRACTOR.scanIndexed("{\"\\u0040context\": [\"x\"]}"));
+        assertNull(EXTRACTOR.scanIndexed("[{\"@context\": 1}]"));
+        assertNull(EXTRACTOR.scanIndexed("{\"a\": " + "[".repeat(2000) + "]".repeat(2000) + "}"));
+        assertNull(EXTRACTOR.scanIndexed("{\"a\": \"tab\tinside\"}"));
+        assertNull(EXTRACTOR.scanIndexed("{\"a\": 01}"));
+        assertFalse(wellFormed("[1, 2,]"));
+
+        // ...but scan() still answers for them through the parser
+        assertTrue(EXTRACTOR.scan("{\"\\u0040context\": [\"x\"]}").has("/@context"));
+
+        // Like the parser, anything after the root object is never looked at
+        JsonFieldExtractor.Fields fields = EXTRACTOR.scanIndexed("{\"n\": 1} trailing \"garbage");
+        assertNotNull(fields);
+        assertEquals(1, fields.value("/n").asInt());
+        assertFalse(fields.has("/type"));
+    }
+
+    /**
+     * True if the index accepted the document, after checking it agrees with the parser.
+     */
+    private static boolean conforms(String json) {
+        JsonFieldExtractor.Fields expected;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            expected = EXTRACTOR.scan(parser);
+        } catch (IOException e) {
+            expected = null;
+        }
+        JsonFieldExtractor.Fields indexed = EXTRACTOR.scanIndexed(json);
+        if (indexed == null) {
+            return false;
+        }
+
+        assertNotNull(expected, () -> "Indexed a document Jackson rejects: " + json);
+        assertEquals(expected.presence(), indexed.presence(), json);
+        for (String pointer : POINTERS) {
+            assertEquals(expected.token(pointer), indexed.token(pointer), () -> pointer + " in " + json);
+            assertEquals(expected.value(pointer), indexed.value(pointer), () -> pointer + " in " + json);
+        }
+        return true;
+    }
+
+    /**
+     * True if the index vouched for the document, after checking {@code readTree} agrees.
+     */
+    private static boolean wellFormed(String json) {
+        if (!StructuralIndex.wellFormed(json, FACTORY.streamReadConstraints())) {
+            return false;
+        }
+        assertDoesNotThrow(() -> MAPPER.readTree(json), json);
+        return true;
+    }
+
+    private static String object(Random random, int depth) {
+        StringBuilder json = new StringBuilder("{");
+        int members = random.nextInt(depth == 0 ? 8 : 5);
+        for (int i = 0; i < members; i++) {
+            json.append(i > 0 ? "," : "").append(space(random))
+                    .append('"').append(KEYS[random.nextInt(KEYS.length)]).append('"')
+                    .append(space(random)).append(':').append(space(random))
+                    .append(value(random, depth + 1)).append(space(random));
+        }
+        return json.append('}').toString();
+    }
+
+    private static String value(Random random, int depth) {
+        switch (random.nextInt(depth > 4 ? 4 : 6)) {
+            case 0:
+                return NUMBERS[random.nextInt(NUMBERS.length)];
+            case 1:
+                return List.of("true", "false", "null").get(random.nextInt(3));
+            case 2, 3:
+                StringBuilder string = new StringBuilder("\"");
+                // Long enough now and then to span several 64-char blocks
+                for (int i = random.nextInt(random.nextInt(8) == 0 ? 200 : 8); i > 0; i--) {
+                    string.append(STRING_PARTS[random.nextInt(STRING_PARTS.length)]);
+                }
+                return string.append('"').toString();
+            case 4:
+                return object(random, depth);
+            default:
+                StringBuilder array = new StringBuilder("[");
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    array.append(space(random)).append(value(random, depth + 1)).append(i > 1 ? "," : "");
+                }
+                return array.append(space(random)).append(']').toString();
+        }
+    }
+
+    private static String space(Random random) {
+        return List.of("", "", " ", "\n  ", "\t", "\r\n").get(random.nextInt(6));
+    }
+}
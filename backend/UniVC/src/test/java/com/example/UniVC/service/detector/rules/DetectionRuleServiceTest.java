@@ -0,0 +1,72 @@
+package com.example.UniVC.service.detector.rules;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DetectionRuleServiceTest {
+
+    private static final String RULES = """
+            {"formats": [{"format": "%s", "source": "json", "rules": [{"when": [{"present": "/a"}], "weight": 1}]}]}""";
+
+    @TempDir
+    Path directory;
+
+    private DetectionRuleService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    @Test
+    void reloadsModifiedRulesAndKeepsThePlanOnBadEdits() throws Exception {
+        Path file = directory.resolve("rules.json");
+        write(file, RULES.formatted("First"), 0);
+        service = new DetectionRuleService(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(service, "location", file.toUri().toString());
+        ReflectionTestUtils.setField(service, "reloadInterval", Duration.ofMillis(20));
+        service.open();
+        assertEquals(List.of("First"), service.plan().formats());
+
+        write(file, RULES.formatted("Second"), 1);
+        awaitFormats(List.of("Second"));
+
+        // Invalid rules are logged and ignored, and so is a second look at the same file
+        write(file, RULES.formatted("Broken").replace("\"json\"", "\"yaml\""), 2);
+        Thread.sleep(200);
+        assertEquals(List.of("Second"), service.plan().formats());
+        assertThrows(IllegalArgumentException.class, service::reload);
+
+        write(file, RULES.formatted("Third"), 3);
+        awaitFormats(List.of("Third"));
+    }
+
+    // Explicit times, as edits within the file system's timestamp granularity look unmodified
+    private static void write(Path file, String rules, int minutes) throws Exception {
+        Files.writeString(file, rules);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(60L * minutes)));
+    }
+
+    private void awaitFormats(List<String> expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!expected.equals(service.plan().formats()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, service.plan().formats());
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.UniVC.service.mdoc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MsoDigestVerifierTest {
+
+    private static final CBORFactory CBOR = new CBORFactory();
+    private static final String MDL = "org.iso.18013.5.1";
+    private static final String AAMVA = "org.iso.18013.5.1.aamva";
+
+    private final MsoDigestVerifier verifier = new MsoDigestVerifier();
+
+    @AfterEach
+    void stop() {
+        verifier.stop();
+    }
+
+    @Test
+    void reportsEachElementAgainstTheMso() throws Exception {
+        JsonNode response = new CBORMapper().readTree(deviceResponse(3, 300));
+        start(1_000);
+
+        List<MsoDigestReport> reports = verifier.verify(response);
+
+        assertEquals(1, reports.size());
+        MsoDigestReport report = reports.get(0);
+        assertEquals("org.iso.18013.5.1.mDL", report.docType());
+        assertEquals("SHA-256", report.digestAlgorithm());
+        assertFalse(report.verified());
+        assertEquals(303, report.total());
+        assertEquals(301, report.valid());
+        MsoDigestReport.Element tampered = report.elements().get(1);
+        assertEquals(MDL, tampered.namespace());
+        assertEquals("element_1", tampered.elementIdentifier());
+        assertEquals(MsoDigestReport.Status.INVALID, tampered.status());
+        MsoDigestReport.Element unsigned = report.elements().get(302);
+        assertEquals(AAMVA, unsigned.namespace());
+        assertEquals(MsoDigestReport.Status.MISSING, unsigned.status());
+    }
+
+    @Test
+    void parallelHashingMatchesSequential() throws Exception {
+        JsonNode response = new CBORMapper().readTree(deviceResponse(40, 300));
+        start(1_000);
+        MsoDigestReport sequential = verifier.verify(response).get(0);
+        verifier.stop();
+
+        start(1);
+        MsoDigestReport parallel = verifier.verify(response).get(0);
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void reportsADocumentWithoutAnMso() throws Exception {
+        start(1_000);
+        JsonNode document = new CBORMapper().readTree(new CBORMapper().writeValueAsBytes(Map.of(
+                "docType", "org.iso.18013.5.1.mDL",
+                "issuerSigned", Map.of("nameSpaces", Map.of()))));
+
+        MsoDigestReport report = verifier.verify(document).get(0);
+
+        assertFalse(report.verified());
+        assertNotNull(report.error());
+        assertTrue(verifier.verify(new CBORMapper().readTree(new CBORMapper().writeValueAsBytes(Map.of("a", 1))))
+                .isEmpty());
+    }
+
+    @Test
+    void tag24HeaderUsesTheShortestLength() {
+        assertEquals(3, MsoDigestVerifier.tag24Header(23).length);
+        assertEquals(4, MsoDigestVerifier.tag24Header(24).length);
+        assertEquals(5, MsoDigestVerifier.tag24Header(256).length);
+        assertEquals(7, MsoDigestVerifier.tag24Header(65_536).length);
+    }
+
+    private void start(int parallelMinElements) {
+        ReflectionTestUtils.setField(verifier, "threads", 4);
+        ReflectionTestUtils.setField(verifier, "parallelMinElements", parallelMinElements);
+        verifier.start();
+    }
+
+    /**
+     * A DeviceResponse with {@code aamvaItems} + {@code mdlItems} elements. Element 1 of the
+     * mDL namespace is altered after signing, and the last AAMVA element is left out of the MSO.
+     */
+    private static byte[] deviceResponse(int aamvaItems, int mdlItems) throws IOException {
+        Map<String, List<byte[]>> namespaces = new LinkedHashMap<>();
+        namespaces.put(MDL, items(mdlItems, 0));
+        namespaces.put(AAMVA, items(aamvaItems, mdlItems));
+
+        MessageDigest sha256 = sha256();
+        ByteArrayOutputStream mso = new ByteArrayOutputStream();
+        try (CBORGenerator gen = CBOR.createGenerator(mso)) {
+            gen.writeStartObject();
+            gen.writeStringField("version", "1.0");
+            gen.writeStringField("digestAlgorithm", "SHA-256");
+            gen.writeStringField("docType", "org.iso.18013.5.1.mDL");
+            gen.writeObjectFieldStart("valueDigests");
+            for (Map.Entry<String, List<byte[]>> namespace : namespaces.entrySet()) {
+                gen.writeObjectFieldStart(namespace.getKey());
+                List<byte[]> items = namespace.getValue();
+                int signed = namespace.getKey().equals(AAMVA) ? items.size() - 1 : items.size();
+                for (int i = 0; i < signed; i++) {
+                    gen.writeFieldId(digestId(namespace.getKey(), i, mdlItems));
+                    gen.writeBinary(sha256.digest(tag24(items.get(i))));
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+        namespaces.get(MDL).set(1, item(1, "element_1", "tampered"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CBORGenerator gen = CBOR.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringField("version", "1.0");
+            gen.writeArrayFieldStart("documents");
+            gen.writeStartObject();
+            gen.writeStringField("docType", "org.iso.18013.5.1.mDL");
+            gen.writeObjectFieldStart("issuerSigned");
+            gen.writeObjectFieldStart("nameSpaces");
+            for (Map.Entry<String, List<byte[]>> namespace : namespaces.entrySet()) {
+                gen.writeArrayFieldStart(namespace.getKey());
+                for (byte[] item : namespace.getValue()) {
+                    gen.writeTag(24);
+                    gen.writeBinary(item);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+            gen.writeArrayFieldStart("issuerAuth");
+            gen.writeBinary(new byte[]{(byte) 0xa1, 0x01, 0x26});
+            gen.writeStartObject();
+            gen.writeEndObject();
+            gen.writeBinary(tag24(mso.toByteArray()));
+            gen.writeBinary(new byte[64]);
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndObject();
+            gen.writeEndArray();
+            gen.writeNumberField("status", 0);
+            gen.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static int digestId(String namespace, int index, int mdlItems) {
+        return namespace.equals(MDL) ? index : mdlItems + index;
+    }
+
+    private static List<byte[]> items(int count, int firstDigestId) throws IOException {
+        List<byte[]> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(item(firstDigestId + i, "element_" + (firstDigestId + i), "value " + i));
+        }
+        return items;
+    }
+
+    private static byte[] item(int digestId, String identifier, String value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CBORGenerator gen = CBOR.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeNumberField("digestID", digestId);
+            gen.writeBinaryField("random", new byte[16]);
+            gen.writeStringField("elementIdentifier", identifier);
+            gen.writeStringField("elementValue", value);
+            gen.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] tag24(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CBORGenerator gen = CBOR.createGenerator(out)) {
+            gen.writeTag(24);
+            gen.writeBinary(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.UniVC.service.pki;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IssuerSignatureTest {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final KeyPair issuer = ecKeyPair();
+    private final KeyPair forger = ecKeyPair();
+
+    @Test
+    void verifiesTheIssuerJwtOfAJwsOrSdJwt() throws Exception {
+        String jws = jws("{\"alg\":\"ES256\",\"x5c\":[]}", "{\"iss\":\"https://issuer.example\"}", issuer.getPrivate());
+
+        assertNull(IssuerSignature.verifyJws(jws, issuer.getPublic()));
+        assertNull(IssuerSignature.verifyJws(" " + jws + "~WyJzYWx0IiwibmFtZSIsIkFsaWNlIl0~\n", issuer.getPublic()));
+        // The same header, x5c included, on a payload the issuer never signed
+        String forged = jws("{\"alg\":\"ES256\",\"x5c\":[]}", "{\"iss\":\"https://issuer.example\"}", forger.getPrivate());
+        assertEquals("Issuer signature does not verify with the end-entity key",
+                IssuerSignature.verifyJws(forged, issuer.getPublic()));
+        assertEquals("Unsupported JWS algorithm none",
+                IssuerSignature.verifyJws(jws("{\"alg\":\"none\"}", "{}", null), issuer.getPublic()));
+    }
+
+    @Test
+    void verifiesACoseSign1OverItsSigStructure() throws Exception {
+        byte[] protectedHeader = cbor(generator -> {
+            generator.writeStartObject();
+            generator.writeFieldId(1);
+            generator.writeNumber(-7);
+            generator.writeEndObject();
+        });
+        byte[] payload = "mso".getBytes(StandardCharsets.US_ASCII);
+        byte[] toBeSigned = cbor(generator -> {
+            generator.writeStartArray(null, 4);
+            generator.writeString("Signature1");
+            generator.writeBinary(protectedHeader);
+            generator.writeBinary(new byte[0]);
+            generator.writeBinary(payload);
+            generator.writeEndArray();
+        });
+
+        assertNull(IssuerSignature.verifyCoseSign1(coseSign1(protectedHeader, payload,
+                sign(toBeSigned, issuer.getPrivate())), issuer.getPublic()));
+        assertNotNull(IssuerSignature.verifyCoseSign1(coseSign1(protectedHeader, "other".getBytes(StandardCharsets.US_ASCII),
+                sign(toBeSigned, issuer.getPrivate())), issuer.getPublic()));
+        assertNotNull(IssuerSignature.verifyCoseSign1(coseSign1(protectedHeader, payload,
+                sign(toBeSigned, forger.getPrivate())), issuer.getPublic()));
+    }
+
+    private static String jws(String header, String payload, PrivateKey key) throws Exception {
+        String signingInput = BASE64URL.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + BASE64URL.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        byte[] signature = key != null ? sign(signingInput.getBytes(StandardCharsets.US_ASCII), key) : new byte[0];
+        return signingInput + "." + BASE64URL.encodeToString(signature);
+    }
+
+    private static byte[] sign(byte[] data, PrivateKey key) throws Exception {
+        Signature signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signature.initSign(key);
+        signature.update(data);
+        return signature.sign();
+    }
+
+    private static JsonNode coseSign1(byte[] protectedHeader, byte[] payload, byte[] signature) throws Exception {
+        return new CBORMapper().readTree(cbor(generator -> {
+            generator.writeStartArray(null, 4);
+            generator.writeBinary(protectedHeader);
+            generator.writeStartObject();
+            generator.writeEndObject();
+            generator.writeBinary(payload);
+            generator.writeBinary(signature);
+            generator.writeEndArray();
+        }));
+    }
+
+    private static byte[] cbor(CborWriter writer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CBORGenerator generator = new CBORFactory().createGenerator(out)) {
+            writer.write(generator);
+        }
+        return out.toByteArray();
+    }
+
+    private static KeyPair ecKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface CborWriter {
+        void write(CBORGenerator generator) throws Exception;
+    }
+}
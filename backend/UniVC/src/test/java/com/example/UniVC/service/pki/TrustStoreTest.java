@@ -0,0 +1,209 @@
+package com.example.UniVC.service.pki;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.CRL;
+import java.security.cert.CertificateFactory;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrustStoreTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2030-01-01T00:00:00Z"));
+
+    @Test
+    void validatesAPathToTheAnchorWithRevocation() throws Exception {
+        TrustStore store = store();
+
+        ChainValidation chain = store.validate(List.of(der("leaf.pem"), der("intermediate.pem")));
+
+        assertTrue(chain.valid(), chain.error());
+        assertEquals("CN=UniVC Test Document Signer", chain.subject());
+        assertEquals("CN=UniVC Test IACA", chain.trustAnchor());
+        assertTrue(chain.revocationChecked());
+        assertNull(chain.error());
+    }
+
+    @Test
+    void rejectsRevokedAndUntrustedChains() throws Exception {
+        TrustStore store = store();
+
+        ChainValidation revoked = store.validate(List.of(der("revoked.pem"), der("intermediate.pem")));
+        ChainValidation stranger = store.validate(List.of(der("stranger.pem"), der("other-root.pem")));
+        ChainValidation incomplete = store.validate(List.of(der("leaf.pem")));
+
+        assertFalse(revoked.valid());
+        assertTrue(revoked.error().contains("revoked"), revoked.error());
+        assertFalse(stranger.valid());
+        assertNull(stranger.trustAnchor());
+        assertFalse(incomplete.valid());
+    }
+
+    @Test
+    void buildsEachPathOnceUntilTheCacheEntryExpires() throws Exception {
+        TrustStore store = store();
+        List<byte[]> chain = List.of(der("leaf.pem"), der("intermediate.pem"));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<ChainValidation>> batch = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                batch.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return store.validate(chain);
+                }, pool));
+            }
+            start.countDown();
+            for (CompletableFuture<ChainValidation> result : batch) {
+                assertTrue(result.join().valid());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, store.pathBuilds());
+        assertEquals(1, store.cachedChains());
+
+        clock.advance(Duration.ofHours(1));
+        assertTrue(store.validate(chain).valid());
+        assertEquals(2, store.pathBuilds());
+    }
+
+    @Test
+    void cachesChainsThatStayInvalidForTheMaximumAge() throws Exception {
+        TrustStore store = store();
+        List<byte[]> chain = List.of(der("leaf.pem"), der("intermediate.pem"));
+        // After the leaf and intermediate expire
+        clock.advance(Duration.ofDays(365 * 96));
+
+        assertFalse(store.validate(chain).valid());
+        assertFalse(store.validate(chain).valid());
+        assertFalse(store.validate(List.of(new byte[]{1, 2, 3})).valid());
+        assertFalse(store.validate(List.of(new byte[]{1, 2, 3})).valid());
+        assertEquals(2, store.pathBuilds());
+
+        clock.advance(Duration.ofMinutes(31));
+        store.validate(chain);
+        assertEquals(3, store.pathBuilds());
+    }
+
+    @Test
+    void doesNotCacheABuildThatThrows() throws Exception {
+        TrustStore store = store();
+        List<byte[]> chain = List.of(der("leaf.pem"), der("intermediate.pem"));
+
+        clock.failNext = true;
+        assertThrows(IllegalStateException.class, () -> store.validate(chain));
+        assertEquals(0, store.cachedChains());
+
+        assertTrue(store.validate(chain).valid());
+        assertEquals(1, store.cachedChains());
+    }
+
+    @Test
+    void readsTheX5cHeaderOfAJws() throws Exception {
+        String header = "{\"alg\":\"ES256\",\"x5c\":[\""
+                + Base64.getEncoder().encodeToString(der("leaf.pem")) + "\",\""
+                + Base64.getEncoder().encodeToString(der("intermediate.pem")) + "\"]}";
+        String jws = Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes(StandardCharsets.UTF_8))
+                + ".eyJpc3MiOiJodHRwczovL2lzc3Vlci5leGFtcGxlIn0.c2ln";
+
+        assertTrue(store().validate(IssuerCertificates.fromJws(jws)).valid());
+        assertTrue(IssuerCertificates.fromJws("eyJhbGciOiJFUzI1NiJ9.e30.c2ln").isEmpty());
+    }
+
+    private TrustStore store() throws Exception {
+        CertificateFactory factory = CertificateFactory.getInstance("X.509");
+        List<X509CRL> crls = new ArrayList<>();
+        for (String name : List.of("root.crl", "intermediate.crl")) {
+            try (InputStream in = resource(name)) {
+                for (CRL crl : factory.generateCRLs(in)) {
+                    crls.add((X509CRL) crl);
+                }
+            }
+        }
+        X509Certificate root;
+        try (InputStream in = resource("root.pem")) {
+            root = (X509Certificate) factory.generateCertificate(in);
+        }
+        return new TrustStore(Set.of(new TrustAnchor(root, null)), crls, 1024, Duration.ofMinutes(30), clock);
+    }
+
+    private static byte[] der(String name) throws Exception {
+        try (InputStream in = resource(name)) {
+            return CertificateFactory.getInstance("X.509").generateCertificate(in).getEncoded();
+        }
+    }
+
+    private static InputStream resource(String name) throws IOException {
+        InputStream in = TrustStoreTest.class.getResourceAsStream("/pki/" + name);
+        if (in == null) {
+            throw new IOException("Missing test resource " + name);
+        }
+        return in;
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+        // Makes the next read of the clock throw, as a failing provider would
+        volatile boolean failNext;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public long millis() {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("clock failure");
+            }
+            return now.toEpochMilli();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.UniVC.service.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessingSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ProcessingScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+    }
+
+    @Test
+    void picksLanesBySizeAndLeadingBytes() {
+        assertEquals(ProcessingLane.FAST, classify("{\"a\": 1}"));
+        assertEquals(ProcessingLane.STANDARD, classify("  {\"type\": \"VerifiableCredential\"} " + " ".repeat(200)));
+        assertEquals(ProcessingLane.STANDARD, classify("eyJhbGciOiJFUzI1NiJ9." + "A".repeat(200)));
+        assertEquals(ProcessingLane.HEAVY, classify("o2d2ZXJzaW9uYzEuMGlkb2N1bWVudHOB" + "A".repeat(200)));
+        assertEquals(ProcessingLane.HEAVY, classify("{\"a\": \"" + "x".repeat(2000) + "\"}"));
+
+        byte[] cbor = new byte[200];
+        cbor[0] = (byte) 0xa3;
+        assertEquals(ProcessingLane.HEAVY, ProcessingScheduler.classify(cbor, 100, 1000));
+    }
+
+    @Test
+    void rejectsWhenTheHeavyLaneIsFullWithoutDelayingSmallInputs() throws Exception {
+        scheduler = open(1, 1);
+        byte[] heavy = new byte[2000];
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> scheduler.run(heavy, () -> {
+            started.countDown();
+            await(release);
+            return Thread.currentThread().getName();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> scheduler.run(heavy, () -> "queued"));
+        while (registry.get("univc.processing.queued").tag("lane", "heavy").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.run(heavy, () -> "rejected"));
+        assertEquals(1.0, registry.get("univc.processing.rejected").tag("lane", "heavy").counter().count());
+
+        // Small inputs have their own threads and are unaffected
+        assertTrue(scheduler.run(new byte[10], () -> Thread.currentThread().getName()).startsWith("univc-lane-fast-"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS).startsWith("univc-lane-heavy-"));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(3, registry.get("univc.processing.duration").tag("lane", "heavy").timer().count()
+                + registry.get("univc.processing.duration").tag("lane", "fast").timer().count());
+    }
+
+    @Test
+    void propagatesFailuresFromTheLane() {
+        scheduler = open(1, 1);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> scheduler.run(new byte[10], () -> {
+                    throw new IllegalArgumentException("bad input");
+                }));
+        assertEquals("bad input", e.getMessage());
+    }
+
+    @Test
+    void refusesQueuesThatCouldHoldEveryRequestThread() {
+        ProcessingScheduler scheduler = configure(1, 180);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, scheduler::open);
+        assertTrue(e.getMessage().contains("server.tomcat.threads.max (200)"), e.getMessage());
+    }
+
+    private ProcessingScheduler open(int heavyThreads, int heavyQueueCapacity) {
+        ProcessingScheduler scheduler = configure(heavyThreads, heavyQueueCapacity);
+        scheduler.open();
+        return scheduler;
+    }
+
+    private ProcessingScheduler configure(int heavyThreads, int heavyQueueCapacity) {
+        ProcessingScheduler scheduler = new ProcessingScheduler(registry);
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "fastLaneMaxSize", DataSize.ofBytes(100));
+        ReflectionTestUtils.setField(scheduler, "heavyLaneMinSize", DataSize.ofBytes(1000));
+        ReflectionTestUtils.setField(scheduler, "fastQueueCapacity", 10);
+        ReflectionTestUtils.setField(scheduler, "fastRejection", "caller-runs");
+        ReflectionTestUtils.setField(scheduler, "standardQueueCapacity", 10);
+        ReflectionTestUtils.setField(scheduler, "standardRejection", "reject");
+        ReflectionTestUtils.setField(scheduler, "heavyThreads", heavyThreads);
+        ReflectionTestUtils.setField(scheduler, "heavyQueueCapacity", heavyQueueCapacity);
+        ReflectionTestUtils.setField(scheduler, "heavyRejection", "reject");
+        ReflectionTestUtils.setField(scheduler, "requestThreads", 200);
+        return scheduler;
+    }
+
+    private static ProcessingLane classify(String content) {
+        return ProcessingScheduler.classify(content.getBytes(StandardCharsets.UTF_8), 100, 1000);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
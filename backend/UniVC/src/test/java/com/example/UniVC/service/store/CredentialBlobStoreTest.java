@@ -0,0 +1,137 @@
+package com.example.UniVC.service.store;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CredentialBlobStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private CredentialBlobStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void storesIdenticalPayloadsOnce() throws Exception {
+        store = open(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+
+        StoredCredential a = store.put(first, "a.json", "application/json", bytes("{\"id\":1}"));
+        StoredCredential b = store.put(second, "b.json", "application/json", bytes("{\"id\":1}"));
+
+        assertEquals(a.getSha256(), b.getSha256());
+        assertEquals(a.getOffset(), b.getOffset());
+        assertEquals("b.json", store.get(second).orElseThrow().getFileName());
+        assertEquals("{\"id\":1}", text(store.get(first).orElseThrow().getContent()));
+        assertTrue(store.get(first).orElseThrow().getContent().isReadOnly());
+        assertFalse(store.get(UUID.randomUUID().toString()).isPresent());
+    }
+
+    @Test
+    void rebuildsIndexOnReopen() throws Exception {
+        store = open(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+        String fileId = UUID.randomUUID().toString();
+        store.put(fileId, null, "text/plain", bytes("eyJhbGciOiJub25lIn0.e30."));
+        store.close();
+
+        store = open(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+        StoredCredential stored = store.get(fileId).orElseThrow();
+        assertEquals("eyJhbGciOiJub25lIn0.e30.", text(stored.getContent()));
+        assertEquals("text/plain", stored.getContentType());
+        assertNull(stored.getFileName());
+        // What GET /by-hash falls back to once the result cache is gone
+        assertEquals("eyJhbGciOiJub25lIn0.e30.", text(store.getContent(stored.getSha256()).orElseThrow()));
+    }
+
+    @Test
+    void truncatesTornAppend() throws Exception {
+        store = open(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+        String kept = UUID.randomUUID().toString();
+        store.put(kept, "kept.json", null, bytes("{\"kept\":true}"));
+        StoredCredential torn = store.put(UUID.randomUUID().toString(), "torn.json", null, bytes("{\"torn\":true}"));
+        store.close();
+
+        // Corrupt the second payload; its record and everything after it are dropped
+        try (FileChannel channel = FileChannel.open(torn.getSegmentFile(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), torn.getOffset());
+        }
+
+        store = open(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+        assertTrue(store.get(kept).isPresent());
+        assertFalse(store.get(torn.getFileId()).isPresent());
+    }
+
+    @Test
+    void sizeRetentionDropsOldestAndCompactsSegments() throws Exception {
+        store = open(DataSize.ofKilobytes(4), DataSize.ofKilobytes(6));
+        String[] ids = new String[6];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            byte[] payload = new byte[1500];
+            payload[0] = (byte) i;
+            store.put(ids[i], "c" + i, null, payload);
+        }
+
+        store.compact();
+
+        assertFalse(store.get(ids[0]).isPresent());
+        assertFalse(store.get(ids[1]).isPresent());
+        for (int i = 2; i < ids.length; i++) {
+            StoredCredential stored = store.get(ids[i]).orElseThrow();
+            assertEquals((byte) i, stored.getContent().get(0));
+        }
+        store.close();
+
+        // Survivors were relocated out of the sparse segments and are found again after a restart
+        store = open(DataSize.ofKilobytes(4), DataSize.ofKilobytes(6));
+        for (int i = 2; i < ids.length; i++) {
+            assertEquals(1500, store.get(ids[i]).orElseThrow().getLength());
+        }
+    }
+
+    private CredentialBlobStore open(DataSize segmentSize, DataSize maxSize) throws Exception {
+        CredentialBlobStore opened = new CredentialBlobStore();
+        ReflectionTestUtils.setField(opened, "enabled", true);
+        ReflectionTestUtils.setField(opened, "directoryName", directory.toString());
+        ReflectionTestUtils.setField(opened, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(opened, "maxSize", maxSize);
+        ReflectionTestUtils.setField(opened, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(opened, "compactionInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(opened, "compactionThreshold", 0.5);
+        opened.open();
+        return opened;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(ByteBuffer buffer) {
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.get(copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+}
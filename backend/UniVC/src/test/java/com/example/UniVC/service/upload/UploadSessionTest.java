@@ -0,0 +1,71 @@
+package com.example.UniVC.service.upload;
+
+import com.example.UniVC.service.stream.ContentPrescan;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadSessionTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scansContiguousPrefixAndAssemblesOutOfOrderChunks() throws Exception {
+        byte[] content = "{\"type\":[\"VerifiableCredential\"],\"issuer\":\"did:example:1\"}".getBytes(StandardCharsets.UTF_8);
+        Path spool = directory.resolve("a.part");
+        UploadSession session = new UploadSession("a", "a.json", null, content.length, 16, spool);
+
+        write(session, content, 2);
+        write(session, content, 1);
+        assertEquals(0, session.contiguousBytes());
+        assertArrayEquals(new int[]{0, 3}, session.missingChunks(10));
+
+        write(session, content, 0);
+        assertEquals(48, session.contiguousBytes());
+        write(session, content, 3);
+        assertTrue(session.isComplete());
+
+        UploadSession.Completed completed = session.complete();
+        assertArrayEquals(content, completed.content());
+        assertEquals(ContentPrescan.Kind.JSON, completed.prescan().getKind());
+        assertTrue(completed.prescan().isWellFormed());
+        assertFalse(Files.exists(spool));
+    }
+
+    @Test
+    void retriesAreIdempotentButConflictsAreRejected() throws Exception {
+        byte[] content = new byte[40];
+        UploadSession session = new UploadSession("b", "b.bin", null, content.length, 16, directory.resolve("b.part"));
+
+        assertTrue(write(session, content, 1));
+        assertFalse(write(session, content, 1));
+
+        byte[] other = Arrays.copyOfRange(content, 16, 32);
+        other[0] = 1;
+        assertThrows(IllegalStateException.class, () -> session.write(1, other, sha256(other)));
+        assertThrows(IllegalStateException.class, session::complete);
+        session.close();
+    }
+
+    private static boolean write(UploadSession session, byte[] content, int index) throws Exception {
+        int from = index * session.chunkSize();
+        byte[] chunk = Arrays.copyOfRange(content, from, from + session.chunkLength(index));
+        return session.write(index, chunk, sha256(chunk));
+    }
+
+    private static byte[] sha256(byte[] data) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+}
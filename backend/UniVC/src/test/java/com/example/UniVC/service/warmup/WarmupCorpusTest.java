@@ -0,0 +1,62 @@
+package com.example.UniVC.service.warmup;
+
+import com.example.UniVC.dto.DetectionResult;
+import com.example.UniVC.dto.FileInfoResponse;
+import com.example.UniVC.service.CredentialContainerService;
+import com.example.UniVC.service.FormatDetectionService;
+import com.example.UniVC.service.analytics.TrafficAnalytics;
+import com.example.UniVC.service.detector.rules.DetectionRuleService;
+import com.example.UniVC.service.mdoc.MsoDigestVerifier;
+import com.example.UniVC.service.pki.TrustStoreService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WarmupCorpusTest {
+
+    @Test
+    void exercisesEveryDetectorAndContainerWithoutRecordingTraffic() throws Exception {
+        DetectionRuleService rules = new DetectionRuleService(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(rules, "location", "classpath:detection-rules.json");
+        ReflectionTestUtils.setField(rules, "reloadInterval", Duration.ZERO);
+        rules.open();
+        TrafficAnalytics analytics = new TrafficAnalytics(true, 20, 2048, 4, Duration.ofMinutes(5), 30);
+        FormatDetectionService detection = new FormatDetectionService(rules, analytics, new MsoDigestVerifier(),
+                new TrustStoreService());
+
+        CredentialContainerService containers = new CredentialContainerService(detection, 2, 256, 4,
+                Duration.ofSeconds(2));
+
+        Set<String> best = new TreeSet<>();
+        Map<String, Integer> embedded = new TreeMap<>();
+        try {
+            for (WarmupCorpus.Payload payload : WarmupCorpus.generate()) {
+                String content = new String(payload.content(), StandardCharsets.UTF_8);
+                detection.detectAllFormats(content).stream()
+                        .max(Comparator.comparingDouble(DetectionResult::getConfidence))
+                        .ifPresent(result -> best.add(result.getFormat()));
+                List<FileInfoResponse.EmbeddedCredential> nodes = containers.unpack(content, payload.content());
+                if (nodes != null) {
+                    embedded.put(payload.fileName(), nodes.size());
+                }
+            }
+        } finally {
+            containers.shutdown();
+        }
+        assertEquals(Set.of("CBOR", "Generic-JSON", "ISO-mDL", "SD-JWT", "W3C-VC"), best);
+        assertEquals(Map.of("mdoc.cbor", 1, "mdoc.cbor.b64", 1, "mdoc-multi.cbor.b64", 2, "vp-2.0.json", 3),
+                embedded);
+        assertEquals(0L, analytics.snapshot().get("total"));
+    }
+}
@@ -2,6 +2,7 @@
 
 import { useState, useRef, useEffect } from "react";
 import { apiClient } from "@/lib/api";
+import { sha256Hex } from "@/lib/hash";
 import { FileInfoResponse, FormatInfo } from "@/types/file";
 import {
   Upload,
@@ -95,9 +96,48 @@ export default function FileUploadComponent() {
     }));
   };
 
+  // Result of an earlier upload of the same bytes, or null on a miss
+  const findExistingResult = async (file: File) => {
+    try {
+      const hash = await sha256Hex(file);
+      if (!hash) return null;
+      const response = await apiClient.get<ApiResponse<FileInfoResponse>>(
+        `/api/v1/credentials/by-hash/${hash}`,
+        { validateStatus: (status) => status === 200 || status === 404 }
+      );
+      return response.status === 200 ? response.data.data : null;
+    } catch (error) {
+      // The pre-check is only a shortcut; fall back to uploading
+      console.warn("Hash pre-check failed, uploading instead:", error);
+      return null;
+    }
+  };
+
   const uploadFile = async () => {
     if (!uploadState.selectedFile) return;
 
+    setUploadState((prev) => ({
+      ...prev,
+      uploadProgress: { progress: 0, status: "processing" },
+      error: null,
+    }));
+
+    const selectedFile = uploadState.selectedFile;
+    const existing = await findExistingResult(selectedFile);
+    if (existing) {
+      // By-hash results carry no file name or type; show the file picked here
+      setUploadState((prev) => ({
+        ...prev,
+        uploadProgress: { progress: 100, status: "completed" },
+        fileInfo: {
+          ...existing,
+          fileName: selectedFile.name,
+          contentType: selectedFile.type || existing.contentType,
+        },
+      }));
+      return;
+    }
+
     const formData = new FormData();
     formData.append("file", uploadState.selectedFile);
     formData.append("description", "File uploaded via web interface");
@@ -244,10 +284,14 @@ export default function FileUploadComponent() {
               <div className="flex space-x-2">
                 <button
                   onClick={uploadFile}
-                  disabled={uploadState.uploadProgress.status === "uploading"}
+                  disabled={
+                    uploadState.uploadProgress.status === "uploading" ||
+                    uploadState.uploadProgress.status === "processing"
+                  }
                   className="bg-green-500 text-white px-4 py-2 rounded hover:bg-green-600 disabled:opacity-50"
                 >
-                  {uploadState.uploadProgress.status === "uploading"
+                  {uploadState.uploadProgress.status === "uploading" ||
+                  uploadState.uploadProgress.status === "processing"
                     ? "Processing..."
                     : "Process File"}
                 </button>
@@ -0,0 +1,11 @@
+// Lowercase hex SHA-256 of a file, or null where WebCrypto is unavailable
+// (crypto.subtle only exists in secure contexts: https or localhost)
+export async function sha256Hex(file: Blob): Promise<string | null> {
+  if (typeof crypto === "undefined" || !crypto.subtle) {
+    return null;
+  }
+  const digest = await crypto.subtle.digest("SHA-256", await file.arrayBuffer());
+  return Array.from(new Uint8Array(digest))
+    .map((b) => b.toString(16).padStart(2, "0"))
+    .join("");
+}
@@ -4,21 +4,53 @@ export interface FileStructure {
   topLevelKeys: string[];
   isValid: boolean;
   encoding: string;
+  // Deep profile, present for JSON and CBOR documents
+  maxDepth?: number;
+  nodeCount?: number;
+  largestArrays?: SizedPath[];
+  largestStrings?: SizedPath[];
+  keyFrequencies?: Record<string, number>;
+  base64Values?: number;
+  jwsValues?: number;
+  binaryValues?: number;
+}
+
+export interface SizedPath {
+  path: string;
+  size: number;
 }
 
 export interface FileInfoResponse {
   fileName: string;
-  fileId: string;
+  // Absent from by-hash results, which are not tied to one upload
+  fileId?: string;
   fileSize: number;
   contentType: string;
+  sha256?: string;
   detectedFormat: string;
   formatConfidence: number;
   structure: FileStructure;
   status: string;
   validationMessages: string[];
+  embeddedCredentials?: EmbeddedCredential[];
   processedAt: string;
 }
 
+export interface EmbeddedCredential {
+  path: string;
+  containerType: string;
+  mediaType?: string;
+  status: 'ANALYZED' | 'SKIPPED' | 'ERROR';
+  format?: string;
+  version?: string;
+  confidence: number;
+  issuer?: string;
+  credentialType?: string;
+  details?: Record<string, unknown>;
+  message?: string;
+  children?: EmbeddedCredential[];
+}
+
 export interface SupportedFormats {
   [key: string]: string;
 }